@@ -0,0 +1,153 @@
+/**
+ * The JPerseusSDR library is free software; you can redistribute 
+ * it and/or modify it under the terms of the GNU Lesser General Public 
+ * License as published by the Free Software Foundation; either version 
+ * 3.0 of the License, or (at your option) any later version.
+ * 
+ * The JPerseusSDR library is distributed in the hope that it will
+ * be useful, but WITHOUT ANY WARRANTY; without even the implied warranty 
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the Perseus SDR Library; 
+ * if not, see 'http://www.gnu.org/licenses/'.
+ * 
+ * This library is assumed to work under J2SE &gt;= 7.
+ * NOTE: It is assumed that the Perseus USB drivers are already installed on your system. The Perseus USB drivers 
+ *       are available in the distribution CD-ROM which comes with the Perseus receiver.
+ * 
+ * This library is inspired from the Microtelecom Software Defined Radio Developer Kit (SDRDK) and is subject to licensing
+ *  conditions contained in the document "SDRDK-Licensing-Agreement-v20.docx" (available under the folder "/resources")
+ *  Microtelecom SDRDK is (c) 2007-2013, Microtelecom s.r.l. - Pavia di Udine, Italy
+ *  Author : Nicolangelo PALERMO - IV3NWV
+ * 
+ * This library is also inspired from the Perseus Software Defined Radio Control Library for Linux (libperseus-sdr),
+ *  originally written by Nicolangelo PALERMO and maintained by Andrea MONTEFUSCO. This library can be found at :
+ *  - https://github.com/Microtelecom/libperseus-sdr
+ * 
+ * The JPerseus library, source code and documentation is published under the GNU Lesser General Public Licence v3
+ *  (available under the folder "/resources").
+ * 
+ * Copyright 2017, Mehdi DHAKOUANI
+ */
+package perseus.callback;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import perseus.PerseusInstance;
+import perseus.circuits.FPGA;
+import perseus.dsp.ddc.HilbertFIR;
+import perseus.dsp.ddc.HilbertTransformer;
+import perseus.dsp.maths.ComplexArray;
+
+/**
+ * Callback decoding each buffer of 24-bit I/Q samples received from a Perseus HW (narrowband FPGAs) and forwarding
+ *  the normalized samples to the registered @IQSink stages.
+ * With the wideband FPGA (real 16-bit samples), the buffers are decoded and converted into analytic I/Q samples at
+ *  half the rate by a @HilbertFIR in the same pass : the stages receive the band [0, Fs/2] centered on 0 Hz.
+ * The decoded block is allocated once and reused for every buffer. The stages may query @getSampleIndex (index of
+ *  the first sample of the current block) and @getClock (estimated time of any sample) while processing a block.
+ * 
+ * @author Mehdi DHAKOUANI
+ * @version 1.0.0
+ */
+public class DecodingCallback extends InputCallback {
+    
+    private final PerseusInstance perseus;
+    private final int bufferLength;
+    private final ComplexArray samples;
+    private final HilbertTransformer hilbert;
+    private final SampleClock clock;
+    private final List<IQSink> sinks = new CopyOnWriteArrayList<>();
+    private volatile long sampleIndex = 0;
+    
+    /**
+     * Creates a decoding callback for the given Perseus HW (its FPGA must be configured).
+     * @param perseus the Perseus HW providing the samples
+     */
+    public DecodingCallback(PerseusInstance perseus) {
+        FPGA fpga = perseus.getFpga();
+        if (fpga == null) {
+            throw new IllegalArgumentException("The Perseus HW must be configured with an FPGA.");
+        }
+        this.perseus = perseus;
+        this.bufferLength = fpga.getNbBytesPerSample() * fpga.getNbComponentsPerSample() * fpga.getNbSamplesPerFrame() * fpga.getNbFrames();
+        if (fpga == FPGA.PERSEUS_DDC_WB) {
+            this.hilbert = new HilbertFIR();
+            this.samples = new ComplexArray(fpga.getNbSamplesPerFrame() * fpga.getNbFrames() / 2 + 1);
+            this.clock = new SampleClock(fpga.getRateInSamplesPerSecond() / 2.0);
+        } else {
+            this.hilbert = null;
+            this.samples = new ComplexArray(fpga.getNbSamplesPerFrame() * fpga.getNbFrames());
+            this.clock = new SampleClock(fpga.getRateInSamplesPerSecond());
+        }
+    }
+    
+    /**
+     * Registers a stage to which every decoded block is forwarded.
+     * @param sink the stage
+     */
+    public void addSink(IQSink sink) {
+        this.sinks.add(sink);
+    }
+    
+    /**
+     * Unregisters a stage.
+     * @param sink the stage
+     */
+    public void removeSink(IQSink sink) {
+        this.sinks.remove(sink);
+    }
+    
+    @Override
+    public void run() {
+        this.perseus.startAsyncInput(this.bufferLength, this, null);
+    }
+    
+    @Override
+    public void callback(ByteBuffer buffer, int length, Object params) {
+        long now = System.nanoTime();
+        int nbSamples = (this.hilbert != null) ? this.hilbert.process(buffer, length, this.samples, 0) : IQDecoder.Decode24(buffer, length, this.samples, 0);
+        this.clock.update(this.sampleIndex + nbSamples, now);
+        for (IQSink sink : this.sinks) {
+            try {
+                sink.process(this.samples, nbSamples);
+            } catch (RuntimeException ex) {
+                Logger.getLogger(DecodingCallback.class.getName()).log(Level.WARNING, "Input stage failed for Perseus #" + this.perseus.getEeprom().getSerialNumber(), ex);
+            }
+        }
+        this.sampleIndex += nbSamples;
+    }
+    
+    @Override
+    public void quit() throws IOException {
+        this.perseus.stopAsyncInput();
+    }
+    
+    /**
+     * @return the length in bytes of the buffers received from the Perseus HW
+     */
+    public int getBufferLength() {
+        return bufferLength;
+    }
+    
+    /**
+     * @return the index in the stream of the first sample of the block being processed (or of the next block)
+     */
+    public long getSampleIndex() {
+        return sampleIndex;
+    }
+    
+    /**
+     * @return the clock mapping the sample indexes of the stream to time
+     */
+    public SampleClock getClock() {
+        return clock;
+    }
+    
+}
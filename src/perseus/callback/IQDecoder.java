@@ -0,0 +1,140 @@
+/**
+ * The JPerseusSDR library is free software; you can redistribute 
+ * it and/or modify it under the terms of the GNU Lesser General Public 
+ * License as published by the Free Software Foundation; either version 
+ * 3.0 of the License, or (at your option) any later version.
+ * 
+ * The JPerseusSDR library is distributed in the hope that it will
+ * be useful, but WITHOUT ANY WARRANTY; without even the implied warranty 
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the Perseus SDR Library; 
+ * if not, see 'http://www.gnu.org/licenses/'.
+ * 
+ * This library is assumed to work under J2SE &gt;= 7.
+ * NOTE: It is assumed that the Perseus USB drivers are already installed on your system. The Perseus USB drivers 
+ *       are available in the distribution CD-ROM which comes with the Perseus receiver.
+ * 
+ * This library is inspired from the Microtelecom Software Defined Radio Developer Kit (SDRDK) and is subject to licensing
+ *  conditions contained in the document "SDRDK-Licensing-Agreement-v20.docx" (available under the folder "/resources")
+ *  Microtelecom SDRDK is (c) 2007-2013, Microtelecom s.r.l. - Pavia di Udine, Italy
+ *  Author : Nicolangelo PALERMO - IV3NWV
+ * 
+ * This library is also inspired from the Perseus Software Defined Radio Control Library for Linux (libperseus-sdr),
+ *  originally written by Nicolangelo PALERMO and maintained by Andrea MONTEFUSCO. This library can be found at :
+ *  - https://github.com/Microtelecom/libperseus-sdr
+ * 
+ * The JPerseus library, source code and documentation is published under the GNU Lesser General Public Licence v3
+ *  (available under the folder "/resources").
+ * 
+ * Copyright 2017, Mehdi DHAKOUANI
+ */
+package perseus.callback;
+
+import java.nio.ByteBuffer;
+import perseus.dsp.maths.ComplexArray;
+
+/**
+ * Helper class decoding the raw sample buffers provided by the Perseus HW.
+ *  - Narrowband FPGAs provide I/Q samples as 2 components of 24 bits (3 bytes, little endian) : I then Q (6 bytes per sample).
+ *  - The wideband FPGA provides real samples of 16 bits (2 bytes, little endian).
+ * Decoded samples are normalized to full scale (±1.0) and written into caller-supplied arrays (no allocation).
+ * 
+ * @author Mehdi DHAKOUANI
+ * @version 1.0.0
+ */
+public class IQDecoder {
+    
+    /** Scale factor normalizing a 24-bit component left-aligned in a 32-bit integer to full scale */
+    public static final double SCALE_24 = 1.0 / 2147483648.0;
+    
+    /** Scale factor normalizing a 16-bit sample to full scale */
+    public static final double SCALE_16 = 1.0 / 32768.0;
+    
+    private IQDecoder() {
+    }
+    
+    /**
+     * Decodes a buffer of 24-bit I/Q samples.
+     * @param buffer the raw buffer (read with absolute indexes from 0, its position is left unchanged)
+     * @param length the number of bytes to decode (6 bytes per sample)
+     * @param dst the complex array receiving the normalized samples
+     * @param offset the index of the first sample written in 'dst'
+     * @return the number of samples decoded
+     */
+    public static int Decode24(ByteBuffer buffer, int length, ComplexArray dst, int offset) {
+        int nbSamples = length / 6;
+        if (dst.getLength() - offset < nbSamples) {
+            throw new IllegalArgumentException("The destination array is too small : " + nbSamples + " samples to decode.");
+        }
+        double[] re = dst.getRe();
+        double[] im = dst.getIm();
+        for (int n = 0, b = 0 ; n < nbSamples ; n++, b += 6) {
+            re[offset+n] = Component24(buffer, b) * SCALE_24;
+            im[offset+n] = Component24(buffer, b+3) * SCALE_24;
+        }
+        return nbSamples;
+    }
+    
+    /**
+     * Decodes a buffer of 24-bit I/Q samples into interleaved integers (I0, Q0, I1, Q1...), each component being
+     *  left-aligned in a 32-bit integer.
+     * @param buffer the raw buffer (read with absolute indexes from 0, its position is left unchanged)
+     * @param length the number of bytes to decode (6 bytes per sample)
+     * @param iq the array receiving the interleaved components
+     * @param offset the index of the first component written in 'iq'
+     * @return the number of samples decoded
+     */
+    public static int Decode24(ByteBuffer buffer, int length, int[] iq, int offset) {
+        int nbSamples = length / 6;
+        if (iq.length - offset < 2 * nbSamples) {
+            throw new IllegalArgumentException("The destination array is too small : " + nbSamples + " samples to decode.");
+        }
+        for (int n = 0, b = 0 ; n < 2 * nbSamples ; n++, b += 3) {
+            iq[offset+n] = Component24(buffer, b);
+        }
+        return nbSamples;
+    }
+    
+    /**
+     * Decodes a buffer of 16-bit real samples (wideband FPGA).
+     * @param buffer the raw buffer (read with absolute indexes from 0, its position is left unchanged)
+     * @param length the number of bytes to decode (2 bytes per sample)
+     * @param dst the array receiving the normalized samples
+     * @param offset the index of the first sample written in 'dst'
+     * @return the number of samples decoded
+     */
+    public static int Decode16(ByteBuffer buffer, int length, double[] dst, int offset) {
+        int nbSamples = length / 2;
+        if (dst.length - offset < nbSamples) {
+            throw new IllegalArgumentException("The destination array is too small : " + nbSamples + " samples to decode.");
+        }
+        for (int n = 0, b = 0 ; n < nbSamples ; n++, b += 2) {
+            dst[offset+n] = Component16(buffer, b) * SCALE_16;
+        }
+        return nbSamples;
+    }
+    
+    /**
+     * Reads a 24-bit little endian component.
+     * @param buffer the raw buffer
+     * @param index the index of the first byte of the component
+     * @return the component, left-aligned in a 32-bit integer
+     */
+    public static int Component24(ByteBuffer buffer, int index) {
+        return (buffer.get(index) & 0x00FF) << 8 | (buffer.get(index+1) & 0x00FF) << 16 | buffer.get(index+2) << 24;
+    }
+    
+    /**
+     * Reads a 16-bit little endian sample.
+     * @param buffer the raw buffer
+     * @param index the index of the first byte of the sample
+     * @return the sample
+     */
+    public static short Component16(ByteBuffer buffer, int index) {
+        return (short) ((buffer.get(index) & 0x00FF) | buffer.get(index+1) << 8);
+    }
+    
+}
@@ -0,0 +1,302 @@
+/**
+ * The JPerseusSDR library is free software; you can redistribute 
+ * it and/or modify it under the terms of the GNU Lesser General Public 
+ * License as published by the Free Software Foundation; either version 
+ * 3.0 of the License, or (at your option) any later version.
+ * 
+ * The JPerseusSDR library is distributed in the hope that it will
+ * be useful, but WITHOUT ANY WARRANTY; without even the implied warranty 
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the Perseus SDR Library; 
+ * if not, see 'http://www.gnu.org/licenses/'.
+ * 
+ * This library is assumed to work under J2SE &gt;= 7.
+ * NOTE: It is assumed that the Perseus USB drivers are already installed on your system. The Perseus USB drivers 
+ *       are available in the distribution CD-ROM which comes with the Perseus receiver.
+ * 
+ * This library is inspired from the Microtelecom Software Defined Radio Developer Kit (SDRDK) and is subject to licensing
+ *  conditions contained in the document "SDRDK-Licensing-Agreement-v20.docx" (available under the folder "/resources")
+ *  Microtelecom SDRDK is (c) 2007-2013, Microtelecom s.r.l. - Pavia di Udine, Italy
+ *  Author : Nicolangelo PALERMO - IV3NWV
+ * 
+ * This library is also inspired from the Perseus Software Defined Radio Control Library for Linux (libperseus-sdr),
+ *  originally written by Nicolangelo PALERMO and maintained by Andrea MONTEFUSCO. This library can be found at :
+ *  - https://github.com/Microtelecom/libperseus-sdr
+ * 
+ * The JPerseus library, source code and documentation is published under the GNU Lesser General Public Licence v3
+ *  (available under the folder "/resources").
+ * 
+ * Copyright 2017, Mehdi DHAKOUANI
+ */
+package perseus.callback;
+
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Clock mapping the sample indexes of a stream to time, tracking the actual sample rate of the receiver.
+ * The time at which each buffer is delivered is a noisy observation of the time of its last sample : USB transfers
+ *  and thread scheduling add a jitter of up to a few milliseconds. The clock fits a straight line (time against
+ *  sample index) through these observations by exponentially weighted least squares :
+ *  - the slope of the line is the actual sample period ; its ratio with the nominal period gives the drift of the
+ *      clock of the receiver against the clock of the computer ;
+ *  - observations are forgotten with a time constant of 'timeConstant' seconds, so that slow drifts (eg: thermal)
+ *      are followed, while the jitter is averaged over thousands of buffers ;
+ *  - the weighted sums are re-centered on the last observation at each update, which keeps them accurate over
+ *      arbitrarily long streams ;
+ *  - an observation further than @RESYNC_THRESHOLD_NS from the line (eg: the stream was stalled) restarts the fit.
+ * Timestamps include the (constant) delivery latency of the input path. Updates cost a few tens of arithmetic
+ *  operations and allocate nothing ; queries may come from any thread.
+ *
+ * @author Mehdi DHAKOUANI
+ * @version 1.0.0
+ */
+public class SampleClock {
+
+    /** Default time constant of the fit, in seconds */
+    public static final double DEFAULT_TIME_CONSTANT = 60;
+    /** Distance to the line above which the fit restarts, in nanoseconds */
+    public static final long RESYNC_THRESHOLD_NS = 100000000L;
+    /** Span of observations below which the nominal period is used, in seconds */
+    private static final double MINIMUM_SPAN = 1;
+    /** Smoothing factor of the RMS distance to the line */
+    private static final double JITTER_SMOOTHING = 0.01;
+
+    private final double nominalRate;
+    private final double nominalPeriod;
+    private final double timeConstant;
+    private final long utcOffset;
+    // Weighted sums, relative to the last observation (x in samples, y in nanoseconds)
+    private long originIndex = 0;
+    private long originTime = 0;
+    private double sw = 0;
+    private double sx = 0;
+    private double sy = 0;
+    private double sxx = 0;
+    private double sxy = 0;
+    private long firstIndex = 0;
+    private double period;
+    private double meanSquareError = 0;
+    private long nbUpdates = 0;
+    private long nbResyncs = 0;
+
+    /**
+     * Creates a clock with the default time constant.
+     * @param nominalRate the nominal sample rate of the stream, in samples per second
+     */
+    public SampleClock(double nominalRate) {
+        this(nominalRate, DEFAULT_TIME_CONSTANT);
+    }
+
+    /**
+     * Creates a clock.
+     * @param nominalRate the nominal sample rate of the stream, in samples per second
+     * @param timeConstant the time constant of the fit, in seconds (longer = smoother, but slower to follow drifts)
+     */
+    public SampleClock(double nominalRate, double timeConstant) {
+        if (nominalRate <= 0 || !(timeConstant >= MINIMUM_SPAN)) {
+            throw new IllegalArgumentException("The nominal rate must be positive and the time constant must be at least " + MINIMUM_SPAN + " s.");
+        }
+        this.nominalRate = nominalRate;
+        this.nominalPeriod = 1.0E9 / nominalRate;
+        this.timeConstant = timeConstant;
+        this.period = this.nominalPeriod;
+        this.utcOffset = System.currentTimeMillis() * 1000000L - System.nanoTime();
+    }
+
+    /**
+     * Feeds the clock with the delivery time of a buffer.
+     * @param sampleIndex the index of the sample following the last sample of the buffer (number of samples delivered)
+     * @param nanoTime the time at which the buffer was delivered (@System.nanoTime)
+     */
+    public synchronized void update(long sampleIndex, long nanoTime) {
+        if (this.nbUpdates > 0) {
+            if (sampleIndex <= this.originIndex) {
+                return;
+            }
+            double error = nanoTime - this.estimate(sampleIndex);
+            if (Math.abs(error) > RESYNC_THRESHOLD_NS) {
+                this.nbResyncs++;
+                this.nbUpdates = 0;
+            } else {
+                this.meanSquareError += JITTER_SMOOTHING * (error * error - this.meanSquareError);
+            }
+        }
+        if (this.nbUpdates == 0) {
+            this.firstIndex = sampleIndex;
+            this.originIndex = sampleIndex;
+            this.originTime = nanoTime;
+            this.sw = 1;
+            this.sx = 0;
+            this.sy = 0;
+            this.sxx = 0;
+            this.sxy = 0;
+            this.period = this.nominalPeriod;
+            this.meanSquareError = 0;
+            this.nbUpdates = 1;
+            return;
+        }
+        // Forget, then move the origin to the new observation
+        double dx = sampleIndex - this.originIndex;
+        double dy = nanoTime - this.originTime;
+        double decay = Math.exp(-dx / this.nominalRate / this.timeConstant);
+        double w = this.sw * decay;
+        double x = this.sx * decay;
+        double y = this.sy * decay;
+        double xx = this.sxx * decay;
+        double xy = this.sxy * decay;
+        this.sxx = xx - 2 * dx * x + dx * dx * w;
+        this.sxy = xy - dx * y - dy * x + dx * dy * w;
+        this.sx = x - dx * w;
+        this.sy = y - dy * w;
+        this.sw = w + 1;
+        this.originIndex = sampleIndex;
+        this.originTime = nanoTime;
+        this.nbUpdates++;
+
+        double determinant = this.sw * this.sxx - this.sx * this.sx;
+        if ((sampleIndex - this.firstIndex) / this.nominalRate >= MINIMUM_SPAN && determinant > 0) {
+            this.period = (this.sw * this.sxy - this.sx * this.sy) / determinant;
+        }
+    }
+
+    /* Time of a sample on the fitted line (weighted mean point + slope) */
+    private double estimate(long sampleIndex) {
+        double mx = this.sx / this.sw;
+        double my = this.sy / this.sw;
+        return this.originTime + my + this.period * ((sampleIndex - this.originIndex) - mx);
+    }
+
+    /**
+     * @param sampleIndex the index of a sample
+     * @return the estimated time of the sample (@System.nanoTime scale), or 0 before the first update
+     */
+    public synchronized long getNanoTime(long sampleIndex) {
+        return (this.nbUpdates == 0) ? 0 : Math.round(this.estimate(sampleIndex));
+    }
+
+    /**
+     * @param sampleIndex the index of a sample
+     * @return the estimated UTC time of the sample, in nanoseconds since the epoch, or 0 before the first update
+     */
+    public synchronized long getUtcNanos(long sampleIndex) {
+        return (this.nbUpdates == 0) ? 0 : Math.round(this.estimate(sampleIndex)) + this.utcOffset;
+    }
+
+    /**
+     * @param sampleIndex the index of a sample
+     * @return the estimated UTC time of the sample, in milliseconds since the epoch, or 0 before the first update
+     */
+    public long getUtcMillis(long sampleIndex) {
+        return this.getUtcNanos(sampleIndex) / 1000000L;
+    }
+
+    /**
+     * @return the estimated actual sample rate, in samples per second
+     */
+    public synchronized double getRate() {
+        return 1.0E9 / this.period;
+    }
+
+    /**
+     * @return the estimated deviation of the actual sample rate from the nominal one, in parts per million
+     */
+    public synchronized double getDriftPpm() {
+        return (this.nominalPeriod / this.period - 1) * 1.0E6;
+    }
+
+    /**
+     * @return the RMS distance between the delivery times and the fitted line, in nanoseconds
+     */
+    public synchronized double getJitter() {
+        return Math.sqrt(this.meanSquareError);
+    }
+
+    /**
+     * @return the nominal sample rate of the stream, in samples per second
+     */
+    public double getNominalRate() {
+        return nominalRate;
+    }
+
+    /**
+     * @return the time constant of the fit, in seconds
+     */
+    public double getTimeConstant() {
+        return timeConstant;
+    }
+
+    /**
+     * @return the number of updates since the fit (re)started
+     */
+    public synchronized long getNbUpdates() {
+        return nbUpdates;
+    }
+
+    /**
+     * @return the number of times the fit restarted after a large error
+     */
+    public synchronized long getNbResyncs() {
+        return nbResyncs;
+    }
+
+    /**
+     * Restarts the fit (the next update sets the origin).
+     */
+    public synchronized void reset() {
+        this.nbUpdates = 0;
+        this.nbResyncs = 0;
+        this.period = this.nominalPeriod;
+        this.meanSquareError = 0;
+    }
+
+    /**
+     * Simulates a receiver whose clock runs 23 ppm fast, delivering 16384-sample buffers with a millisecond jitter
+     *  (and occasional late buffers), and prints the estimated drift and jitter over five minutes.
+     * @param args unused
+     */
+    public static void main(String[] args) {
+        double nominalRate = 2.0E6;
+        double trueDriftPpm = 23;
+        double actualRate = nominalRate * (1 + trueDriftPpm * 1.0E-6);
+        int bufferSize = 16384;
+        double latency = 2.0E6;
+        double meanJitter = 0.5E6 + 5.0E6 / 500;
+        Random random = new Random(5);
+        SampleClock clock = new SampleClock(nominalRate);
+        long start = 1000000000L;
+        long index = 0;
+        double sumJitter = 0;
+        double sumSquareJitter = 0;
+        double maximumTimeError = 0;
+        int nbBuffers = 0;
+        int nextReport = 30;
+        while (index < 300 * nominalRate) {
+            index += bufferSize;
+            double exact = start + index / actualRate * 1.0E9 + latency;
+            // Up to 1 ms of scheduling jitter, and one buffer in 500 held back by 5 ms
+            double jitter = random.nextDouble() * 1.0E6 + ((random.nextInt(500) == 0) ? 5.0E6 : 0);
+            clock.update(index, Math.round(exact + jitter));
+            sumJitter += jitter;
+            sumSquareJitter += jitter * jitter;
+            nbBuffers++;
+            double seconds = index / actualRate;
+            if (seconds >= 10) {
+                // The mean delivery delay is part of the timestamps
+                maximumTimeError = Math.max(maximumTimeError, Math.abs(clock.getNanoTime(index) - (exact + meanJitter)));
+            }
+            if (seconds >= nextReport) {
+                System.out.println(String.format(Locale.ROOT, "t = %3.0f s : drift %7.3f ppm (true %.1f ppm), jitter %6.3f ms",
+                        seconds, clock.getDriftPpm(), trueDriftPpm, clock.getJitter() / 1.0E6));
+                nextReport += 30;
+            }
+        }
+        double mean = sumJitter / nbBuffers;
+        System.out.println(String.format(Locale.ROOT, "%d buffers, %d resyncs, rate %.3f S/s (true %.3f S/s), true jitter %.3f ms RMS, timestamp error after 10 s < %.3f ms",
+                nbBuffers, clock.getNbResyncs(), clock.getRate(), actualRate, Math.sqrt(sumSquareJitter / nbBuffers - mean * mean) / 1.0E6, maximumTimeError / 1.0E6));
+    }
+
+}
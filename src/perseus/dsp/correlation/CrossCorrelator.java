@@ -0,0 +1,477 @@
+/**
+ * The JPerseusSDR library is free software; you can redistribute 
+ * it and/or modify it under the terms of the GNU Lesser General Public 
+ * License as published by the Free Software Foundation; either version 
+ * 3.0 of the License, or (at your option) any later version.
+ * 
+ * The JPerseusSDR library is distributed in the hope that it will
+ * be useful, but WITHOUT ANY WARRANTY; without even the implied warranty 
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the Perseus SDR Library; 
+ * if not, see 'http://www.gnu.org/licenses/'.
+ * 
+ * This library is assumed to work under J2SE &gt;= 7.
+ * NOTE: It is assumed that the Perseus USB drivers are already installed on your system. The Perseus USB drivers 
+ *       are available in the distribution CD-ROM which comes with the Perseus receiver.
+ * 
+ * This library is inspired from the Microtelecom Software Defined Radio Developer Kit (SDRDK) and is subject to licensing
+ *  conditions contained in the document "SDRDK-Licensing-Agreement-v20.docx" (available under the folder "/resources")
+ *  Microtelecom SDRDK is (c) 2007-2013, Microtelecom s.r.l. - Pavia di Udine, Italy
+ *  Author : Nicolangelo PALERMO - IV3NWV
+ * 
+ * This library is also inspired from the Perseus Software Defined Radio Control Library for Linux (libperseus-sdr),
+ *  originally written by Nicolangelo PALERMO and maintained by Andrea MONTEFUSCO. This library can be found at :
+ *  - https://github.com/Microtelecom/libperseus-sdr
+ * 
+ * The JPerseus library, source code and documentation is published under the GNU Lesser General Public Licence v3
+ *  (available under the folder "/resources").
+ * 
+ * Copyright 2017, Mehdi DHAKOUANI
+ */
+package perseus.dsp.correlation;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import perseus.dsp.fft.FastFFT;
+import perseus.dsp.maths.ComplexArray;
+import perseus.utils.XTools;
+
+/**
+ * Cross-correlator estimating the time difference of arrival (TDOA) of a signal received by two Perseus HW, from
+ *  two streams of decoded I/Q samples aligned by the caller (same sample rate, same index for the same instant).
+ *  - The first stream is cut into frames of 'frameLength' samples. The range of lags is divided into lag windows of
+ *      'frameLength' lags ; for each window, the frame (zero-padded) is correlated with the matching slice of the
+ *      second stream by FFT (2*frameLength points), which gives all the lags of the window at once without circular
+ *      wrapping. Lags range over ±(nbWindowsPerSide + 1/2) * frameLength.
+ *  - Cross-spectra are integrated over 'nbFramesPerResult' frames, then transformed back. The peak of the magnitude
+ *      is refined to a fraction of sample by Gaussian interpolation (parabola through the logarithms of the three
+ *      highest magnitudes : about half the bias of a parabola through the magnitudes), and handed to the registered
+ *      @DelayListener objects.
+ *  - The lag windows are processed in parallel on a ForkJoin pool (by default @XTools.GetForkJoinPool), each task
+ *      handling all the frames available in the block for its windows.
+ * All buffers are allocated at creation or when a larger block is received.
+ *
+ * @author Mehdi DHAKOUANI
+ * @version 1.0.0
+ */
+public class CrossCorrelator {
+
+    /** Maximum number of frames handed to the tasks at once */
+    private static final int MAXIMUM_BATCH = 16;
+
+    private final int frameLength;
+    private final int fftSize;
+    private final int nbWindowsPerSide;
+    private final int nbWindows;
+    private final int nbFramesPerResult;
+    private final int lookBack;
+    private final int lookAhead;
+    private final FastFFT fft;
+    private final ForkJoinPool pool;
+    private final double[] spectraRe;
+    private final double[] spectraIm;
+    private final double[][] workRe;
+    private final double[][] workIm;
+    private final double[][] accumulatorRe;
+    private final double[][] accumulatorIm;
+    private final double[] magnitude;
+    private final List<DelayListener> listeners = new CopyOnWriteArrayList<>();
+    private ComplexArray bufferA;
+    private ComplexArray bufferB;
+    private int filled = 0;
+    private int position;
+    private long bufferIndex = 0;
+    private int nbFramesIntegrated = 0;
+    private double energyA = 0;
+    private double energyB = 0;
+    private double lastLag = Double.NaN;
+    private double lastCoefficient = 0;
+
+    /**
+     * Creates a cross-correlator running on the pool shared by the library.
+     * @param frameLength the number of samples of each frame, and of lags of each window (must be a power of 2)
+     * @param nbWindowsPerSide the number of lag windows on each side of the central window
+     * @param nbFramesPerResult the number of frames integrated in each result
+     */
+    public CrossCorrelator(int frameLength, int nbWindowsPerSide, int nbFramesPerResult) {
+        this(frameLength, nbWindowsPerSide, nbFramesPerResult, XTools.GetForkJoinPool());
+    }
+
+    /**
+     * Creates a cross-correlator.
+     * @param frameLength the number of samples of each frame, and of lags of each window (must be a power of 2)
+     * @param nbWindowsPerSide the number of lag windows on each side of the central window
+     * @param nbFramesPerResult the number of frames integrated in each result
+     * @param pool the pool running the lag windows
+     */
+    public CrossCorrelator(int frameLength, int nbWindowsPerSide, int nbFramesPerResult, ForkJoinPool pool) {
+        if (frameLength < 2 || Integer.bitCount(frameLength) != 1) {
+            throw new IllegalArgumentException("The frame length must be a power of 2.");
+        }
+        if (nbWindowsPerSide < 0 || nbFramesPerResult <= 0) {
+            throw new IllegalArgumentException("The number of windows per side must not be negative, and the number of frames per result must be positive.");
+        }
+        if (pool == null) {
+            throw new IllegalArgumentException("The pool must not be 'null'.");
+        }
+        this.frameLength = frameLength;
+        this.fftSize = 2 * frameLength;
+        this.nbWindowsPerSide = nbWindowsPerSide;
+        this.nbWindows = 2 * nbWindowsPerSide + 1;
+        this.nbFramesPerResult = nbFramesPerResult;
+        this.lookBack = nbWindowsPerSide * frameLength + frameLength / 2;
+        this.lookAhead = nbWindowsPerSide * frameLength + 3 * frameLength / 2;
+        this.position = this.lookBack;
+        this.fft = FastFFT.GetInstance(this.fftSize);
+        this.pool = pool;
+        this.spectraRe = new double[MAXIMUM_BATCH * this.fftSize];
+        this.spectraIm = new double[MAXIMUM_BATCH * this.fftSize];
+        this.workRe = new double[this.nbWindows][this.fftSize];
+        this.workIm = new double[this.nbWindows][this.fftSize];
+        this.accumulatorRe = new double[this.nbWindows][this.fftSize];
+        this.accumulatorIm = new double[this.nbWindows][this.fftSize];
+        this.magnitude = new double[this.nbWindows * frameLength + 1];
+        this.bufferA = new ComplexArray(this.lookBack + this.lookAhead + this.fftSize);
+        this.bufferB = new ComplexArray(this.lookBack + this.lookAhead + this.fftSize);
+    }
+
+    /**
+     * Registers a listener receiving the time differences.
+     * @param listener the listener
+     */
+    public void addListener(DelayListener listener) {
+        this.listeners.add(listener);
+    }
+
+    /**
+     * Unregisters a listener.
+     * @param listener the listener
+     */
+    public void removeListener(DelayListener listener) {
+        this.listeners.remove(listener);
+    }
+
+    /**
+     * Processes aligned blocks of the two streams.
+     * @param a the samples of the first stream
+     * @param b the samples of the second stream
+     * @param length the number of samples of each block
+     */
+    public void process(ComplexArray a, ComplexArray b, int length) {
+        this.process(a.getRe(), a.getIm(), b.getRe(), b.getIm(), 0, length);
+    }
+
+    /**
+     * Processes aligned blocks of the two streams.
+     * @param reA the real parts of the samples of the first stream
+     * @param imA the imaginary parts of the samples of the first stream
+     * @param reB the real parts of the samples of the second stream
+     * @param imB the imaginary parts of the samples of the second stream
+     * @param offset the index of the first sample in all the arrays
+     * @param length the number of samples of each block
+     */
+    public synchronized void process(double[] reA, double[] imA, double[] reB, double[] imB, int offset, int length) {
+        this.append(reA, imA, reB, imB, offset, length);
+        // Clamped first : the division truncates toward zero, which would make a partial frame look ready
+        int available = this.filled - this.lookAhead - this.position;
+        int ready = (available < 0) ? 0 : available / this.frameLength + 1;
+        while (ready > 0) {
+            int nbFrames = Math.min(Math.min(ready, MAXIMUM_BATCH), this.nbFramesPerResult - this.nbFramesIntegrated);
+            this.transformFrames(nbFrames);
+            this.pool.invoke(new WindowTask(this, 0, this.nbWindows, this.position, nbFrames));
+            this.position += nbFrames * this.frameLength;
+            this.nbFramesIntegrated += nbFrames;
+            ready -= nbFrames;
+            if (this.nbFramesIntegrated == this.nbFramesPerResult) {
+                this.pool.invoke(new WindowTask(this, 0, this.nbWindows, 0, 0));
+                this.estimate();
+            }
+        }
+    }
+
+    /* Appends the blocks to the buffers, dropping the samples no longer needed */
+    private void append(double[] reA, double[] imA, double[] reB, double[] imB, int offset, int length) {
+        int drop = this.position - this.lookBack;
+        if (drop > 0) {
+            int kept = this.filled - drop;
+            System.arraycopy(this.bufferA.getRe(), drop, this.bufferA.getRe(), 0, kept);
+            System.arraycopy(this.bufferA.getIm(), drop, this.bufferA.getIm(), 0, kept);
+            System.arraycopy(this.bufferB.getRe(), drop, this.bufferB.getRe(), 0, kept);
+            System.arraycopy(this.bufferB.getIm(), drop, this.bufferB.getIm(), 0, kept);
+            this.filled = kept;
+            this.position -= drop;
+            this.bufferIndex += drop;
+        }
+        if (this.filled + length > this.bufferA.getLength()) {
+            int capacity = this.filled + length;
+            this.bufferA = new ComplexArray(capacity).copyFrom(this.bufferA, 0, 0, this.filled);
+            this.bufferB = new ComplexArray(capacity).copyFrom(this.bufferB, 0, 0, this.filled);
+        }
+        System.arraycopy(reA, offset, this.bufferA.getRe(), this.filled, length);
+        System.arraycopy(imA, offset, this.bufferA.getIm(), this.filled, length);
+        System.arraycopy(reB, offset, this.bufferB.getRe(), this.filled, length);
+        System.arraycopy(imB, offset, this.bufferB.getIm(), this.filled, length);
+        this.filled += length;
+    }
+
+    /* Zero-padded spectra of the next frames of the first stream (and energies of both streams) */
+    private void transformFrames(int nbFrames) {
+        double[] ar = this.bufferA.getRe();
+        double[] ai = this.bufferA.getIm();
+        double[] br = this.bufferB.getRe();
+        double[] bi = this.bufferB.getIm();
+        for (int f = 0 ; f < nbFrames ; f++) {
+            int src = this.position + f * this.frameLength;
+            int dst = f * this.fftSize;
+            System.arraycopy(ar, src, this.spectraRe, dst, this.frameLength);
+            System.arraycopy(ai, src, this.spectraIm, dst, this.frameLength);
+            for (int i = this.frameLength ; i < this.fftSize ; i++) {
+                this.spectraRe[dst + i] = 0;
+                this.spectraIm[dst + i] = 0;
+            }
+            for (int i = src ; i < src + this.frameLength ; i++) {
+                this.energyA += ar[i] * ar[i] + ai[i] * ai[i];
+                this.energyB += br[i] * br[i] + bi[i] * bi[i];
+            }
+            this.fft.forward(this.spectraRe, this.spectraIm, dst);
+        }
+    }
+
+    /* Accumulates conj(A).B for the frames starting at 'first' (buffer index), in the given lag window */
+    private void correlate(int window, int first, int nbFrames) {
+        double[] wr = this.workRe[window];
+        double[] wi = this.workIm[window];
+        double[] xr = this.accumulatorRe[window];
+        double[] xi = this.accumulatorIm[window];
+        int shift = (window - this.nbWindowsPerSide) * this.frameLength - this.frameLength / 2;
+        for (int f = 0 ; f < nbFrames ; f++) {
+            int src = first + f * this.frameLength + shift;
+            System.arraycopy(this.bufferB.getRe(), src, wr, 0, this.fftSize);
+            System.arraycopy(this.bufferB.getIm(), src, wi, 0, this.fftSize);
+            this.fft.forward(wr, wi);
+            int base = f * this.fftSize;
+            for (int k = 0 ; k < this.fftSize ; k++) {
+                double sr = this.spectraRe[base + k];
+                double si = this.spectraIm[base + k];
+                xr[k] += sr * wr[k] + si * wi[k];
+                xi[k] += sr * wi[k] - si * wr[k];
+            }
+        }
+    }
+
+    /* Transforms the integrated cross-spectrum of a lag window back into correlations, and clears it */
+    private void inverse(int window) {
+        double[] wr = this.workRe[window];
+        double[] wi = this.workIm[window];
+        System.arraycopy(this.accumulatorRe[window], 0, wr, 0, this.fftSize);
+        System.arraycopy(this.accumulatorIm[window], 0, wi, 0, this.fftSize);
+        Arrays.fill(this.accumulatorRe[window], 0);
+        Arrays.fill(this.accumulatorIm[window], 0);
+        this.fft.inverse(wr, wi);
+        // Lags [(window - nbWindowsPerSide - 1/2) * frameLength, +frameLength] are the first frameLength+1 points ; the
+        //  last point is shared with the next window, so only the last window writes it
+        int base = window * this.frameLength;
+        int end = (window == this.nbWindows - 1) ? this.frameLength : this.frameLength - 1;
+        for (int m = 0 ; m <= end ; m++) {
+            this.magnitude[base + m] = Math.sqrt(wr[m] * wr[m] + wi[m] * wi[m]);
+        }
+    }
+
+    /* Finds the correlation peak, interpolates it and notifies the listeners */
+    private void estimate() {
+        int best = 0;
+        for (int i = 1 ; i < this.magnitude.length ; i++) {
+            if (this.magnitude[i] > this.magnitude[best]) {
+                best = i;
+            }
+        }
+        // Gaussian interpolation of the peak
+        double delta = 0;
+        if (best > 0 && best < this.magnitude.length - 1) {
+            double left = Math.log(Math.max(this.magnitude[best - 1], Double.MIN_NORMAL));
+            double center = Math.log(this.magnitude[best]);
+            double right = Math.log(Math.max(this.magnitude[best + 1], Double.MIN_NORMAL));
+            double denominator = left - 2 * center + right;
+            if (denominator < 0) {
+                delta = 0.5 * (left - right) / denominator;
+            }
+        }
+        double norm = Math.sqrt(this.energyA * this.energyB);
+        this.lastLag = best - this.lookBack + delta;
+        this.lastCoefficient = (norm > 0) ? Math.min(1, this.magnitude[best] / norm) : 0;
+        long sampleIndex = this.bufferIndex + this.position;
+        this.nbFramesIntegrated = 0;
+        this.energyA = 0;
+        this.energyB = 0;
+        for (DelayListener listener : this.listeners) {
+            listener.delay(this.lastLag, this.lastCoefficient, sampleIndex);
+        }
+    }
+
+    /**
+     * @param dst the array receiving the magnitude of the correlation for each lag of the last result, from the lowest
+     *  lag (-getMaximumLag()) to the highest (+getMaximumLag())
+     * @return the array
+     */
+    public synchronized double[] getMagnitude(double[] dst) {
+        System.arraycopy(this.magnitude, 0, dst, 0, this.magnitude.length);
+        return dst;
+    }
+
+    /**
+     * @return the delay estimated by the last result, in samples (NaN before the first result)
+     */
+    public synchronized double getLag() {
+        return lastLag;
+    }
+
+    /**
+     * @return the normalized magnitude of the correlation peak of the last result
+     */
+    public synchronized double getCoefficient() {
+        return lastCoefficient;
+    }
+
+    /**
+     * @return the largest lag covered, in samples (in both directions)
+     */
+    public int getMaximumLag() {
+        return this.lookBack;
+    }
+
+    /**
+     * @return the number of samples of each frame
+     */
+    public int getFrameLength() {
+        return frameLength;
+    }
+
+    /**
+     * @return the number of lag windows
+     */
+    public int getNbWindows() {
+        return nbWindows;
+    }
+
+    /**
+     * @return the number of frames integrated in each result
+     */
+    public int getNbFramesPerResult() {
+        return nbFramesPerResult;
+    }
+
+    /* Splits the range of lag windows in halves ; nbFrames = 0 means transforming the results back */
+    private static class WindowTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final CrossCorrelator correlator;
+        private final int first, last, start, nbFrames;
+
+        WindowTask(CrossCorrelator correlator, int first, int last, int start, int nbFrames) {
+            this.correlator = correlator;
+            this.first = first;
+            this.last = last;
+            this.start = start;
+            this.nbFrames = nbFrames;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.last - this.first == 1) {
+                if (this.nbFrames > 0) {
+                    this.correlator.correlate(this.first, this.start, this.nbFrames);
+                } else {
+                    this.correlator.inverse(this.first);
+                }
+            } else {
+                int middle = (this.first + this.last) >>> 1;
+                invokeAll(new WindowTask(this.correlator, this.first, middle, this.start, this.nbFrames),
+                          new WindowTask(this.correlator, middle, this.last, this.start, this.nbFrames));
+            }
+        }
+
+    }
+
+    /**
+     * Estimates the delay between two noisy copies of a wideband signal (second copy delayed by a fractional number of
+     *  samples), and measures the throughput.
+     * @param args unused
+     */
+    public static void main(String[] args) {
+        int nbTones = 64;
+        double trueLag = 1337.37;
+        Random random = new Random(7);
+        double[] frequencies = new double[nbTones];
+        double[] phases = new double[nbTones];
+        for (int t = 0 ; t < nbTones ; t++) {
+            frequencies[t] = 2 * Math.PI * (0.8 * random.nextDouble() - 0.4);
+            phases[t] = 2 * Math.PI * random.nextDouble();
+        }
+        int blockSize = 16384;
+        int nbBlocks = 64;
+        double[][] reA = new double[nbBlocks][blockSize];
+        double[][] imA = new double[nbBlocks][blockSize];
+        double[][] reB = new double[nbBlocks][blockSize];
+        double[][] imB = new double[nbBlocks][blockSize];
+        for (int n = 0 ; n < nbBlocks ; n++) {
+            for (int i = 0 ; i < blockSize ; i++) {
+                long k = (long) n * blockSize + i;
+                for (int t = 0 ; t < nbTones ; t++) {
+                    reA[n][i] += Math.cos(frequencies[t] * k + phases[t]);
+                    imA[n][i] += Math.sin(frequencies[t] * k + phases[t]);
+                    reB[n][i] += Math.cos(frequencies[t] * (k - trueLag) + phases[t]);
+                    imB[n][i] += Math.sin(frequencies[t] * (k - trueLag) + phases[t]);
+                }
+                reA[n][i] += 8 * random.nextGaussian();
+                imA[n][i] += 8 * random.nextGaussian();
+                reB[n][i] += 8 * random.nextGaussian();
+                imB[n][i] += 8 * random.nextGaussian();
+            }
+        }
+        for (int windows : new int[] {0, 1, 3, 7}) {
+            CrossCorrelator correlator = new CrossCorrelator(1024, windows, 64);
+            final int[] nbResults = {0};
+            correlator.addListener(new DelayListener() {
+                @Override
+                public void delay(double lag, double coefficient, long sampleIndex) {
+                    nbResults[0]++;
+                }
+            });
+            long t0 = 0;
+            for (int run = 0 ; run < 3 ; run++) {
+                t0 = System.nanoTime();
+                for (int n = 0 ; n < nbBlocks ; n++) {
+                    correlator.process(reA[n], imA[n], reB[n], imB[n], 0, blockSize);
+                }
+            }
+            double elapsed = (System.nanoTime() - t0) / 1.0E9;
+            System.out.println(String.format(Locale.ROOT, "±%5d lags (%2d windows) : lag %9.3f (true %.2f), coefficient %.3f, %6.1f MS/s per stream",
+                    correlator.getMaximumLag(), correlator.getNbWindows(), correlator.getLag(), windows == 0 ? Double.NaN : trueLag,
+                    correlator.getCoefficient(), (double) nbBlocks * blockSize / elapsed / 1.0E6));
+        }
+        // Same signal in blocks shorter than a frame (as delivered after a DDC)
+        for (int smallSize : new int[] {1000, 700}) {
+            CrossCorrelator correlator = new CrossCorrelator(1024, 1, 16);
+            int start = 0;
+            while (start < nbBlocks * blockSize) {
+                int n = start / blockSize;
+                int i = start % blockSize;
+                int length = Math.min(smallSize, blockSize - i);
+                correlator.process(reA[n], imA[n], reB[n], imB[n], i, length);
+                start += length;
+            }
+            System.out.println(String.format(Locale.ROOT, "±%5d lags, %4d-sample blocks : lag %9.3f (true %.2f), coefficient %.3f",
+                    correlator.getMaximumLag(), smallSize, correlator.getLag(), trueLag, correlator.getCoefficient()));
+        }
+    }
+
+}
@@ -0,0 +1,141 @@
+/**
+ * The JPerseusSDR library is free software; you can redistribute 
+ * it and/or modify it under the terms of the GNU Lesser General Public 
+ * License as published by the Free Software Foundation; either version 
+ * 3.0 of the License, or (at your option) any later version.
+ * 
+ * The JPerseusSDR library is distributed in the hope that it will
+ * be useful, but WITHOUT ANY WARRANTY; without even the implied warranty 
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the Perseus SDR Library; 
+ * if not, see 'http://www.gnu.org/licenses/'.
+ * 
+ * This library is assumed to work under J2SE &gt;= 7.
+ * NOTE: It is assumed that the Perseus USB drivers are already installed on your system. The Perseus USB drivers 
+ *       are available in the distribution CD-ROM which comes with the Perseus receiver.
+ * 
+ * This library is inspired from the Microtelecom Software Defined Radio Developer Kit (SDRDK) and is subject to licensing
+ *  conditions contained in the document "SDRDK-Licensing-Agreement-v20.docx" (available under the folder "/resources")
+ *  Microtelecom SDRDK is (c) 2007-2013, Microtelecom s.r.l. - Pavia di Udine, Italy
+ *  Author : Nicolangelo PALERMO - IV3NWV
+ * 
+ * This library is also inspired from the Perseus Software Defined Radio Control Library for Linux (libperseus-sdr),
+ *  originally written by Nicolangelo PALERMO and maintained by Andrea MONTEFUSCO. This library can be found at :
+ *  - https://github.com/Microtelecom/libperseus-sdr
+ * 
+ * The JPerseus library, source code and documentation is published under the GNU Lesser General Public Licence v3
+ *  (available under the folder "/resources").
+ * 
+ * Copyright 2017, Mehdi DHAKOUANI
+ */
+package perseus.dsp.ddc;
+
+import java.nio.ByteBuffer;
+import perseus.dsp.filter.OverlapSaveFilter;
+
+/**
+ * Hilbert transformer computed in the frequency domain : the analytic filter (delayed impulse + j.Hilbert filter) is
+ *  applied by an @OverlapSaveFilter, then one output out of two is kept and shifted by -Fs/4. Cheaper than @HilbertFIR
+ *  for long filters (sharp transitions), at the cost of one filter block of latency.
+ * Buffers are decoded one filter block at a time into a small work array, which stays in cache between the decoding
+ *  and the transformation.
+ *
+ * @author Mehdi DHAKOUANI
+ * @version 1.0.0
+ */
+public class HilbertFFT extends HilbertTransformer {
+
+    private final OverlapSaveFilter filter;
+    private final int chunkLength;
+    private final double[] chunkRe;
+    private final double[] chunkIm;
+    private final double[] filteredRe;
+    private final double[] filteredIm;
+    private int phase = 0;
+    private double sign = 1;
+
+    /**
+     * Creates a Hilbert transformer with the default transition width and attenuation.
+     */
+    public HilbertFFT() {
+        this(DEFAULT_TRANSITION_WIDTH, DEFAULT_ATTENUATION);
+    }
+
+    /**
+     * Creates a Hilbert transformer.
+     * @param transitionWidth the transition width at both ends of the band, normalized to the input rate
+     * @param attenuationDb the stop-band attenuation (image rejection), in dB (positive)
+     */
+    public HilbertFFT(double transitionWidth, double attenuationDb) {
+        super(GetNbTaps(transitionWidth, attenuationDb));
+        double[] tapsIm = DesignTaps(this.nbTaps, attenuationDb);
+        double[] tapsRe = new double[this.nbTaps];
+        tapsRe[this.nbTaps / 2] = 1;
+        this.filter = new OverlapSaveFilter(tapsRe, tapsIm);
+        this.chunkLength = this.filter.getLatency();
+        this.chunkRe = new double[this.chunkLength];
+        this.chunkIm = new double[this.chunkLength];
+        this.filteredRe = new double[this.chunkLength];
+        this.filteredIm = new double[this.chunkLength];
+    }
+
+    @Override
+    public int process(double[] x, int offset, int length, double[] outRe, double[] outIm, int outOffset) {
+        int count = 0;
+        for (int done = 0 ; done < length ; ) {
+            int chunk = Math.min(this.chunkLength, length - done);
+            System.arraycopy(x, offset + done, this.chunkRe, 0, chunk);
+            count += this.transform(chunk, outRe, outIm, outOffset + count);
+            done += chunk;
+        }
+        return count;
+    }
+
+    @Override
+    public int process(ByteBuffer buffer, int length, double[] outRe, double[] outIm, int outOffset) {
+        int nbSamples = length / 2;
+        int count = 0;
+        for (int done = 0 ; done < nbSamples ; ) {
+            int chunk = Math.min(this.chunkLength, nbSamples - done);
+            for (int i = 0, b = 2 * done ; i < chunk ; i++, b += 2) {
+                short sample = (short) ((buffer.get(b) & 0x00FF) | buffer.get(b+1) << 8);
+                this.chunkRe[i] = sample * SCALE_16;
+            }
+            count += this.transform(chunk, outRe, outIm, outOffset + count);
+            done += chunk;
+        }
+        return count;
+    }
+
+    /* Filters the real samples of the work array, keeps the even outputs and shifts them by -Fs/4 */
+    private int transform(int chunk, double[] outRe, double[] outIm, int outOffset) {
+        this.filter.process(this.chunkRe, this.chunkIm, 0, chunk, this.filteredRe, this.filteredIm, 0);
+        int count = 0;
+        for (int i = this.phase ; i < chunk ; i += 2) {
+            outRe[outOffset + count] = this.sign * this.filteredRe[i];
+            outIm[outOffset + count] = this.sign * this.filteredIm[i];
+            this.sign = -this.sign;
+            count++;
+        }
+        this.phase = (this.phase + chunk) & 1;
+        return count;
+    }
+
+    @Override
+    public void reset() {
+        this.filter.reset();
+        this.phase = 0;
+        this.sign = 1;
+    }
+
+    /**
+     * @return the latency of the transformer, in input samples (besides the delay of the filter)
+     */
+    public int getLatency() {
+        return this.filter.getLatency();
+    }
+
+}
@@ -0,0 +1,135 @@
+/**
+ * The JPerseusSDR library is free software; you can redistribute 
+ * it and/or modify it under the terms of the GNU Lesser General Public 
+ * License as published by the Free Software Foundation; either version 
+ * 3.0 of the License, or (at your option) any later version.
+ * 
+ * The JPerseusSDR library is distributed in the hope that it will
+ * be useful, but WITHOUT ANY WARRANTY; without even the implied warranty 
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the Perseus SDR Library; 
+ * if not, see 'http://www.gnu.org/licenses/'.
+ * 
+ * This library is assumed to work under J2SE &gt;= 7.
+ * NOTE: It is assumed that the Perseus USB drivers are already installed on your system. The Perseus USB drivers 
+ *       are available in the distribution CD-ROM which comes with the Perseus receiver.
+ * 
+ * This library is inspired from the Microtelecom Software Defined Radio Developer Kit (SDRDK) and is subject to licensing
+ *  conditions contained in the document "SDRDK-Licensing-Agreement-v20.docx" (available under the folder "/resources")
+ *  Microtelecom SDRDK is (c) 2007-2013, Microtelecom s.r.l. - Pavia di Udine, Italy
+ *  Author : Nicolangelo PALERMO - IV3NWV
+ * 
+ * This library is also inspired from the Perseus Software Defined Radio Control Library for Linux (libperseus-sdr),
+ *  originally written by Nicolangelo PALERMO and maintained by Andrea MONTEFUSCO. This library can be found at :
+ *  - https://github.com/Microtelecom/libperseus-sdr
+ * 
+ * The JPerseus library, source code and documentation is published under the GNU Lesser General Public Licence v3
+ *  (available under the folder "/resources").
+ * 
+ * Copyright 2017, Mehdi DHAKOUANI
+ */
+package perseus.dsp.ddc;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Hilbert transformer computed in the time domain. Only the kept outputs are computed, and the filter being
+ *  antisymmetric with every other coefficient null, each output costs (nbTaps+1)/4 multiplications : the in-phase
+ *  component is the delayed center sample, the quadrature component sums h[d].(x[c-d] - x[c+d]) over odd d.
+ * Decoded 16-bit samples go straight into the delay line (no intermediate buffer).
+ *
+ * @author Mehdi DHAKOUANI
+ * @version 1.0.0
+ */
+public class HilbertFIR extends HilbertTransformer {
+
+    private final double[] coefficients;
+    private final double[] line;
+    private final int half;
+    private int position = 0;
+    private int phase = 0;
+    private double sign = 1;
+
+    /**
+     * Creates a Hilbert transformer with the default transition width and attenuation.
+     */
+    public HilbertFIR() {
+        this(DEFAULT_TRANSITION_WIDTH, DEFAULT_ATTENUATION);
+    }
+
+    /**
+     * Creates a Hilbert transformer.
+     * @param transitionWidth the transition width at both ends of the band, normalized to the input rate
+     * @param attenuationDb the stop-band attenuation (image rejection), in dB (positive)
+     */
+    public HilbertFIR(double transitionWidth, double attenuationDb) {
+        super(GetNbTaps(transitionWidth, attenuationDb));
+        double[] taps = DesignTaps(this.nbTaps, attenuationDb);
+        this.half = this.nbTaps / 2;
+        // h[c+d] for d = 1, 3, 5... (h[c-d] = -h[c+d])
+        this.coefficients = new double[(this.nbTaps + 1) / 4];
+        for (int j = 0 ; j < this.coefficients.length ; j++) {
+            this.coefficients[j] = taps[this.half + 2 * j + 1];
+        }
+        this.line = new double[2 * this.nbTaps];
+    }
+
+    @Override
+    public int process(double[] x, int offset, int length, double[] outRe, double[] outIm, int outOffset) {
+        int count = 0;
+        for (int i = offset ; i < offset + length ; i++) {
+            count += this.push(x[i], outRe, outIm, outOffset + count);
+        }
+        return count;
+    }
+
+    @Override
+    public int process(ByteBuffer buffer, int length, double[] outRe, double[] outIm, int outOffset) {
+        int count = 0;
+        for (int i = 0 ; i + 1 < length ; i += 2) {
+            short sample = (short) ((buffer.get(i) & 0x00FF) | buffer.get(i+1) << 8);
+            count += this.push(sample * SCALE_16, outRe, outIm, outOffset + count);
+        }
+        return count;
+    }
+
+    /* Pushes a sample into the delay line and computes an output every other sample */
+    private int push(double sample, double[] outRe, double[] outIm, int index) {
+        final double[] l = this.line;
+        final int n = this.nbTaps;
+        int pos = this.position;
+        l[pos] = sample;
+        l[pos + n] = sample;
+        int written = 0;
+        if (this.phase == 0) {
+            // The last 'n' samples are line[pos+1 .. pos+n], the center one (c) is line[pos+1+half]
+            int c = pos + 1 + this.half;
+            double q = 0;
+            final double[] h = this.coefficients;
+            for (int j = 0, d = 1 ; j < h.length ; j++, d += 2) {
+                q += h[j] * (l[c - d] - l[c + d]);
+            }
+            // Shift by -Fs/4 : exp(-j.π.n/2) = ±1 on the kept (even) samples
+            outRe[index] = this.sign * l[c];
+            outIm[index] = this.sign * q;
+            this.sign = -this.sign;
+            written = 1;
+        }
+        this.phase ^= 1;
+        this.position = (pos + 1 == n) ? 0 : pos + 1;
+        return written;
+    }
+
+    @Override
+    public void reset() {
+        Arrays.fill(this.line, 0);
+        this.position = 0;
+        this.phase = 0;
+        this.sign = 1;
+    }
+
+}
@@ -0,0 +1,157 @@
+/**
+ * The JPerseusSDR library is free software; you can redistribute 
+ * it and/or modify it under the terms of the GNU Lesser General Public 
+ * License as published by the Free Software Foundation; either version 
+ * 3.0 of the License, or (at your option) any later version.
+ * 
+ * The JPerseusSDR library is distributed in the hope that it will
+ * be useful, but WITHOUT ANY WARRANTY; without even the implied warranty 
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the Perseus SDR Library; 
+ * if not, see 'http://www.gnu.org/licenses/'.
+ * 
+ * This library is assumed to work under J2SE &gt;= 7.
+ * NOTE: It is assumed that the Perseus USB drivers are already installed on your system. The Perseus USB drivers 
+ *       are available in the distribution CD-ROM which comes with the Perseus receiver.
+ * 
+ * This library is inspired from the Microtelecom Software Defined Radio Developer Kit (SDRDK) and is subject to licensing
+ *  conditions contained in the document "SDRDK-Licensing-Agreement-v20.docx" (available under the folder "/resources")
+ *  Microtelecom SDRDK is (c) 2007-2013, Microtelecom s.r.l. - Pavia di Udine, Italy
+ *  Author : Nicolangelo PALERMO - IV3NWV
+ * 
+ * This library is also inspired from the Perseus Software Defined Radio Control Library for Linux (libperseus-sdr),
+ *  originally written by Nicolangelo PALERMO and maintained by Andrea MONTEFUSCO. This library can be found at :
+ *  - https://github.com/Microtelecom/libperseus-sdr
+ * 
+ * The JPerseus library, source code and documentation is published under the GNU Lesser General Public Licence v3
+ *  (available under the folder "/resources").
+ * 
+ * Copyright 2017, Mehdi DHAKOUANI
+ */
+package perseus.dsp.ddc;
+
+import java.nio.ByteBuffer;
+import perseus.dsp.filter.KaiserFIR;
+import perseus.dsp.maths.ComplexArray;
+import perseus.dsp.window.KaiserWindow;
+
+/**
+ * Base class of the Hilbert transformers converting a real stream (eg: the 16-bit stream of @FPGA.PERSEUS_DDC_WB)
+ *  into complex baseband samples at half its rate :
+ *  - the analytic signal x + j.H(x) keeps the positive frequencies [0, Fs/2] only,
+ *  - it is shifted by -Fs/4 (multiplication by exp(-j.π.n/2) = 1, -j, -1, j...) so that the band is centered on 0 Hz,
+ *  - one sample out of two is kept (the band [-Fs/4, Fs/4] fits the output rate Fs/2).
+ * An input frequency f is therefore output at f - Fs/4. The negative frequencies are rejected by the stop-band
+ *  attenuation of the Hilbert filter (they would alias onto the output band).
+ * Little-endian 16-bit input buffers are decoded within the transformation (a single pass over the buffer).
+ *
+ * @author Mehdi DHAKOUANI
+ * @version 1.0.0
+ */
+public abstract class HilbertTransformer {
+
+    /** Default stop-band attenuation (image rejection), in dB */
+    public static final double DEFAULT_ATTENUATION = 80;
+    /** Default transition width at both ends of the band, normalized to the input rate */
+    public static final double DEFAULT_TRANSITION_WIDTH = 0.02;
+    /** Scale factor normalizing a 16-bit sample to full scale */
+    protected static final double SCALE_16 = 1.0 / 32768.0;
+
+    protected final int nbTaps;
+
+    /**
+     * @param nbTaps the number of coefficients of the Hilbert filter (4.K+3)
+     */
+    protected HilbertTransformer(int nbTaps) {
+        if (nbTaps % 4 != 3) {
+            throw new IllegalArgumentException("A Hilbert filter must have 4.K+3 coefficients.");
+        }
+        this.nbTaps = nbTaps;
+    }
+
+    /**
+     * Computes the number of coefficients (4.K+3) of a Hilbert filter meeting a specification.
+     * @param transitionWidth the transition width at both ends of the band ([0, w] and [0.5-w, 0.5] are not kept),
+     *  normalized to the input rate
+     * @param attenuationDb the stop-band attenuation, in dB (positive)
+     * @return the number of coefficients
+     */
+    public static int GetNbTaps(double transitionWidth, double attenuationDb) {
+        if (transitionWidth <= 0 || transitionWidth >= 0.25) {
+            throw new IllegalArgumentException("The transition width must be in ]0, 0.25[ (normalized to the input rate).");
+        }
+        // A Hilbert filter is a half-band filter shifted by Fs/4 : its transition band is twice as wide
+        int nbTaps = KaiserFIR.EstimateNbTaps(attenuationDb, 2 * transitionWidth);
+        while (nbTaps % 4 != 3) {
+            nbTaps++;
+        }
+        return nbTaps;
+    }
+
+    /**
+     * Designs a Hilbert filter : h[c+d] = 2/(π.d) for odd d, 0 for even d (c being the center), Kaiser windowed.
+     * @param nbTaps the number of coefficients (4.K+3)
+     * @param attenuationDb the stop-band attenuation, in dB (positive)
+     * @return the coefficients
+     */
+    public static double[] DesignTaps(int nbTaps, double attenuationDb) {
+        double[] taps = KaiserWindow.Generate(new double[nbTaps], KaiserFIR.EstimateBeta(attenuationDb));
+        int center = nbTaps / 2;
+        for (int n = 0 ; n < nbTaps ; n++) {
+            int d = n - center;
+            taps[n] *= (d % 2 == 0) ? 0 : 2 / (Math.PI * d);
+        }
+        return taps;
+    }
+
+    /**
+     * Transforms a block of real samples.
+     * @param x the real samples (±1.0 full scale)
+     * @param offset the index of the first input sample
+     * @param length the number of input samples
+     * @param outRe the array receiving the real parts of the output samples (at least length/2+1 values)
+     * @param outIm the array receiving the imaginary parts of the output samples
+     * @param outOffset the index of the first output sample
+     * @return the number of output samples written
+     */
+    public abstract int process(double[] x, int offset, int length, double[] outRe, double[] outIm, int outOffset);
+
+    /**
+     * Decodes and transforms a buffer of little-endian 16-bit real samples.
+     * @param buffer the buffer
+     * @param length the number of bytes to decode (from index 0)
+     * @param outRe the array receiving the real parts of the output samples (at least length/4+1 values)
+     * @param outIm the array receiving the imaginary parts of the output samples
+     * @param outOffset the index of the first output sample
+     * @return the number of output samples written
+     */
+    public abstract int process(ByteBuffer buffer, int length, double[] outRe, double[] outIm, int outOffset);
+
+    /**
+     * Decodes and transforms a buffer of little-endian 16-bit real samples.
+     * @param buffer the buffer
+     * @param length the number of bytes to decode (from index 0)
+     * @param output the array receiving the output samples (at least length/4+1 samples from 'outOffset')
+     * @param outOffset the index of the first output sample
+     * @return the number of output samples written
+     */
+    public int process(ByteBuffer buffer, int length, ComplexArray output, int outOffset) {
+        return this.process(buffer, length, output.getRe(), output.getIm(), outOffset);
+    }
+
+    /**
+     * Clears the state of the transformer.
+     */
+    public abstract void reset();
+
+    /**
+     * @return the number of coefficients of the Hilbert filter
+     */
+    public int getNbTaps() {
+        return nbTaps;
+    }
+
+}
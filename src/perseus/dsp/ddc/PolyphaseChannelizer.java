@@ -0,0 +1,357 @@
+/**
+ * The JPerseusSDR library is free software; you can redistribute 
+ * it and/or modify it under the terms of the GNU Lesser General Public 
+ * License as published by the Free Software Foundation; either version 
+ * 3.0 of the License, or (at your option) any later version.
+ * 
+ * The JPerseusSDR library is distributed in the hope that it will
+ * be useful, but WITHOUT ANY WARRANTY; without even the implied warranty 
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the Perseus SDR Library; 
+ * if not, see 'http://www.gnu.org/licenses/'.
+ * 
+ * This library is assumed to work under J2SE &gt;= 7.
+ * NOTE: It is assumed that the Perseus USB drivers are already installed on your system. The Perseus USB drivers 
+ *       are available in the distribution CD-ROM which comes with the Perseus receiver.
+ * 
+ * This library is inspired from the Microtelecom Software Defined Radio Developer Kit (SDRDK) and is subject to licensing
+ *  conditions contained in the document "SDRDK-Licensing-Agreement-v20.docx" (available under the folder "/resources")
+ *  Microtelecom SDRDK is (c) 2007-2013, Microtelecom s.r.l. - Pavia di Udine, Italy
+ *  Author : Nicolangelo PALERMO - IV3NWV
+ * 
+ * This library is also inspired from the Perseus Software Defined Radio Control Library for Linux (libperseus-sdr),
+ *  originally written by Nicolangelo PALERMO and maintained by Andrea MONTEFUSCO. This library can be found at :
+ *  - https://github.com/Microtelecom/libperseus-sdr
+ * 
+ * The JPerseus library, source code and documentation is published under the GNU Lesser General Public Licence v3
+ *  (available under the folder "/resources").
+ * 
+ * Copyright 2017, Mehdi DHAKOUANI
+ */
+package perseus.dsp.ddc;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import perseus.callback.IQSink;
+import perseus.dsp.fft.FastFFT;
+import perseus.dsp.filter.KaiserFIR;
+import perseus.dsp.maths.ComplexArray;
+import perseus.utils.XTools;
+
+/**
+ * Polyphase filter-bank channelizer splitting a stream of decoded I/Q samples into 'nbChannels' equally spaced
+ *  channels in one pass (eg: the whole 2 MS/s passband of @FPGA.PERSEUS_DDC_2M into 256 channels of 7812.5 Hz).
+ * Channel 'c' is centered on c*Fs/nbChannels (channels above nbChannels/2 are the negative frequencies) and is
+ *  output at Fs/nbChannels samples per second (critically sampled) or 2*Fs/nbChannels samples per second
+ *  (2x oversampled : no aliasing at the channel edges, at twice the cost).
+ * For each output time, the 'nbChannels' branches of the prototype low-pass filter (@KaiserFIR) are applied to the
+ *  input history, then one @FastFFT gives the outputs of all the channels : monitoring N channels costs one N points
+ *  FFT plus N*tapsPerChannel multiplications per output sample, instead of N independent DDCs.
+ * The output times of a block are spread over a @ForkJoinPool, then the channels are handed to their sinks in
+ *  parallel : a sink is called by one thread at a time, but not always the same one.
+ *
+ * @author Mehdi DHAKOUANI
+ * @version 1.0.0
+ */
+public class PolyphaseChannelizer implements IQSink {
+
+    private static final Logger LOG = Logger.getLogger(PolyphaseChannelizer.class.getName());
+
+    /** Default stop-band attenuation of the prototype filter, in dB */
+    public static final double DEFAULT_ATTENUATION = 80;
+    private static final int MINIMUM_OUTPUTS_PER_TASK = 32;
+    private static final int MINIMUM_CHANNELS_PER_TASK = 4;
+
+    private final int nbChannels;
+    private final int tapsPerChannel;
+    private final int nbTaps;
+    private final int decimation;
+    private final double[] prototype;
+    private final FastFFT fft;
+    private final ForkJoinPool pool;
+    private final IQSink[] sinks;
+    private final ComplexArray[] channels;
+    private ComplexArray history;
+    private ComplexArray matrix;
+    private int nbHistory;
+    private long nbOutputs = 0;
+
+    /**
+     * Creates a channelizer with the default stop-band attenuation, running on the shared @ForkJoinPool.
+     * @param nbChannels the number of channels (must be a power of 2)
+     * @param tapsPerChannel the number of coefficients of each branch of the prototype filter (eg: 8 to 16)
+     * @param oversampled true to output each channel at twice the channel spacing
+     */
+    public PolyphaseChannelizer(int nbChannels, int tapsPerChannel, boolean oversampled) {
+        this(nbChannels, tapsPerChannel, oversampled, DEFAULT_ATTENUATION, XTools.GetForkJoinPool());
+    }
+
+    /**
+     * Creates a channelizer.
+     * @param nbChannels the number of channels (must be a power of 2, at least 2)
+     * @param tapsPerChannel the number of coefficients of each branch of the prototype filter (eg: 8 to 16)
+     * @param oversampled true to output each channel at twice the channel spacing
+     * @param attenuationDb the stop-band attenuation of the prototype filter, in dB
+     * @param pool the @ForkJoinPool running the computations
+     */
+    public PolyphaseChannelizer(int nbChannels, int tapsPerChannel, boolean oversampled, double attenuationDb, ForkJoinPool pool) {
+        if (nbChannels < 2 || Integer.bitCount(nbChannels) != 1) {
+            throw new IllegalArgumentException("The number of channels must be a power of 2 (at least 2).");
+        }
+        if (tapsPerChannel <= 0) {
+            throw new IllegalArgumentException("The number of coefficients per channel must be a positive integer.");
+        }
+        this.nbChannels = nbChannels;
+        this.tapsPerChannel = tapsPerChannel;
+        this.nbTaps = nbChannels * tapsPerChannel;
+        this.decimation = oversampled ? nbChannels / 2 : nbChannels;
+        this.fft = FastFFT.GetInstance(nbChannels);
+        this.pool = pool;
+        // Cut-off at the channel edge ; the gain of N compensates the 1/N normalization of the inverse FFT
+        this.prototype = KaiserFIR.LowPass(0.5 / nbChannels, this.nbTaps, KaiserFIR.EstimateBeta(attenuationDb));
+        for (int i = 0 ; i < this.nbTaps ; i++) {
+            this.prototype[i] *= nbChannels;
+        }
+        this.sinks = new IQSink[nbChannels];
+        this.channels = new ComplexArray[nbChannels];
+        this.reset();
+    }
+
+    /**
+     * Sets the sink receiving the output samples of a channel.
+     * @param channel the index of the channel
+     * @param sink the sink ('null' to stop forwarding the channel)
+     */
+    public void setSink(int channel, IQSink sink) {
+        this.checkChannel(channel);
+        this.sinks[channel] = sink;
+    }
+
+    @Override
+    public void process(ComplexArray samples, int length) {
+        this.process(samples.getRe(), samples.getIm(), 0, length);
+    }
+
+    /**
+     * Channelizes a block of samples : the outputs of each channel are handed to its sink and remain readable with
+     *  getChannel(c) until the next block.
+     * @param re the real parts of the input samples
+     * @param im the imaginary parts of the input samples
+     * @param offset the index of the first input sample
+     * @param length the number of input samples
+     * @return the number of output samples of each channel
+     */
+    public int process(double[] re, double[] im, int offset, int length) {
+        // Append the block to the history (the last nbTaps-1 samples of the previous blocks)
+        int total = this.nbHistory + length;
+        if (this.history.getLength() < total) {
+            ComplexArray larger = new ComplexArray(total);
+            larger.copyFrom(this.history, 0, 0, this.nbHistory);
+            this.history = larger;
+        }
+        System.arraycopy(re, offset, this.history.getRe(), this.nbHistory, length);
+        System.arraycopy(im, offset, this.history.getIm(), this.nbHistory, length);
+
+        // Outputs are computed for newest samples at indexes nbTaps-1, nbTaps-1+D, ...
+        int first = this.nbTaps - 1;
+        int count = (total > first) ? (total - first - 1) / this.decimation + 1 : 0;
+        if (count > 0) {
+            if (this.matrix == null || this.matrix.getLength() < count * this.nbChannels) {
+                this.matrix = new ComplexArray(count * this.nbChannels);
+            }
+            for (int c = 0 ; c < this.nbChannels ; c++) {
+                if (this.channels[c] == null || this.channels[c].getLength() < count) {
+                    this.channels[c] = new ComplexArray(count);
+                }
+            }
+            this.pool.invoke(new OutputTask(this, 0, count));
+            this.pool.invoke(new ChannelTask(this, 0, this.nbChannels, count, this.nbOutputs));
+            this.nbOutputs += count;
+        }
+
+        // Keep the samples needed by the next outputs
+        int keepFrom = count * this.decimation;
+        this.nbHistory = total - keepFrom;
+        this.history.copyFrom(this.history, keepFrom, 0, this.nbHistory);
+        return count;
+    }
+
+    /* Applies the polyphase branches and the FFT for the outputs [from, to[ of the current block */
+    private void computeOutputs(int from, int to) {
+        final double[] h = this.prototype;
+        final double[] xr = this.history.getRe();
+        final double[] xi = this.history.getIm();
+        final double[] mr = this.matrix.getRe();
+        final double[] mi = this.matrix.getIm();
+        final int n = this.nbChannels;
+        for (int m = from ; m < to ; m++) {
+            int newest = this.nbTaps - 1 + m * this.decimation;
+            int row = m * n;
+            for (int k = 0 ; k < n ; k++) {
+                double vr = 0;
+                double vi = 0;
+                for (int p = 0, i = k, x = newest - k ; p < this.tapsPerChannel ; p++, i += n, x -= n) {
+                    vr += h[i] * xr[x];
+                    vi += h[i] * xi[x];
+                }
+                mr[row + k] = vr;
+                mi[row + k] = vi;
+            }
+            this.fft.inverse(mr, mi, row);
+        }
+    }
+
+    /* Transposes the channels [from, to[ out of the output matrix and hands them to their sinks */
+    private void deliverChannels(int from, int to, int count, long firstOutput) {
+        final double[] mr = this.matrix.getRe();
+        final double[] mi = this.matrix.getIm();
+        final int n = this.nbChannels;
+        boolean oversampled = (this.decimation != n);
+        for (int c = from ; c < to ; c++) {
+            double[] cr = this.channels[c].getRe();
+            double[] ci = this.channels[c].getIm();
+            // With a decimation of N/2, odd channels are rotated by π at each output
+            boolean alternate = oversampled && (c & 1) == 1;
+            for (int m = 0 ; m < count ; m++) {
+                double sign = (alternate && ((firstOutput + m) & 1) == 1) ? -1 : 1;
+                cr[m] = sign * mr[m * n + c];
+                ci[m] = sign * mi[m * n + c];
+            }
+            IQSink sink = this.sinks[c];
+            if (sink != null) {
+                try {
+                    sink.process(this.channels[c], count);
+                } catch (RuntimeException ex) {
+                    LOG.log(Level.SEVERE, "Sink of channel " + c + " failed to process its samples.", ex);
+                }
+            }
+        }
+    }
+
+    /**
+     * Clears the input history.
+     */
+    public final void reset() {
+        this.history = new ComplexArray(this.nbTaps - 1);
+        this.nbHistory = this.nbTaps - 1;
+        this.nbOutputs = 0;
+    }
+
+    /**
+     * @param channel the index of the channel
+     * @return the output samples of the channel for the last block processed
+     */
+    public ComplexArray getChannel(int channel) {
+        this.checkChannel(channel);
+        return this.channels[channel];
+    }
+
+    /**
+     * @param channel the index of the channel
+     * @param inputRate the sample rate of the input stream, in samples per second
+     * @return the center frequency of the channel relative to the center of the input stream, in Hz
+     */
+    public double getChannelFrequency(int channel, double inputRate) {
+        this.checkChannel(channel);
+        int c = (channel < this.nbChannels / 2) ? channel : channel - this.nbChannels;
+        return c * inputRate / this.nbChannels;
+    }
+
+    /**
+     * @param inputRate the sample rate of the input stream, in samples per second
+     * @return the sample rate of each channel, in samples per second
+     */
+    public double getOutputRate(double inputRate) {
+        return inputRate / this.decimation;
+    }
+
+    /**
+     * @return the number of channels
+     */
+    public int getNbChannels() {
+        return nbChannels;
+    }
+
+    /**
+     * @return the number of input samples per output sample of each channel
+     */
+    public int getDecimation() {
+        return decimation;
+    }
+
+    /**
+     * @return the number of coefficients of the prototype filter
+     */
+    public int getNbTaps() {
+        return nbTaps;
+    }
+
+    private void checkChannel(int channel) {
+        if (channel < 0 || channel >= this.nbChannels) {
+            throw new IllegalArgumentException("The channel must be in [0, " + (this.nbChannels - 1) + "].");
+        }
+    }
+
+    /* Splits the range of output times in halves */
+    private static class OutputTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final PolyphaseChannelizer channelizer;
+        private final int first, last;
+
+        OutputTask(PolyphaseChannelizer channelizer, int first, int last) {
+            this.channelizer = channelizer;
+            this.first = first;
+            this.last = last;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.last - this.first <= MINIMUM_OUTPUTS_PER_TASK) {
+                this.channelizer.computeOutputs(this.first, this.last);
+            } else {
+                int middle = (this.first + this.last) >>> 1;
+                invokeAll(new OutputTask(this.channelizer, this.first, middle),
+                          new OutputTask(this.channelizer, middle, this.last));
+            }
+        }
+
+    }
+
+    /* Splits the range of channels in halves */
+    private static class ChannelTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final PolyphaseChannelizer channelizer;
+        private final int first, last, count;
+        private final long firstOutput;
+
+        ChannelTask(PolyphaseChannelizer channelizer, int first, int last, int count, long firstOutput) {
+            this.channelizer = channelizer;
+            this.first = first;
+            this.last = last;
+            this.count = count;
+            this.firstOutput = firstOutput;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.last - this.first <= MINIMUM_CHANNELS_PER_TASK) {
+                this.channelizer.deliverChannels(this.first, this.last, this.count, this.firstOutput);
+            } else {
+                int middle = (this.first + this.last) >>> 1;
+                invokeAll(new ChannelTask(this.channelizer, this.first, middle, this.count, this.firstOutput),
+                          new ChannelTask(this.channelizer, middle, this.last, this.count, this.firstOutput));
+            }
+        }
+
+    }
+
+}
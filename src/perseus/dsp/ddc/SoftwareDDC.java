@@ -0,0 +1,300 @@
+/**
+ * The JPerseusSDR library is free software; you can redistribute 
+ * it and/or modify it under the terms of the GNU Lesser General Public 
+ * License as published by the Free Software Foundation; either version 
+ * 3.0 of the License, or (at your option) any later version.
+ * 
+ * The JPerseusSDR library is distributed in the hope that it will
+ * be useful, but WITHOUT ANY WARRANTY; without even the implied warranty 
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the Perseus SDR Library; 
+ * if not, see 'http://www.gnu.org/licenses/'.
+ * 
+ * This library is assumed to work under J2SE &gt;= 7.
+ * NOTE: It is assumed that the Perseus USB drivers are already installed on your system. The Perseus USB drivers 
+ *       are available in the distribution CD-ROM which comes with the Perseus receiver.
+ * 
+ * This library is inspired from the Microtelecom Software Defined Radio Developer Kit (SDRDK) and is subject to licensing
+ *  conditions contained in the document "SDRDK-Licensing-Agreement-v20.docx" (available under the folder "/resources")
+ *  Microtelecom SDRDK is (c) 2007-2013, Microtelecom s.r.l. - Pavia di Udine, Italy
+ *  Author : Nicolangelo PALERMO - IV3NWV
+ * 
+ * This library is also inspired from the Perseus Software Defined Radio Control Library for Linux (libperseus-sdr),
+ *  originally written by Nicolangelo PALERMO and maintained by Andrea MONTEFUSCO. This library can be found at :
+ *  - https://github.com/Microtelecom/libperseus-sdr
+ * 
+ * The JPerseus library, source code and documentation is published under the GNU Lesser General Public Licence v3
+ *  (available under the folder "/resources").
+ * 
+ * Copyright 2017, Mehdi DHAKOUANI
+ */
+package perseus.dsp.ddc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import perseus.callback.IQSink;
+import perseus.dsp.filter.DecimatingFIR;
+import perseus.dsp.filter.KaiserFIR;
+import perseus.dsp.maths.ComplexArray;
+import perseus.dsp.nco.BlockNCO;
+import perseus.dsp.nco.NCO;
+
+/**
+ * Software digital down-converter extracting a narrow channel from a stream of decoded I/Q samples
+ *  (eg: one of several channels inside the 2 MS/s passband of the hardware DDC).
+ *  - An NCO mixer (@BlockNCO) shifts the channel to 0 Hz. The phase of the NCO is kept from a block to the next and
+ *      across retunes, so the output stays phase-continuous (no glitch).
+ *  - A cascade of decimating FIR filters (@DecimatingFIR, designed with @KaiserFIR) low-pass filters and decimates
+ *      the mixed stream. The total decimation is split into small factors : early stages run at a high rate with
+ *      short filters (wide transition bands), the sharp filter runs last at a low rate.
+ * All buffers are allocated at creation or when a larger block is received.
+ *
+ * @author Mehdi DHAKOUANI
+ * @version 1.0.0
+ */
+public class SoftwareDDC implements IQSink {
+
+    private static final Logger LOG = Logger.getLogger(SoftwareDDC.class.getName());
+
+    /** Default stop-band attenuation of the decimation filters, in dB */
+    public static final double DEFAULT_ATTENUATION = 80;
+    /** Largest decimation factor of a single stage */
+    public static final int MAXIMUM_STAGE_FACTOR = 8;
+
+    private final double inputRate;
+    private final double bandwidth;
+    private final int decimation;
+    private final int[] stageFactors;
+    private final DecimatingFIR[] stages;
+    private final List<IQSink> sinks = new CopyOnWriteArrayList<>();
+    private final NCO nco = new BlockNCO();
+    private ComplexArray work;
+    private volatile double frequencyOffset;
+    private double appliedOffset = Double.NaN;
+
+    /**
+     * Creates a software DDC with the default stop-band attenuation.
+     * @param inputRate the sample rate of the input stream, in samples per second
+     * @param frequencyOffset the center frequency of the channel relative to the center of the input stream, in Hz
+     * @param bandwidth the (two-sided) bandwidth of the channel, in Hz
+     * @param decimation the total decimation factor (the output rate must exceed the bandwidth)
+     */
+    public SoftwareDDC(double inputRate, double frequencyOffset, double bandwidth, int decimation) {
+        this(inputRate, frequencyOffset, bandwidth, decimation, DEFAULT_ATTENUATION);
+    }
+
+    /**
+     * Creates a software DDC.
+     * @param inputRate the sample rate of the input stream, in samples per second
+     * @param frequencyOffset the center frequency of the channel relative to the center of the input stream, in Hz
+     * @param bandwidth the (two-sided) bandwidth of the channel, in Hz
+     * @param decimation the total decimation factor (the output rate must exceed the bandwidth)
+     * @param attenuationDb the stop-band attenuation of the decimation filters, in dB
+     */
+    public SoftwareDDC(double inputRate, double frequencyOffset, double bandwidth, int decimation, double attenuationDb) {
+        if (inputRate <= 0 || decimation <= 0) {
+            throw new IllegalArgumentException("The input rate and the decimation factor must be positive.");
+        }
+        if (bandwidth <= 0 || bandwidth >= inputRate / decimation) {
+            throw new IllegalArgumentException("The bandwidth must be positive and lower than the output rate (" + (inputRate / decimation) + " Hz).");
+        }
+        this.inputRate = inputRate;
+        this.bandwidth = bandwidth;
+        this.decimation = decimation;
+        this.stageFactors = PlanStages(decimation);
+        this.stages = new DecimatingFIR[this.stageFactors.length];
+        double rate = inputRate;
+        for (int s = 0 ; s < this.stages.length ; s++) {
+            double outputRate = rate / this.stageFactors[s];
+            // Pass band : the channel ; stop band : everything aliasing onto the channel once decimated
+            double pass = bandwidth / 2 / rate;
+            double stop = (outputRate - bandwidth / 2) / rate;
+            double[] taps = KaiserFIR.LowPass((pass + stop) / 2, stop - pass, attenuationDb);
+            this.stages[s] = new DecimatingFIR(taps, this.stageFactors[s]);
+            rate = outputRate;
+        }
+        this.setFrequencyOffset(frequencyOffset);
+    }
+
+    /**
+     * Splits a decimation factor into stage factors, largest first, none exceeding MAXIMUM_STAGE_FACTOR
+     *  (unless the factor has a larger prime divisor).
+     * @param decimation the total decimation factor
+     * @return the decimation factor of each stage (empty if 'decimation' is 1)
+     */
+    public static int[] PlanStages(int decimation) {
+        List<Integer> factors = new ArrayList<>();
+        int remaining = decimation;
+        while (remaining > 1) {
+            int factor = 0;
+            for (int f = Math.min(MAXIMUM_STAGE_FACTOR, remaining) ; f >= 2 && factor == 0 ; f--) {
+                if (remaining % f == 0) {
+                    factor = f;
+                }
+            }
+            if (factor == 0) {
+                // Smallest prime divisor, larger than MAXIMUM_STAGE_FACTOR
+                factor = MAXIMUM_STAGE_FACTOR + 1;
+                while (remaining % factor != 0) {
+                    factor++;
+                }
+            }
+            factors.add(factor);
+            remaining /= factor;
+        }
+        int[] result = new int[factors.size()];
+        for (int i = 0 ; i < result.length ; i++) {
+            result[i] = factors.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Registers a stage receiving the output samples.
+     * @param sink the stage
+     */
+    public void addSink(IQSink sink) {
+        this.sinks.add(sink);
+    }
+
+    /**
+     * Unregisters a stage.
+     * @param sink the stage
+     */
+    public void removeSink(IQSink sink) {
+        this.sinks.remove(sink);
+    }
+
+    @Override
+    public void process(ComplexArray samples, int length) {
+        int count = this.downConvert(samples.getRe(), samples.getIm(), 0, length);
+        if (count > 0) {
+            for (IQSink sink : this.sinks) {
+                try {
+                    sink.process(this.work, count);
+                } catch (RuntimeException ex) {
+                    LOG.log(Level.SEVERE, "Sink failed to process the down-converted samples.", ex);
+                }
+            }
+        }
+    }
+
+    /**
+     * Down-converts a block of samples.
+     * @param re the real parts of the input samples
+     * @param im the imaginary parts of the input samples
+     * @param offset the index of the first input sample
+     * @param length the number of input samples
+     * @param outRe the array receiving the real parts of the output samples
+     * @param outIm the array receiving the imaginary parts of the output samples
+     * @param outOffset the index of the first output sample
+     * @return the number of output samples written
+     */
+    public int process(double[] re, double[] im, int offset, int length, double[] outRe, double[] outIm, int outOffset) {
+        int count = this.downConvert(re, im, offset, length);
+        System.arraycopy(this.work.getRe(), 0, outRe, outOffset, count);
+        System.arraycopy(this.work.getIm(), 0, outIm, outOffset, count);
+        return count;
+    }
+
+    /* Mixes the block into the work buffer, then filters and decimates it in place */
+    private int downConvert(double[] re, double[] im, int offset, int length) {
+        if (this.work == null || this.work.getLength() < length) {
+            this.work = new ComplexArray(length);
+        }
+        double[] wr = this.work.getRe();
+        double[] wi = this.work.getIm();
+        double offsetHz = this.frequencyOffset;
+        if (offsetHz != this.appliedOffset) {
+            this.nco.setFrequency(-offsetHz, this.inputRate);
+            this.appliedOffset = offsetHz;
+        }
+        this.nco.mix(re, im, offset, length, wr, wi, 0);
+        int count = length;
+        for (DecimatingFIR stage : this.stages) {
+            count = stage.process(wr, wi, 0, count, wr, wi, 0);
+        }
+        return count;
+    }
+
+    /**
+     * Retunes the DDC. The new frequency applies from the next block, without phase discontinuity.
+     * @param frequencyOffset the center frequency of the channel relative to the center of the input stream, in Hz
+     */
+    public final void setFrequencyOffset(double frequencyOffset) {
+        if (Math.abs(frequencyOffset) > this.inputRate / 2) {
+            throw new IllegalArgumentException("The frequency offset must be within ±" + (this.inputRate / 2) + " Hz.");
+        }
+        this.frequencyOffset = frequencyOffset;
+    }
+
+    /**
+     * @return the center frequency of the channel relative to the center of the input stream, in Hz
+     */
+    public double getFrequencyOffset() {
+        return frequencyOffset;
+    }
+
+    /**
+     * Clears the state of the filters and the phase of the NCO.
+     */
+    public void reset() {
+        for (DecimatingFIR stage : this.stages) {
+            stage.reset();
+        }
+        this.nco.reset();
+    }
+
+    /**
+     * @return the sample rate of the input stream, in samples per second
+     */
+    public double getInputRate() {
+        return inputRate;
+    }
+
+    /**
+     * @return the sample rate of the output stream, in samples per second
+     */
+    public double getOutputRate() {
+        return this.inputRate / this.decimation;
+    }
+
+    /**
+     * @return the (two-sided) bandwidth of the channel, in Hz
+     */
+    public double getBandwidth() {
+        return bandwidth;
+    }
+
+    /**
+     * @return the total decimation factor
+     */
+    public int getDecimation() {
+        return decimation;
+    }
+
+    /**
+     * @return the decimation factor of each stage
+     */
+    public int[] getStageFactors() {
+        return this.stageFactors.clone();
+    }
+
+    /**
+     * @return the number of coefficients of each stage
+     */
+    public int[] getStageNbTaps() {
+        int[] nbTaps = new int[this.stages.length];
+        for (int s = 0 ; s < nbTaps.length ; s++) {
+            nbTaps[s] = this.stages[s].getNbTaps();
+        }
+        return nbTaps;
+    }
+
+}
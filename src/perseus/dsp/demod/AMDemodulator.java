@@ -0,0 +1,102 @@
+/**
+ * The JPerseusSDR library is free software; you can redistribute 
+ * it and/or modify it under the terms of the GNU Lesser General Public 
+ * License as published by the Free Software Foundation; either version 
+ * 3.0 of the License, or (at your option) any later version.
+ * 
+ * The JPerseusSDR library is distributed in the hope that it will
+ * be useful, but WITHOUT ANY WARRANTY; without even the implied warranty 
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the Perseus SDR Library; 
+ * if not, see 'http://www.gnu.org/licenses/'.
+ * 
+ * This library is assumed to work under J2SE &gt;= 7.
+ * NOTE: It is assumed that the Perseus USB drivers are already installed on your system. The Perseus USB drivers 
+ *       are available in the distribution CD-ROM which comes with the Perseus receiver.
+ * 
+ * This library is inspired from the Microtelecom Software Defined Radio Developer Kit (SDRDK) and is subject to licensing
+ *  conditions contained in the document "SDRDK-Licensing-Agreement-v20.docx" (available under the folder "/resources")
+ *  Microtelecom SDRDK is (c) 2007-2013, Microtelecom s.r.l. - Pavia di Udine, Italy
+ *  Author : Nicolangelo PALERMO - IV3NWV
+ * 
+ * This library is also inspired from the Perseus Software Defined Radio Control Library for Linux (libperseus-sdr),
+ *  originally written by Nicolangelo PALERMO and maintained by Andrea MONTEFUSCO. This library can be found at :
+ *  - https://github.com/Microtelecom/libperseus-sdr
+ * 
+ * The JPerseus library, source code and documentation is published under the GNU Lesser General Public Licence v3
+ *  (available under the folder "/resources").
+ * 
+ * Copyright 2017, Mehdi DHAKOUANI
+ */
+package perseus.dsp.demod;
+
+/**
+ * AM envelope demodulator : the audio is the magnitude of the I/Q samples, minus its mean (the carrier), tracked by a
+ *  one-pole filter.
+ *
+ * @author Mehdi DHAKOUANI
+ * @version 1.0.0
+ */
+public class AMDemodulator extends Demodulator {
+
+    /** Default time constant of the carrier level estimation, in seconds */
+    public static final double DEFAULT_CARRIER_TIME_CONSTANT = 0.1;
+
+    private final double alpha;
+    private double carrier = 0;
+    private boolean first = true;
+
+    /**
+     * Creates an AM demodulator with the default carrier time constant.
+     * @param sampleRate the sample rate of the I/Q channel, in samples per second
+     */
+    public AMDemodulator(double sampleRate) {
+        this(sampleRate, DEFAULT_CARRIER_TIME_CONSTANT);
+    }
+
+    /**
+     * Creates an AM demodulator.
+     * @param sampleRate the sample rate of the I/Q channel, in samples per second
+     * @param carrierTimeConstant the time constant of the carrier level estimation, in seconds
+     */
+    public AMDemodulator(double sampleRate, double carrierTimeConstant) {
+        super(sampleRate);
+        if (!(carrierTimeConstant > 0)) {
+            throw new IllegalArgumentException("The time constant must be positive.");
+        }
+        this.alpha = 1 - Math.exp(-1 / (sampleRate * carrierTimeConstant));
+    }
+
+    @Override
+    public void demodulate(double[] re, double[] im, int offset, int length, float[] audio, int audioOffset) {
+        double c = this.carrier;
+        final double a = this.alpha;
+        for (int i = 0 ; i < length ; i++) {
+            double xr = re[offset + i];
+            double xi = im[offset + i];
+            double envelope = Math.sqrt(xr * xr + xi * xi);
+            if (this.first) {
+                c = envelope;
+                this.first = false;
+            }
+            c += a * (envelope - c);
+            audio[audioOffset + i] = (float) (envelope - c);
+        }
+        this.carrier = c;
+    }
+
+    @Override
+    public void reset() {
+        this.carrier = 0;
+        this.first = true;
+    }
+
+    @Override
+    public String toString() {
+        return "AM";
+    }
+
+}
@@ -0,0 +1,112 @@
+/**
+ * The JPerseusSDR library is free software; you can redistribute 
+ * it and/or modify it under the terms of the GNU Lesser General Public 
+ * License as published by the Free Software Foundation; either version 
+ * 3.0 of the License, or (at your option) any later version.
+ * 
+ * The JPerseusSDR library is distributed in the hope that it will
+ * be useful, but WITHOUT ANY WARRANTY; without even the implied warranty 
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the Perseus SDR Library; 
+ * if not, see 'http://www.gnu.org/licenses/'.
+ * 
+ * This library is assumed to work under J2SE &gt;= 7.
+ * NOTE: It is assumed that the Perseus USB drivers are already installed on your system. The Perseus USB drivers 
+ *       are available in the distribution CD-ROM which comes with the Perseus receiver.
+ * 
+ * This library is inspired from the Microtelecom Software Defined Radio Developer Kit (SDRDK) and is subject to licensing
+ *  conditions contained in the document "SDRDK-Licensing-Agreement-v20.docx" (available under the folder "/resources")
+ *  Microtelecom SDRDK is (c) 2007-2013, Microtelecom s.r.l. - Pavia di Udine, Italy
+ *  Author : Nicolangelo PALERMO - IV3NWV
+ * 
+ * This library is also inspired from the Perseus Software Defined Radio Control Library for Linux (libperseus-sdr),
+ *  originally written by Nicolangelo PALERMO and maintained by Andrea MONTEFUSCO. This library can be found at :
+ *  - https://github.com/Microtelecom/libperseus-sdr
+ * 
+ * The JPerseus library, source code and documentation is published under the GNU Lesser General Public Licence v3
+ *  (available under the folder "/resources").
+ * 
+ * Copyright 2017, Mehdi DHAKOUANI
+ */
+package perseus.dsp.demod;
+
+import perseus.dsp.filter.KaiserFIR;
+import perseus.dsp.filter.OverlapSaveFilter;
+import perseus.dsp.nco.BlockNCO;
+import perseus.dsp.nco.NCO;
+
+/**
+ * CW demodulator : a narrow low-pass filter selects the carrier (centered on 0 Hz), then a beat frequency oscillator
+ *  (BFO) shifts it to an audible tone and the audio is the real part of the result.
+ * The BFO is a @BlockNCO whose phase is kept from a block to the next.
+ *
+ * @author Mehdi DHAKOUANI
+ * @version 1.0.0
+ */
+public class CWDemodulator extends Demodulator {
+
+    /** Stop-band attenuation of the CW filter, in dB */
+    public static final double ATTENUATION = 60;
+
+    private final double bandwidth;
+    private final double bfoFrequency;
+    private final OverlapSaveFilter filter;
+    private final NCO bfo;
+    private double[] workRe = new double[0];
+    private double[] workIm = new double[0];
+
+    /**
+     * Creates a CW demodulator.
+     * @param sampleRate the sample rate of the I/Q channel, in samples per second
+     * @param bandwidth the (two-sided) bandwidth of the CW filter, in Hz (eg: 500)
+     * @param bfoFrequency the pitch of the audio tone, in Hz (eg: 700)
+     */
+    public CWDemodulator(double sampleRate, double bandwidth, double bfoFrequency) {
+        super(sampleRate);
+        if (bandwidth <= 0 || bandwidth >= sampleRate / 2 || Math.abs(bfoFrequency) >= sampleRate / 2) {
+            throw new IllegalArgumentException("The bandwidth and the BFO frequency must be lower than sampleRate/2.");
+        }
+        this.bandwidth = bandwidth;
+        this.bfoFrequency = bfoFrequency;
+        double cutoff = bandwidth / 2 / sampleRate;
+        double[] taps = KaiserFIR.LowPass(cutoff * 1.25, cutoff / 2, ATTENUATION);
+        this.filter = new OverlapSaveFilter(taps);
+        this.bfo = new BlockNCO(bfoFrequency / sampleRate);
+    }
+
+    @Override
+    public void demodulate(double[] re, double[] im, int offset, int length, float[] audio, int audioOffset) {
+        if (this.workRe.length < length) {
+            this.workRe = new double[length];
+            this.workIm = new double[length];
+        }
+        this.filter.process(re, im, offset, length, this.workRe, this.workIm, 0);
+        this.bfo.mix(this.workRe, this.workIm, 0, length, this.workRe, this.workIm, 0);
+        final double[] wr = this.workRe;
+        for (int i = 0 ; i < length ; i++) {
+            audio[audioOffset + i] = (float) wr[i];
+        }
+    }
+
+    @Override
+    public void reset() {
+        this.filter.reset();
+        this.bfo.reset();
+    }
+
+    /**
+     * @return the latency of the demodulator, in samples
+     */
+    public int getLatency() {
+        return this.filter.getLatency();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CW (%.0f Hz, BFO %.0f Hz, %d taps)", this.bandwidth, this.bfoFrequency, this.filter.getNbTaps());
+    }
+
+}
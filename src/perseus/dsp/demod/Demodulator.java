@@ -0,0 +1,165 @@
+/**
+ * The JPerseusSDR library is free software; you can redistribute 
+ * it and/or modify it under the terms of the GNU Lesser General Public 
+ * License as published by the Free Software Foundation; either version 
+ * 3.0 of the License, or (at your option) any later version.
+ * 
+ * The JPerseusSDR library is distributed in the hope that it will
+ * be useful, but WITHOUT ANY WARRANTY; without even the implied warranty 
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the Perseus SDR Library; 
+ * if not, see 'http://www.gnu.org/licenses/'.
+ * 
+ * This library is assumed to work under J2SE &gt;= 7.
+ * NOTE: It is assumed that the Perseus USB drivers are already installed on your system. The Perseus USB drivers 
+ *       are available in the distribution CD-ROM which comes with the Perseus receiver.
+ * 
+ * This library is inspired from the Microtelecom Software Defined Radio Developer Kit (SDRDK) and is subject to licensing
+ *  conditions contained in the document "SDRDK-Licensing-Agreement-v20.docx" (available under the folder "/resources")
+ *  Microtelecom SDRDK is (c) 2007-2013, Microtelecom s.r.l. - Pavia di Udine, Italy
+ *  Author : Nicolangelo PALERMO - IV3NWV
+ * 
+ * This library is also inspired from the Perseus Software Defined Radio Control Library for Linux (libperseus-sdr),
+ *  originally written by Nicolangelo PALERMO and maintained by Andrea MONTEFUSCO. This library can be found at :
+ *  - https://github.com/Microtelecom/libperseus-sdr
+ * 
+ * The JPerseus library, source code and documentation is published under the GNU Lesser General Public Licence v3
+ *  (available under the folder "/resources").
+ * 
+ * Copyright 2017, Mehdi DHAKOUANI
+ */
+package perseus.dsp.demod;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import perseus.callback.IQSink;
+import perseus.dsp.maths.ComplexArray;
+
+/**
+ * Base class of the streaming demodulators. A demodulator consumes a channel of decoded I/Q samples centered on the
+ *  carrier (eg: the output of a @SoftwareDDC at 12 kS/s) and produces one audio sample per I/Q sample.
+ * The state (filters, phase, previous sample...) is kept from a block to the next and the audio buffer is reused :
+ *  no memory is allocated once the largest block size has been seen.
+ *
+ * @author Mehdi DHAKOUANI
+ * @version 1.0.0
+ */
+public abstract class Demodulator implements IQSink {
+
+    private static final Logger LOG = Logger.getLogger(Demodulator.class.getName());
+
+    protected final double sampleRate;
+    private final List<AudioListener> listeners = new CopyOnWriteArrayList<>();
+    private float[] audio = new float[0];
+
+    /**
+     * @param sampleRate the sample rate of the I/Q channel, in samples per second
+     */
+    protected Demodulator(double sampleRate) {
+        if (!(sampleRate > 0)) {
+            throw new IllegalArgumentException("The sample rate must be positive.");
+        }
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * Demodulates a block of samples.
+     * @param re the real parts of the I/Q samples
+     * @param im the imaginary parts of the I/Q samples
+     * @param offset the index of the first I/Q sample
+     * @param length the number of I/Q samples
+     * @param audio the array receiving the audio samples
+     * @param audioOffset the index of the first audio sample
+     */
+    public abstract void demodulate(double[] re, double[] im, int offset, int length, float[] audio, int audioOffset);
+
+    /**
+     * Clears the state of the demodulator.
+     */
+    public abstract void reset();
+
+    /**
+     * Demodulates a block of samples and hands the audio to the registered listeners.
+     * @param samples the I/Q samples
+     * @param length the number of valid samples (from index 0)
+     */
+    @Override
+    public void process(ComplexArray samples, int length) {
+        if (this.audio.length < length) {
+            this.audio = new float[length];
+        }
+        this.demodulate(samples.getRe(), samples.getIm(), 0, length, this.audio, 0);
+        for (AudioListener listener : this.listeners) {
+            try {
+                listener.audio(this.audio, length);
+            } catch (RuntimeException ex) {
+                LOG.log(Level.SEVERE, "Listener failed to process the demodulated audio.", ex);
+            }
+        }
+    }
+
+    /**
+     * Registers a listener receiving the audio.
+     * @param listener the listener
+     */
+    public void addListener(AudioListener listener) {
+        this.listeners.add(listener);
+    }
+
+    /**
+     * Unregisters a listener.
+     * @param listener the listener
+     */
+    public void removeListener(AudioListener listener) {
+        this.listeners.remove(listener);
+    }
+
+    /**
+     * @return the sample rate of the I/Q channel (and of the audio), in samples per second
+     */
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * Measures how many 12 kS/s channels one core can demodulate with each demodulator.
+     * @param args unused
+     */
+    public static void main(String[] args) {
+        double rate = 12000;
+        int blockSize = 1200;
+        int nbBlocks = 20000;
+        ComplexArray block = new ComplexArray(blockSize);
+        Random random = new Random(0);
+        for (int i = 0 ; i < blockSize ; i++) {
+            double phase = 2 * Math.PI * 1000 * i / rate;
+            block.set(i, 0.5 * Math.cos(phase) + 0.01 * random.nextGaussian(), 0.5 * Math.sin(phase) + 0.01 * random.nextGaussian());
+        }
+        Demodulator[] demodulators = {
+            new AMDemodulator(rate),
+            new SSBDemodulator(rate, true, 300, 2700),
+            new SSBDemodulator(rate, false, 300, 2700),
+            new CWDemodulator(rate, 500, 700),
+            new FMDemodulator(rate, 2500)
+        };
+        for (Demodulator demodulator : demodulators) {
+            long duration = 0;
+            for (int warmup = 0 ; warmup < 2 ; warmup++) {
+                long t0 = System.nanoTime();
+                for (int b = 0 ; b < nbBlocks ; b++) {
+                    demodulator.process(block, blockSize);
+                }
+                duration = System.nanoTime() - t0;
+            }
+            double samplesPerSecond = (double) blockSize * nbBlocks / (duration / 1.0E9);
+            System.out.println(String.format("%-40s : %8.2f MS/s  = %6.0f channels at 12 kS/s per core", demodulator, samplesPerSecond / 1.0E6, samplesPerSecond / rate));
+        }
+    }
+
+}
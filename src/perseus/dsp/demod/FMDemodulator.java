@@ -0,0 +1,141 @@
+/**
+ * The JPerseusSDR library is free software; you can redistribute 
+ * it and/or modify it under the terms of the GNU Lesser General Public 
+ * License as published by the Free Software Foundation; either version 
+ * 3.0 of the License, or (at your option) any later version.
+ * 
+ * The JPerseusSDR library is distributed in the hope that it will
+ * be useful, but WITHOUT ANY WARRANTY; without even the implied warranty 
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the Perseus SDR Library; 
+ * if not, see 'http://www.gnu.org/licenses/'.
+ * 
+ * This library is assumed to work under J2SE &gt;= 7.
+ * NOTE: It is assumed that the Perseus USB drivers are already installed on your system. The Perseus USB drivers 
+ *       are available in the distribution CD-ROM which comes with the Perseus receiver.
+ * 
+ * This library is inspired from the Microtelecom Software Defined Radio Developer Kit (SDRDK) and is subject to licensing
+ *  conditions contained in the document "SDRDK-Licensing-Agreement-v20.docx" (available under the folder "/resources")
+ *  Microtelecom SDRDK is (c) 2007-2013, Microtelecom s.r.l. - Pavia di Udine, Italy
+ *  Author : Nicolangelo PALERMO - IV3NWV
+ * 
+ * This library is also inspired from the Perseus Software Defined Radio Control Library for Linux (libperseus-sdr),
+ *  originally written by Nicolangelo PALERMO and maintained by Andrea MONTEFUSCO. This library can be found at :
+ *  - https://github.com/Microtelecom/libperseus-sdr
+ * 
+ * The JPerseus library, source code and documentation is published under the GNU Lesser General Public Licence v3
+ *  (available under the folder "/resources").
+ * 
+ * Copyright 2017, Mehdi DHAKOUANI
+ */
+package perseus.dsp.demod;
+
+/**
+ * Narrowband FM demodulator (quadrature discriminator) : the audio is the phase difference between consecutive
+ *  samples, arg(x[n].conj(x[n-1])), scaled so that the peak deviation gives ±1.0, followed by an optional
+ *  de-emphasis (one-pole low-pass).
+ * The phase difference uses a polynomial approximation of atan2 (error about 0.0015 rad) instead of Math.atan2.
+ *
+ * @author Mehdi DHAKOUANI
+ * @version 1.0.0
+ */
+public class FMDemodulator extends Demodulator {
+
+    private final double deviation;
+    private final double scale;
+    private double deemphasis = 0;
+    private double previousRe = 0;
+    private double previousIm = 0;
+    private double output = 0;
+
+    /**
+     * Creates an FM demodulator without de-emphasis.
+     * @param sampleRate the sample rate of the I/Q channel, in samples per second
+     * @param deviation the peak frequency deviation, in Hz (eg: 2500 or 5000)
+     */
+    public FMDemodulator(double sampleRate, double deviation) {
+        super(sampleRate);
+        if (deviation <= 0 || deviation >= sampleRate / 2) {
+            throw new IllegalArgumentException("The deviation must be positive and lower than sampleRate/2.");
+        }
+        this.deviation = deviation;
+        this.scale = sampleRate / (2 * Math.PI * deviation);
+    }
+
+    /**
+     * Sets the de-emphasis.
+     * @param timeConstant the time constant of the de-emphasis, in seconds (0 to disable it)
+     */
+    public void setDeemphasis(double timeConstant) {
+        if (timeConstant < 0) {
+            throw new IllegalArgumentException("The time constant must be positive (or 0 to disable the de-emphasis).");
+        }
+        this.deemphasis = (timeConstant == 0) ? 0 : 1 - Math.exp(-1 / (this.sampleRate * timeConstant));
+    }
+
+    @Override
+    public void demodulate(double[] re, double[] im, int offset, int length, float[] audio, int audioOffset) {
+        double pr = this.previousRe;
+        double pi = this.previousIm;
+        double y = this.output;
+        final double a = this.deemphasis;
+        final double s = this.scale;
+        for (int i = 0 ; i < length ; i++) {
+            double xr = re[offset + i];
+            double xi = im[offset + i];
+            // x[n].conj(x[n-1])
+            double dr = xr * pr + xi * pi;
+            double di = xi * pr - xr * pi;
+            double d = Atan2(di, dr) * s;
+            y = (a == 0) ? d : y + a * (d - y);
+            audio[audioOffset + i] = (float) y;
+            pr = xr;
+            pi = xi;
+        }
+        this.previousRe = pr;
+        this.previousIm = pi;
+        this.output = y;
+    }
+
+    /**
+     * Fast approximation of Math.atan2 (maximum error about 0.0015 rad).
+     * @param y the ordinate
+     * @param x the abscissa
+     * @return the angle of (x, y), in ]-π, π]
+     */
+    public static double Atan2(double y, double x) {
+        double ax = Math.abs(x);
+        double ay = Math.abs(y);
+        if (ax == 0 && ay == 0) {
+            return 0;
+        }
+        double angle;
+        if (ax >= ay) {
+            double r = ay / ax;
+            angle = r * (Math.PI / 4 - (r - 1) * (0.2447 + 0.0663 * r));
+        } else {
+            double r = ax / ay;
+            angle = Math.PI / 2 - r * (Math.PI / 4 - (r - 1) * (0.2447 + 0.0663 * r));
+        }
+        if (x < 0) {
+            angle = Math.PI - angle;
+        }
+        return (y < 0) ? -angle : angle;
+    }
+
+    @Override
+    public void reset() {
+        this.previousRe = 0;
+        this.previousIm = 0;
+        this.output = 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("NBFM (deviation %.0f Hz)", this.deviation);
+    }
+
+}
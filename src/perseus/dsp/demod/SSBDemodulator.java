@@ -0,0 +1,128 @@
+/**
+ * The JPerseusSDR library is free software; you can redistribute 
+ * it and/or modify it under the terms of the GNU Lesser General Public 
+ * License as published by the Free Software Foundation; either version 
+ * 3.0 of the License, or (at your option) any later version.
+ * 
+ * The JPerseusSDR library is distributed in the hope that it will
+ * be useful, but WITHOUT ANY WARRANTY; without even the implied warranty 
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the Perseus SDR Library; 
+ * if not, see 'http://www.gnu.org/licenses/'.
+ * 
+ * This library is assumed to work under J2SE &gt;= 7.
+ * NOTE: It is assumed that the Perseus USB drivers are already installed on your system. The Perseus USB drivers 
+ *       are available in the distribution CD-ROM which comes with the Perseus receiver.
+ * 
+ * This library is inspired from the Microtelecom Software Defined Radio Developer Kit (SDRDK) and is subject to licensing
+ *  conditions contained in the document "SDRDK-Licensing-Agreement-v20.docx" (available under the folder "/resources")
+ *  Microtelecom SDRDK is (c) 2007-2013, Microtelecom s.r.l. - Pavia di Udine, Italy
+ *  Author : Nicolangelo PALERMO - IV3NWV
+ * 
+ * This library is also inspired from the Perseus Software Defined Radio Control Library for Linux (libperseus-sdr),
+ *  originally written by Nicolangelo PALERMO and maintained by Andrea MONTEFUSCO. This library can be found at :
+ *  - https://github.com/Microtelecom/libperseus-sdr
+ * 
+ * The JPerseus library, source code and documentation is published under the GNU Lesser General Public Licence v3
+ *  (available under the folder "/resources").
+ * 
+ * Copyright 2017, Mehdi DHAKOUANI
+ */
+package perseus.dsp.demod;
+
+import perseus.dsp.filter.KaiserFIR;
+import perseus.dsp.filter.OverlapSaveFilter;
+
+/**
+ * SSB demodulator (filter method) : a complex band-pass filter keeps the audio band of one sideband only (positive
+ *  frequencies for USB, negative ones for LSB), and the audio is the real part of the filtered samples.
+ * The filter is an @OverlapSaveFilter : the audio is delayed by its latency (one block of the filter).
+ *
+ * @author Mehdi DHAKOUANI
+ * @version 1.0.0
+ */
+public class SSBDemodulator extends Demodulator {
+
+    /** Stop-band attenuation of the sideband filter, in dB */
+    public static final double ATTENUATION = 60;
+    /** Width of the transition bands of the sideband filter, in Hz */
+    public static final double TRANSITION_WIDTH = 200;
+
+    private final boolean upper;
+    private final double lowCut;
+    private final double highCut;
+    private final OverlapSaveFilter filter;
+    private double[] workRe = new double[0];
+    private double[] workIm = new double[0];
+
+    /**
+     * Creates an SSB demodulator.
+     * @param sampleRate the sample rate of the I/Q channel, in samples per second
+     * @param upper true for the upper sideband (USB), false for the lower sideband (LSB)
+     * @param lowCut the lowest audio frequency kept, in Hz (eg: 300)
+     * @param highCut the highest audio frequency kept, in Hz (eg: 2700)
+     */
+    public SSBDemodulator(double sampleRate, boolean upper, double lowCut, double highCut) {
+        super(sampleRate);
+        if (lowCut < 0 || highCut <= lowCut || highCut >= sampleRate / 2) {
+            throw new IllegalArgumentException("The audio band must verify 0 ≤ lowCut < highCut < sampleRate/2.");
+        }
+        this.upper = upper;
+        this.lowCut = lowCut;
+        this.highCut = highCut;
+        // Low-pass prototype of the half bandwidth, shifted to the center of the sideband
+        double transition = Math.min(TRANSITION_WIDTH / sampleRate, 0.49);
+        double[] prototype = KaiserFIR.LowPass((highCut - lowCut) / 2 / sampleRate, transition, ATTENUATION);
+        double shift = (upper ? 1 : -1) * (highCut + lowCut) / 2 / sampleRate;
+        double center = (prototype.length - 1) / 2.0;
+        double[] tapsRe = new double[prototype.length];
+        double[] tapsIm = new double[prototype.length];
+        for (int n = 0 ; n < prototype.length ; n++) {
+            double w = 2 * Math.PI * shift * (n - center);
+            tapsRe[n] = prototype[n] * Math.cos(w);
+            tapsIm[n] = prototype[n] * Math.sin(w);
+        }
+        this.filter = new OverlapSaveFilter(tapsRe, tapsIm);
+    }
+
+    @Override
+    public void demodulate(double[] re, double[] im, int offset, int length, float[] audio, int audioOffset) {
+        if (this.workRe.length < length) {
+            this.workRe = new double[length];
+            this.workIm = new double[length];
+        }
+        this.filter.process(re, im, offset, length, this.workRe, this.workIm, 0);
+        final double[] wr = this.workRe;
+        for (int i = 0 ; i < length ; i++) {
+            audio[audioOffset + i] = (float) wr[i];
+        }
+    }
+
+    @Override
+    public void reset() {
+        this.filter.reset();
+    }
+
+    /**
+     * @return the latency of the demodulator, in samples
+     */
+    public int getLatency() {
+        return this.filter.getLatency();
+    }
+
+    /**
+     * @return true for the upper sideband (USB), false for the lower sideband (LSB)
+     */
+    public boolean isUpper() {
+        return upper;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s (%.0f-%.0f Hz, %d taps)", this.upper ? "USB" : "LSB", this.lowCut, this.highCut, this.filter.getNbTaps());
+    }
+
+}
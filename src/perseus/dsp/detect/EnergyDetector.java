@@ -0,0 +1,410 @@
+/**
+ * The JPerseusSDR library is free software; you can redistribute 
+ * it and/or modify it under the terms of the GNU Lesser General Public 
+ * License as published by the Free Software Foundation; either version 
+ * 3.0 of the License, or (at your option) any later version.
+ * 
+ * The JPerseusSDR library is distributed in the hope that it will
+ * be useful, but WITHOUT ANY WARRANTY; without even the implied warranty 
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the Perseus SDR Library; 
+ * if not, see 'http://www.gnu.org/licenses/'.
+ * 
+ * This library is assumed to work under J2SE &gt;= 7.
+ * NOTE: It is assumed that the Perseus USB drivers are already installed on your system. The Perseus USB drivers 
+ *       are available in the distribution CD-ROM which comes with the Perseus receiver.
+ * 
+ * This library is inspired from the Microtelecom Software Defined Radio Developer Kit (SDRDK) and is subject to licensing
+ *  conditions contained in the document "SDRDK-Licensing-Agreement-v20.docx" (available under the folder "/resources")
+ *  Microtelecom SDRDK is (c) 2007-2013, Microtelecom s.r.l. - Pavia di Udine, Italy
+ *  Author : Nicolangelo PALERMO - IV3NWV
+ * 
+ * This library is also inspired from the Perseus Software Defined Radio Control Library for Linux (libperseus-sdr),
+ *  originally written by Nicolangelo PALERMO and maintained by Andrea MONTEFUSCO. This library can be found at :
+ *  - https://github.com/Microtelecom/libperseus-sdr
+ * 
+ * The JPerseus library, source code and documentation is published under the GNU Lesser General Public Licence v3
+ *  (available under the folder "/resources").
+ * 
+ * Copyright 2017, Mehdi DHAKOUANI
+ */
+package perseus.dsp.detect;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+import perseus.callback.IQSink;
+import perseus.dsp.maths.ComplexArray;
+import perseus.dsp.spectrum.QuantileEstimator;
+import perseus.dsp.spectrum.SpectrumListener;
+import perseus.dsp.spectrum.WelchSpectrum;
+import perseus.dsp.window.KaiserWindow;
+
+/**
+ * Detector stage reporting the signals appearing and disappearing in a stream of decoded I/Q samples, without
+ *  storing any spectrum.
+ *  - The stream is analyzed by a @WelchSpectrum (Kaiser window with β = @WINDOW_BETA, 50% overlap, linear averaging
+ *      over 'nbFramesPerSpectrum' frames) : the low side lobes keep strong carriers from spreading over many bins.
+ *  - A noise floor is tracked for each bin : it follows the power of the bin quickly downwards and slowly upwards
+ *      (minimum tracking), and is frozen while the bin is occupied. It starts from the median of the first spectrum.
+ *      Alternatively, the floor can be a low quantile of the recent powers of each bin (@setNoiseFloorEstimator),
+ *      which is not biased by signals occupying the bin for a minority of the time.
+ *  - Hysteresis : a bin becomes occupied when its power exceeds the floor by 'onThresholdDb', and is released when
+ *      the excess falls below 'offThresholdDb'.
+ *  - Occupied bins separated by at most @MAXIMUM_GAP_BINS free bins form a signal. Signals are tracked from one
+ *      spectrum to the next by overlap : a START event is emitted when a signal appears, a STOP event when it
+ *      vanishes (with its peak SNR). The frequency of a signal is the frequency of its strongest bin.
+ * Events are published in a @SignalEventQueue polled by the consumer thread ; all the buffers are allocated at creation.
+ *
+ * @author Mehdi DHAKOUANI
+ * @version 1.0.0
+ */
+public class EnergyDetector implements IQSink {
+
+    /** Default time constant of the noise floor when the power rises, in spectra */
+    public static final double DEFAULT_RISE_TIME = 200;
+    /** Default time constant of the noise floor when the power falls, in spectra */
+    public static final double DEFAULT_FALL_TIME = 5;
+    /** Maximum number of signals tracked at the same time */
+    public static final int MAXIMUM_SIGNALS = 256;
+    /** Maximum number of free bins inside a signal */
+    public static final int MAXIMUM_GAP_BINS = 2;
+    /** β parameter of the Kaiser window of the spectra (side lobes around -80 dB) */
+    public static final double WINDOW_BETA = 10;
+    /** Number of spectra used to settle the noise floor before detecting */
+    private static final int WARMUP_SPECTRA = 16;
+
+    private final double sampleRate;
+    private final int fftSize;
+    private final int hop;
+    private final double onThresholdDb;
+    private final double offThresholdDb;
+    private final WelchSpectrum spectrum;
+    private final SignalEventQueue events;
+    private final double[] noiseDb;
+    private final boolean[] occupied;
+    private double riseAlpha = 1 / DEFAULT_RISE_TIME;
+    private double fallAlpha = 1 / DEFAULT_FALL_TIME;
+    private QuantileEstimator estimator = null;
+    private long nbSpectra = 0;
+
+    // Signals found in the current spectrum
+    private final int[] runLow = new int[MAXIMUM_SIGNALS];
+    private final int[] runHigh = new int[MAXIMUM_SIGNALS];
+    private final double[] runSnr = new double[MAXIMUM_SIGNALS];
+    private final int[] runPeak = new int[MAXIMUM_SIGNALS];
+    private final boolean[] runClaimed = new boolean[MAXIMUM_SIGNALS];
+    private int nbRuns = 0;
+
+    // Signals being tracked
+    private final int[] trackLow = new int[MAXIMUM_SIGNALS];
+    private final int[] trackHigh = new int[MAXIMUM_SIGNALS];
+    private final double[] trackSnr = new double[MAXIMUM_SIGNALS];
+    private final int[] trackLastPeak = new int[MAXIMUM_SIGNALS];
+    private final long[] trackId = new long[MAXIMUM_SIGNALS];
+    private final boolean[] trackUsed = new boolean[MAXIMUM_SIGNALS];
+    private int nbTracks = 0;
+    private long nextId = 1;
+
+    /**
+     * Creates an energy detector.
+     * @param sampleRate the sample rate of the stream, in samples per second
+     * @param fftSize the number of points of the spectra (must be a power of 2)
+     * @param nbFramesPerSpectrum the number of frames averaged in each spectrum
+     * @param onThresholdDb the excess over the noise floor above which a bin becomes occupied, in dB
+     * @param offThresholdDb the excess over the noise floor below which a bin is released, in dB (≤ onThresholdDb)
+     * @param queueCapacity the number of events the queue can hold
+     */
+    public EnergyDetector(double sampleRate, int fftSize, int nbFramesPerSpectrum, double onThresholdDb, double offThresholdDb, int queueCapacity) {
+        if (sampleRate <= 0) {
+            throw new IllegalArgumentException("The sample rate must be strictly positive.");
+        }
+        if (offThresholdDb > onThresholdDb) {
+            throw new IllegalArgumentException("The release threshold must not be greater than the detection threshold.");
+        }
+        this.sampleRate = sampleRate;
+        this.fftSize = fftSize;
+        this.hop = fftSize / 2;
+        this.onThresholdDb = onThresholdDb;
+        this.offThresholdDb = offThresholdDb;
+        this.spectrum = new WelchSpectrum(fftSize, fftSize - this.hop, KaiserWindow.GetWindow(fftSize, WINDOW_BETA), WelchSpectrum.Averaging.LINEAR, nbFramesPerSpectrum);
+        this.spectrum.addListener(new SpectrumListener() {
+            @Override
+            public void spectrum(double[] powerDb, long frameIndex) {
+                detect(powerDb, frameIndex);
+            }
+        });
+        this.events = new SignalEventQueue(queueCapacity);
+        this.noiseDb = new double[fftSize];
+        this.occupied = new boolean[fftSize];
+    }
+
+    /**
+     * Sets the time constants of the noise floor.
+     * @param riseTime the time constant when the power rises, in spectra (large : carriers do not raise the floor)
+     * @param fallTime the time constant when the power falls, in spectra (small : the floor follows the minimum)
+     */
+    public synchronized void setNoiseFloorTimeConstants(double riseTime, double fallTime) {
+        if (riseTime < 1 || fallTime < 1) {
+            throw new IllegalArgumentException("The time constants must be at least 1 spectrum.");
+        }
+        this.riseAlpha = 1 / riseTime;
+        this.fallAlpha = 1 / fallTime;
+    }
+
+    /**
+     * Replaces the built-in tracking of the noise floor by a quantile estimator : the floor of each bin becomes the
+     *  tracked quantile of the estimator (eg: 0.2), updated with every spectrum.
+     * @param estimator the estimator (its number of bins must match the FFT size), or null for the built-in tracking
+     */
+    public synchronized void setNoiseFloorEstimator(QuantileEstimator estimator) {
+        if (estimator != null && estimator.getNbBins() != this.fftSize) {
+            throw new IllegalArgumentException("The number of bins of the estimator must match the FFT size.");
+        }
+        this.estimator = estimator;
+        this.nbSpectra = 0;
+    }
+
+    @Override
+    public synchronized void process(ComplexArray samples, int length) {
+        this.spectrum.process(samples.getRe(), samples.getIm(), 0, length);
+    }
+
+    /**
+     * Processes a block of decoded I/Q samples.
+     * @param re the real parts of the samples
+     * @param im the imaginary parts of the samples
+     * @param offset the index of the first sample
+     * @param length the number of samples
+     */
+    public synchronized void process(double[] re, double[] im, int offset, int length) {
+        this.spectrum.process(re, im, offset, length);
+    }
+
+    private void detect(double[] powerDb, long frameIndex) {
+        int n = this.fftSize;
+        if (this.estimator != null) {
+            this.estimator.update(powerDb);
+            this.estimator.getTrackedQuantiles(this.noiseDb);
+        } else if (this.nbSpectra == 0) {
+            double[] sorted = Arrays.copyOf(powerDb, n);
+            Arrays.sort(sorted);
+            Arrays.fill(this.noiseDb, sorted[n / 2]);
+        }
+        this.nbSpectra++;
+        boolean detecting = this.nbSpectra > WARMUP_SPECTRA;
+
+        // Per-bin hysteresis and noise floor tracking
+        double[] noise = this.noiseDb;
+        for (int k = 0 ; k < n ; k++) {
+            double p = powerDb[k];
+            double excess = p - noise[k];
+            boolean on = detecting && excess > (this.occupied[k] ? this.offThresholdDb : this.onThresholdDb);
+            this.occupied[k] = on;
+            if (!on && this.estimator == null) {
+                noise[k] += ((excess < 0) ? this.fallAlpha : this.riseAlpha) * excess;
+            }
+        }
+        if (!detecting) {
+            return;
+        }
+
+        // Group the occupied bins into signals
+        this.nbRuns = 0;
+        int k = 0;
+        while (k < n && this.nbRuns < MAXIMUM_SIGNALS) {
+            if (!this.occupied[k]) {
+                k++;
+                continue;
+            }
+            int low = k;
+            int high = k;
+            int peak = k;
+            double snr = powerDb[k] - noise[k];
+            int gap = 0;
+            for (k++ ; k < n && gap <= MAXIMUM_GAP_BINS ; k++) {
+                if (this.occupied[k]) {
+                    high = k;
+                    gap = 0;
+                    if (powerDb[k] - noise[k] > snr) {
+                        snr = powerDb[k] - noise[k];
+                        peak = k;
+                    }
+                } else {
+                    gap++;
+                }
+            }
+            k = high + 1;
+            this.runLow[this.nbRuns] = low;
+            this.runHigh[this.nbRuns] = high;
+            this.runSnr[this.nbRuns] = snr;
+            this.runPeak[this.nbRuns] = peak;
+            this.runClaimed[this.nbRuns] = false;
+            this.nbRuns++;
+        }
+
+        // Follow the tracked signals, report the ones which vanished
+        long sampleIndex = frameIndex * this.hop + (this.fftSize - this.hop);
+        for (int t = 0 ; t < MAXIMUM_SIGNALS ; t++) {
+            if (!this.trackUsed[t]) {
+                continue;
+            }
+            if (!this.follow(t)) {
+                this.emit(SignalEvent.Type.STOP, this.trackId[t], this.trackLow[t], this.trackHigh[t], this.trackLastPeak[t], this.trackSnr[t], sampleIndex);
+                this.trackUsed[t] = false;
+                this.nbTracks--;
+            }
+        }
+
+        // Report the new signals
+        int t = 0;
+        for (int r = 0 ; r < this.nbRuns && this.nbTracks < MAXIMUM_SIGNALS ; r++) {
+            if (this.runClaimed[r]) {
+                continue;
+            }
+            while (this.trackUsed[t]) {
+                t++;
+            }
+            this.trackUsed[t] = true;
+            this.trackId[t] = this.nextId++;
+            this.trackLow[t] = this.runLow[r];
+            this.trackHigh[t] = this.runHigh[r];
+            this.trackSnr[t] = this.runSnr[r];
+            this.trackLastPeak[t] = this.runPeak[r];
+            this.nbTracks++;
+            this.emit(SignalEvent.Type.START, this.trackId[t], this.runLow[r], this.runHigh[r], this.runPeak[r], this.runSnr[r], sampleIndex);
+        }
+    }
+
+    /* Merges into a tracked signal all the unclaimed signals of the current spectrum overlapping (or touching) its
+        previous extent, so that a signal narrowing after a transient keeps its identity ; false if there is none.
+        The peak SNR is kept over the life of the signal, the peak bin is the strongest of the current spectrum */
+    private boolean follow(int t) {
+        int low = this.trackLow[t];
+        int high = this.trackHigh[t];
+        boolean found = false;
+        double lastSnr = Double.NEGATIVE_INFINITY;
+        for (int r = 0 ; r < this.nbRuns ; r++) {
+            if (!this.runClaimed[r] && this.runLow[r] <= high + 1 && this.runHigh[r] >= low - 1) {
+                this.runClaimed[r] = true;
+                if (!found) {
+                    this.trackLow[t] = this.runLow[r];
+                    found = true;
+                }
+                this.trackHigh[t] = this.runHigh[r];
+                if (this.runSnr[r] > lastSnr) {
+                    lastSnr = this.runSnr[r];
+                    this.trackLastPeak[t] = this.runPeak[r];
+                }
+                if (this.runSnr[r] >= this.trackSnr[t]) {
+                    this.trackSnr[t] = this.runSnr[r];
+                }
+            }
+        }
+        return found;
+    }
+
+    private void emit(SignalEvent.Type type, long id, int low, int high, int peak, double snrDb, long sampleIndex) {
+        double binWidth = this.sampleRate / this.fftSize;
+        double frequency = (peak - this.fftSize / 2) * binWidth;
+        this.events.offer(type, id, frequency, (high - low + 1) * binWidth, snrDb, sampleIndex);
+    }
+
+    /**
+     * Forgets the noise floor, the tracked signals and the pending samples (no STOP event is emitted).
+     */
+    public synchronized void reset() {
+        this.spectrum.reset();
+        Arrays.fill(this.occupied, false);
+        Arrays.fill(this.trackUsed, false);
+        this.nbTracks = 0;
+        this.nbSpectra = 0;
+    }
+
+    /**
+     * @return the queue in which the events are published
+     */
+    public SignalEventQueue getEvents() {
+        return events;
+    }
+
+    /**
+     * @param dst the array receiving the noise floor of each bin, in dB (ordered from -Fs/2 to +Fs/2)
+     * @return the array
+     */
+    public synchronized double[] getNoiseFloorDb(double[] dst) {
+        System.arraycopy(this.noiseDb, 0, dst, 0, this.fftSize);
+        return dst;
+    }
+
+    /**
+     * @return the number of signals currently tracked
+     */
+    public synchronized int getNbSignals() {
+        return nbTracks;
+    }
+
+    /**
+     * @return the sample rate of the stream, in samples per second
+     */
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * @return the number of points of the spectra
+     */
+    public int getFFTSize() {
+        return fftSize;
+    }
+
+    /**
+     * Measures the throughput of the detector on a noisy band carrying keyed carriers, and prints the events.
+     * @param args unused
+     */
+    public static void main(String[] args) {
+        double rate = 2.0E6;
+        int blockSize = 16384;
+        int nbBlocks = (int) (20 * rate / blockSize);
+        Random random = new Random(1);
+        double[] carriers = {-412.5E3, 150.0E3, 730.25E3};
+        EnergyDetector detector = new EnergyDetector(rate, 2048, 8, 10, 6, 1024);
+        SignalEvent event = new SignalEvent();
+        double[] wr = new double[blockSize];
+        double[] wi = new double[blockSize];
+        long processing = 0;
+        int nbEvents = 0;
+        for (int n = 0 ; n < nbBlocks ; n++) {
+            for (int i = 0 ; i < blockSize ; i++) {
+                wr[i] = 1.0E-3 * random.nextGaussian();
+                wi[i] = 1.0E-3 * random.nextGaussian();
+            }
+            for (int c = 0 ; c < carriers.length ; c++) {
+                // Each carrier is keyed on and off with a different period
+                if ((n / (40 * (c + 1))) % 2 == 1) {
+                    double w = 2 * Math.PI * carriers[c] / rate;
+                    for (int i = 0 ; i < blockSize ; i++) {
+                        double phase = w * ((long) n * blockSize + i);
+                        wr[i] += 0.01 * Math.cos(phase);
+                        wi[i] += 0.01 * Math.sin(phase);
+                    }
+                }
+            }
+            long t0 = System.nanoTime();
+            detector.process(wr, wi, 0, blockSize);
+            processing += System.nanoTime() - t0;
+            while (detector.getEvents().poll(event)) {
+                if (nbEvents++ < 12) {
+                    System.out.println(event);
+                }
+            }
+        }
+        System.out.println(String.format(Locale.ROOT, "%d events, %.1f MS/s on one core (%.1f x real time at %.1f MS/s)",
+                nbEvents, (double) nbBlocks * blockSize / (processing / 1.0E9) / 1.0E6,
+                (double) nbBlocks * blockSize / rate / (processing / 1.0E9), rate / 1.0E6));
+    }
+
+}
@@ -0,0 +1,142 @@
+/**
+ * The JPerseusSDR library is free software; you can redistribute 
+ * it and/or modify it under the terms of the GNU Lesser General Public 
+ * License as published by the Free Software Foundation; either version 
+ * 3.0 of the License, or (at your option) any later version.
+ * 
+ * The JPerseusSDR library is distributed in the hope that it will
+ * be useful, but WITHOUT ANY WARRANTY; without even the implied warranty 
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the Perseus SDR Library; 
+ * if not, see 'http://www.gnu.org/licenses/'.
+ * 
+ * This library is assumed to work under J2SE &gt;= 7.
+ * NOTE: It is assumed that the Perseus USB drivers are already installed on your system. The Perseus USB drivers 
+ *       are available in the distribution CD-ROM which comes with the Perseus receiver.
+ * 
+ * This library is inspired from the Microtelecom Software Defined Radio Developer Kit (SDRDK) and is subject to licensing
+ *  conditions contained in the document "SDRDK-Licensing-Agreement-v20.docx" (available under the folder "/resources")
+ *  Microtelecom SDRDK is (c) 2007-2013, Microtelecom s.r.l. - Pavia di Udine, Italy
+ *  Author : Nicolangelo PALERMO - IV3NWV
+ * 
+ * This library is also inspired from the Perseus Software Defined Radio Control Library for Linux (libperseus-sdr),
+ *  originally written by Nicolangelo PALERMO and maintained by Andrea MONTEFUSCO. This library can be found at :
+ *  - https://github.com/Microtelecom/libperseus-sdr
+ * 
+ * The JPerseus library, source code and documentation is published under the GNU Lesser General Public Licence v3
+ *  (available under the folder "/resources").
+ * 
+ * Copyright 2017, Mehdi DHAKOUANI
+ */
+package perseus.dsp.detect;
+
+import java.util.Locale;
+
+/**
+ * Mutable record of a signal appearing (START) or disappearing (STOP) in the band monitored by a detector.
+ * Events are preallocated by the @SignalEventQueue and copied into objects owned by the consumer, so that no object
+ *  is allocated per event.
+ * Frequencies are relative to the center of the monitored band.
+ *
+ * @author Mehdi DHAKOUANI
+ * @version 1.0.0
+ */
+public class SignalEvent {
+
+    /**
+     * The types of events
+     */
+    public enum Type {
+        /** A signal appeared */
+        START,
+        /** A signal disappeared (the event reports its last frequency and bandwidth, and its peak SNR) */
+        STOP
+    }
+
+    private Type type = Type.START;
+    private long signalId = 0;
+    private double frequency = 0;
+    private double bandwidth = 0;
+    private double snrDb = 0;
+    private long sampleIndex = 0;
+
+    /**
+     * Sets all the fields of the event.
+     * @param type the type of the event
+     * @param signalId the identifier of the signal (shared by its START and STOP events)
+     * @param frequency the center frequency of the signal, in Hz
+     * @param bandwidth the bandwidth of the signal, in Hz
+     * @param snrDb the signal to noise ratio of the signal, in dB
+     * @param sampleIndex the index of the sample of the stream at which the event was detected
+     * @return the event
+     */
+    public SignalEvent set(Type type, long signalId, double frequency, double bandwidth, double snrDb, long sampleIndex) {
+        this.type = type;
+        this.signalId = signalId;
+        this.frequency = frequency;
+        this.bandwidth = bandwidth;
+        this.snrDb = snrDb;
+        this.sampleIndex = sampleIndex;
+        return this;
+    }
+
+    /**
+     * Copies another event into this one.
+     * @param event the event to copy
+     * @return this event
+     */
+    public SignalEvent copy(SignalEvent event) {
+        return this.set(event.type, event.signalId, event.frequency, event.bandwidth, event.snrDb, event.sampleIndex);
+    }
+
+    /**
+     * @return the type of the event
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * @return the identifier of the signal (shared by its START and STOP events)
+     */
+    public long getSignalId() {
+        return signalId;
+    }
+
+    /**
+     * @return the center frequency of the signal, in Hz
+     */
+    public double getFrequency() {
+        return frequency;
+    }
+
+    /**
+     * @return the bandwidth of the signal, in Hz
+     */
+    public double getBandwidth() {
+        return bandwidth;
+    }
+
+    /**
+     * @return the signal to noise ratio of the signal, in dB
+     */
+    public double getSnrDb() {
+        return snrDb;
+    }
+
+    /**
+     * @return the index of the sample of the stream at which the event was detected
+     */
+    public long getSampleIndex() {
+        return sampleIndex;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%s #%d @%d : %.1f Hz, %.1f Hz wide, SNR %.1f dB", this.type, this.signalId, this.sampleIndex, this.frequency, this.bandwidth, this.snrDb);
+    }
+
+}
@@ -0,0 +1,131 @@
+/**
+ * The JPerseusSDR library is free software; you can redistribute 
+ * it and/or modify it under the terms of the GNU Lesser General Public 
+ * License as published by the Free Software Foundation; either version 
+ * 3.0 of the License, or (at your option) any later version.
+ * 
+ * The JPerseusSDR library is distributed in the hope that it will
+ * be useful, but WITHOUT ANY WARRANTY; without even the implied warranty 
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the Perseus SDR Library; 
+ * if not, see 'http://www.gnu.org/licenses/'.
+ * 
+ * This library is assumed to work under J2SE &gt;= 7.
+ * NOTE: It is assumed that the Perseus USB drivers are already installed on your system. The Perseus USB drivers 
+ *       are available in the distribution CD-ROM which comes with the Perseus receiver.
+ * 
+ * This library is inspired from the Microtelecom Software Defined Radio Developer Kit (SDRDK) and is subject to licensing
+ *  conditions contained in the document "SDRDK-Licensing-Agreement-v20.docx" (available under the folder "/resources")
+ *  Microtelecom SDRDK is (c) 2007-2013, Microtelecom s.r.l. - Pavia di Udine, Italy
+ *  Author : Nicolangelo PALERMO - IV3NWV
+ * 
+ * This library is also inspired from the Perseus Software Defined Radio Control Library for Linux (libperseus-sdr),
+ *  originally written by Nicolangelo PALERMO and maintained by Andrea MONTEFUSCO. This library can be found at :
+ *  - https://github.com/Microtelecom/libperseus-sdr
+ * 
+ * The JPerseus library, source code and documentation is published under the GNU Lesser General Public Licence v3
+ *  (available under the folder "/resources").
+ * 
+ * Copyright 2017, Mehdi DHAKOUANI
+ */
+package perseus.dsp.detect;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded lock-free queue of @SignalEvent linking a detector (single producer) to a consumer thread (single consumer).
+ * The events are preallocated : the producer fills a slot in place (@offer) and the consumer copies the oldest event
+ *  into its own object (@poll), so that the queue allocates nothing. When the queue is full, new events are dropped
+ *  and counted.
+ *
+ * @author Mehdi DHAKOUANI
+ * @version 1.0.0
+ */
+public class SignalEventQueue {
+
+    private final SignalEvent[] slots;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long nbDropped = 0;
+
+    /**
+     * Creates an event queue.
+     * @param capacity the minimum number of events the queue can hold (rounded up to a power of 2)
+     */
+    public SignalEventQueue(int capacity) {
+        if (capacity <= 0 || capacity > (1 << 24)) {
+            throw new IllegalArgumentException("The capacity must be a positive integer lower than 2^24.");
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.slots = new SignalEvent[size];
+        for (int i = 0 ; i < size ; i++) {
+            this.slots[i] = new SignalEvent();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * Appends an event (producer side only).
+     * @param type the type of the event
+     * @param signalId the identifier of the signal
+     * @param frequency the center frequency of the signal, in Hz
+     * @param bandwidth the bandwidth of the signal, in Hz
+     * @param snrDb the signal to noise ratio of the signal, in dB
+     * @param sampleIndex the index of the sample at which the event was detected
+     * @return false if the queue is full (the event is dropped)
+     */
+    public boolean offer(SignalEvent.Type type, long signalId, double frequency, double bandwidth, double snrDb, long sampleIndex) {
+        long t = this.tail.get();
+        if (t - this.head.get() >= this.slots.length) {
+            this.nbDropped++;
+            return false;
+        }
+        this.slots[(int) t & this.mask].set(type, signalId, frequency, bandwidth, snrDb, sampleIndex);
+        this.tail.lazySet(t + 1);
+        return true;
+    }
+
+    /**
+     * Removes the oldest event (consumer side only).
+     * @param event the object receiving a copy of the event
+     * @return false if the queue is empty
+     */
+    public boolean poll(SignalEvent event) {
+        long h = this.head.get();
+        if (h >= this.tail.get()) {
+            return false;
+        }
+        event.copy(this.slots[(int) h & this.mask]);
+        this.head.lazySet(h + 1);
+        return true;
+    }
+
+    /**
+     * @return the number of events currently queued (approximate if both sides are running)
+     */
+    public int size() {
+        return (int) Math.max(0, this.tail.get() - this.head.get());
+    }
+
+    /**
+     * @return the number of events the queue can hold
+     */
+    public int getCapacity() {
+        return this.slots.length;
+    }
+
+    /**
+     * @return the number of events dropped because the queue was full
+     */
+    public long getNbDropped() {
+        return nbDropped;
+    }
+
+}
@@ -0,0 +1,266 @@
+/**
+ * The JPerseusSDR library is free software; you can redistribute 
+ * it and/or modify it under the terms of the GNU Lesser General Public 
+ * License as published by the Free Software Foundation; either version 
+ * 3.0 of the License, or (at your option) any later version.
+ * 
+ * The JPerseusSDR library is distributed in the hope that it will
+ * be useful, but WITHOUT ANY WARRANTY; without even the implied warranty 
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the Perseus SDR Library; 
+ * if not, see 'http://www.gnu.org/licenses/'.
+ * 
+ * This library is assumed to work under J2SE &gt;= 7.
+ * NOTE: It is assumed that the Perseus USB drivers are already installed on your system. The Perseus USB drivers 
+ *       are available in the distribution CD-ROM which comes with the Perseus receiver.
+ * 
+ * This library is inspired from the Microtelecom Software Defined Radio Developer Kit (SDRDK) and is subject to licensing
+ *  conditions contained in the document "SDRDK-Licensing-Agreement-v20.docx" (available under the folder "/resources")
+ *  Microtelecom SDRDK is (c) 2007-2013, Microtelecom s.r.l. - Pavia di Udine, Italy
+ *  Author : Nicolangelo PALERMO - IV3NWV
+ * 
+ * This library is also inspired from the Perseus Software Defined Radio Control Library for Linux (libperseus-sdr),
+ *  originally written by Nicolangelo PALERMO and maintained by Andrea MONTEFUSCO. This library can be found at :
+ *  - https://github.com/Microtelecom/libperseus-sdr
+ * 
+ * The JPerseus library, source code and documentation is published under the GNU Lesser General Public Licence v3
+ *  (available under the folder "/resources").
+ * 
+ * Copyright 2017, Mehdi DHAKOUANI
+ */
+package perseus.dsp.fft;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import perseus.dsp.maths.ComplexArray;
+import perseus.dsp.window.Window;
+import perseus.utils.XTools;
+
+/**
+ * Computes the FFTs of all the overlapping frames of a large block of samples in parallel.
+ * The block is cut into frames of 'frameSize' points, two consecutive frames sharing 'overlap' points, each frame being
+ *  optionally windowed and transformed with @FastFFT. The results are written in one preallocated output matrix
+ *  (row-major : frame 'f' occupies the indexes [f*frameSize, (f+1)*frameSize) of the output arrays).
+ *
+ * The frames are split recursively over a @ForkJoinPool until a task holds no more frames than fit in the L2 cache
+ *  (input, output and twiddles of each frame), so that each worker transforms cache-resident data.
+ *
+ * @author Mehdi DHAKOUANI
+ * @version 1.0.0
+ */
+public class BatchFFT {
+
+    /** Default size of the per-core L2 cache, in bytes */
+    public static final int DEFAULT_L2_CACHE_SIZE = 256 * 1024;
+
+    private final int frameSize;
+    private final int overlap;
+    private final int hop;
+    private final FastFFT fft;
+    private final ForkJoinPool pool;
+    private double[] window = null;
+    private int framesPerTask;
+
+    /**
+     * Creates a batch FFT processor running on the pool shared by the library.
+     * @param frameSize the number of points of each frame (must be a power of 2)
+     * @param overlap the number of points shared by two consecutive frames (0 ≤ overlap &lt; frameSize)
+     */
+    public BatchFFT(int frameSize, int overlap) {
+        this(frameSize, overlap, XTools.GetForkJoinPool());
+    }
+
+    /**
+     * Creates a batch FFT processor.
+     * @param frameSize the number of points of each frame (must be a power of 2)
+     * @param overlap the number of points shared by two consecutive frames (0 ≤ overlap &lt; frameSize)
+     * @param pool the @ForkJoinPool running the transforms
+     */
+    public BatchFFT(int frameSize, int overlap, ForkJoinPool pool) {
+        if (overlap < 0 || overlap >= frameSize) {
+            throw new IllegalArgumentException("The overlap must be a positive integer lower than the frame size.");
+        }
+        if (pool == null) {
+            throw new IllegalArgumentException("The provided pool must not be 'null'.");
+        }
+        this.fft = FastFFT.GetInstance(frameSize);
+        this.frameSize = frameSize;
+        this.overlap = overlap;
+        this.hop = frameSize - overlap;
+        this.pool = pool;
+        this.setCacheSize(DEFAULT_L2_CACHE_SIZE);
+    }
+
+    /**
+     * Sets the cache size used to split the work : each task transforms as many frames as fit in 'cacheSize' bytes.
+     * @param cacheSize the size of the L2 cache of one core, in bytes
+     */
+    public final void setCacheSize(int cacheSize) {
+        // Per point : input (re, im), output (re, im) and twiddles (re, im) = 6 doubles
+        this.framesPerTask = Math.max(1, cacheSize / (this.frameSize * 6 * 8));
+    }
+
+    /**
+     * Sets the window applied to each frame before its FFT.
+     * @param window the window (its number of points must match the frame size), or null for no windowing
+     */
+    public void setWindow(Window window) {
+        if (window == null) {
+            this.window = null;
+        } else if (window.getResult().length != this.frameSize) {
+            throw new IllegalArgumentException("The number of points of the window must match the frame size.");
+        } else {
+            this.window = window.getResult();
+        }
+    }
+
+    /**
+     * Computes the number of complete frames contained in a block of samples.
+     * @param nbSamples the number of samples of the block
+     * @return the number of frames (i.e. the number of rows of the output matrix)
+     */
+    public int getNbFrames(int nbSamples) {
+        return nbSamples < this.frameSize ? 0 : (nbSamples - this.frameSize) / this.hop + 1;
+    }
+
+    /**
+     * @return the number of points of each frame
+     */
+    public int getFrameSize() {
+        return frameSize;
+    }
+
+    /**
+     * @return the number of points shared by two consecutive frames
+     */
+    public int getOverlap() {
+        return overlap;
+    }
+
+    /**
+     * Transforms all the frames of the block (re, im) and writes the results into the output matrix (outRe, outIm).
+     * @param re the real parts of the samples
+     * @param im the imaginary parts of the samples
+     * @param nbSamples the number of samples to process from the start of the arrays
+     * @param outRe the real parts of the output matrix (at least getNbFrames(nbSamples)*frameSize values)
+     * @param outIm the imaginary parts of the output matrix (at least getNbFrames(nbSamples)*frameSize values)
+     * @return the number of frames transformed
+     */
+    public int transform(double[] re, double[] im, int nbSamples, double[] outRe, double[] outIm) {
+        if (re == null || im == null || outRe == null || outIm == null) {
+            throw new IllegalArgumentException("The provided arguments must not be 'null'.");
+        }
+        if (re.length < nbSamples || im.length < nbSamples) {
+            throw new IllegalArgumentException("The input arrays must contain at least 'nbSamples' values.");
+        }
+        int nbFrames = this.getNbFrames(nbSamples);
+        if (outRe.length < nbFrames * this.frameSize || outIm.length < nbFrames * this.frameSize) {
+            throw new IllegalArgumentException("The output matrix must contain at least " + nbFrames + " rows of " + this.frameSize + " points.");
+        }
+        if (nbFrames > 0) {
+            this.pool.invoke(new FrameTask(this, re, im, outRe, outIm, 0, nbFrames));
+        }
+        return nbFrames;
+    }
+
+    /**
+     * Transforms all the frames of a block of samples and writes the results into the output matrix.
+     * @param samples the samples
+     * @param nbSamples the number of samples to process from the start of the array
+     * @param output the output matrix, row-major (at least getNbFrames(nbSamples)*frameSize values)
+     * @return the number of frames transformed
+     */
+    public int transform(ComplexArray samples, int nbSamples, ComplexArray output) {
+        return this.transform(samples.getRe(), samples.getIm(), nbSamples, output.getRe(), output.getIm());
+    }
+
+    private void transformFrames(double[] re, double[] im, double[] outRe, double[] outIm, int first, int last) {
+        double[] w = this.window;
+        for (int f = first ; f < last ; f++) {
+            int src = f * this.hop;
+            int dst = f * this.frameSize;
+            if (w == null) {
+                System.arraycopy(re, src, outRe, dst, this.frameSize);
+                System.arraycopy(im, src, outIm, dst, this.frameSize);
+            } else {
+                for (int i = 0 ; i < this.frameSize ; i++) {
+                    outRe[dst+i] = re[src+i] * w[i];
+                    outIm[dst+i] = im[src+i] * w[i];
+                }
+            }
+            this.fft.forward(outRe, outIm, dst);
+        }
+    }
+
+    /* Splits the range of frames in halves until it fits in the L2 cache */
+    private static class FrameTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final BatchFFT batch;
+        private final double[] re, im, outRe, outIm;
+        private final int first, last;
+
+        FrameTask(BatchFFT batch, double[] re, double[] im, double[] outRe, double[] outIm, int first, int last) {
+            this.batch = batch;
+            this.re = re;
+            this.im = im;
+            this.outRe = outRe;
+            this.outIm = outIm;
+            this.first = first;
+            this.last = last;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.last - this.first <= this.batch.framesPerTask) {
+                this.batch.transformFrames(this.re, this.im, this.outRe, this.outIm, this.first, this.last);
+            } else {
+                int middle = (this.first + this.last) >>> 1;
+                invokeAll(new FrameTask(this.batch, this.re, this.im, this.outRe, this.outIm, this.first, middle),
+                          new FrameTask(this.batch, this.re, this.im, this.outRe, this.outIm, middle, this.last));
+            }
+        }
+
+    }
+
+    /**
+     * Compares the sequential and the parallel processing of one second of 2 MS/s samples, for several frame sizes (50% overlap).
+     * @param args unused
+     */
+    public static void main(String[] args) {
+        int nbSamples = 2000000;
+        Random random = new Random(0);
+        double[] re = new double[nbSamples];
+        double[] im = new double[nbSamples];
+        for (int i = 0 ; i < nbSamples ; i++) {
+            re[i] = random.nextDouble() - 0.5;
+            im[i] = random.nextDouble() - 0.5;
+        }
+        for (int x = 256 ; x <= 65536 ; x *= 4) {
+            BatchFFT batch = new BatchFFT(x, x/2);
+            int nbFrames = batch.getNbFrames(nbSamples);
+            double[] outRe = new double[nbFrames * x];
+            double[] outIm = new double[nbFrames * x];
+            int counter = 10;
+            batch.transform(re, im, nbSamples, outRe, outIm);
+            long t0 = System.nanoTime();
+            for (int i = 0 ; i < counter ; i++) {
+                batch.transformFrames(re, im, outRe, outIm, 0, nbFrames);
+            }
+            long t1 = System.nanoTime();
+            for (int i = 0 ; i < counter ; i++) {
+                batch.transform(re, im, nbSamples, outRe, outIm);
+            }
+            long t2 = System.nanoTime();
+            double sequential = (t1-t0) / 1.0E6 / counter;
+            double parallel = (t2-t1) / 1.0E6 / counter;
+            System.out.println(String.format("     *  frameSize=%6d frames=%6d : sequential=%8.2f ms  parallel=%8.2f ms  speedup=x%4.1f", x, nbFrames, sequential, parallel, sequential/parallel));
+        }
+    }
+
+}
@@ -0,0 +1,332 @@
+/**
+ * The JPerseusSDR library is free software; you can redistribute 
+ * it and/or modify it under the terms of the GNU Lesser General Public 
+ * License as published by the Free Software Foundation; either version 
+ * 3.0 of the License, or (at your option) any later version.
+ * 
+ * The JPerseusSDR library is distributed in the hope that it will
+ * be useful, but WITHOUT ANY WARRANTY; without even the implied warranty 
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the Perseus SDR Library; 
+ * if not, see 'http://www.gnu.org/licenses/'.
+ * 
+ * This library is assumed to work under J2SE &gt;= 7.
+ * NOTE: It is assumed that the Perseus USB drivers are already installed on your system. The Perseus USB drivers 
+ *       are available in the distribution CD-ROM which comes with the Perseus receiver.
+ * 
+ * This library is inspired from the Microtelecom Software Defined Radio Developer Kit (SDRDK) and is subject to licensing
+ *  conditions contained in the document "SDRDK-Licensing-Agreement-v20.docx" (available under the folder "/resources")
+ *  Microtelecom SDRDK is (c) 2007-2013, Microtelecom s.r.l. - Pavia di Udine, Italy
+ *  Author : Nicolangelo PALERMO - IV3NWV
+ * 
+ * This library is also inspired from the Perseus Software Defined Radio Control Library for Linux (libperseus-sdr),
+ *  originally written by Nicolangelo PALERMO and maintained by Andrea MONTEFUSCO. This library can be found at :
+ *  - https://github.com/Microtelecom/libperseus-sdr
+ * 
+ * The JPerseus library, source code and documentation is published under the GNU Lesser General Public Licence v3
+ *  (available under the folder "/resources").
+ * 
+ * Copyright 2017, Mehdi DHAKOUANI
+ */
+package perseus.dsp.fft;
+
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import perseus.dsp.maths.Complex;
+import perseus.dsp.maths.ComplexArray;
+
+/**
+ * In-place FFT working on split real/imaginary arrays of primitive doubles.
+ * Unlike @SimpleFFT, no object is allocated when transforming : the bit-reversal permutation and the twiddle factors
+ *  are computed once per size (an FFT "plan") and the butterflies are applied directly to the caller's arrays.
+ *
+ * The butterflies are processed two radix-2 stages at a time (radix-2² kernel, equivalent to a radix-4 pass), halving
+ *  the number of passes over memory. A single radix-2 stage is applied first when log2(nbPoints) is odd.
+ * The twiddle factors of each stage are stored contiguously (stage of half-size 'h' uses indexes [h, 2h) of the tables),
+ *  so that the inner loops only perform unit-stride loads and stores on independent butterflies, a pattern the HotSpot
+ *  C2 compiler turns into SIMD instructions on its own.
+ *
+ * A plan is immutable once created and may be shared by several threads.
+ *
+ * @author Mehdi DHAKOUANI
+ * @version 1.0.0
+ */
+public class FastFFT {
+
+    private static final ConcurrentMap<Integer, FastFFT> PLANS = new ConcurrentHashMap<>();
+
+    private final int nbPoints;
+    private final int log2;
+    private final int[] bitReverse;
+    private final double[] twiddleRe;
+    private final double[] twiddleIm;
+
+    private FastFFT(int nbPoints) {
+        this.nbPoints = nbPoints;
+        this.log2 = Integer.numberOfTrailingZeros(nbPoints);
+
+        // Pairs of indexes to swap for the bit-reversal permutation (each pair stored once)
+        int count = 0;
+        int[] pairs = new int[nbPoints];
+        for (int i = 0 ; i < nbPoints ; i++) {
+            int j = this.log2 == 0 ? 0 : Integer.reverse(i) >>> (32 - this.log2);
+            if (i < j) {
+                pairs[count++] = i;
+                pairs[count++] = j;
+            }
+        }
+        this.bitReverse = new int[count];
+        System.arraycopy(pairs, 0, this.bitReverse, 0, count);
+
+        // Twiddle factors W(2h)^j = exp(-i*PI*j/h) of stage 'h' stored at index h+j
+        this.twiddleRe = new double[Math.max(nbPoints, 2)];
+        this.twiddleIm = new double[Math.max(nbPoints, 2)];
+        for (int h = 1 ; h < nbPoints ; h <<= 1) {
+            for (int j = 0 ; j < h ; j++) {
+                double angle = -Math.PI * j / h;
+                this.twiddleRe[h+j] = Math.cos(angle);
+                this.twiddleIm[h+j] = Math.sin(angle);
+            }
+        }
+    }
+
+    /**
+     * Retrieves the FFT plan for the given number of points (creating it if it does not exist yet).
+     * @param nbPoints the number of points of the FFT (must be a power of 2)
+     * @return the FFT plan
+     */
+    public static FastFFT GetInstance(int nbPoints) {
+        if (nbPoints <= 0 || (nbPoints & -nbPoints) != nbPoints) {
+            // Fastest technique to check if the number of points is a power of 2 or not
+            throw new IllegalArgumentException("The number of points is not a power of 2.");
+        }
+        FastFFT plan = PLANS.get(nbPoints);
+        if (plan == null) {
+            plan = new FastFFT(nbPoints);
+            FastFFT existing = PLANS.putIfAbsent(nbPoints, plan);
+            if (existing != null) {
+                plan = existing;
+            }
+        }
+        return plan;
+    }
+
+    /**
+     * @return the number of points of this FFT plan
+     */
+    public int getNbPoints() {
+        return nbPoints;
+    }
+
+    /**
+     * Computes in place the forward FFT of the complex sequence (re, im).
+     * @param re the real parts (nbPoints values, overwritten with the real parts of the FFT)
+     * @param im the imaginary parts (nbPoints values, overwritten with the imaginary parts of the FFT)
+     */
+    public void forward(double[] re, double[] im) {
+        this.forward(re, im, 0);
+    }
+
+    /**
+     * Computes in place the forward FFT of the complex sequence (re, im) starting at 'offset'.
+     * @param re the real parts (overwritten with the real parts of the FFT)
+     * @param im the imaginary parts (overwritten with the imaginary parts of the FFT)
+     * @param offset the index of the first point of the sequence in both arrays
+     */
+    public void forward(double[] re, double[] im, int offset) {
+        if (re == null || im == null) {
+            throw new IllegalArgumentException("The provided arguments must not be 'null'.");
+        }
+        if (offset < 0 || re.length - offset < this.nbPoints || im.length - offset < this.nbPoints) {
+            throw new IllegalArgumentException("The provided arrays must contain at least " + this.nbPoints + " points after the offset.");
+        }
+        this.permute(re, im, offset);
+        int h = 1;
+        if ((this.log2 & 1) == 1) {
+            this.radix2(re, im, offset);
+            h = 2;
+        }
+        for ( ; h < this.nbPoints ; h <<= 2) {
+            this.radix4(re, im, offset, h);
+        }
+    }
+
+    /**
+     * Computes in place the forward FFT of a complex array.
+     * @param x the nbPoints complex values (overwritten with the FFT)
+     */
+    public void forward(ComplexArray x) {
+        this.forward(x.getRe(), x.getIm(), 0);
+    }
+
+    /**
+     * Computes in place the forward FFT of the nbPoints values of a complex array starting at 'offset'.
+     * @param x the complex values (overwritten with the FFT)
+     * @param offset the index of the first point of the sequence
+     */
+    public void forward(ComplexArray x, int offset) {
+        this.forward(x.getRe(), x.getIm(), offset);
+    }
+
+    /**
+     * Computes in place the inverse FFT of the complex sequence (re, im), normalized by 1/nbPoints.
+     * @param re the real parts (nbPoints values, overwritten with the real parts of the inverse FFT)
+     * @param im the imaginary parts (nbPoints values, overwritten with the imaginary parts of the inverse FFT)
+     */
+    public void inverse(double[] re, double[] im) {
+        this.inverse(re, im, 0);
+    }
+
+    /**
+     * Computes in place the inverse FFT of the complex sequence (re, im) starting at 'offset', normalized by 1/nbPoints.
+     * @param re the real parts (overwritten with the real parts of the inverse FFT)
+     * @param im the imaginary parts (overwritten with the imaginary parts of the inverse FFT)
+     * @param offset the index of the first point of the sequence in both arrays
+     */
+    public void inverse(double[] re, double[] im, int offset) {
+        // Swapping real and imaginary parts turns the forward transform into an unnormalized inverse one
+        this.forward(im, re, offset);
+        double scale = 1.0 / this.nbPoints;
+        for (int i = offset ; i < offset + this.nbPoints ; i++) {
+            re[i] *= scale;
+            im[i] *= scale;
+        }
+    }
+
+    /**
+     * Computes in place the inverse FFT of a complex array, normalized by 1/nbPoints.
+     * @param x the nbPoints complex values (overwritten with the inverse FFT)
+     */
+    public void inverse(ComplexArray x) {
+        this.inverse(x.getRe(), x.getIm(), 0);
+    }
+
+    /**
+     * Computes in place the inverse FFT of the nbPoints values of a complex array starting at 'offset', normalized by 1/nbPoints.
+     * @param x the complex values (overwritten with the inverse FFT)
+     * @param offset the index of the first point of the sequence
+     */
+    public void inverse(ComplexArray x, int offset) {
+        this.inverse(x.getRe(), x.getIm(), offset);
+    }
+
+    private void permute(double[] re, double[] im, int offset) {
+        int[] pairs = this.bitReverse;
+        for (int k = 0 ; k < pairs.length ; k += 2) {
+            int i = offset + pairs[k];
+            int j = offset + pairs[k+1];
+            double tr = re[i];
+            re[i] = re[j];
+            re[j] = tr;
+            double ti = im[i];
+            im[i] = im[j];
+            im[j] = ti;
+        }
+    }
+
+    /* First stage (h=1) when log2(nbPoints) is odd : trivial twiddles */
+    private void radix2(double[] re, double[] im, int offset) {
+        for (int a = offset ; a < offset + this.nbPoints ; a += 2) {
+            double ar = re[a], ai = im[a];
+            double br = re[a+1], bi = im[a+1];
+            re[a] = ar + br;
+            im[a] = ai + bi;
+            re[a+1] = ar - br;
+            im[a+1] = ai - bi;
+        }
+    }
+
+    /* Stages 'h' and '2h' fused : for each quadruple (a, b, c, d) = (j, j+h, j+2h, j+3h) of a block of 4h points,
+     *  stage h combines (a,b) and (c,d) with w1 = W(2h)^j, stage 2h combines (a',c') with w2 = W(4h)^j
+     *  and (b',d') with W(4h)^(j+h) = -i.w2 */
+    private void radix4(double[] re, double[] im, int offset, int h) {
+        double[] twr = this.twiddleRe;
+        double[] twi = this.twiddleIm;
+        for (int k = offset ; k < offset + this.nbPoints ; k += 4*h) {
+            for (int j = 0 ; j < h ; j++) {
+                int a = k + j;
+                int b = a + h;
+                int c = b + h;
+                int d = c + h;
+                double w1r = twr[h+j], w1i = twi[h+j];
+                double w2r = twr[2*h+j], w2i = twi[2*h+j];
+
+                // Stage h
+                double ar = re[a], ai = im[a];
+                double br = re[b]*w1r - im[b]*w1i;
+                double bi = re[b]*w1i + im[b]*w1r;
+                double cr = re[c], ci = im[c];
+                double dr = re[d]*w1r - im[d]*w1i;
+                double di = re[d]*w1i + im[d]*w1r;
+                double a1r = ar + br, a1i = ai + bi;
+                double b1r = ar - br, b1i = ai - bi;
+                double c1r = cr + dr, c1i = ci + di;
+                double d1r = cr - dr, d1i = ci - di;
+
+                // Stage 2h
+                double tcr = c1r*w2r - c1i*w2i;
+                double tci = c1r*w2i + c1i*w2r;
+                double tdr = d1r*w2i + d1i*w2r;     // (-i.w2).d1 real part
+                double tdi = d1i*w2i - d1r*w2r;     // (-i.w2).d1 imaginary part
+                re[a] = a1r + tcr;
+                im[a] = a1i + tci;
+                re[c] = a1r - tcr;
+                im[c] = a1i - tci;
+                re[b] = b1r + tdr;
+                im[b] = b1i + tdi;
+                re[d] = b1r - tdr;
+                im[d] = b1i - tdi;
+            }
+        }
+    }
+
+    /**
+     * Compares FastFFT against SimpleFFT.FFT (maximum absolute error and mean duration per transform) for 256 to 1M points.
+     * @param args unused
+     */
+    public static void main(String[] args) {
+        Random random = new Random(0);
+        for (int x = 256 ; x <= 1048576 ; x *= 2) {
+            double[] re = new double[x];
+            double[] im = new double[x];
+            Complex[] input = new Complex[x];
+            for (int i = 0 ; i < x ; i++) {
+                re[i] = random.nextDouble() - 0.5;
+                im[i] = random.nextDouble() - 0.5;
+                input[i] = new Complex(re[i], im[i]);
+            }
+            FastFFT fft = FastFFT.GetInstance(x);
+            double[] r = re.clone();
+            double[] m = im.clone();
+            fft.forward(r, m);
+            Complex[] expected = SimpleFFT.FFT(input);
+            double error = 0;
+            for (int i = 0 ; i < x ; i++) {
+                error = Math.max(error, Math.abs(expected[i].re() - r[i]));
+                error = Math.max(error, Math.abs(expected[i].im() - m[i]));
+            }
+
+            int counter = Math.max(4, (1 << 22) / x);
+            long t0 = System.nanoTime();
+            for (int i = 0 ; i < counter ; i++) {
+                SimpleFFT.FFT(input);
+            }
+            long t1 = System.nanoTime();
+            for (int i = 0 ; i < counter ; i++) {
+                System.arraycopy(re, 0, r, 0, x);
+                System.arraycopy(im, 0, m, 0, x);
+                fft.forward(r, m);
+            }
+            long t2 = System.nanoTime();
+            double simple = (t1-t0) / 1.0E6 / counter;
+            double fast = (t2-t1) / 1.0E6 / counter;
+            System.out.println(String.format("     *  dimension=%7d : SimpleFFT=%8.3f ms  FastFFT=%8.3f ms  speedup=x%5.1f  error=%.3e", x, simple, fast, simple/fast, error));
+            System.gc();
+        }
+    }
+
+}
@@ -0,0 +1,228 @@
+/**
+ * The JPerseusSDR library is free software; you can redistribute 
+ * it and/or modify it under the terms of the GNU Lesser General Public 
+ * License as published by the Free Software Foundation; either version 
+ * 3.0 of the License, or (at your option) any later version.
+ * 
+ * The JPerseusSDR library is distributed in the hope that it will
+ * be useful, but WITHOUT ANY WARRANTY; without even the implied warranty 
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the Perseus SDR Library; 
+ * if not, see 'http://www.gnu.org/licenses/'.
+ * 
+ * This library is assumed to work under J2SE &gt;= 7.
+ * NOTE: It is assumed that the Perseus USB drivers are already installed on your system. The Perseus USB drivers 
+ *       are available in the distribution CD-ROM which comes with the Perseus receiver.
+ * 
+ * This library is inspired from the Microtelecom Software Defined Radio Developer Kit (SDRDK) and is subject to licensing
+ *  conditions contained in the document "SDRDK-Licensing-Agreement-v20.docx" (available under the folder "/resources")
+ *  Microtelecom SDRDK is (c) 2007-2013, Microtelecom s.r.l. - Pavia di Udine, Italy
+ *  Author : Nicolangelo PALERMO - IV3NWV
+ * 
+ * This library is also inspired from the Perseus Software Defined Radio Control Library for Linux (libperseus-sdr),
+ *  originally written by Nicolangelo PALERMO and maintained by Andrea MONTEFUSCO. This library can be found at :
+ *  - https://github.com/Microtelecom/libperseus-sdr
+ * 
+ * The JPerseus library, source code and documentation is published under the GNU Lesser General Public Licence v3
+ *  (available under the folder "/resources").
+ * 
+ * Copyright 2017, Mehdi DHAKOUANI
+ */
+package perseus.dsp.filter;
+
+import java.util.Arrays;
+import perseus.dsp.window.KaiserWindow;
+
+/**
+ * Cascaded integrator-comb (CIC) decimator : 'order' integrators at the input rate, decimation by 'decimation', then
+ *  'order' combs at the output rate. No multiplication per input sample, whatever the decimation factor.
+ * Samples are converted to 24-bit fixed point and the integrators use 64-bit two's complement arithmetic : their
+ *  overflows wrap around and cancel in the combs, so the result is exact as long as order*log2(decimation) stays
+ *  below 39 bits.
+ * The CIC response droops across the pass band (sinc^order) : DesignCompensation designs the FIR correcting it.
+ *
+ * @author Mehdi DHAKOUANI
+ * @version 1.0.0
+ */
+public class CICDecimator {
+
+    /** Scale of the fixed point conversion (full scale ±1.0 = ±2^23) */
+    private static final double FIXED_POINT_SCALE = 1 << 23;
+    /** Maximum bit growth order*log2(decimation) fitting in 64 bits with 24-bit samples */
+    public static final int MAXIMUM_BIT_GROWTH = 39;
+
+    private final int order;
+    private final int decimation;
+    private final float outputScale;
+    private final long[] integratorsRe;
+    private final long[] integratorsIm;
+    private final long[] delaysRe;
+    private final long[] delaysIm;
+    private int phase = 0;
+
+    /**
+     * Creates a CIC decimator (differential delay of 1).
+     * @param order the number of integrator and comb stages
+     * @param decimation the decimation factor
+     */
+    public CICDecimator(int order, int decimation) {
+        if (order <= 0 || decimation <= 1) {
+            throw new IllegalArgumentException("The order must be a positive integer and the decimation factor must be ≥ 2.");
+        }
+        if (GetBitGrowth(order, decimation) > MAXIMUM_BIT_GROWTH) {
+            throw new IllegalArgumentException("The bit growth of the CIC exceeds " + MAXIMUM_BIT_GROWTH + " bits : reduce the order or the decimation factor.");
+        }
+        this.order = order;
+        this.decimation = decimation;
+        this.outputScale = (float) (1.0 / (FIXED_POINT_SCALE * Math.pow(decimation, order)));
+        this.integratorsRe = new long[order];
+        this.integratorsIm = new long[order];
+        this.delaysRe = new long[order];
+        this.delaysIm = new long[order];
+    }
+
+    /**
+     * @param order the number of integrator and comb stages
+     * @param decimation the decimation factor
+     * @return the number of bits added by the CIC to its input samples
+     */
+    public static int GetBitGrowth(int order, int decimation) {
+        return (int) Math.ceil(order * Math.log(decimation) / Math.log(2));
+    }
+
+    /**
+     * Computes the magnitude response of a CIC decimator.
+     * @param order the number of integrator and comb stages
+     * @param decimation the decimation factor
+     * @param frequency the frequency, normalized to the input rate of the CIC
+     * @return the gain (1 at DC)
+     */
+    public static double GetResponse(int order, int decimation, double frequency) {
+        double x = Math.abs(frequency);
+        if (x < 1.0E-12) {
+            return 1;
+        }
+        double ratio = Math.sin(Math.PI * decimation * x) / (decimation * Math.sin(Math.PI * x));
+        return Math.pow(Math.abs(ratio), order);
+    }
+
+    /**
+     * Designs a low-pass FIR filter compensating the droop of a CIC decimator across its pass band (windowed inverse
+     *  sinc^order response, Kaiser window). The filter may run at a lower rate than the CIC output (eg: after half-band
+     *  decimators) : frequencies are normalized to the input rate of the filter and 'rateRatio' gives the ratio between
+     *  the input rate of the CIC and the input rate of the filter.
+     * @param order the order of the CIC
+     * @param decimation the decimation factor of the CIC
+     * @param rateRatio the input rate of the CIC divided by the input rate of the filter
+     * @param passband the edge of the pass band, normalized to the input rate of the filter
+     * @param stopband the edge of the stop band, normalized to the input rate of the filter
+     * @param attenuationDb the stop-band attenuation, in dB (positive)
+     * @return the coefficients of the filter (unity gain at DC)
+     */
+    public static double[] DesignCompensation(int order, int decimation, double rateRatio, double passband, double stopband, double attenuationDb) {
+        if (passband <= 0 || stopband <= passband || stopband >= 0.5) {
+            throw new IllegalArgumentException("The band edges must verify 0 < passband < stopband < 0.5.");
+        }
+        int nbTaps = KaiserFIR.EstimateNbTaps(attenuationDb, stopband - passband);
+        double cutoff = (passband + stopband) / 2;
+        double edgeCorrection = 1 / GetResponse(order, decimation, passband / rateRatio);
+        double[] taps = KaiserWindow.Generate(new double[nbTaps], KaiserFIR.EstimateBeta(attenuationDb));
+
+        // h[t] = 2.∫[0,cutoff] C(f).cos(2π.f.t).df, C being the inverse CIC response (held constant past the pass band)
+        int nbSteps = 64 * nbTaps;
+        double df = cutoff / nbSteps;
+        double[] correction = new double[nbSteps];
+        for (int s = 0 ; s < nbSteps ; s++) {
+            double f = (s + 0.5) * df;
+            correction[s] = (f <= passband) ? 1 / GetResponse(order, decimation, f / rateRatio) : edgeCorrection;
+        }
+        double center = (nbTaps - 1) / 2.0;
+        double sum = 0;
+        for (int n = 0 ; n < nbTaps ; n++) {
+            double t = n - center;
+            double h = 0;
+            for (int s = 0 ; s < nbSteps ; s++) {
+                h += correction[s] * Math.cos(2 * Math.PI * (s + 0.5) * df * t);
+            }
+            taps[n] *= 2 * h * df;
+            sum += taps[n];
+        }
+        // Unity gain at DC
+        for (int n = 0 ; n < nbTaps ; n++) {
+            taps[n] /= sum;
+        }
+        return taps;
+    }
+
+    /**
+     * Decimates a block of samples in place : the output samples are written from 'offset'.
+     * @param re the real parts of the samples (±1.0 full scale)
+     * @param im the imaginary parts of the samples (±1.0 full scale)
+     * @param offset the index of the first sample
+     * @param length the number of input samples
+     * @return the number of output samples
+     */
+    public int process(float[] re, float[] im, int offset, int length) {
+        final int n = this.order;
+        final long[] ir = this.integratorsRe;
+        final long[] ii = this.integratorsIm;
+        final long[] dr = this.delaysRe;
+        final long[] di = this.delaysIm;
+        final float scale = this.outputScale;
+        int ph = this.phase;
+        int count = 0;
+        for (int i = offset ; i < offset + length ; i++) {
+            long vr = (long) (re[i] * FIXED_POINT_SCALE);
+            long vi = (long) (im[i] * FIXED_POINT_SCALE);
+            for (int k = 0 ; k < n ; k++) {
+                vr = (ir[k] += vr);
+                vi = (ii[k] += vi);
+            }
+            if (++ph == this.decimation) {
+                ph = 0;
+                for (int k = 0 ; k < n ; k++) {
+                    long tr = vr - dr[k];
+                    long ti = vi - di[k];
+                    dr[k] = vr;
+                    di[k] = vi;
+                    vr = tr;
+                    vi = ti;
+                }
+                re[offset + count] = vr * scale;
+                im[offset + count] = vi * scale;
+                count++;
+            }
+        }
+        this.phase = ph;
+        return count;
+    }
+
+    /**
+     * Clears the integrators and the combs.
+     */
+    public void reset() {
+        Arrays.fill(this.integratorsRe, 0);
+        Arrays.fill(this.integratorsIm, 0);
+        Arrays.fill(this.delaysRe, 0);
+        Arrays.fill(this.delaysIm, 0);
+        this.phase = 0;
+    }
+
+    /**
+     * @return the number of integrator and comb stages
+     */
+    public int getOrder() {
+        return order;
+    }
+
+    /**
+     * @return the decimation factor
+     */
+    public int getDecimation() {
+        return decimation;
+    }
+
+}
@@ -0,0 +1,221 @@
+/**
+ * The JPerseusSDR library is free software; you can redistribute 
+ * it and/or modify it under the terms of the GNU Lesser General Public 
+ * License as published by the Free Software Foundation; either version 
+ * 3.0 of the License, or (at your option) any later version.
+ * 
+ * The JPerseusSDR library is distributed in the hope that it will
+ * be useful, but WITHOUT ANY WARRANTY; without even the implied warranty 
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the Perseus SDR Library; 
+ * if not, see 'http://www.gnu.org/licenses/'.
+ * 
+ * This library is assumed to work under J2SE &gt;= 7.
+ * NOTE: It is assumed that the Perseus USB drivers are already installed on your system. The Perseus USB drivers 
+ *       are available in the distribution CD-ROM which comes with the Perseus receiver.
+ * 
+ * This library is inspired from the Microtelecom Software Defined Radio Developer Kit (SDRDK) and is subject to licensing
+ *  conditions contained in the document "SDRDK-Licensing-Agreement-v20.docx" (available under the folder "/resources")
+ *  Microtelecom SDRDK is (c) 2007-2013, Microtelecom s.r.l. - Pavia di Udine, Italy
+ *  Author : Nicolangelo PALERMO - IV3NWV
+ * 
+ * This library is also inspired from the Perseus Software Defined Radio Control Library for Linux (libperseus-sdr),
+ *  originally written by Nicolangelo PALERMO and maintained by Andrea MONTEFUSCO. This library can be found at :
+ *  - https://github.com/Microtelecom/libperseus-sdr
+ * 
+ * The JPerseus library, source code and documentation is published under the GNU Lesser General Public Licence v3
+ *  (available under the folder "/resources").
+ * 
+ * Copyright 2017, Mehdi DHAKOUANI
+ */
+package perseus.dsp.filter;
+
+import java.util.Arrays;
+
+/**
+ * Streaming FIR filter with real coefficients applied to complex samples, keeping only one output sample every
+ *  'decimation' input samples (the dropped outputs are not computed).
+ * The delay line is doubled (each sample is written twice, 'nbTaps' apart) so that the last 'nbTaps' samples are
+ *  always contiguous : each output is a plain dot product, without any modulo in the inner loop.
+ * The state is kept from a call to the next, so a stream may be processed in blocks of any length.
+ *
+ * @author Mehdi DHAKOUANI
+ * @version 1.0.0
+ */
+public class DecimatingFIR {
+
+    private final double[] taps;
+    private final int nbTaps;
+    private final int decimation;
+    private final double[] lineRe;
+    private final double[] lineIm;
+    private int position = 0;
+    private int phase = 0;
+
+    /**
+     * Creates a decimating filter.
+     * @param taps the coefficients of the filter
+     * @param decimation the decimation factor (1 = no decimation)
+     */
+    public DecimatingFIR(double[] taps, int decimation) {
+        if (taps == null || taps.length == 0) {
+            throw new IllegalArgumentException("The filter must have at least one coefficient.");
+        }
+        if (decimation <= 0) {
+            throw new IllegalArgumentException("The decimation factor must be a positive integer.");
+        }
+        this.nbTaps = taps.length;
+        this.decimation = decimation;
+        // Reversed coefficients : the oldest sample of the delay line is multiplied by the last coefficient
+        this.taps = new double[this.nbTaps];
+        for (int k = 0 ; k < this.nbTaps ; k++) {
+            this.taps[k] = taps[this.nbTaps - 1 - k];
+        }
+        this.lineRe = new double[2 * this.nbTaps];
+        this.lineIm = new double[2 * this.nbTaps];
+    }
+
+    /**
+     * Filters and decimates a block of samples.
+     * The output may overwrite the input (same arrays) as long as 'outOffset' ≤ 'offset'.
+     * @param re the real parts of the input samples
+     * @param im the imaginary parts of the input samples
+     * @param offset the index of the first input sample
+     * @param length the number of input samples
+     * @param outRe the array receiving the real parts of the output samples
+     * @param outIm the array receiving the imaginary parts of the output samples
+     * @param outOffset the index of the first output sample
+     * @return the number of output samples written
+     */
+    public int process(double[] re, double[] im, int offset, int length, double[] outRe, double[] outIm, int outOffset) {
+        final double[] h = this.taps;
+        final double[] lr = this.lineRe;
+        final double[] li = this.lineIm;
+        final int n = this.nbTaps;
+        int pos = this.position;
+        int ph = this.phase;
+        int count = 0;
+        for (int i = offset ; i < offset + length ; i++) {
+            double xr = re[i];
+            double xi = im[i];
+            lr[pos] = xr;
+            lr[pos + n] = xr;
+            li[pos] = xi;
+            li[pos + n] = xi;
+            if (ph == 0) {
+                // The last 'n' samples are line[pos+1 .. pos+n]
+                double yr = 0;
+                double yi = 0;
+                int base = pos + 1;
+                for (int k = 0 ; k < n ; k++) {
+                    yr += h[k] * lr[base + k];
+                    yi += h[k] * li[base + k];
+                }
+                outRe[outOffset + count] = yr;
+                outIm[outOffset + count] = yi;
+                count++;
+            }
+            if (++ph == this.decimation) {
+                ph = 0;
+            }
+            if (++pos == n) {
+                pos = 0;
+            }
+        }
+        this.position = pos;
+        this.phase = ph;
+        return count;
+    }
+
+    /**
+     * Filters and decimates a block of samples in single precision (the delay line and the sums stay in double precision).
+     * The output may overwrite the input (same arrays) as long as 'outOffset' ≤ 'offset'.
+     * @param re the real parts of the input samples
+     * @param im the imaginary parts of the input samples
+     * @param offset the index of the first input sample
+     * @param length the number of input samples
+     * @param outRe the array receiving the real parts of the output samples
+     * @param outIm the array receiving the imaginary parts of the output samples
+     * @param outOffset the index of the first output sample
+     * @return the number of output samples written
+     */
+    public int process(float[] re, float[] im, int offset, int length, float[] outRe, float[] outIm, int outOffset) {
+        final double[] h = this.taps;
+        final double[] lr = this.lineRe;
+        final double[] li = this.lineIm;
+        final int n = this.nbTaps;
+        int pos = this.position;
+        int ph = this.phase;
+        int count = 0;
+        for (int i = offset ; i < offset + length ; i++) {
+            double xr = re[i];
+            double xi = im[i];
+            lr[pos] = xr;
+            lr[pos + n] = xr;
+            li[pos] = xi;
+            li[pos + n] = xi;
+            if (ph == 0) {
+                double yr = 0;
+                double yi = 0;
+                int base = pos + 1;
+                for (int k = 0 ; k < n ; k++) {
+                    yr += h[k] * lr[base + k];
+                    yi += h[k] * li[base + k];
+                }
+                outRe[outOffset + count] = (float) yr;
+                outIm[outOffset + count] = (float) yi;
+                count++;
+            }
+            if (++ph == this.decimation) {
+                ph = 0;
+            }
+            if (++pos == n) {
+                pos = 0;
+            }
+        }
+        this.position = pos;
+        this.phase = ph;
+        return count;
+    }
+
+    /**
+     * Computes the number of output samples the next call to 'process' will produce.
+     * @param length the number of input samples
+     * @return the number of output samples
+     */
+    public int getNbOutputs(int length) {
+        if (length <= 0) {
+            return 0;
+        }
+        int first = (this.phase == 0) ? 0 : this.decimation - this.phase;
+        return (length > first) ? (length - first - 1) / this.decimation + 1 : 0;
+    }
+
+    /**
+     * Clears the delay line.
+     */
+    public void reset() {
+        Arrays.fill(this.lineRe, 0);
+        Arrays.fill(this.lineIm, 0);
+        this.position = 0;
+        this.phase = 0;
+    }
+
+    /**
+     * @return the number of coefficients of the filter
+     */
+    public int getNbTaps() {
+        return nbTaps;
+    }
+
+    /**
+     * @return the decimation factor
+     */
+    public int getDecimation() {
+        return decimation;
+    }
+
+}
@@ -0,0 +1,265 @@
+/**
+ * The JPerseusSDR library is free software; you can redistribute 
+ * it and/or modify it under the terms of the GNU Lesser General Public 
+ * License as published by the Free Software Foundation; either version 
+ * 3.0 of the License, or (at your option) any later version.
+ * 
+ * The JPerseusSDR library is distributed in the hope that it will
+ * be useful, but WITHOUT ANY WARRANTY; without even the implied warranty 
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the Perseus SDR Library; 
+ * if not, see 'http://www.gnu.org/licenses/'.
+ * 
+ * This library is assumed to work under J2SE &gt;= 7.
+ * NOTE: It is assumed that the Perseus USB drivers are already installed on your system. The Perseus USB drivers 
+ *       are available in the distribution CD-ROM which comes with the Perseus receiver.
+ * 
+ * This library is inspired from the Microtelecom Software Defined Radio Developer Kit (SDRDK) and is subject to licensing
+ *  conditions contained in the document "SDRDK-Licensing-Agreement-v20.docx" (available under the folder "/resources")
+ *  Microtelecom SDRDK is (c) 2007-2013, Microtelecom s.r.l. - Pavia di Udine, Italy
+ *  Author : Nicolangelo PALERMO - IV3NWV
+ * 
+ * This library is also inspired from the Perseus Software Defined Radio Control Library for Linux (libperseus-sdr),
+ *  originally written by Nicolangelo PALERMO and maintained by Andrea MONTEFUSCO. This library can be found at :
+ *  - https://github.com/Microtelecom/libperseus-sdr
+ * 
+ * The JPerseus library, source code and documentation is published under the GNU Lesser General Public Licence v3
+ *  (available under the folder "/resources").
+ * 
+ * Copyright 2017, Mehdi DHAKOUANI
+ */
+package perseus.dsp.filter;
+
+import java.util.Random;
+
+/**
+ * Chain of decimators planned automatically for a large integer decimation factor (eg: from the 6.5536 MS/s WB
+ *  stream or from 2 MS/s down to a narrow channel) :
+ *  - a @CICDecimator takes the odd part and most of the factor (no multiplication, whatever its factor),
+ *  - up to MAXIMUM_HALF_BANDS @HalfBandDecimator stages halve the rate at a quarter of the cost of a plain FIR,
+ *  - a final @DecimatingFIR decimating by 2 (or by the smallest prime factor of odd factors) sets the channel edges
+ *      and compensates the droop of the CIC.
+ * The pass band [-bandwidth/2, bandwidth/2] is protected from aliasing by every stage with at least the requested
+ *  stop-band attenuation. The whole chain processes blocks in place.
+ *
+ * @author Mehdi DHAKOUANI
+ * @version 1.0.0
+ */
+public class DecimationChain {
+
+    /** Default stop-band attenuation of the chain, in dB */
+    public static final double DEFAULT_ATTENUATION = 80;
+    /** Maximum number of half-band stages */
+    public static final int MAXIMUM_HALF_BANDS = 2;
+    /** Maximum order of the CIC */
+    public static final int MAXIMUM_CIC_ORDER = 6;
+
+    private final double inputRate;
+    private final double bandwidth;
+    private final int decimation;
+    private final CICDecimator cic;
+    private final HalfBandDecimator[] halfBands;
+    private final DecimatingFIR compensation;
+
+    /**
+     * Plans a decimation chain with the default stop-band attenuation.
+     * @param inputRate the sample rate of the input stream, in samples per second
+     * @param decimation the total decimation factor
+     * @param bandwidth the (two-sided) bandwidth to keep, in Hz (lower than the output rate)
+     */
+    public DecimationChain(double inputRate, int decimation, double bandwidth) {
+        this(inputRate, decimation, bandwidth, DEFAULT_ATTENUATION);
+    }
+
+    /**
+     * Plans a decimation chain.
+     * @param inputRate the sample rate of the input stream, in samples per second
+     * @param decimation the total decimation factor
+     * @param bandwidth the (two-sided) bandwidth to keep, in Hz (lower than the output rate)
+     * @param attenuationDb the stop-band attenuation of every stage, in dB (positive)
+     */
+    public DecimationChain(double inputRate, int decimation, double bandwidth, double attenuationDb) {
+        if (inputRate <= 0 || decimation <= 1) {
+            throw new IllegalArgumentException("The input rate must be positive and the decimation factor must be ≥ 2.");
+        }
+        double outputRate = inputRate / decimation;
+        if (bandwidth <= 0 || bandwidth >= outputRate) {
+            throw new IllegalArgumentException("The bandwidth must be positive and lower than the output rate (" + outputRate + " Hz).");
+        }
+        this.inputRate = inputRate;
+        this.bandwidth = bandwidth;
+        this.decimation = decimation;
+
+        // Split the factor : CIC x 2^nbHalfBands x final FIR (2, or the smallest prime factor of odd factors)
+        int twos = Math.min(Integer.numberOfTrailingZeros(decimation), MAXIMUM_HALF_BANDS + 1);
+        int finalFactor = 2;
+        if (twos == 0) {
+            finalFactor = 3;
+            while (decimation % finalFactor != 0) {
+                finalFactor += 2;
+            }
+        }
+        int nbHalfBands = Math.max(0, twos - 1);
+        int cicFactor = decimation / finalFactor >> nbHalfBands;
+
+        double rate = inputRate;
+        int cicOrder = 0;
+        if (cicFactor > 1) {
+            cicOrder = GetCICOrder(cicFactor, (rate / cicFactor - bandwidth / 2) / rate, attenuationDb);
+            this.cic = new CICDecimator(cicOrder, cicFactor);
+            rate /= cicFactor;
+        } else {
+            this.cic = null;
+        }
+        this.halfBands = new HalfBandDecimator[nbHalfBands];
+        for (int h = 0 ; h < nbHalfBands ; h++) {
+            this.halfBands[h] = new HalfBandDecimator(bandwidth / 2 / rate, attenuationDb);
+            rate /= 2;
+        }
+        double passband = bandwidth / 2 / rate;
+        double stopband = (outputRate - bandwidth / 2) / rate;
+        double[] taps = (this.cic == null)
+                ? KaiserFIR.LowPass((passband + stopband) / 2, stopband - passband, attenuationDb)
+                : CICDecimator.DesignCompensation(cicOrder, cicFactor, inputRate / rate, passband, stopband, attenuationDb);
+        this.compensation = new DecimatingFIR(taps, finalFactor);
+    }
+
+    /**
+     * Computes the lowest CIC order rejecting the first alias band by a given attenuation (MAXIMUM_CIC_ORDER at most,
+     *  and within the bit growth supported by @CICDecimator).
+     * @param decimation the decimation factor of the CIC
+     * @param aliasFrequency the lowest frequency aliasing onto the pass band, normalized to the input rate of the CIC
+     * @param attenuationDb the required attenuation, in dB (positive)
+     * @return the order of the CIC
+     */
+    public static int GetCICOrder(int decimation, double aliasFrequency, double attenuationDb) {
+        double gain = CICDecimator.GetResponse(1, decimation, aliasFrequency);
+        int order = 1;
+        while (order < MAXIMUM_CIC_ORDER && -20 * order * Math.log10(gain) < attenuationDb
+                && CICDecimator.GetBitGrowth(order + 1, decimation) <= CICDecimator.MAXIMUM_BIT_GROWTH) {
+            order++;
+        }
+        return order;
+    }
+
+    /**
+     * Decimates a block of samples in place : the output samples are written from 'offset'.
+     * @param re the real parts of the samples (±1.0 full scale)
+     * @param im the imaginary parts of the samples (±1.0 full scale)
+     * @param offset the index of the first sample
+     * @param length the number of input samples
+     * @return the number of output samples
+     */
+    public int process(float[] re, float[] im, int offset, int length) {
+        int count = length;
+        if (this.cic != null) {
+            count = this.cic.process(re, im, offset, count);
+        }
+        for (HalfBandDecimator halfBand : this.halfBands) {
+            count = halfBand.process(re, im, offset, count);
+        }
+        return this.compensation.process(re, im, offset, count, re, im, offset);
+    }
+
+    /**
+     * Clears the state of all the stages.
+     */
+    public void reset() {
+        if (this.cic != null) {
+            this.cic.reset();
+        }
+        for (HalfBandDecimator halfBand : this.halfBands) {
+            halfBand.reset();
+        }
+        this.compensation.reset();
+    }
+
+    /**
+     * @return the sample rate of the input stream, in samples per second
+     */
+    public double getInputRate() {
+        return inputRate;
+    }
+
+    /**
+     * @return the sample rate of the output stream, in samples per second
+     */
+    public double getOutputRate() {
+        return this.inputRate / this.decimation;
+    }
+
+    /**
+     * @return the (two-sided) bandwidth kept, in Hz
+     */
+    public double getBandwidth() {
+        return bandwidth;
+    }
+
+    /**
+     * @return the total decimation factor
+     */
+    public int getDecimation() {
+        return decimation;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        if (this.cic != null) {
+            sb.append(String.format("CIC(order=%d, /%d) > ", this.cic.getOrder(), this.cic.getDecimation()));
+        }
+        for (HalfBandDecimator halfBand : this.halfBands) {
+            sb.append(String.format("HB(%d taps, /2) > ", halfBand.getNbTaps()));
+        }
+        sb.append(String.format("FIR(%d taps, /%d)", this.compensation.getNbTaps(), this.compensation.getDecimation()));
+        return sb.toString();
+    }
+
+    /**
+     * Plans chains for typical Perseus rates and measures their throughput on one core (in millions of input samples
+     *  per second).
+     * @param args unused
+     */
+    public static void main(String[] args) {
+        double[][] cases = {
+            // input rate, decimation, bandwidth
+            {6553600, 128, 40000},
+            {6553600, 1024, 5000},
+            {2000000, 40, 40000},
+            {2000000, 125, 12000},
+            {2000000, 400, 3000}
+        };
+        int blockSize = 16384;
+        int nbBlocks = 512;
+        float[] re = new float[blockSize];
+        float[] im = new float[blockSize];
+        float[] sourceRe = new float[blockSize];
+        float[] sourceIm = new float[blockSize];
+        Random random = new Random(0);
+        for (int i = 0 ; i < blockSize ; i++) {
+            sourceRe[i] = (float) (random.nextDouble() - 0.5);
+            sourceIm[i] = (float) (random.nextDouble() - 0.5);
+        }
+        for (double[] c : cases) {
+            DecimationChain chain = new DecimationChain(c[0], (int) c[1], c[2]);
+            for (int warmup = 0 ; warmup < 2 ; warmup++) {
+                long duration = 0;
+                for (int b = 0 ; b < nbBlocks ; b++) {
+                    System.arraycopy(sourceRe, 0, re, 0, blockSize);
+                    System.arraycopy(sourceIm, 0, im, 0, blockSize);
+                    long t0 = System.nanoTime();
+                    chain.process(re, im, 0, blockSize);
+                    duration += System.nanoTime() - t0;
+                }
+                if (warmup == 1) {
+                    double msps = (double) blockSize * nbBlocks / (duration / 1.0E9) / 1.0E6;
+                    System.out.println(String.format("%9.0f S/s /%4d (bw=%6.0f Hz) : %7.1f MS/s per core  %s", c[0], (int) c[1], c[2], msps, chain));
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,240 @@
+/**
+ * The JPerseusSDR library is free software; you can redistribute 
+ * it and/or modify it under the terms of the GNU Lesser General Public 
+ * License as published by the Free Software Foundation; either version 
+ * 3.0 of the License, or (at your option) any later version.
+ * 
+ * The JPerseusSDR library is distributed in the hope that it will
+ * be useful, but WITHOUT ANY WARRANTY; without even the implied warranty 
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the Perseus SDR Library; 
+ * if not, see 'http://www.gnu.org/licenses/'.
+ * 
+ * This library is assumed to work under J2SE &gt;= 7.
+ * NOTE: It is assumed that the Perseus USB drivers are already installed on your system. The Perseus USB drivers 
+ *       are available in the distribution CD-ROM which comes with the Perseus receiver.
+ * 
+ * This library is inspired from the Microtelecom Software Defined Radio Developer Kit (SDRDK) and is subject to licensing
+ *  conditions contained in the document "SDRDK-Licensing-Agreement-v20.docx" (available under the folder "/resources")
+ *  Microtelecom SDRDK is (c) 2007-2013, Microtelecom s.r.l. - Pavia di Udine, Italy
+ *  Author : Nicolangelo PALERMO - IV3NWV
+ * 
+ * This library is also inspired from the Perseus Software Defined Radio Control Library for Linux (libperseus-sdr),
+ *  originally written by Nicolangelo PALERMO and maintained by Andrea MONTEFUSCO. This library can be found at :
+ *  - https://github.com/Microtelecom/libperseus-sdr
+ * 
+ * The JPerseus library, source code and documentation is published under the GNU Lesser General Public Licence v3
+ *  (available under the folder "/resources").
+ * 
+ * Copyright 2017, Mehdi DHAKOUANI
+ */
+package perseus.dsp.filter;
+
+import java.util.Arrays;
+import perseus.dsp.fft.FastFFT;
+import perseus.dsp.maths.ComplexArray;
+
+/**
+ * Abstract class used for streaming FIR filtering through fast convolution (FFT - point-wise product - inverse FFT).
+ * The spectrum of the filter is computed once at creation and every buffer is allocated once, so that streaming
+ *  blocks of any length can be filtered without allocation.
+ *
+ * Samples are gathered in blocks of 'blockLength' points : each complete block is filtered as a whole while the
+ *  output of the previous one is handed back, sample for sample, as new input arrives. The output is thus the filtered
+ *  input delayed by a constant latency of 'blockLength' samples, whatever the length of the blocks provided.
+ *
+ * @author Mehdi DHAKOUANI
+ * @version 1.0.0
+ */
+public abstract class FFTFilter {
+
+    protected final int nbTaps;
+    protected final int fftSize;
+    protected final int blockLength;
+    protected final FastFFT fft;
+    protected final double[] spectrumRe;
+    protected final double[] spectrumIm;
+    protected final double[] workRe;
+    protected final double[] workIm;
+    protected final double[] inputRe;
+    protected final double[] inputIm;
+    protected final double[] outputRe;
+    protected final double[] outputIm;
+    private int position = 0;
+
+    /**
+     * Creates a fast-convolution filter.
+     * @param tapsRe the real parts of the filter coefficients
+     * @param tapsIm the imaginary parts of the filter coefficients (null for a real filter)
+     * @param fftSize the size of the FFT (must be a power of 2, large enough for the number of taps)
+     * @param blockLength the number of new samples filtered by each FFT
+     */
+    protected FFTFilter(double[] tapsRe, double[] tapsIm, int fftSize, int blockLength) {
+        if (tapsRe == null || tapsRe.length == 0) {
+            throw new IllegalArgumentException("The filter must have at least one coefficient.");
+        }
+        if (tapsIm != null && tapsIm.length != tapsRe.length) {
+            throw new IllegalArgumentException("Dimensions of the real and imaginary parts of the coefficients must be identical.");
+        }
+        if (blockLength <= 0) {
+            throw new IllegalArgumentException("The FFT size (" + fftSize + ") is too small for a filter of " + tapsRe.length + " coefficients.");
+        }
+        this.nbTaps = tapsRe.length;
+        this.fftSize = fftSize;
+        this.blockLength = blockLength;
+        this.fft = FastFFT.GetInstance(fftSize);
+
+        // Spectrum of the zero-padded filter
+        this.spectrumRe = new double[fftSize];
+        this.spectrumIm = new double[fftSize];
+        System.arraycopy(tapsRe, 0, this.spectrumRe, 0, this.nbTaps);
+        if (tapsIm != null) {
+            System.arraycopy(tapsIm, 0, this.spectrumIm, 0, this.nbTaps);
+        }
+        this.fft.forward(this.spectrumRe, this.spectrumIm);
+
+        this.workRe = new double[fftSize];
+        this.workIm = new double[fftSize];
+        this.inputRe = new double[blockLength];
+        this.inputIm = new double[blockLength];
+        this.outputRe = new double[blockLength];
+        this.outputIm = new double[blockLength];
+    }
+
+    /**
+     * Computes the default FFT size for a number of coefficients : the smallest power of 2 at least 4 times the filter
+     *  length, so that at least 3/4 of each FFT produces new output samples.
+     * @param nbTaps the number of coefficients of the filter
+     * @return the default FFT size
+     */
+    public static int GetDefaultFFTSize(int nbTaps) {
+        int size = 2;
+        while (size < 4 * (nbTaps - 1)) {
+            size <<= 1;
+        }
+        return size;
+    }
+
+    /**
+     * Filters the block held in 'inputRe/inputIm' and writes the 'blockLength' resulting samples into 'outputRe/outputIm'.
+     */
+    protected abstract void filterBlock();
+
+    /**
+     * Clears the filter state (history of past samples).
+     */
+    protected abstract void clearHistory();
+
+    /**
+     * Filters a block of samples (of any length). The output arrays may be the input arrays (in-place filtering).
+     * @param re the real parts of the input samples
+     * @param im the imaginary parts of the input samples
+     * @param offset the index of the first input sample
+     * @param length the number of samples to filter
+     * @param outRe the real parts of the output samples
+     * @param outIm the imaginary parts of the output samples
+     * @param outOffset the index of the first output sample
+     */
+    public void process(double[] re, double[] im, int offset, int length, double[] outRe, double[] outIm, int outOffset) {
+        if (re == null || im == null || outRe == null || outIm == null) {
+            throw new IllegalArgumentException("The provided arguments must not be 'null'.");
+        }
+        int done = 0;
+        while (done < length) {
+            int chunk = Math.min(this.blockLength - this.position, length - done);
+            System.arraycopy(re, offset + done, this.inputRe, this.position, chunk);
+            System.arraycopy(im, offset + done, this.inputIm, this.position, chunk);
+            System.arraycopy(this.outputRe, this.position, outRe, outOffset + done, chunk);
+            System.arraycopy(this.outputIm, this.position, outIm, outOffset + done, chunk);
+            this.position += chunk;
+            done += chunk;
+            if (this.position == this.blockLength) {
+                this.filterBlock();
+                this.position = 0;
+            }
+        }
+    }
+
+    /**
+     * Filters in place a block of samples (of any length).
+     * @param re the real parts of the samples
+     * @param im the imaginary parts of the samples
+     * @param offset the index of the first sample
+     * @param length the number of samples to filter
+     */
+    public void process(double[] re, double[] im, int offset, int length) {
+        this.process(re, im, offset, length, re, im, offset);
+    }
+
+    /**
+     * Filters a block of samples (of any length). The output array may be the input array (in-place filtering).
+     * @param samples the input samples
+     * @param offset the index of the first input sample
+     * @param length the number of samples to filter
+     * @param output the output samples
+     * @param outOffset the index of the first output sample
+     */
+    public void process(ComplexArray samples, int offset, int length, ComplexArray output, int outOffset) {
+        this.process(samples.getRe(), samples.getIm(), offset, length, output.getRe(), output.getIm(), outOffset);
+    }
+
+    /**
+     * Filters in place all the samples of a complex array.
+     * @param samples the samples
+     */
+    public void process(ComplexArray samples) {
+        this.process(samples.getRe(), samples.getIm(), 0, samples.getLength());
+    }
+
+    /**
+     * Clears all the samples held by the filter.
+     */
+    public void reset() {
+        this.position = 0;
+        Arrays.fill(this.inputRe, 0);
+        Arrays.fill(this.inputIm, 0);
+        Arrays.fill(this.outputRe, 0);
+        Arrays.fill(this.outputIm, 0);
+        this.clearHistory();
+    }
+
+    /**
+     * Multiplies in place the content of 'workRe/workIm' by the spectrum of the filter.
+     */
+    protected void multiplyBySpectrum() {
+        double[] wr = this.workRe;
+        double[] wi = this.workIm;
+        double[] hr = this.spectrumRe;
+        double[] hi = this.spectrumIm;
+        for (int i = 0 ; i < this.fftSize ; i++) {
+            double r = wr[i]*hr[i] - wi[i]*hi[i];
+            wi[i] = wr[i]*hi[i] + wi[i]*hr[i];
+            wr[i] = r;
+        }
+    }
+
+    /**
+     * @return the latency of the filter, in samples
+     */
+    public int getLatency() {
+        return blockLength;
+    }
+
+    /**
+     * @return the number of coefficients of the filter
+     */
+    public int getNbTaps() {
+        return nbTaps;
+    }
+
+    /**
+     * @return the size of the FFT used by the filter
+     */
+    public int getFFTSize() {
+        return fftSize;
+    }
+
+}
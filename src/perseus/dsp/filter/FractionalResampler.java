@@ -0,0 +1,204 @@
+/**
+ * The JPerseusSDR library is free software; you can redistribute 
+ * it and/or modify it under the terms of the GNU Lesser General Public 
+ * License as published by the Free Software Foundation; either version 
+ * 3.0 of the License, or (at your option) any later version.
+ * 
+ * The JPerseusSDR library is distributed in the hope that it will
+ * be useful, but WITHOUT ANY WARRANTY; without even the implied warranty 
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the Perseus SDR Library; 
+ * if not, see 'http://www.gnu.org/licenses/'.
+ * 
+ * This library is assumed to work under J2SE &gt;= 7.
+ * NOTE: It is assumed that the Perseus USB drivers are already installed on your system. The Perseus USB drivers 
+ *       are available in the distribution CD-ROM which comes with the Perseus receiver.
+ * 
+ * This library is inspired from the Microtelecom Software Defined Radio Developer Kit (SDRDK) and is subject to licensing
+ *  conditions contained in the document "SDRDK-Licensing-Agreement-v20.docx" (available under the folder "/resources")
+ *  Microtelecom SDRDK is (c) 2007-2013, Microtelecom s.r.l. - Pavia di Udine, Italy
+ *  Author : Nicolangelo PALERMO - IV3NWV
+ * 
+ * This library is also inspired from the Perseus Software Defined Radio Control Library for Linux (libperseus-sdr),
+ *  originally written by Nicolangelo PALERMO and maintained by Andrea MONTEFUSCO. This library can be found at :
+ *  - https://github.com/Microtelecom/libperseus-sdr
+ * 
+ * The JPerseus library, source code and documentation is published under the GNU Lesser General Public Licence v3
+ *  (available under the folder "/resources").
+ * 
+ * Copyright 2017, Mehdi DHAKOUANI
+ */
+package perseus.dsp.filter;
+
+import java.util.Arrays;
+import perseus.dsp.maths.ComplexArray;
+
+/**
+ * Streaming resampler for arbitrary (real) ratios, eg: to correct the drift between the clock of the receiver and the
+ *  clock of a sound card or of a recording (2000000 S/s seen as 1999987.3 S/s).
+ * The output samples are interpolated from a polyphase bank of NB_PHASES phases (see @RationalResampler), with a
+ *  linear interpolation between the two nearest phases. The ratio may be changed at any time : the new ratio applies
+ *  from the next block, without discontinuity. No memory is allocated while processing.
+ * The bandwidth is set at creation : the pass band is [0, passband.min(1, ratio).Fin/2].
+ *
+ * @author Mehdi DHAKOUANI
+ * @version 1.0.0
+ */
+public class FractionalResampler {
+
+    /** Number of phases of the filter bank */
+    public static final int NB_PHASES = 256;
+    /** Default number of coefficients per phase */
+    public static final int DEFAULT_TAPS_PER_PHASE = 32;
+
+    private final double[][] bank;
+    private final int tapsPerPhase;
+    private final double[] lineRe;
+    private final double[] lineIm;
+    private volatile double ratio;
+    private int position = 0;
+    private double time = 0;
+
+    /**
+     * Creates a resampler with the default filter length and stop-band attenuation.
+     * @param ratio the ratio outputRate/inputRate
+     */
+    public FractionalResampler(double ratio) {
+        this(ratio, DEFAULT_TAPS_PER_PHASE, RationalResampler.DEFAULT_ATTENUATION);
+    }
+
+    /**
+     * Creates a resampler.
+     * @param ratio the ratio outputRate/inputRate
+     * @param tapsPerPhase the number of coefficients of each phase (the transition band narrows as it grows)
+     * @param attenuationDb the stop-band attenuation, in dB (positive)
+     */
+    public FractionalResampler(double ratio, int tapsPerPhase, double attenuationDb) {
+        if (tapsPerPhase <= 1) {
+            throw new IllegalArgumentException("The number of coefficients per phase must be ≥ 2.");
+        }
+        this.setRatio(ratio);
+        this.tapsPerPhase = tapsPerPhase;
+        // Stop band from the lowest Nyquist frequency, transition given by the length of the prototype
+        double transition = (attenuationDb - 7.95) / (14.36 * tapsPerPhase);
+        double stop = 0.5 * Math.min(1, ratio);
+        if (transition >= stop) {
+            throw new IllegalArgumentException("The filter is too short for this ratio : increase the number of coefficients per phase.");
+        }
+        double cutoff = (stop - transition / 2) / NB_PHASES;
+        this.bank = RationalResampler.GetBank(NB_PHASES, tapsPerPhase, cutoff, KaiserFIR.EstimateBeta(attenuationDb));
+        this.lineRe = new double[2 * tapsPerPhase];
+        this.lineIm = new double[2 * tapsPerPhase];
+    }
+
+    /**
+     * Resamples a block of samples.
+     * @param re the real parts of the input samples
+     * @param im the imaginary parts of the input samples
+     * @param offset the index of the first input sample
+     * @param length the number of input samples
+     * @param outRe the array receiving the real parts of the output samples (see getMaximumNbOutputs)
+     * @param outIm the array receiving the imaginary parts of the output samples
+     * @param outOffset the index of the first output sample
+     * @return the number of output samples written
+     */
+    public int process(double[] re, double[] im, int offset, int length, double[] outRe, double[] outIm, int outOffset) {
+        final double[] lr = this.lineRe;
+        final double[] li = this.lineIm;
+        final int n = this.tapsPerPhase;
+        final double step = 1 / this.ratio;
+        int pos = this.position;
+        double t = this.time;
+        int count = 0;
+        for (int i = offset ; i < offset + length ; i++) {
+            double xr = re[i];
+            double xi = im[i];
+            lr[pos] = xr;
+            lr[pos + n] = xr;
+            li[pos] = xi;
+            li[pos + n] = xi;
+            int base = pos + 1;
+            // 't' is the time of the next output after the newest sample, in input samples
+            while (t < 1) {
+                double p = t * NB_PHASES;
+                int p0 = (int) p;
+                double a = p - p0;
+                double[] h0 = this.bank[p0];
+                double[] h1 = this.bank[p0 + 1];
+                double yr0 = 0, yi0 = 0, yr1 = 0, yi1 = 0;
+                for (int k = 0 ; k < n ; k++) {
+                    double sr = lr[base + k];
+                    double si = li[base + k];
+                    yr0 += h0[k] * sr;
+                    yi0 += h0[k] * si;
+                    yr1 += h1[k] * sr;
+                    yi1 += h1[k] * si;
+                }
+                outRe[outOffset + count] = yr0 + a * (yr1 - yr0);
+                outIm[outOffset + count] = yi0 + a * (yi1 - yi0);
+                count++;
+                t += step;
+            }
+            t -= 1;
+            if (++pos == n) {
+                pos = 0;
+            }
+        }
+        this.position = pos;
+        this.time = t;
+        return count;
+    }
+
+    /**
+     * Resamples a block of samples.
+     * @param input the input samples
+     * @param offset the index of the first input sample
+     * @param length the number of input samples
+     * @param output the array receiving the output samples (see getMaximumNbOutputs)
+     * @param outOffset the index of the first output sample
+     * @return the number of output samples written
+     */
+    public int process(ComplexArray input, int offset, int length, ComplexArray output, int outOffset) {
+        return this.process(input.getRe(), input.getIm(), offset, length, output.getRe(), output.getIm(), outOffset);
+    }
+
+    /**
+     * @param length a number of input samples
+     * @return the maximum number of output samples produced from 'length' input samples at the current ratio
+     */
+    public int getMaximumNbOutputs(int length) {
+        return (int) Math.ceil(length * this.ratio) + 1;
+    }
+
+    /**
+     * Changes the ratio (applied from the next block).
+     * @param ratio the ratio outputRate/inputRate
+     */
+    public final void setRatio(double ratio) {
+        if (!(ratio > 0) || Double.isInfinite(ratio)) {
+            throw new IllegalArgumentException("The ratio must be a positive number.");
+        }
+        this.ratio = ratio;
+    }
+
+    /**
+     * @return the ratio outputRate/inputRate
+     */
+    public double getRatio() {
+        return ratio;
+    }
+
+    /**
+     * Clears the delay line.
+     */
+    public void reset() {
+        Arrays.fill(this.lineRe, 0);
+        Arrays.fill(this.lineIm, 0);
+        this.position = 0;
+        this.time = 0;
+    }
+
+}
@@ -0,0 +1,173 @@
+/**
+ * The JPerseusSDR library is free software; you can redistribute 
+ * it and/or modify it under the terms of the GNU Lesser General Public 
+ * License as published by the Free Software Foundation; either version 
+ * 3.0 of the License, or (at your option) any later version.
+ * 
+ * The JPerseusSDR library is distributed in the hope that it will
+ * be useful, but WITHOUT ANY WARRANTY; without even the implied warranty 
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the Perseus SDR Library; 
+ * if not, see 'http://www.gnu.org/licenses/'.
+ * 
+ * This library is assumed to work under J2SE &gt;= 7.
+ * NOTE: It is assumed that the Perseus USB drivers are already installed on your system. The Perseus USB drivers 
+ *       are available in the distribution CD-ROM which comes with the Perseus receiver.
+ * 
+ * This library is inspired from the Microtelecom Software Defined Radio Developer Kit (SDRDK) and is subject to licensing
+ *  conditions contained in the document "SDRDK-Licensing-Agreement-v20.docx" (available under the folder "/resources")
+ *  Microtelecom SDRDK is (c) 2007-2013, Microtelecom s.r.l. - Pavia di Udine, Italy
+ *  Author : Nicolangelo PALERMO - IV3NWV
+ * 
+ * This library is also inspired from the Perseus Software Defined Radio Control Library for Linux (libperseus-sdr),
+ *  originally written by Nicolangelo PALERMO and maintained by Andrea MONTEFUSCO. This library can be found at :
+ *  - https://github.com/Microtelecom/libperseus-sdr
+ * 
+ * The JPerseus library, source code and documentation is published under the GNU Lesser General Public Licence v3
+ *  (available under the folder "/resources").
+ * 
+ * Copyright 2017, Mehdi DHAKOUANI
+ */
+package perseus.dsp.filter;
+
+import java.util.Arrays;
+
+/**
+ * Decimation by 2 with a half-band FIR filter. Every other coefficient of a half-band filter is zero (except the
+ *  center one, equal to 1/2) and the filter is symmetric : each output costs (nbTaps+1)/4 multiplications instead of
+ *  nbTaps. The pass band [0, passband] is kept free from aliasing down to 0.5-passband (normalized to the input rate).
+ *
+ * @author Mehdi DHAKOUANI
+ * @version 1.0.0
+ */
+public class HalfBandDecimator {
+
+    private final int nbTaps;
+    private final double center;
+    private final double[] coefficients;
+    private final double[] lineRe;
+    private final double[] lineIm;
+    private int position = 0;
+    private int phase = 0;
+
+    /**
+     * Creates a half-band decimator.
+     * @param passband the edge of the pass band, normalized to the input rate (&lt; 0.25)
+     * @param attenuationDb the stop-band attenuation, in dB (positive)
+     */
+    public HalfBandDecimator(double passband, double attenuationDb) {
+        this(KaiserFIR.LowPass(0.25, GetNbTaps(passband, attenuationDb), KaiserFIR.EstimateBeta(attenuationDb)));
+    }
+
+    /**
+     * Creates a half-band decimator from the coefficients of a half-band filter.
+     * @param taps the coefficients (4.K+3 values, zero at even distances from the center)
+     */
+    public HalfBandDecimator(double[] taps) {
+        if (taps == null || taps.length % 4 != 3) {
+            throw new IllegalArgumentException("A half-band filter must have 4.K+3 coefficients.");
+        }
+        this.nbTaps = taps.length;
+        int middle = this.nbTaps / 2;
+        this.center = taps[middle];
+        // Non-zero coefficients on one side of the center : at distances 1, 3, 5...
+        this.coefficients = new double[(this.nbTaps + 1) / 4];
+        for (int j = 0 ; j < this.coefficients.length ; j++) {
+            this.coefficients[j] = taps[middle + 2 * j + 1];
+        }
+        this.lineRe = new double[2 * this.nbTaps];
+        this.lineIm = new double[2 * this.nbTaps];
+    }
+
+    /**
+     * Computes the number of coefficients of a half-band filter (4.K+3) meeting a specification.
+     * @param passband the edge of the pass band, normalized to the input rate (&lt; 0.25)
+     * @param attenuationDb the stop-band attenuation, in dB (positive)
+     * @return the number of coefficients
+     */
+    public static int GetNbTaps(double passband, double attenuationDb) {
+        if (passband <= 0 || passband >= 0.25) {
+            throw new IllegalArgumentException("The pass band of a half-band filter must be in ]0, 0.25[ (normalized to the input rate).");
+        }
+        int nbTaps = KaiserFIR.EstimateNbTaps(attenuationDb, 0.5 - 2 * passband);
+        while (nbTaps % 4 != 3) {
+            nbTaps++;
+        }
+        return nbTaps;
+    }
+
+    /**
+     * Decimates a block of samples by 2 in place : the output samples are written from 'offset'.
+     * @param re the real parts of the samples
+     * @param im the imaginary parts of the samples
+     * @param offset the index of the first sample
+     * @param length the number of input samples
+     * @return the number of output samples
+     */
+    public int process(float[] re, float[] im, int offset, int length) {
+        final double[] h = this.coefficients;
+        final double[] lr = this.lineRe;
+        final double[] li = this.lineIm;
+        final int n = this.nbTaps;
+        final int half = n / 2;
+        int pos = this.position;
+        int ph = this.phase;
+        int count = 0;
+        for (int i = offset ; i < offset + length ; i++) {
+            double xr = re[i];
+            double xi = im[i];
+            lr[pos] = xr;
+            lr[pos + n] = xr;
+            li[pos] = xi;
+            li[pos + n] = xi;
+            if (ph == 0) {
+                // The last 'n' samples are line[pos+1 .. pos+n], the middle one is line[pos+1+half]
+                int mid = pos + 1 + half;
+                double yr = this.center * lr[mid];
+                double yi = this.center * li[mid];
+                for (int j = 0, d = 1 ; j < h.length ; j++, d += 2) {
+                    yr += h[j] * (lr[mid - d] + lr[mid + d]);
+                    yi += h[j] * (li[mid - d] + li[mid + d]);
+                }
+                re[offset + count] = (float) yr;
+                im[offset + count] = (float) yi;
+                count++;
+            }
+            ph ^= 1;
+            if (++pos == n) {
+                pos = 0;
+            }
+        }
+        this.position = pos;
+        this.phase = ph;
+        return count;
+    }
+
+    /**
+     * Clears the delay line.
+     */
+    public void reset() {
+        Arrays.fill(this.lineRe, 0);
+        Arrays.fill(this.lineIm, 0);
+        this.position = 0;
+        this.phase = 0;
+    }
+
+    /**
+     * @return the number of coefficients of the filter (zeros included)
+     */
+    public int getNbTaps() {
+        return nbTaps;
+    }
+
+    /**
+     * @return the number of multiplications per output sample and per component
+     */
+    public int getNbMultiplications() {
+        return this.coefficients.length + 1;
+    }
+
+}
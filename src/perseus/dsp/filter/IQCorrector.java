@@ -0,0 +1,317 @@
+/**
+ * The JPerseusSDR library is free software; you can redistribute 
+ * it and/or modify it under the terms of the GNU Lesser General Public 
+ * License as published by the Free Software Foundation; either version 
+ * 3.0 of the License, or (at your option) any later version.
+ * 
+ * The JPerseusSDR library is distributed in the hope that it will
+ * be useful, but WITHOUT ANY WARRANTY; without even the implied warranty 
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the Perseus SDR Library; 
+ * if not, see 'http://www.gnu.org/licenses/'.
+ * 
+ * This library is assumed to work under J2SE &gt;= 7.
+ * NOTE: It is assumed that the Perseus USB drivers are already installed on your system. The Perseus USB drivers 
+ *       are available in the distribution CD-ROM which comes with the Perseus receiver.
+ * 
+ * This library is inspired from the Microtelecom Software Defined Radio Developer Kit (SDRDK) and is subject to licensing
+ *  conditions contained in the document "SDRDK-Licensing-Agreement-v20.docx" (available under the folder "/resources")
+ *  Microtelecom SDRDK is (c) 2007-2013, Microtelecom s.r.l. - Pavia di Udine, Italy
+ *  Author : Nicolangelo PALERMO - IV3NWV
+ * 
+ * This library is also inspired from the Perseus Software Defined Radio Control Library for Linux (libperseus-sdr),
+ *  originally written by Nicolangelo PALERMO and maintained by Andrea MONTEFUSCO. This library can be found at :
+ *  - https://github.com/Microtelecom/libperseus-sdr
+ * 
+ * The JPerseus library, source code and documentation is published under the GNU Lesser General Public Licence v3
+ *  (available under the folder "/resources").
+ * 
+ * Copyright 2017, Mehdi DHAKOUANI
+ */
+package perseus.dsp.filter;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import perseus.callback.IQSink;
+import perseus.dsp.maths.ComplexArray;
+
+/**
+ * Streaming correction of the DC offset and of the gain/phase imbalance between the I and Q components, to be placed
+ *  ahead of the spectrum and demodulation stages (removes the spike at 0 Hz and the mirror images).
+ * The statistics of each block (means, powers and cross-correlation of I and Q) are merged into exponential running
+ *  estimates : nothing but five numbers is kept from the past. The correction derived from them is then applied to
+ *  the whole block as I' = I - dcI and Q' = a.Q + b.I + c, straight loops without dependency between samples
+ *  (vectorized by the JIT).
+ * The imbalance estimation assumes a circular signal (equal I and Q powers, no correlation between them), which holds
+ *  for noise and for any mix of signals that are not all at the same frequency.
+ * Blocks are corrected in place, then handed to the registered sinks.
+ *
+ * @author Mehdi DHAKOUANI
+ * @version 1.0.0
+ */
+public class IQCorrector implements IQSink {
+
+    private static final Logger LOG = Logger.getLogger(IQCorrector.class.getName());
+
+    /** Default time constant of the estimations, in seconds */
+    public static final double DEFAULT_TIME_CONSTANT = 1.0;
+
+    private final double sampleRate;
+    private final double timeConstant;
+    private final List<IQSink> sinks = new CopyOnWriteArrayList<>();
+    private boolean imbalanceCorrection = true;
+    private boolean initialized = false;
+    private double meanRe, meanIm;
+    private double powerRe, powerIm, cross;
+
+    /**
+     * Creates a corrector with the default time constant.
+     * @param sampleRate the sample rate of the stream, in samples per second
+     */
+    public IQCorrector(double sampleRate) {
+        this(sampleRate, DEFAULT_TIME_CONSTANT);
+    }
+
+    /**
+     * Creates a corrector.
+     * @param sampleRate the sample rate of the stream, in samples per second
+     * @param timeConstant the time constant of the estimations, in seconds
+     */
+    public IQCorrector(double sampleRate, double timeConstant) {
+        if (!(sampleRate > 0) || !(timeConstant > 0)) {
+            throw new IllegalArgumentException("The sample rate and the time constant must be positive.");
+        }
+        this.sampleRate = sampleRate;
+        this.timeConstant = timeConstant;
+    }
+
+    /**
+     * Registers a stage receiving the corrected samples.
+     * @param sink the stage
+     */
+    public void addSink(IQSink sink) {
+        this.sinks.add(sink);
+    }
+
+    /**
+     * Unregisters a stage.
+     * @param sink the stage
+     */
+    public void removeSink(IQSink sink) {
+        this.sinks.remove(sink);
+    }
+
+    @Override
+    public void process(ComplexArray samples, int length) {
+        this.process(samples.getRe(), samples.getIm(), 0, length);
+        for (IQSink sink : this.sinks) {
+            try {
+                sink.process(samples, length);
+            } catch (RuntimeException ex) {
+                LOG.log(Level.SEVERE, "Sink failed to process the corrected samples.", ex);
+            }
+        }
+    }
+
+    /**
+     * Updates the estimations with a block of samples and corrects it in place.
+     * @param re the real parts (I) of the samples
+     * @param im the imaginary parts (Q) of the samples
+     * @param offset the index of the first sample
+     * @param length the number of samples
+     */
+    public void process(double[] re, double[] im, int offset, int length) {
+        if (length <= 0) {
+            return;
+        }
+        this.update(re, im, offset, length);
+
+        double dcRe = this.meanRe;
+        double dcIm = this.meanIm;
+        double a = 1;
+        double b = 0;
+        if (this.imbalanceCorrection && this.powerRe > 0) {
+            // Remove from Q its correlation with I, then equalize the powers
+            double p = this.cross / this.powerRe;
+            double residual = this.powerIm - p * this.cross;
+            if (residual > 0) {
+                a = Math.sqrt(this.powerRe / residual);
+                b = -a * p;
+            }
+        }
+        double c = -a * dcIm - b * dcRe;
+        for (int i = offset ; i < offset + length ; i++) {
+            double x = re[i];
+            im[i] = a * im[i] + b * x + c;
+            re[i] = x - dcRe;
+        }
+    }
+
+    /* Merges the statistics of a block into the running estimations */
+    private void update(double[] re, double[] im, int offset, int length) {
+        double sumRe = 0, sumIm = 0, sumReRe = 0, sumImIm = 0, sumReIm = 0;
+        for (int i = offset ; i < offset + length ; i++) {
+            double x = re[i];
+            double y = im[i];
+            sumRe += x;
+            sumIm += y;
+            sumReRe += x * x;
+            sumImIm += y * y;
+            sumReIm += x * y;
+        }
+        double n = length;
+        double blockMeanRe = sumRe / n;
+        double blockMeanIm = sumIm / n;
+        double blockPowerRe = sumReRe / n - blockMeanRe * blockMeanRe;
+        double blockPowerIm = sumImIm / n - blockMeanIm * blockMeanIm;
+        double blockCross = sumReIm / n - blockMeanRe * blockMeanIm;
+        if (!this.initialized) {
+            this.meanRe = blockMeanRe;
+            this.meanIm = blockMeanIm;
+            this.powerRe = blockPowerRe;
+            this.powerIm = blockPowerIm;
+            this.cross = blockCross;
+            this.initialized = true;
+        } else {
+            double alpha = 1 - Math.exp(-n / (this.sampleRate * this.timeConstant));
+            this.meanRe += alpha * (blockMeanRe - this.meanRe);
+            this.meanIm += alpha * (blockMeanIm - this.meanIm);
+            this.powerRe += alpha * (blockPowerRe - this.powerRe);
+            this.powerIm += alpha * (blockPowerIm - this.powerIm);
+            this.cross += alpha * (blockCross - this.cross);
+        }
+    }
+
+    /**
+     * Clears the estimations.
+     */
+    public void reset() {
+        this.initialized = false;
+        this.meanRe = 0;
+        this.meanIm = 0;
+        this.powerRe = 0;
+        this.powerIm = 0;
+        this.cross = 0;
+    }
+
+    /**
+     * Enables or disables the gain/phase imbalance correction (the DC offset is always corrected).
+     * @param imbalanceCorrection true to correct the imbalance
+     */
+    public void setImbalanceCorrection(boolean imbalanceCorrection) {
+        this.imbalanceCorrection = imbalanceCorrection;
+    }
+
+    /**
+     * @return true if the gain/phase imbalance is corrected
+     */
+    public boolean isImbalanceCorrection() {
+        return imbalanceCorrection;
+    }
+
+    /**
+     * @return the estimated DC offset of the I component
+     */
+    public double getDcRe() {
+        return meanRe;
+    }
+
+    /**
+     * @return the estimated DC offset of the Q component
+     */
+    public double getDcIm() {
+        return meanIm;
+    }
+
+    /**
+     * @return the estimated gain imbalance (Q amplitude / I amplitude), in dB
+     */
+    public double getGainImbalanceDb() {
+        return (this.powerRe > 0 && this.powerIm > 0) ? 10 * Math.log10(this.powerIm / this.powerRe) : 0;
+    }
+
+    /**
+     * @return the estimated phase imbalance (deviation of the I/Q angle from 90°), in degrees
+     */
+    public double getPhaseImbalanceDegrees() {
+        double norm = Math.sqrt(this.powerRe * this.powerIm);
+        return (norm > 0) ? Math.toDegrees(Math.asin(Math.max(-1, Math.min(1, this.cross / norm)))) : 0;
+    }
+
+    /**
+     * @return the time constant of the estimations, in seconds
+     */
+    public double getTimeConstant() {
+        return timeConstant;
+    }
+
+    /* Level of the image of a tone (power at -frequency against +frequency), in dBc, by single-bin DFTs */
+    private static double ImageDbc(double[] re, double[] im, int length, double frequency, long firstIndex) {
+        double sr = 0, si = 0, ir = 0, ii = 0;
+        for (int i = 0 ; i < length ; i++) {
+            double phase = 2 * Math.PI * frequency * (firstIndex + i);
+            double c = Math.cos(phase);
+            double s = Math.sin(phase);
+            // z.exp(-j.phase) and z.exp(+j.phase)
+            sr += re[i] * c + im[i] * s;
+            si += im[i] * c - re[i] * s;
+            ir += re[i] * c - im[i] * s;
+            ii += im[i] * c + re[i] * s;
+        }
+        return 10 * Math.log10((ir * ir + ii * ii) / (sr * sr + si * si));
+    }
+
+    /**
+     * Corrects a tone with a DC offset, a 1.1 gain and a 3° phase skew on Q (plus some noise), and prints the
+     *  estimated imbalance and the level of the image before and after the correction.
+     * @param args unused
+     */
+    public static void main(String[] args) {
+        double sampleRate = 2.0E6;
+        double frequency = 0.0371;
+        double gain = 1.1;
+        double skew = Math.toRadians(3);
+        double dcRe = 0.05;
+        double dcIm = -0.03;
+        int blockSize = 4096;
+        int nbBlocks = 1024;
+        Random random = new Random(11);
+        IQCorrector corrector = new IQCorrector(sampleRate, 0.1);
+        double[] re = new double[blockSize];
+        double[] im = new double[blockSize];
+        double before = 0;
+        long elapsed = 0;
+        for (int b = 0 ; b < nbBlocks ; b++) {
+            long first = (long) b * blockSize;
+            for (int i = 0 ; i < blockSize ; i++) {
+                double phase = 2 * Math.PI * frequency * (first + i);
+                re[i] = Math.cos(phase) + dcRe + 0.01 * random.nextGaussian();
+                im[i] = gain * Math.sin(phase + skew) + dcIm + 0.01 * random.nextGaussian();
+            }
+            if (b == 0) {
+                before = ImageDbc(re, im, blockSize, frequency, first);
+            }
+            long t0 = System.nanoTime();
+            corrector.process(re, im, 0, blockSize);
+            elapsed += System.nanoTime() - t0;
+        }
+        double after = ImageDbc(re, im, blockSize, frequency, (long) (nbBlocks - 1) * blockSize);
+        System.out.println(String.format(Locale.ROOT, "DC      : estimated (%.4f, %.4f), true (%.4f, %.4f)",
+                corrector.getDcRe(), corrector.getDcIm(), dcRe, dcIm));
+        System.out.println(String.format(Locale.ROOT, "Gain    : estimated %.3f dB, true %.3f dB",
+                corrector.getGainImbalanceDb(), 20 * Math.log10(gain)));
+        System.out.println(String.format(Locale.ROOT, "Phase   : estimated %.3f°, true %.3f°",
+                corrector.getPhaseImbalanceDegrees(), Math.toDegrees(skew)));
+        System.out.println(String.format(Locale.ROOT, "Image   : %.1f dBc before, %.1f dBc after the correction", before, after));
+        System.out.println(String.format(Locale.ROOT, "Speed   : %.1f MS/s on one core",
+                (double) nbBlocks * blockSize / (elapsed / 1.0E9) / 1.0E6));
+    }
+
+}
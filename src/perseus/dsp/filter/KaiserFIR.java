@@ -0,0 +1,168 @@
+/**
+ * The JPerseusSDR library is free software; you can redistribute 
+ * it and/or modify it under the terms of the GNU Lesser General Public 
+ * License as published by the Free Software Foundation; either version 
+ * 3.0 of the License, or (at your option) any later version.
+ * 
+ * The JPerseusSDR library is distributed in the hope that it will
+ * be useful, but WITHOUT ANY WARRANTY; without even the implied warranty 
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the Perseus SDR Library; 
+ * if not, see 'http://www.gnu.org/licenses/'.
+ * 
+ * This library is assumed to work under J2SE &gt;= 7.
+ * NOTE: It is assumed that the Perseus USB drivers are already installed on your system. The Perseus USB drivers 
+ *       are available in the distribution CD-ROM which comes with the Perseus receiver.
+ * 
+ * This library is inspired from the Microtelecom Software Defined Radio Developer Kit (SDRDK) and is subject to licensing
+ *  conditions contained in the document "SDRDK-Licensing-Agreement-v20.docx" (available under the folder "/resources")
+ *  Microtelecom SDRDK is (c) 2007-2013, Microtelecom s.r.l. - Pavia di Udine, Italy
+ *  Author : Nicolangelo PALERMO - IV3NWV
+ * 
+ * This library is also inspired from the Perseus Software Defined Radio Control Library for Linux (libperseus-sdr),
+ *  originally written by Nicolangelo PALERMO and maintained by Andrea MONTEFUSCO. This library can be found at :
+ *  - https://github.com/Microtelecom/libperseus-sdr
+ * 
+ * The JPerseus library, source code and documentation is published under the GNU Lesser General Public Licence v3
+ *  (available under the folder "/resources").
+ * 
+ * Copyright 2017, Mehdi DHAKOUANI
+ */
+package perseus.dsp.filter;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import perseus.dsp.window.KaiserWindow;
+
+/**
+ * Designs linear-phase low-pass FIR filters with the Kaiser window method (windowed ideal low-pass response).
+ * The filter length and the β parameter are derived from the required stop-band attenuation and transition width
+ *  (Kaiser's empirical formulas), and the window is built with @KaiserWindow.Generate.
+ * All frequencies are normalized to the sample rate (0.5 = Nyquist frequency).
+ * Designs are cached : redesigning a filter with the same specifications costs a copy of its coefficients.
+ *
+ * @author Mehdi DHAKOUANI
+ * @version 1.0.0
+ */
+public class KaiserFIR {
+
+    private static final int CACHE_SIZE = 256;
+    private static final ConcurrentMap<String, double[]> DESIGNS = new ConcurrentHashMap<>();
+
+    private KaiserFIR() {
+    }
+
+    /**
+     * Computes the β parameter of the Kaiser window reaching a given stop-band attenuation.
+     * @param attenuationDb the stop-band attenuation, in dB (positive)
+     * @return the β parameter
+     */
+    public static double EstimateBeta(double attenuationDb) {
+        if (attenuationDb > 50) {
+            return 0.1102 * (attenuationDb - 8.7);
+        } else if (attenuationDb >= 21) {
+            return 0.5842 * Math.pow(attenuationDb - 21, 0.4) + 0.07886 * (attenuationDb - 21);
+        }
+        return 0;
+    }
+
+    /**
+     * Computes the (odd) number of coefficients reaching a given stop-band attenuation over a given transition width.
+     * @param attenuationDb the stop-band attenuation, in dB (positive)
+     * @param transitionWidth the width of the transition band, normalized to the sample rate
+     * @return the number of coefficients of the filter
+     */
+    public static int EstimateNbTaps(double attenuationDb, double transitionWidth) {
+        if (transitionWidth <= 0 || transitionWidth >= 0.5) {
+            throw new IllegalArgumentException("The transition width must be in ]0, 0.5[ (normalized to the sample rate).");
+        }
+        int order = (int) Math.ceil((attenuationDb - 7.95) / (14.36 * transitionWidth));
+        order = Math.max(order, 2);
+        return (order % 2 == 0) ? order + 1 : order + 2;
+    }
+
+    /**
+     * Converts pass-band ripple and stop-band attenuation specifications into the attenuation the Kaiser window must
+     *  reach (the window method gives the same deviation in both bands, so the tightest one prevails).
+     * @param passbandRippleDb the peak-to-peak pass-band ripple, in dB (positive)
+     * @param stopbandAttenuationDb the stop-band attenuation, in dB (positive)
+     * @return the attenuation to use for the design, in dB
+     */
+    public static double GetAttenuation(double passbandRippleDb, double stopbandAttenuationDb) {
+        double g = Math.pow(10, passbandRippleDb / 20);
+        double deltaPass = (g - 1) / (g + 1);
+        double deltaStop = Math.pow(10, -stopbandAttenuationDb / 20);
+        return -20 * Math.log10(Math.min(deltaPass, deltaStop));
+    }
+
+    /**
+     * Designs a low-pass filter from its specifications (unity gain at DC).
+     * @param cutoff the cut-off frequency (middle of the transition band), normalized to the sample rate
+     * @param transitionWidth the width of the transition band, normalized to the sample rate
+     * @param passbandRippleDb the peak-to-peak pass-band ripple, in dB (positive)
+     * @param stopbandAttenuationDb the stop-band attenuation, in dB (positive)
+     * @return the coefficients of the filter
+     */
+    public static double[] LowPass(double cutoff, double transitionWidth, double passbandRippleDb, double stopbandAttenuationDb) {
+        return LowPass(cutoff, transitionWidth, GetAttenuation(passbandRippleDb, stopbandAttenuationDb));
+    }
+
+    /**
+     * Designs a low-pass filter from its specifications (unity gain at DC).
+     * @param cutoff the cut-off frequency (middle of the transition band), normalized to the sample rate
+     * @param transitionWidth the width of the transition band, normalized to the sample rate
+     * @param attenuationDb the stop-band attenuation, in dB (positive)
+     * @return the coefficients of the filter
+     */
+    public static double[] LowPass(double cutoff, double transitionWidth, double attenuationDb) {
+        return LowPass(cutoff, EstimateNbTaps(attenuationDb, transitionWidth), EstimateBeta(attenuationDb));
+    }
+
+    /**
+     * Designs a low-pass filter of a given length (unity gain at DC).
+     * @param cutoff the cut-off frequency, normalized to the sample rate
+     * @param nbTaps the number of coefficients
+     * @param beta the β parameter of the Kaiser window
+     * @return the coefficients of the filter
+     */
+    public static double[] LowPass(double cutoff, int nbTaps, double beta) {
+        if (cutoff <= 0 || cutoff >= 0.5) {
+            throw new IllegalArgumentException("The cut-off frequency must be in ]0, 0.5[ (normalized to the sample rate).");
+        }
+        if (nbTaps <= 0) {
+            throw new IllegalArgumentException("The number of coefficients must be a positive integer.");
+        }
+        String key = cutoff + "/" + nbTaps + "/" + beta;
+        double[] taps = DESIGNS.get(key);
+        if (taps == null) {
+            taps = Design(cutoff, nbTaps, beta);
+            if (DESIGNS.size() >= CACHE_SIZE) {
+                DESIGNS.clear();
+            }
+            DESIGNS.put(key, taps);
+        }
+        return Arrays.copyOf(taps, taps.length);
+    }
+
+    private static double[] Design(double cutoff, int nbTaps, double beta) {
+        double[] taps = KaiserWindow.Generate(new double[nbTaps], beta);
+        double center = (nbTaps - 1) / 2.0;
+        double sum = 0;
+        for (int n = 0 ; n < nbTaps ; n++) {
+            double t = n - center;
+            double sinc = (t == 0) ? 2 * cutoff : Math.sin(2 * Math.PI * cutoff * t) / (Math.PI * t);
+            taps[n] *= sinc;
+            sum += taps[n];
+        }
+        // Unity gain at DC
+        for (int n = 0 ; n < nbTaps ; n++) {
+            taps[n] /= sum;
+        }
+        return taps;
+    }
+
+}
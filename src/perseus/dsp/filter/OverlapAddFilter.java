@@ -0,0 +1,112 @@
+/**
+ * The JPerseusSDR library is free software; you can redistribute 
+ * it and/or modify it under the terms of the GNU Lesser General Public 
+ * License as published by the Free Software Foundation; either version 
+ * 3.0 of the License, or (at your option) any later version.
+ * 
+ * The JPerseusSDR library is distributed in the hope that it will
+ * be useful, but WITHOUT ANY WARRANTY; without even the implied warranty 
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the Perseus SDR Library; 
+ * if not, see 'http://www.gnu.org/licenses/'.
+ * 
+ * This library is assumed to work under J2SE &gt;= 7.
+ * NOTE: It is assumed that the Perseus USB drivers are already installed on your system. The Perseus USB drivers 
+ *       are available in the distribution CD-ROM which comes with the Perseus receiver.
+ * 
+ * This library is inspired from the Microtelecom Software Defined Radio Developer Kit (SDRDK) and is subject to licensing
+ *  conditions contained in the document "SDRDK-Licensing-Agreement-v20.docx" (available under the folder "/resources")
+ *  Microtelecom SDRDK is (c) 2007-2013, Microtelecom s.r.l. - Pavia di Udine, Italy
+ *  Author : Nicolangelo PALERMO - IV3NWV
+ * 
+ * This library is also inspired from the Perseus Software Defined Radio Control Library for Linux (libperseus-sdr),
+ *  originally written by Nicolangelo PALERMO and maintained by Andrea MONTEFUSCO. This library can be found at :
+ *  - https://github.com/Microtelecom/libperseus-sdr
+ * 
+ * The JPerseus library, source code and documentation is published under the GNU Lesser General Public Licence v3
+ *  (available under the folder "/resources").
+ * 
+ * Copyright 2017, Mehdi DHAKOUANI
+ */
+package perseus.dsp.filter;
+
+import java.util.Arrays;
+
+/**
+ * Streaming FIR filter based on the overlap-add fast convolution method.
+ * Each block of 'blockLength' new samples is zero-padded to the FFT size and convolved with the filter ; the last
+ *  'nbTaps-1' points of the result (the convolution tail) are added to the beginning of the next block's result.
+ *
+ * @author Mehdi DHAKOUANI
+ * @version 1.0.0
+ */
+public class OverlapAddFilter extends FFTFilter {
+
+    private final double[] tailRe;
+    private final double[] tailIm;
+
+    /**
+     * Creates an overlap-add filter with real coefficients and the default FFT size.
+     * @param taps the coefficients of the filter
+     */
+    public OverlapAddFilter(double[] taps) {
+        this(taps, null, GetDefaultFFTSize(taps.length));
+    }
+
+    /**
+     * Creates an overlap-add filter with complex coefficients and the default FFT size.
+     * @param tapsRe the real parts of the coefficients of the filter
+     * @param tapsIm the imaginary parts of the coefficients of the filter
+     */
+    public OverlapAddFilter(double[] tapsRe, double[] tapsIm) {
+        this(tapsRe, tapsIm, GetDefaultFFTSize(tapsRe.length));
+    }
+
+    /**
+     * Creates an overlap-add filter.
+     * @param tapsRe the real parts of the coefficients of the filter
+     * @param tapsIm the imaginary parts of the coefficients of the filter (null for a real filter)
+     * @param fftSize the size of the FFT (must be a power of 2 greater than or equal to the number of coefficients)
+     */
+    public OverlapAddFilter(double[] tapsRe, double[] tapsIm, int fftSize) {
+        super(tapsRe, tapsIm, fftSize, fftSize - tapsRe.length + 1);
+        this.tailRe = new double[this.nbTaps - 1];
+        this.tailIm = new double[this.nbTaps - 1];
+    }
+
+    @Override
+    protected void filterBlock() {
+        int t = this.nbTaps - 1;
+        System.arraycopy(this.inputRe, 0, this.workRe, 0, this.blockLength);
+        System.arraycopy(this.inputIm, 0, this.workIm, 0, this.blockLength);
+        Arrays.fill(this.workRe, this.blockLength, this.fftSize, 0);
+        Arrays.fill(this.workIm, this.blockLength, this.fftSize, 0);
+
+        this.fft.forward(this.workRe, this.workIm);
+        this.multiplyBySpectrum();
+        this.fft.inverse(this.workRe, this.workIm);
+
+        // Add the tail of the previous block
+        for (int i = 0 ; i < this.blockLength ; i++) {
+            this.outputRe[i] = this.workRe[i] + (i < t ? this.tailRe[i] : 0);
+            this.outputIm[i] = this.workIm[i] + (i < t ? this.tailIm[i] : 0);
+        }
+
+        // New tail = end of this block's result (plus what remains of the previous tail)
+        for (int j = 0 ; j < t ; j++) {
+            int k = this.blockLength + j;
+            this.tailRe[j] = this.workRe[k] + (k < t ? this.tailRe[k] : 0);
+            this.tailIm[j] = this.workIm[k] + (k < t ? this.tailIm[k] : 0);
+        }
+    }
+
+    @Override
+    protected void clearHistory() {
+        Arrays.fill(this.tailRe, 0);
+        Arrays.fill(this.tailIm, 0);
+    }
+
+}
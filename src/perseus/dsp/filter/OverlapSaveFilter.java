@@ -0,0 +1,107 @@
+/**
+ * The JPerseusSDR library is free software; you can redistribute 
+ * it and/or modify it under the terms of the GNU Lesser General Public 
+ * License as published by the Free Software Foundation; either version 
+ * 3.0 of the License, or (at your option) any later version.
+ * 
+ * The JPerseusSDR library is distributed in the hope that it will
+ * be useful, but WITHOUT ANY WARRANTY; without even the implied warranty 
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the Perseus SDR Library; 
+ * if not, see 'http://www.gnu.org/licenses/'.
+ * 
+ * This library is assumed to work under J2SE &gt;= 7.
+ * NOTE: It is assumed that the Perseus USB drivers are already installed on your system. The Perseus USB drivers 
+ *       are available in the distribution CD-ROM which comes with the Perseus receiver.
+ * 
+ * This library is inspired from the Microtelecom Software Defined Radio Developer Kit (SDRDK) and is subject to licensing
+ *  conditions contained in the document "SDRDK-Licensing-Agreement-v20.docx" (available under the folder "/resources")
+ *  Microtelecom SDRDK is (c) 2007-2013, Microtelecom s.r.l. - Pavia di Udine, Italy
+ *  Author : Nicolangelo PALERMO - IV3NWV
+ * 
+ * This library is also inspired from the Perseus Software Defined Radio Control Library for Linux (libperseus-sdr),
+ *  originally written by Nicolangelo PALERMO and maintained by Andrea MONTEFUSCO. This library can be found at :
+ *  - https://github.com/Microtelecom/libperseus-sdr
+ * 
+ * The JPerseus library, source code and documentation is published under the GNU Lesser General Public Licence v3
+ *  (available under the folder "/resources").
+ * 
+ * Copyright 2017, Mehdi DHAKOUANI
+ */
+package perseus.dsp.filter;
+
+import java.util.Arrays;
+
+/**
+ * Streaming FIR filter based on the overlap-save fast convolution method.
+ * Each FFT covers the last 'nbTaps-1' samples of the previous block followed by 'blockLength' new samples ; the first
+ *  'nbTaps-1' points of the circular convolution are discarded and the remaining ones are the filtered block.
+ *
+ * @author Mehdi DHAKOUANI
+ * @version 1.0.0
+ */
+public class OverlapSaveFilter extends FFTFilter {
+
+    private final double[] historyRe;
+    private final double[] historyIm;
+
+    /**
+     * Creates an overlap-save filter with real coefficients and the default FFT size.
+     * @param taps the coefficients of the filter
+     */
+    public OverlapSaveFilter(double[] taps) {
+        this(taps, null, GetDefaultFFTSize(taps.length));
+    }
+
+    /**
+     * Creates an overlap-save filter with complex coefficients and the default FFT size.
+     * @param tapsRe the real parts of the coefficients of the filter
+     * @param tapsIm the imaginary parts of the coefficients of the filter
+     */
+    public OverlapSaveFilter(double[] tapsRe, double[] tapsIm) {
+        this(tapsRe, tapsIm, GetDefaultFFTSize(tapsRe.length));
+    }
+
+    /**
+     * Creates an overlap-save filter.
+     * @param tapsRe the real parts of the coefficients of the filter
+     * @param tapsIm the imaginary parts of the coefficients of the filter (null for a real filter)
+     * @param fftSize the size of the FFT (must be a power of 2 greater than or equal to the number of coefficients)
+     */
+    public OverlapSaveFilter(double[] tapsRe, double[] tapsIm, int fftSize) {
+        super(tapsRe, tapsIm, fftSize, fftSize - tapsRe.length + 1);
+        this.historyRe = new double[this.nbTaps - 1];
+        this.historyIm = new double[this.nbTaps - 1];
+    }
+
+    @Override
+    protected void filterBlock() {
+        int h = this.nbTaps - 1;
+        System.arraycopy(this.historyRe, 0, this.workRe, 0, h);
+        System.arraycopy(this.historyIm, 0, this.workIm, 0, h);
+        System.arraycopy(this.inputRe, 0, this.workRe, h, this.blockLength);
+        System.arraycopy(this.inputIm, 0, this.workIm, h, this.blockLength);
+
+        // Keep the last 'nbTaps-1' samples for the next block
+        System.arraycopy(this.workRe, this.blockLength, this.historyRe, 0, h);
+        System.arraycopy(this.workIm, this.blockLength, this.historyIm, 0, h);
+
+        this.fft.forward(this.workRe, this.workIm);
+        this.multiplyBySpectrum();
+        this.fft.inverse(this.workRe, this.workIm);
+
+        // Discard the 'nbTaps-1' circularly aliased points
+        System.arraycopy(this.workRe, h, this.outputRe, 0, this.blockLength);
+        System.arraycopy(this.workIm, h, this.outputIm, 0, this.blockLength);
+    }
+
+    @Override
+    protected void clearHistory() {
+        Arrays.fill(this.historyRe, 0);
+        Arrays.fill(this.historyIm, 0);
+    }
+
+}
@@ -0,0 +1,263 @@
+/**
+ * The JPerseusSDR library is free software; you can redistribute 
+ * it and/or modify it under the terms of the GNU Lesser General Public 
+ * License as published by the Free Software Foundation; either version 
+ * 3.0 of the License, or (at your option) any later version.
+ * 
+ * The JPerseusSDR library is distributed in the hope that it will
+ * be useful, but WITHOUT ANY WARRANTY; without even the implied warranty 
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the Perseus SDR Library; 
+ * if not, see 'http://www.gnu.org/licenses/'.
+ * 
+ * This library is assumed to work under J2SE &gt;= 7.
+ * NOTE: It is assumed that the Perseus USB drivers are already installed on your system. The Perseus USB drivers 
+ *       are available in the distribution CD-ROM which comes with the Perseus receiver.
+ * 
+ * This library is inspired from the Microtelecom Software Defined Radio Developer Kit (SDRDK) and is subject to licensing
+ *  conditions contained in the document "SDRDK-Licensing-Agreement-v20.docx" (available under the folder "/resources")
+ *  Microtelecom SDRDK is (c) 2007-2013, Microtelecom s.r.l. - Pavia di Udine, Italy
+ *  Author : Nicolangelo PALERMO - IV3NWV
+ * 
+ * This library is also inspired from the Perseus Software Defined Radio Control Library for Linux (libperseus-sdr),
+ *  originally written by Nicolangelo PALERMO and maintained by Andrea MONTEFUSCO. This library can be found at :
+ *  - https://github.com/Microtelecom/libperseus-sdr
+ * 
+ * The JPerseus library, source code and documentation is published under the GNU Lesser General Public Licence v3
+ *  (available under the folder "/resources").
+ * 
+ * Copyright 2017, Mehdi DHAKOUANI
+ */
+package perseus.dsp.filter;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import perseus.dsp.maths.ComplexArray;
+
+/**
+ * Streaming polyphase resampler changing the sample rate by a rational factor L/M (interpolation by L, low-pass
+ *  filtering, decimation by M), eg: 125 kS/s to 48 kS/s (48/125) or 192 kS/s to 44.1 kS/s (147/640).
+ * Only the outputs kept by the decimation are computed, each one with a single phase of the prototype filter
+ *  (tapsPerPhase multiplications per output). The state is kept from a block to the next and no memory is allocated
+ *  while processing.
+ * Filter banks (the phases of the prototype filter) are designed with @KaiserFIR and cached per ratio : creating
+ *  several resamplers for the same ratio costs one design.
+ *
+ * @author Mehdi DHAKOUANI
+ * @version 1.0.0
+ */
+public class RationalResampler {
+
+    /** Default stop-band attenuation, in dB */
+    public static final double DEFAULT_ATTENUATION = 80;
+    /** Default fraction of the lowest Nyquist frequency (input or output) kept in the pass band */
+    public static final double DEFAULT_PASSBAND = 0.8;
+    private static final int CACHE_SIZE = 64;
+    private static final ConcurrentMap<String, double[][]> BANKS = new ConcurrentHashMap<>();
+
+    private final int interpolation;
+    private final int decimation;
+    private final double[][] bank;
+    private final int tapsPerPhase;
+    private final double[] lineRe;
+    private final double[] lineIm;
+    private int position = 0;
+    private int phase = 0;
+
+    /**
+     * Creates a resampler for the ratio outputRate/inputRate, with the default pass band and stop-band attenuation.
+     * @param inputRate the input sample rate, in samples per second
+     * @param outputRate the output sample rate, in samples per second
+     * @return the resampler
+     */
+    public static RationalResampler ForRates(long inputRate, long outputRate) {
+        if (inputRate <= 0 || outputRate <= 0) {
+            throw new IllegalArgumentException("The sample rates must be positive integers.");
+        }
+        long gcd = BigInteger.valueOf(inputRate).gcd(BigInteger.valueOf(outputRate)).longValue();
+        long l = outputRate / gcd;
+        long m = inputRate / gcd;
+        if (l > Integer.MAX_VALUE || m > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("The ratio " + outputRate + "/" + inputRate + " cannot be reduced to integers.");
+        }
+        return new RationalResampler((int) l, (int) m);
+    }
+
+    /**
+     * Creates a resampler with the default pass band and stop-band attenuation.
+     * @param interpolation the interpolation factor L
+     * @param decimation the decimation factor M
+     */
+    public RationalResampler(int interpolation, int decimation) {
+        this(interpolation, decimation, DEFAULT_PASSBAND, DEFAULT_ATTENUATION);
+    }
+
+    /**
+     * Creates a resampler.
+     * @param interpolation the interpolation factor L
+     * @param decimation the decimation factor M
+     * @param passband the fraction of the lowest Nyquist frequency (input or output) kept in the pass band, in ]0, 1[
+     * @param attenuationDb the stop-band attenuation, in dB (positive)
+     */
+    public RationalResampler(int interpolation, int decimation, double passband, double attenuationDb) {
+        if (interpolation <= 0 || decimation <= 0) {
+            throw new IllegalArgumentException("The interpolation and decimation factors must be positive integers.");
+        }
+        if (passband <= 0 || passband >= 1) {
+            throw new IllegalArgumentException("The pass band must be a fraction of the Nyquist frequency, in ]0, 1[.");
+        }
+        int gcd = BigInteger.valueOf(interpolation).gcd(BigInteger.valueOf(decimation)).intValue();
+        this.interpolation = interpolation / gcd;
+        this.decimation = decimation / gcd;
+        int max = Math.max(this.interpolation, this.decimation);
+        // Frequencies normalized to the interpolated rate L.Fin
+        double pass = 0.5 * passband / max;
+        double stop = 0.5 / max;
+        int nbTaps = KaiserFIR.EstimateNbTaps(attenuationDb, stop - pass);
+        this.tapsPerPhase = (nbTaps + this.interpolation - 1) / this.interpolation;
+        this.bank = GetBank(this.interpolation, this.tapsPerPhase, (pass + stop) / 2, KaiserFIR.EstimateBeta(attenuationDb));
+        this.lineRe = new double[2 * this.tapsPerPhase];
+        this.lineIm = new double[2 * this.tapsPerPhase];
+    }
+
+    /**
+     * Retrieves (designing it if needed) a filter bank : the 'nbPhases' phases of a low-pass prototype filter of
+     *  nbPhases*tapsPerPhase+1 coefficients, with a gain of 'nbPhases' (unity gain once decimated).
+     * Phase 'p' holds the coefficients h[p+k.nbPhases] (k = 0..tapsPerPhase-1) in reverse order, so that it applies
+     *  to a delay line ordered from the oldest to the newest sample. A last phase (p = nbPhases) is appended : it is
+     *  phase 0 delayed by one sample, used to interpolate between phases.
+     * @param nbPhases the number of phases
+     * @param tapsPerPhase the number of coefficients of each phase
+     * @param cutoff the cut-off frequency of the prototype, normalized to its (interpolated) rate
+     * @param beta the β parameter of the Kaiser window
+     * @return the filter bank (shared : must not be modified)
+     */
+    static double[][] GetBank(int nbPhases, int tapsPerPhase, double cutoff, double beta) {
+        String key = nbPhases + "/" + tapsPerPhase + "/" + cutoff + "/" + beta;
+        double[][] bank = BANKS.get(key);
+        if (bank == null) {
+            double[] prototype = KaiserFIR.LowPass(cutoff, nbPhases * tapsPerPhase + 1, beta);
+            bank = new double[nbPhases + 1][tapsPerPhase];
+            for (int p = 0 ; p <= nbPhases ; p++) {
+                for (int k = 0 ; k < tapsPerPhase ; k++) {
+                    bank[p][tapsPerPhase - 1 - k] = prototype[p + k * nbPhases] * nbPhases;
+                }
+            }
+            if (BANKS.size() >= CACHE_SIZE) {
+                BANKS.clear();
+            }
+            BANKS.put(key, bank);
+        }
+        return bank;
+    }
+
+    /**
+     * Resamples a block of samples.
+     * @param re the real parts of the input samples
+     * @param im the imaginary parts of the input samples
+     * @param offset the index of the first input sample
+     * @param length the number of input samples
+     * @param outRe the array receiving the real parts of the output samples (see getMaximumNbOutputs)
+     * @param outIm the array receiving the imaginary parts of the output samples
+     * @param outOffset the index of the first output sample
+     * @return the number of output samples written
+     */
+    public int process(double[] re, double[] im, int offset, int length, double[] outRe, double[] outIm, int outOffset) {
+        final double[] lr = this.lineRe;
+        final double[] li = this.lineIm;
+        final int n = this.tapsPerPhase;
+        final int l = this.interpolation;
+        final int m = this.decimation;
+        int pos = this.position;
+        int ph = this.phase;
+        int count = 0;
+        for (int i = offset ; i < offset + length ; i++) {
+            double xr = re[i];
+            double xi = im[i];
+            lr[pos] = xr;
+            lr[pos + n] = xr;
+            li[pos] = xi;
+            li[pos + n] = xi;
+            // The last 'n' samples are line[pos+1 .. pos+n] ; outputs falling before the next input use them
+            int base = pos + 1;
+            while (ph < l) {
+                double[] h = this.bank[ph];
+                double yr = 0;
+                double yi = 0;
+                for (int k = 0 ; k < n ; k++) {
+                    yr += h[k] * lr[base + k];
+                    yi += h[k] * li[base + k];
+                }
+                outRe[outOffset + count] = yr;
+                outIm[outOffset + count] = yi;
+                count++;
+                ph += m;
+            }
+            ph -= l;
+            if (++pos == n) {
+                pos = 0;
+            }
+        }
+        this.position = pos;
+        this.phase = ph;
+        return count;
+    }
+
+    /**
+     * Resamples a block of samples.
+     * @param input the input samples
+     * @param offset the index of the first input sample
+     * @param length the number of input samples
+     * @param output the array receiving the output samples (see getMaximumNbOutputs)
+     * @param outOffset the index of the first output sample
+     * @return the number of output samples written
+     */
+    public int process(ComplexArray input, int offset, int length, ComplexArray output, int outOffset) {
+        return this.process(input.getRe(), input.getIm(), offset, length, output.getRe(), output.getIm(), outOffset);
+    }
+
+    /**
+     * @param length a number of input samples
+     * @return the maximum number of output samples produced from 'length' input samples
+     */
+    public int getMaximumNbOutputs(int length) {
+        return (int) (((long) length * this.interpolation) / this.decimation + 1);
+    }
+
+    /**
+     * Clears the delay line.
+     */
+    public void reset() {
+        Arrays.fill(this.lineRe, 0);
+        Arrays.fill(this.lineIm, 0);
+        this.position = 0;
+        this.phase = 0;
+    }
+
+    /**
+     * @return the interpolation factor L (reduced)
+     */
+    public int getInterpolation() {
+        return interpolation;
+    }
+
+    /**
+     * @return the decimation factor M (reduced)
+     */
+    public int getDecimation() {
+        return decimation;
+    }
+
+    /**
+     * @return the number of coefficients of each phase (multiplications per output sample and per component)
+     */
+    public int getTapsPerPhase() {
+        return tapsPerPhase;
+    }
+
+}
@@ -130,6 +130,30 @@ public class Bessel {
         return ret;
     }
     
+    /**
+     * Computes I0 for a block of values (same approximation as I0(double), evaluated with Horner's scheme).
+     * Used to build large Kaiser windows : the polynomial is evaluated without any intermediate array access.
+     * @param x the input values
+     * @param result the array receiving I0(x[i]) (may be 'x')
+     * @param offset the index of the first value to compute
+     * @param length the number of values to compute
+     */
+    public static void I0(double[] x, double[] result, int offset, int length) {
+        for (int i = offset ; i < offset + length ; i++) {
+            double v = (x[i] < 0 ? -x[i] : x[i]);
+            if (v < 3.75) {
+                double y = v / 3.75;
+                y *= y;
+                result[i] = 1 + y*(3.5156229 + y*(3.0899424 + y*(1.2067492 + y*(0.2659732 + y*(0.0360768 + y*0.0045813)))));
+            } else {
+                double y = 3.75 / v;
+                result[i] = (0.39894228 + y*(0.01328592 + y*(0.00225319 + y*(-0.00157565 + y*(0.00916281
+                           + y*(-0.02057706 + y*(0.02635537 + y*(-0.01647633 + y*0.00392377))))))))
+                           * Math.exp(v) / Math.sqrt(v);
+            }
+        }
+    }
+
     public static double I1(double x) {
         boolean neg = x<0;
         x = (x < 0 ? -x : x);
@@ -0,0 +1,364 @@
+/**
+ * The JPerseusSDR library is free software; you can redistribute 
+ * it and/or modify it under the terms of the GNU Lesser General Public 
+ * License as published by the Free Software Foundation; either version 
+ * 3.0 of the License, or (at your option) any later version.
+ * 
+ * The JPerseusSDR library is distributed in the hope that it will
+ * be useful, but WITHOUT ANY WARRANTY; without even the implied warranty 
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the Perseus SDR Library; 
+ * if not, see 'http://www.gnu.org/licenses/'.
+ * 
+ * This library is assumed to work under J2SE &gt;= 7.
+ * NOTE: It is assumed that the Perseus USB drivers are already installed on your system. The Perseus USB drivers 
+ *       are available in the distribution CD-ROM which comes with the Perseus receiver.
+ * 
+ * This library is inspired from the Microtelecom Software Defined Radio Developer Kit (SDRDK) and is subject to licensing
+ *  conditions contained in the document "SDRDK-Licensing-Agreement-v20.docx" (available under the folder "/resources")
+ *  Microtelecom SDRDK is (c) 2007-2013, Microtelecom s.r.l. - Pavia di Udine, Italy
+ *  Author : Nicolangelo PALERMO - IV3NWV
+ * 
+ * This library is also inspired from the Perseus Software Defined Radio Control Library for Linux (libperseus-sdr),
+ *  originally written by Nicolangelo PALERMO and maintained by Andrea MONTEFUSCO. This library can be found at :
+ *  - https://github.com/Microtelecom/libperseus-sdr
+ * 
+ * The JPerseus library, source code and documentation is published under the GNU Lesser General Public Licence v3
+ *  (available under the folder "/resources").
+ * 
+ * Copyright 2017, Mehdi DHAKOUANI
+ */
+package perseus.dsp.maths;
+
+import java.util.Arrays;
+
+/**
+ * Mutable array of complex numbers stored as two arrays of primitive doubles (real parts and imaginary parts).
+ * Where an array of immutable @Complex objects costs an object (header, pointer and two doubles) per point and an
+ *  allocation per operation, a ComplexArray costs 16 bytes per point and all its bulk operations work in place.
+ * Methods modifying the array return it, so that operations can be chained.
+ *
+ * @author Mehdi DHAKOUANI
+ * @version 1.0.0
+ */
+public class ComplexArray {
+
+    private final double[] re;
+    private final double[] im;
+    private final int length;
+
+    /**
+     * Creates an array of 'length' complex numbers, all equal to 0.
+     * @param length the number of complex numbers
+     */
+    public ComplexArray(int length) {
+        if (length < 0) {
+            throw new IllegalArgumentException("The length must be a positive integer.");
+        }
+        this.re = new double[length];
+        this.im = new double[length];
+        this.length = length;
+    }
+
+    /**
+     * Creates a complex array backed by the given arrays (no copy is made).
+     * @param re the real parts
+     * @param im the imaginary parts
+     */
+    public ComplexArray(double[] re, double[] im) {
+        if (re == null || im == null) {
+            throw new IllegalArgumentException("The provided arguments must not be 'null'.");
+        }
+        if (re.length != im.length) {
+            throw new IllegalArgumentException("Dimensions of the real and imaginary parts must be identical.");
+        }
+        this.re = re;
+        this.im = im;
+        this.length = re.length;
+    }
+
+    /**
+     * Creates a complex array from an array of @Complex objects.
+     * @param x the complex numbers to copy
+     * @return the new complex array
+     */
+    public static ComplexArray FromComplex(Complex[] x) {
+        ComplexArray ret = new ComplexArray(x.length);
+        for (int i = 0 ; i < x.length ; i++) {
+            ret.re[i] = x[i].re();
+            ret.im[i] = x[i].im();
+        }
+        return ret;
+    }
+
+    /**
+     * @return a copy of this array as an array of @Complex objects
+     */
+    public Complex[] toComplex() {
+        Complex[] ret = new Complex[this.length];
+        for (int i = 0 ; i < this.length ; i++) {
+            ret[i] = new Complex(this.re[i], this.im[i]);
+        }
+        return ret;
+    }
+
+    /**
+     * @return the number of complex numbers of this array
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * @return the array of real parts (backing array, not a copy)
+     */
+    public double[] getRe() {
+        return re;
+    }
+
+    /**
+     * @return the array of imaginary parts (backing array, not a copy)
+     */
+    public double[] getIm() {
+        return im;
+    }
+
+    /**
+     * @param i the index of the complex number
+     * @return a new @Complex object holding the value at index 'i'
+     */
+    public Complex get(int i) {
+        return new Complex(this.re[i], this.im[i]);
+    }
+
+    /**
+     * Sets the value at index 'i'.
+     * @param i the index of the complex number
+     * @param real the real part
+     * @param imag the imaginary part
+     */
+    public void set(int i, double real, double imag) {
+        this.re[i] = real;
+        this.im[i] = imag;
+    }
+
+    /**
+     * Sets all the values to 0.
+     * @return this array
+     */
+    public ComplexArray clear() {
+        Arrays.fill(this.re, 0);
+        Arrays.fill(this.im, 0);
+        return this;
+    }
+
+    /**
+     * Copies the values of another array of the same length into this one.
+     * @param src the array to copy
+     * @return this array
+     */
+    public ComplexArray copyFrom(ComplexArray src) {
+        this.checkLength(src);
+        return this.copyFrom(src, 0, 0, this.length);
+    }
+
+    /**
+     * Copies 'count' values of another array into this one.
+     * @param src the array to copy from
+     * @param srcOffset the index of the first value to copy in 'src'
+     * @param offset the index of the first value to write in this array
+     * @param count the number of values to copy
+     * @return this array
+     */
+    public ComplexArray copyFrom(ComplexArray src, int srcOffset, int offset, int count) {
+        System.arraycopy(src.re, srcOffset, this.re, offset, count);
+        System.arraycopy(src.im, srcOffset, this.im, offset, count);
+        return this;
+    }
+
+    /**
+     * Accumulates another array into this one : this[i] += b[i].
+     * @param b the array to add
+     * @return this array
+     */
+    public ComplexArray plus(ComplexArray b) {
+        this.checkLength(b);
+        for (int i = 0 ; i < this.length ; i++) {
+            this.re[i] += b.re[i];
+            this.im[i] += b.im[i];
+        }
+        return this;
+    }
+
+    /**
+     * Accumulates a scaled array into this one : this[i] += alpha * b[i].
+     * @param b the array to add
+     * @param alpha the scale factor applied to 'b'
+     * @return this array
+     */
+    public ComplexArray plus(ComplexArray b, double alpha) {
+        this.checkLength(b);
+        for (int i = 0 ; i < this.length ; i++) {
+            this.re[i] += alpha * b.re[i];
+            this.im[i] += alpha * b.im[i];
+        }
+        return this;
+    }
+
+    /**
+     * Subtracts another array from this one : this[i] -= b[i].
+     * @param b the array to subtract
+     * @return this array
+     */
+    public ComplexArray minus(ComplexArray b) {
+        this.checkLength(b);
+        for (int i = 0 ; i < this.length ; i++) {
+            this.re[i] -= b.re[i];
+            this.im[i] -= b.im[i];
+        }
+        return this;
+    }
+
+    /**
+     * Multiplies this array by another one, point-wise : this[i] *= b[i].
+     * @param b the array to multiply by
+     * @return this array
+     */
+    public ComplexArray multiply(ComplexArray b) {
+        this.checkLength(b);
+        for (int i = 0 ; i < this.length ; i++) {
+            double real = this.re[i] * b.re[i] - this.im[i] * b.im[i];
+            this.im[i] = this.re[i] * b.im[i] + this.im[i] * b.re[i];
+            this.re[i] = real;
+        }
+        return this;
+    }
+
+    /**
+     * Multiplies this array by the conjugate of another one, point-wise : this[i] *= conj(b[i]).
+     * @param b the array whose conjugate to multiply by
+     * @return this array
+     */
+    public ComplexArray multiplyConjugate(ComplexArray b) {
+        this.checkLength(b);
+        for (int i = 0 ; i < this.length ; i++) {
+            double real = this.re[i] * b.re[i] + this.im[i] * b.im[i];
+            this.im[i] = this.im[i] * b.re[i] - this.re[i] * b.im[i];
+            this.re[i] = real;
+        }
+        return this;
+    }
+
+    /**
+     * Multiplies this array by a real array, point-wise : this[i] *= b[i].
+     * @param b the real values to multiply by
+     * @return this array
+     */
+    public ComplexArray multiply(double[] b) {
+        if (b.length != this.length) {
+            throw new IllegalArgumentException("Dimensions of the arrays must be identical.");
+        }
+        for (int i = 0 ; i < this.length ; i++) {
+            this.re[i] *= b[i];
+            this.im[i] *= b[i];
+        }
+        return this;
+    }
+
+    /**
+     * Multiplies all the values by a complex number.
+     * @param real the real part of the multiplier
+     * @param imag the imaginary part of the multiplier
+     * @return this array
+     */
+    public ComplexArray multiply(double real, double imag) {
+        for (int i = 0 ; i < this.length ; i++) {
+            double r = this.re[i] * real - this.im[i] * imag;
+            this.im[i] = this.re[i] * imag + this.im[i] * real;
+            this.re[i] = r;
+        }
+        return this;
+    }
+
+    /**
+     * Multiplies all the values by a real number.
+     * @param alpha the scale factor
+     * @return this array
+     */
+    public ComplexArray scale(double alpha) {
+        for (int i = 0 ; i < this.length ; i++) {
+            this.re[i] *= alpha;
+            this.im[i] *= alpha;
+        }
+        return this;
+    }
+
+    /**
+     * Replaces all the values by their conjugates.
+     * @return this array
+     */
+    public ComplexArray conjugate() {
+        for (int i = 0 ; i < this.length ; i++) {
+            this.im[i] = -this.im[i];
+        }
+        return this;
+    }
+
+    /**
+     * Computes the magnitudes of the values.
+     * @param dst the array receiving the magnitudes (at least 'length' values)
+     * @return dst
+     */
+    public double[] abs(double[] dst) {
+        for (int i = 0 ; i < this.length ; i++) {
+            dst[i] = Math.sqrt(this.re[i] * this.re[i] + this.im[i] * this.im[i]);
+        }
+        return dst;
+    }
+
+    /**
+     * Computes the squared magnitudes (powers) of the values.
+     * @param dst the array receiving the squared magnitudes (at least 'length' values)
+     * @return dst
+     */
+    public double[] absSquared(double[] dst) {
+        for (int i = 0 ; i < this.length ; i++) {
+            dst[i] = this.re[i] * this.re[i] + this.im[i] * this.im[i];
+        }
+        return dst;
+    }
+
+    /**
+     * Accumulates the squared magnitudes (powers) of the values : dst[i] += |this[i]|².
+     * @param dst the array accumulating the powers (at least 'length' values)
+     * @return dst
+     */
+    public double[] accumulateAbsSquared(double[] dst) {
+        for (int i = 0 ; i < this.length ; i++) {
+            dst[i] += this.re[i] * this.re[i] + this.im[i] * this.im[i];
+        }
+        return dst;
+    }
+
+    /**
+     * Computes the phases of the values, normalized to be between -PI and PI.
+     * @param dst the array receiving the phases (at least 'length' values)
+     * @return dst
+     */
+    public double[] phase(double[] dst) {
+        for (int i = 0 ; i < this.length ; i++) {
+            dst[i] = Math.atan2(this.im[i], this.re[i]);
+        }
+        return dst;
+    }
+
+    private void checkLength(ComplexArray b) {
+        if (b.length != this.length) {
+            throw new IllegalArgumentException("Dimensions of the complex arrays must be identical.");
+        }
+    }
+
+}
@@ -0,0 +1,170 @@
+/**
+ * The JPerseusSDR library is free software; you can redistribute 
+ * it and/or modify it under the terms of the GNU Lesser General Public 
+ * License as published by the Free Software Foundation; either version 
+ * 3.0 of the License, or (at your option) any later version.
+ * 
+ * The JPerseusSDR library is distributed in the hope that it will
+ * be useful, but WITHOUT ANY WARRANTY; without even the implied warranty 
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the Perseus SDR Library; 
+ * if not, see 'http://www.gnu.org/licenses/'.
+ * 
+ * This library is assumed to work under J2SE &gt;= 7.
+ * NOTE: It is assumed that the Perseus USB drivers are already installed on your system. The Perseus USB drivers 
+ *       are available in the distribution CD-ROM which comes with the Perseus receiver.
+ * 
+ * This library is inspired from the Microtelecom Software Defined Radio Developer Kit (SDRDK) and is subject to licensing
+ *  conditions contained in the document "SDRDK-Licensing-Agreement-v20.docx" (available under the folder "/resources")
+ *  Microtelecom SDRDK is (c) 2007-2013, Microtelecom s.r.l. - Pavia di Udine, Italy
+ *  Author : Nicolangelo PALERMO - IV3NWV
+ * 
+ * This library is also inspired from the Perseus Software Defined Radio Control Library for Linux (libperseus-sdr),
+ *  originally written by Nicolangelo PALERMO and maintained by Andrea MONTEFUSCO. This library can be found at :
+ *  - https://github.com/Microtelecom/libperseus-sdr
+ * 
+ * The JPerseus library, source code and documentation is published under the GNU Lesser General Public Licence v3
+ *  (available under the folder "/resources").
+ * 
+ * Copyright 2017, Mehdi DHAKOUANI
+ */
+package perseus.dsp.nco;
+
+/**
+ * NCO generating blocks of BLOCK_SIZE samples as products of the phasor of the block start by a precomputed table of
+ *  exp(j.2π.f.k) (k = 0..BLOCK_SIZE-1). The samples of a block do not depend on each other (no recurrence between
+ *  samples, unlike @RotatorNCO), so the loops are vectorizable ; only the phasor of the block start is rotated
+ *  (and renormalized) from a block to the next.
+ * Retuning recomputes the table (BLOCK_SIZE calls to Math.cos/Math.sin).
+ *
+ * @author Mehdi DHAKOUANI
+ * @version 1.0.0
+ */
+public class BlockNCO extends NCO {
+
+    /** Number of samples generated from the phasor of a block start */
+    public static final int BLOCK_SIZE = 64;
+
+    private final double[] tableRe = new double[BLOCK_SIZE];
+    private final double[] tableIm = new double[BLOCK_SIZE];
+    private double frequency = 0;
+    private double blockStepRe = 1;
+    private double blockStepIm = 0;
+    private double startRe = 1;
+    private double startIm = 0;
+    private int index = 0;
+
+    /**
+     * Creates an oscillator at 0 Hz.
+     */
+    public BlockNCO() {
+        this.setFrequency(0);
+    }
+
+    /**
+     * Creates an oscillator.
+     * @param frequency the frequency, normalized to the sample rate (in [-0.5, 0.5])
+     */
+    public BlockNCO(double frequency) {
+        this.setFrequency(frequency);
+    }
+
+    @Override
+    public final void setFrequency(double frequency) {
+        CheckFrequency(frequency);
+        // Carry the current phase to the start of a new block
+        if (this.index != 0) {
+            double r = this.startRe * this.tableRe[this.index] - this.startIm * this.tableIm[this.index];
+            this.startIm = this.startRe * this.tableIm[this.index] + this.startIm * this.tableRe[this.index];
+            this.startRe = r;
+            this.index = 0;
+        }
+        this.frequency = frequency;
+        for (int k = 0 ; k < BLOCK_SIZE ; k++) {
+            this.tableRe[k] = Math.cos(2 * Math.PI * frequency * k);
+            this.tableIm[k] = Math.sin(2 * Math.PI * frequency * k);
+        }
+        this.blockStepRe = Math.cos(2 * Math.PI * frequency * BLOCK_SIZE);
+        this.blockStepIm = Math.sin(2 * Math.PI * frequency * BLOCK_SIZE);
+    }
+
+    @Override
+    public double getFrequency() {
+        return frequency;
+    }
+
+    @Override
+    public double getPhase() {
+        double r = this.startRe * this.tableRe[this.index] - this.startIm * this.tableIm[this.index];
+        double i = this.startRe * this.tableIm[this.index] + this.startIm * this.tableRe[this.index];
+        double cycles = Math.atan2(i, r) / (2 * Math.PI);
+        return cycles < 0 ? cycles + 1 : cycles;
+    }
+
+    @Override
+    public void setPhase(double phase) {
+        this.startRe = Math.cos(2 * Math.PI * phase);
+        this.startIm = Math.sin(2 * Math.PI * phase);
+        this.index = 0;
+    }
+
+    @Override
+    public void generate(double[] re, double[] im, int offset, int length) {
+        final double[] tr = this.tableRe;
+        final double[] ti = this.tableIm;
+        int done = 0;
+        while (done < length) {
+            int count = Math.min(BLOCK_SIZE - this.index, length - done);
+            double sr = this.startRe;
+            double si = this.startIm;
+            int base = offset + done - this.index;
+            for (int k = this.index ; k < this.index + count ; k++) {
+                re[base + k] = sr * tr[k] - si * ti[k];
+                im[base + k] = sr * ti[k] + si * tr[k];
+            }
+            done += count;
+            this.advance(count);
+        }
+    }
+
+    @Override
+    public void mix(double[] re, double[] im, int offset, int length, double[] outRe, double[] outIm, int outOffset) {
+        final double[] tr = this.tableRe;
+        final double[] ti = this.tableIm;
+        int done = 0;
+        while (done < length) {
+            int count = Math.min(BLOCK_SIZE - this.index, length - done);
+            double sr = this.startRe;
+            double si = this.startIm;
+            int in = offset + done - this.index;
+            int out = outOffset + done - this.index;
+            for (int k = this.index ; k < this.index + count ; k++) {
+                double cr = sr * tr[k] - si * ti[k];
+                double ci = sr * ti[k] + si * tr[k];
+                double xr = re[in + k];
+                double xi = im[in + k];
+                outRe[out + k] = xr * cr - xi * ci;
+                outIm[out + k] = xr * ci + xi * cr;
+            }
+            done += count;
+            this.advance(count);
+        }
+    }
+
+    /* Moves forward by 'count' samples, rotating (and renormalizing) the block start at the end of a block */
+    private void advance(int count) {
+        this.index += count;
+        if (this.index == BLOCK_SIZE) {
+            double r = this.startRe * this.blockStepRe - this.startIm * this.blockStepIm;
+            double i = this.startRe * this.blockStepIm + this.startIm * this.blockStepRe;
+            double g = (3 - (r * r + i * i)) / 2;
+            this.startRe = r * g;
+            this.startIm = i * g;
+            this.index = 0;
+        }
+    }
+
+}
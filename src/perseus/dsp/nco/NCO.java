@@ -0,0 +1,192 @@
+/**
+ * The JPerseusSDR library is free software; you can redistribute 
+ * it and/or modify it under the terms of the GNU Lesser General Public 
+ * License as published by the Free Software Foundation; either version 
+ * 3.0 of the License, or (at your option) any later version.
+ * 
+ * The JPerseusSDR library is distributed in the hope that it will
+ * be useful, but WITHOUT ANY WARRANTY; without even the implied warranty 
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the Perseus SDR Library; 
+ * if not, see 'http://www.gnu.org/licenses/'.
+ * 
+ * This library is assumed to work under J2SE &gt;= 7.
+ * NOTE: It is assumed that the Perseus USB drivers are already installed on your system. The Perseus USB drivers 
+ *       are available in the distribution CD-ROM which comes with the Perseus receiver.
+ * 
+ * This library is inspired from the Microtelecom Software Defined Radio Developer Kit (SDRDK) and is subject to licensing
+ *  conditions contained in the document "SDRDK-Licensing-Agreement-v20.docx" (available under the folder "/resources")
+ *  Microtelecom SDRDK is (c) 2007-2013, Microtelecom s.r.l. - Pavia di Udine, Italy
+ *  Author : Nicolangelo PALERMO - IV3NWV
+ * 
+ * This library is also inspired from the Perseus Software Defined Radio Control Library for Linux (libperseus-sdr),
+ *  originally written by Nicolangelo PALERMO and maintained by Andrea MONTEFUSCO. This library can be found at :
+ *  - https://github.com/Microtelecom/libperseus-sdr
+ * 
+ * The JPerseus library, source code and documentation is published under the GNU Lesser General Public Licence v3
+ *  (available under the folder "/resources").
+ * 
+ * Copyright 2017, Mehdi DHAKOUANI
+ */
+package perseus.dsp.nco;
+
+import java.util.Locale;
+
+/**
+ * Numerically controlled oscillator : generates the complex exponential exp(j.2π.f.n) sample after sample, or mixes
+ *  (multiplies) a block of samples with it, without calling Math.cos/Math.sin per sample.
+ * Frequencies are normalized to the sample rate (cycles per sample, in [-0.5, 0.5]). Changing the frequency keeps the
+ *  phase : the oscillator stays continuous across retunes (no glitch in the mixed signal).
+ * Implementations :
+ *  - @TableNCO : 32-bit phase accumulator and interpolated sine table (exact frequency and phase reproducibility),
+ *  - @RotatorNCO : recursive complex rotator, renormalized periodically (cheapest per sample),
+ *  - @BlockNCO : blocks of independent products with a precomputed phasor table (no dependency between samples,
+ *      vectorizable by the JIT).
+ *
+ * @author Mehdi DHAKOUANI
+ * @version 1.0.0
+ */
+public abstract class NCO {
+
+    /**
+     * Sets the frequency, keeping the current phase.
+     * @param frequency the frequency, normalized to the sample rate (in [-0.5, 0.5])
+     */
+    public abstract void setFrequency(double frequency);
+
+    /**
+     * @return the frequency actually generated, normalized to the sample rate
+     */
+    public abstract double getFrequency();
+
+    /**
+     * @return the current phase, in cycles (in [0, 1[)
+     */
+    public abstract double getPhase();
+
+    /**
+     * Sets the current phase.
+     * @param phase the phase, in cycles
+     */
+    public abstract void setPhase(double phase);
+
+    /**
+     * Writes the next samples of the oscillator.
+     * @param re the array receiving the cosines
+     * @param im the array receiving the sines
+     * @param offset the index of the first sample
+     * @param length the number of samples
+     */
+    public abstract void generate(double[] re, double[] im, int offset, int length);
+
+    /**
+     * Multiplies a block of samples by the next samples of the oscillator (the output may overwrite the input).
+     * @param re the real parts of the input samples
+     * @param im the imaginary parts of the input samples
+     * @param offset the index of the first input sample
+     * @param length the number of samples
+     * @param outRe the array receiving the real parts of the mixed samples
+     * @param outIm the array receiving the imaginary parts of the mixed samples
+     * @param outOffset the index of the first mixed sample
+     */
+    public abstract void mix(double[] re, double[] im, int offset, int length, double[] outRe, double[] outIm, int outOffset);
+
+    /**
+     * Sets the frequency from a frequency in Hz, keeping the current phase.
+     * @param frequency the frequency, in Hz
+     * @param sampleRate the sample rate, in samples per second
+     */
+    public void setFrequency(double frequency, double sampleRate) {
+        this.setFrequency(frequency / sampleRate);
+    }
+
+    /**
+     * Resets the phase to 0.
+     */
+    public void reset() {
+        this.setPhase(0);
+    }
+
+    protected static void CheckFrequency(double frequency) {
+        if (!(frequency >= -0.5 && frequency <= 0.5)) {
+            throw new IllegalArgumentException("The frequency must be normalized to the sample rate, in [-0.5, 0.5].");
+        }
+    }
+
+    /**
+     * Compares the implementations : maximum error against Math.cos/Math.sin and throughput of 'generate' and 'mix'.
+     * @param args unused
+     */
+    public static void main(String[] args) {
+        double frequency = 0.0123456789;
+        int blockSize = 4096;
+        int nbBlocks = 4096;
+        double[] re = new double[blockSize];
+        double[] im = new double[blockSize];
+        double[] signalRe = new double[blockSize];
+        double[] signalIm = new double[blockSize];
+        for (int i = 0 ; i < blockSize ; i++) {
+            signalRe[i] = Math.cos(0.001 * i);
+            signalIm[i] = Math.sin(0.001 * i);
+        }
+        NCO[] ncos = { new TableNCO(), new RotatorNCO(), new BlockNCO() };
+
+        // Reference : Math.cos/Math.sin per sample
+        long t0 = System.nanoTime();
+        double sink = 0;
+        for (int b = 0 ; b < nbBlocks ; b++) {
+            for (int i = 0 ; i < blockSize ; i++) {
+                double phase = 2 * Math.PI * frequency * ((long) b * blockSize + i);
+                re[i] = Math.cos(phase);
+                im[i] = Math.sin(phase);
+            }
+            sink += re[0];
+        }
+        double reference = (double) blockSize * nbBlocks / ((System.nanoTime() - t0) / 1.0E9) / 1.0E6;
+        System.out.println(String.format(Locale.ROOT, "%-12s : generate %7.1f MS/s", "Math.cos/sin", reference));
+
+        for (NCO nco : ncos) {
+            nco.setFrequency(frequency);
+            double f = nco.getFrequency();
+            // Accuracy over the whole run
+            double error = 0;
+            for (int b = 0 ; b < nbBlocks ; b++) {
+                nco.generate(re, im, 0, blockSize);
+                if (b % 64 == 0 || b == nbBlocks - 1) {
+                    for (int i = 0 ; i < blockSize ; i++) {
+                        long n = (long) b * blockSize + i;
+                        double cycles = f * n;
+                        double phase = 2 * Math.PI * (cycles - Math.floor(cycles));
+                        error = Math.max(error, Math.hypot(re[i] - Math.cos(phase), im[i] - Math.sin(phase)));
+                    }
+                }
+            }
+            // Throughput
+            double generate = 0;
+            double mix = 0;
+            for (int warmup = 0 ; warmup < 2 ; warmup++) {
+                t0 = System.nanoTime();
+                for (int b = 0 ; b < nbBlocks ; b++) {
+                    nco.generate(re, im, 0, blockSize);
+                }
+                long t1 = System.nanoTime();
+                for (int b = 0 ; b < nbBlocks ; b++) {
+                    nco.mix(signalRe, signalIm, 0, blockSize, re, im, 0);
+                }
+                long t2 = System.nanoTime();
+                generate = (double) blockSize * nbBlocks / ((t1 - t0) / 1.0E9) / 1.0E6;
+                mix = (double) blockSize * nbBlocks / ((t2 - t1) / 1.0E9) / 1.0E6;
+            }
+            sink += re[0];
+            System.out.println(String.format(Locale.ROOT, "%-12s : generate %7.1f MS/s (x%5.1f)  mix %7.1f MS/s  max error %.2e over %d samples",
+                    nco.getClass().getSimpleName(), generate, generate / reference, mix, error, (long) blockSize * nbBlocks));
+        }
+        if (sink == 12345) {
+            System.out.println();
+        }
+    }
+
+}
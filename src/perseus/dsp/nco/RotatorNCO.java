@@ -0,0 +1,142 @@
+/**
+ * The JPerseusSDR library is free software; you can redistribute 
+ * it and/or modify it under the terms of the GNU Lesser General Public 
+ * License as published by the Free Software Foundation; either version 
+ * 3.0 of the License, or (at your option) any later version.
+ * 
+ * The JPerseusSDR library is distributed in the hope that it will
+ * be useful, but WITHOUT ANY WARRANTY; without even the implied warranty 
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the Perseus SDR Library; 
+ * if not, see 'http://www.gnu.org/licenses/'.
+ * 
+ * This library is assumed to work under J2SE &gt;= 7.
+ * NOTE: It is assumed that the Perseus USB drivers are already installed on your system. The Perseus USB drivers 
+ *       are available in the distribution CD-ROM which comes with the Perseus receiver.
+ * 
+ * This library is inspired from the Microtelecom Software Defined Radio Developer Kit (SDRDK) and is subject to licensing
+ *  conditions contained in the document "SDRDK-Licensing-Agreement-v20.docx" (available under the folder "/resources")
+ *  Microtelecom SDRDK is (c) 2007-2013, Microtelecom s.r.l. - Pavia di Udine, Italy
+ *  Author : Nicolangelo PALERMO - IV3NWV
+ * 
+ * This library is also inspired from the Perseus Software Defined Radio Control Library for Linux (libperseus-sdr),
+ *  originally written by Nicolangelo PALERMO and maintained by Andrea MONTEFUSCO. This library can be found at :
+ *  - https://github.com/Microtelecom/libperseus-sdr
+ * 
+ * The JPerseus library, source code and documentation is published under the GNU Lesser General Public Licence v3
+ *  (available under the folder "/resources").
+ * 
+ * Copyright 2017, Mehdi DHAKOUANI
+ */
+package perseus.dsp.nco;
+
+/**
+ * NCO based on a recursive complex rotator : each sample is the previous one multiplied by exp(j.2π.f) (4
+ *  multiplications per sample). The magnitude of the rotator is renormalized every RENORMALIZATION_INTERVAL samples
+ *  (first order correction, no square root), so rounding errors never accumulate.
+ *
+ * @author Mehdi DHAKOUANI
+ * @version 1.0.0
+ */
+public class RotatorNCO extends NCO {
+
+    /** Number of samples between two renormalizations of the rotator */
+    public static final int RENORMALIZATION_INTERVAL = 1024;
+
+    private double frequency = 0;
+    private double phasorRe = 1;
+    private double phasorIm = 0;
+    private double stepRe = 1;
+    private double stepIm = 0;
+
+    /**
+     * Creates an oscillator at 0 Hz.
+     */
+    public RotatorNCO() {
+    }
+
+    /**
+     * Creates an oscillator.
+     * @param frequency the frequency, normalized to the sample rate (in [-0.5, 0.5])
+     */
+    public RotatorNCO(double frequency) {
+        this.setFrequency(frequency);
+    }
+
+    @Override
+    public final void setFrequency(double frequency) {
+        CheckFrequency(frequency);
+        this.frequency = frequency;
+        this.stepRe = Math.cos(2 * Math.PI * frequency);
+        this.stepIm = Math.sin(2 * Math.PI * frequency);
+    }
+
+    @Override
+    public double getFrequency() {
+        return frequency;
+    }
+
+    @Override
+    public double getPhase() {
+        double cycles = Math.atan2(this.phasorIm, this.phasorRe) / (2 * Math.PI);
+        return cycles < 0 ? cycles + 1 : cycles;
+    }
+
+    @Override
+    public void setPhase(double phase) {
+        this.phasorRe = Math.cos(2 * Math.PI * phase);
+        this.phasorIm = Math.sin(2 * Math.PI * phase);
+    }
+
+    @Override
+    public void generate(double[] re, double[] im, int offset, int length) {
+        double pr = this.phasorRe;
+        double pi = this.phasorIm;
+        final double sr = this.stepRe;
+        final double si = this.stepIm;
+        for (int start = offset ; start < offset + length ; start += RENORMALIZATION_INTERVAL) {
+            int end = Math.min(start + RENORMALIZATION_INTERVAL, offset + length);
+            for (int i = start ; i < end ; i++) {
+                re[i] = pr;
+                im[i] = pi;
+                double t = pr * sr - pi * si;
+                pi = pr * si + pi * sr;
+                pr = t;
+            }
+            double g = (3 - (pr * pr + pi * pi)) / 2;
+            pr *= g;
+            pi *= g;
+        }
+        this.phasorRe = pr;
+        this.phasorIm = pi;
+    }
+
+    @Override
+    public void mix(double[] re, double[] im, int offset, int length, double[] outRe, double[] outIm, int outOffset) {
+        double pr = this.phasorRe;
+        double pi = this.phasorIm;
+        final double sr = this.stepRe;
+        final double si = this.stepIm;
+        for (int start = 0 ; start < length ; start += RENORMALIZATION_INTERVAL) {
+            int end = Math.min(start + RENORMALIZATION_INTERVAL, length);
+            for (int i = start ; i < end ; i++) {
+                double xr = re[offset + i];
+                double xi = im[offset + i];
+                outRe[outOffset + i] = xr * pr - xi * pi;
+                outIm[outOffset + i] = xr * pi + xi * pr;
+                double t = pr * sr - pi * si;
+                pi = pr * si + pi * sr;
+                pr = t;
+            }
+            double g = (3 - (pr * pr + pi * pi)) / 2;
+            pr *= g;
+            pi *= g;
+        }
+        this.phasorRe = pr;
+        this.phasorIm = pi;
+    }
+
+}
@@ -0,0 +1,137 @@
+/**
+ * The JPerseusSDR library is free software; you can redistribute 
+ * it and/or modify it under the terms of the GNU Lesser General Public 
+ * License as published by the Free Software Foundation; either version 
+ * 3.0 of the License, or (at your option) any later version.
+ * 
+ * The JPerseusSDR library is distributed in the hope that it will
+ * be useful, but WITHOUT ANY WARRANTY; without even the implied warranty 
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the Perseus SDR Library; 
+ * if not, see 'http://www.gnu.org/licenses/'.
+ * 
+ * This library is assumed to work under J2SE &gt;= 7.
+ * NOTE: It is assumed that the Perseus USB drivers are already installed on your system. The Perseus USB drivers 
+ *       are available in the distribution CD-ROM which comes with the Perseus receiver.
+ * 
+ * This library is inspired from the Microtelecom Software Defined Radio Developer Kit (SDRDK) and is subject to licensing
+ *  conditions contained in the document "SDRDK-Licensing-Agreement-v20.docx" (available under the folder "/resources")
+ *  Microtelecom SDRDK is (c) 2007-2013, Microtelecom s.r.l. - Pavia di Udine, Italy
+ *  Author : Nicolangelo PALERMO - IV3NWV
+ * 
+ * This library is also inspired from the Perseus Software Defined Radio Control Library for Linux (libperseus-sdr),
+ *  originally written by Nicolangelo PALERMO and maintained by Andrea MONTEFUSCO. This library can be found at :
+ *  - https://github.com/Microtelecom/libperseus-sdr
+ * 
+ * The JPerseus library, source code and documentation is published under the GNU Lesser General Public Licence v3
+ *  (available under the folder "/resources").
+ * 
+ * Copyright 2017, Mehdi DHAKOUANI
+ */
+package perseus.dsp.nco;
+
+/**
+ * NCO based on a 32-bit phase accumulator and a sine table of 2^TABLE_BITS points with linear interpolation.
+ * The phase wraps naturally with integer overflow : the frequency resolution is 2^-32 cycles per sample, the phase
+ *  never drifts and two oscillators at the same frequency stay in phase forever. Maximum error about 3.10^-7.
+ *
+ * @author Mehdi DHAKOUANI
+ * @version 1.0.0
+ */
+public class TableNCO extends NCO {
+
+    /** Number of bits of the table index */
+    public static final int TABLE_BITS = 12;
+    private static final int TABLE_SIZE = 1 << TABLE_BITS;
+    private static final int QUARTER = TABLE_SIZE / 4;
+    private static final int FRACTION_BITS = 32 - TABLE_BITS;
+    private static final int FRACTION_MASK = (1 << FRACTION_BITS) - 1;
+    private static final double FRACTION_SCALE = 1.0 / (1 << FRACTION_BITS);
+    private static final double TWO_POW_32 = 4294967296.0;
+    /** sin(2π.i/TABLE_SIZE), extended by a quarter period (+1 point) so that cosines and interpolation never wrap */
+    private static final double[] SINE = new double[TABLE_SIZE + QUARTER + 1];
+
+    static {
+        for (int i = 0 ; i < SINE.length ; i++) {
+            SINE[i] = Math.sin(2 * Math.PI * i / TABLE_SIZE);
+        }
+    }
+
+    private int phase = 0;
+    private int step = 0;
+
+    /**
+     * Creates an oscillator at 0 Hz.
+     */
+    public TableNCO() {
+    }
+
+    /**
+     * Creates an oscillator.
+     * @param frequency the frequency, normalized to the sample rate (in [-0.5, 0.5])
+     */
+    public TableNCO(double frequency) {
+        this.setFrequency(frequency);
+    }
+
+    @Override
+    public final void setFrequency(double frequency) {
+        CheckFrequency(frequency);
+        this.step = (int) Math.round(frequency * TWO_POW_32);
+    }
+
+    @Override
+    public double getFrequency() {
+        return this.step / TWO_POW_32;
+    }
+
+    @Override
+    public double getPhase() {
+        return (this.phase & 0xFFFFFFFFL) / TWO_POW_32;
+    }
+
+    @Override
+    public void setPhase(double phase) {
+        this.phase = (int) (long) Math.floor((phase - Math.floor(phase)) * TWO_POW_32);
+    }
+
+    @Override
+    public void generate(double[] re, double[] im, int offset, int length) {
+        int p = this.phase;
+        final int s = this.step;
+        for (int i = offset ; i < offset + length ; i++) {
+            int index = p >>> FRACTION_BITS;
+            double fraction = (p & FRACTION_MASK) * FRACTION_SCALE;
+            double s0 = SINE[index];
+            double c0 = SINE[index + QUARTER];
+            re[i] = c0 + fraction * (SINE[index + QUARTER + 1] - c0);
+            im[i] = s0 + fraction * (SINE[index + 1] - s0);
+            p += s;
+        }
+        this.phase = p;
+    }
+
+    @Override
+    public void mix(double[] re, double[] im, int offset, int length, double[] outRe, double[] outIm, int outOffset) {
+        int p = this.phase;
+        final int s = this.step;
+        for (int i = 0 ; i < length ; i++) {
+            int index = p >>> FRACTION_BITS;
+            double fraction = (p & FRACTION_MASK) * FRACTION_SCALE;
+            double s0 = SINE[index];
+            double c0 = SINE[index + QUARTER];
+            double c = c0 + fraction * (SINE[index + QUARTER + 1] - c0);
+            double sn = s0 + fraction * (SINE[index + 1] - s0);
+            double xr = re[offset + i];
+            double xi = im[offset + i];
+            outRe[outOffset + i] = xr * c - xi * sn;
+            outIm[outOffset + i] = xr * sn + xi * c;
+            p += s;
+        }
+        this.phase = p;
+    }
+
+}
@@ -0,0 +1,383 @@
+/**
+ * The JPerseusSDR library is free software; you can redistribute 
+ * it and/or modify it under the terms of the GNU Lesser General Public 
+ * License as published by the Free Software Foundation; either version 
+ * 3.0 of the License, or (at your option) any later version.
+ * 
+ * The JPerseusSDR library is distributed in the hope that it will
+ * be useful, but WITHOUT ANY WARRANTY; without even the implied warranty 
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the Perseus SDR Library; 
+ * if not, see 'http://www.gnu.org/licenses/'.
+ * 
+ * This library is assumed to work under J2SE &gt;= 7.
+ * NOTE: It is assumed that the Perseus USB drivers are already installed on your system. The Perseus USB drivers 
+ *       are available in the distribution CD-ROM which comes with the Perseus receiver.
+ * 
+ * This library is inspired from the Microtelecom Software Defined Radio Developer Kit (SDRDK) and is subject to licensing
+ *  conditions contained in the document "SDRDK-Licensing-Agreement-v20.docx" (available under the folder "/resources")
+ *  Microtelecom SDRDK is (c) 2007-2013, Microtelecom s.r.l. - Pavia di Udine, Italy
+ *  Author : Nicolangelo PALERMO - IV3NWV
+ * 
+ * This library is also inspired from the Perseus Software Defined Radio Control Library for Linux (libperseus-sdr),
+ *  originally written by Nicolangelo PALERMO and maintained by Andrea MONTEFUSCO. This library can be found at :
+ *  - https://github.com/Microtelecom/libperseus-sdr
+ * 
+ * The JPerseus library, source code and documentation is published under the GNU Lesser General Public Licence v3
+ *  (available under the folder "/resources").
+ * 
+ * Copyright 2017, Mehdi DHAKOUANI
+ */
+package perseus.dsp.spectrum;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import perseus.callback.IQSink;
+import perseus.dsp.fft.FastFFT;
+import perseus.dsp.maths.ComplexArray;
+import perseus.dsp.window.Window;
+
+/**
+ * Bank of Goertzel filters measuring the power of a stream of decoded I/Q samples at a set of fixed frequencies
+ *  (eg: beacons, pilot tones), much cheaper than a full FFT when only a few frequencies are watched.
+ *  - The stream is cut into consecutive measurement blocks of 'blockLength' samples, independent of the size of the
+ *      blocks handed to @process : the state of the filters is kept from one call to the next.
+ *  - Frequencies are arbitrary (not restricted to the bins of a FFT) and may be negative (complex input).
+ *  - The samples may be weighted by a window ; powers are normalized by its coherent gain, so that a full-scale
+ *      complex tone reads 0 dBFS (as with @WelchSpectrum).
+ *  - The filters are run by groups of 4 over each segment of samples, their 8 recursions (real and imaginary
+ *      parts) being interleaved in registers : the latency of each recursion is hidden by the other ones, and the
+ *      state of the filters is only read and written once per segment.
+ * At the end of each measurement block, the power at each frequency (in dB, in the order of the frequencies) is
+ *  handed to the registered @SpectrumListener objects.
+ * Cost : about 4 multiply-adds per sample and per frequency, against about 2.5*log2(N) per sample for a N-point FFT
+ *  computing all the bins (see @main for the crossover on the running machine).
+ *
+ * @author Mehdi DHAKOUANI
+ * @version 1.0.0
+ */
+public class GoertzelBank implements IQSink {
+
+    private static final double MINIMUM_POWER = 1.0E-20;
+
+    private final int nbFilters;
+    private final int blockLength;
+    private final double[] frequencies;
+    private final double[] coefficients;
+    private final double[] cos;
+    private final double[] sin;
+    private final double[] window;
+    private final double normalization;
+    private final double[] s1Re;
+    private final double[] s1Im;
+    private final double[] s2Re;
+    private final double[] s2Im;
+    private final double[] power;
+    private final double[] powerDb;
+    private final List<SpectrumListener> listeners = new CopyOnWriteArrayList<>();
+    private int position = 0;
+    private long nbBlocks = 0;
+
+    /**
+     * Creates a bank of Goertzel filters without window (rectangular window).
+     * @param frequencies the frequencies to measure, normalized to the sample rate (in [-0.5, 0.5[)
+     * @param blockLength the number of samples of each measurement block
+     */
+    public GoertzelBank(double[] frequencies, int blockLength) {
+        this(frequencies, blockLength, null);
+    }
+
+    /**
+     * Creates a bank of Goertzel filters.
+     * @param frequencies the frequencies to measure, normalized to the sample rate (in [-0.5, 0.5[)
+     * @param blockLength the number of samples of each measurement block
+     * @param window the window weighting the samples of each block (its number of points must match the block length),
+     *  or null for a rectangular window
+     */
+    public GoertzelBank(double[] frequencies, int blockLength, Window window) {
+        if (frequencies == null || frequencies.length == 0) {
+            throw new IllegalArgumentException("At least one frequency must be provided.");
+        }
+        if (blockLength <= 0) {
+            throw new IllegalArgumentException("The block length must be a positive integer.");
+        }
+        if (window != null && window.getResult().length != blockLength) {
+            throw new IllegalArgumentException("The number of points of the window must match the block length.");
+        }
+        this.nbFilters = frequencies.length;
+        this.blockLength = blockLength;
+        this.frequencies = frequencies.clone();
+        this.coefficients = new double[this.nbFilters];
+        this.cos = new double[this.nbFilters];
+        this.sin = new double[this.nbFilters];
+        for (int f = 0 ; f < this.nbFilters ; f++) {
+            if (frequencies[f] < -0.5 || frequencies[f] >= 0.5) {
+                throw new IllegalArgumentException("The frequencies must be in [-0.5, 0.5[ (normalized to the sample rate).");
+            }
+            double w = 2 * Math.PI * frequencies[f];
+            this.cos[f] = Math.cos(w);
+            this.sin[f] = Math.sin(w);
+            this.coefficients[f] = 2 * this.cos[f];
+        }
+        double sum = blockLength;
+        if (window != null) {
+            this.window = window.getResult().clone();
+            sum = 0;
+            for (double w : this.window) {
+                sum += w;
+            }
+        } else {
+            this.window = null;
+        }
+        this.normalization = 1 / (sum * sum);
+        this.s1Re = new double[this.nbFilters];
+        this.s1Im = new double[this.nbFilters];
+        this.s2Re = new double[this.nbFilters];
+        this.s2Im = new double[this.nbFilters];
+        this.power = new double[this.nbFilters];
+        this.powerDb = new double[this.nbFilters];
+    }
+
+    /**
+     * Registers a listener receiving the powers at the end of each measurement block.
+     * @param listener the listener
+     */
+    public void addListener(SpectrumListener listener) {
+        this.listeners.add(listener);
+    }
+
+    /**
+     * Unregisters a listener.
+     * @param listener the listener
+     */
+    public void removeListener(SpectrumListener listener) {
+        this.listeners.remove(listener);
+    }
+
+    @Override
+    public void process(ComplexArray samples, int length) {
+        this.process(samples.getRe(), samples.getIm(), 0, length);
+    }
+
+    /**
+     * Processes a block of decoded I/Q samples.
+     * @param re the real parts of the samples
+     * @param im the imaginary parts of the samples
+     * @param offset the index of the first sample
+     * @param length the number of samples
+     */
+    public void process(double[] re, double[] im, int offset, int length) {
+        int done = 0;
+        while (done < length) {
+            // Segments never cross the end of a measurement block
+            int chunk = Math.min(this.blockLength - this.position, length - done);
+            int f = 0;
+            for ( ; f + 4 <= this.nbFilters ; f += 4) {
+                this.filter4(re, im, offset + done, chunk, f);
+            }
+            for ( ; f < this.nbFilters ; f++) {
+                this.filter1(re, im, offset + done, chunk, f);
+            }
+            done += chunk;
+            this.position += chunk;
+            if (this.position == this.blockLength) {
+                this.endBlock();
+            }
+        }
+    }
+
+    /* Runs 4 filters over a segment : s[n] = (x[n] - s[n-2]) + 2.cos(w).s[n-1], the 8 independent recursions being
+        kept in registers so that their latencies overlap (x[n] - s[n-2] is off the critical path) */
+    private void filter4(double[] re, double[] im, int offset, int length, int f) {
+        double c0 = this.coefficients[f], c1 = this.coefficients[f+1], c2 = this.coefficients[f+2], c3 = this.coefficients[f+3];
+        double a0r = this.s1Re[f], a1r = this.s1Re[f+1], a2r = this.s1Re[f+2], a3r = this.s1Re[f+3];
+        double a0i = this.s1Im[f], a1i = this.s1Im[f+1], a2i = this.s1Im[f+2], a3i = this.s1Im[f+3];
+        double b0r = this.s2Re[f], b1r = this.s2Re[f+1], b2r = this.s2Re[f+2], b3r = this.s2Re[f+3];
+        double b0i = this.s2Im[f], b1i = this.s2Im[f+1], b2i = this.s2Im[f+2], b3i = this.s2Im[f+3];
+        double[] w = this.window;
+        int pos = this.position;
+        for (int i = offset ; i < offset + length ; i++, pos++) {
+            double xr = re[i];
+            double xi = im[i];
+            if (w != null) {
+                xr *= w[pos];
+                xi *= w[pos];
+            }
+            double t;
+            t = (xr - b0r) + c0 * a0r; b0r = a0r; a0r = t;
+            t = (xi - b0i) + c0 * a0i; b0i = a0i; a0i = t;
+            t = (xr - b1r) + c1 * a1r; b1r = a1r; a1r = t;
+            t = (xi - b1i) + c1 * a1i; b1i = a1i; a1i = t;
+            t = (xr - b2r) + c2 * a2r; b2r = a2r; a2r = t;
+            t = (xi - b2i) + c2 * a2i; b2i = a2i; a2i = t;
+            t = (xr - b3r) + c3 * a3r; b3r = a3r; a3r = t;
+            t = (xi - b3i) + c3 * a3i; b3i = a3i; a3i = t;
+        }
+        this.s1Re[f] = a0r; this.s1Re[f+1] = a1r; this.s1Re[f+2] = a2r; this.s1Re[f+3] = a3r;
+        this.s1Im[f] = a0i; this.s1Im[f+1] = a1i; this.s1Im[f+2] = a2i; this.s1Im[f+3] = a3i;
+        this.s2Re[f] = b0r; this.s2Re[f+1] = b1r; this.s2Re[f+2] = b2r; this.s2Re[f+3] = b3r;
+        this.s2Im[f] = b0i; this.s2Im[f+1] = b1i; this.s2Im[f+2] = b2i; this.s2Im[f+3] = b3i;
+    }
+
+    /* Runs a single filter over a segment */
+    private void filter1(double[] re, double[] im, int offset, int length, int f) {
+        double c = this.coefficients[f];
+        double ar = this.s1Re[f], ai = this.s1Im[f];
+        double br = this.s2Re[f], bi = this.s2Im[f];
+        double[] w = this.window;
+        int pos = this.position;
+        for (int i = offset ; i < offset + length ; i++, pos++) {
+            double xr = re[i];
+            double xi = im[i];
+            if (w != null) {
+                xr *= w[pos];
+                xi *= w[pos];
+            }
+            double t;
+            t = (xr - br) + c * ar; br = ar; ar = t;
+            t = (xi - bi) + c * ai; bi = ai; ai = t;
+        }
+        this.s1Re[f] = ar;
+        this.s1Im[f] = ai;
+        this.s2Re[f] = br;
+        this.s2Im[f] = bi;
+    }
+
+    /* |X(w)| = |s[N-1] - exp(-jw).s[N-2]| */
+    private void endBlock() {
+        for (int f = 0 ; f < this.nbFilters ; f++) {
+            double yr = this.s1Re[f] - this.cos[f] * this.s2Re[f] - this.sin[f] * this.s2Im[f];
+            double yi = this.s1Im[f] - this.cos[f] * this.s2Im[f] + this.sin[f] * this.s2Re[f];
+            this.power[f] = (yr * yr + yi * yi) * this.normalization;
+            this.powerDb[f] = 10 * Math.log10(Math.max(this.power[f], MINIMUM_POWER));
+            this.s1Re[f] = 0;
+            this.s1Im[f] = 0;
+            this.s2Re[f] = 0;
+            this.s2Im[f] = 0;
+        }
+        this.position = 0;
+        this.nbBlocks++;
+        for (SpectrumListener listener : this.listeners) {
+            listener.spectrum(this.powerDb, this.nbBlocks);
+        }
+    }
+
+    /**
+     * Clears the state of the filters (the current measurement block restarts).
+     */
+    public void reset() {
+        for (int f = 0 ; f < this.nbFilters ; f++) {
+            this.s1Re[f] = 0;
+            this.s1Im[f] = 0;
+            this.s2Re[f] = 0;
+            this.s2Im[f] = 0;
+        }
+        this.position = 0;
+        this.nbBlocks = 0;
+    }
+
+    /**
+     * @return the linear power at each frequency measured over the last block (reused for the next block)
+     */
+    public double[] getPower() {
+        return power;
+    }
+
+    /**
+     * @return the power at each frequency measured over the last block, in dB (reused for the next block)
+     */
+    public double[] getPowerDb() {
+        return powerDb;
+    }
+
+    /**
+     * @return a copy of the frequencies, normalized to the sample rate
+     */
+    public double[] getFrequencies() {
+        return frequencies.clone();
+    }
+
+    /**
+     * @return the number of frequencies
+     */
+    public int getNbFilters() {
+        return nbFilters;
+    }
+
+    /**
+     * @return the number of samples of each measurement block
+     */
+    public int getBlockLength() {
+        return blockLength;
+    }
+
+    /**
+     * @return the number of measurement blocks completed since the creation (or the last reset)
+     */
+    public long getNbBlocks() {
+        return nbBlocks;
+    }
+
+    /**
+     * Compares the cost per sample of the bank with the cost of a FFT of the same length (transform and powers), and
+     *  prints the number of frequencies above which the FFT is cheaper.
+     * @param args unused
+     */
+    public static void main(String[] args) {
+        int[] lengths = {256, 1024, 4096, 16384};
+        int[] nbFrequencies = {1, 2, 4, 8, 16, 32, 64, 128, 256};
+        int nbSamples = 1 << 22;
+        double[] re = new double[nbSamples];
+        double[] im = new double[nbSamples];
+        for (int i = 0 ; i < nbSamples ; i++) {
+            re[i] = Math.cos(0.1 * i);
+            im[i] = Math.sin(0.1 * i);
+        }
+        for (int length : lengths) {
+            // FFT path : copy, transform and power of every bin
+            FastFFT fft = FastFFT.GetInstance(length);
+            double[] wr = new double[length];
+            double[] wi = new double[length];
+            double[] p = new double[length];
+            double fftCost = Double.MAX_VALUE;
+            for (int run = 0 ; run < 5 ; run++) {
+                long t0 = System.nanoTime();
+                for (int b = 0 ; b + length <= nbSamples ; b += length) {
+                    System.arraycopy(re, b, wr, 0, length);
+                    System.arraycopy(im, b, wi, 0, length);
+                    fft.forward(wr, wi);
+                    for (int k = 0 ; k < length ; k++) {
+                        p[k] = wr[k] * wr[k] + wi[k] * wi[k];
+                    }
+                }
+                fftCost = Math.min(fftCost, (double) (System.nanoTime() - t0) / nbSamples);
+            }
+            System.out.println(String.format(Locale.ROOT, "N = %5d : FFT %6.2f ns/sample", length, fftCost));
+            int crossover = -1;
+            for (int nbFreq : nbFrequencies) {
+                double[] freqs = new double[nbFreq];
+                for (int f = 0 ; f < nbFreq ; f++) {
+                    freqs[f] = -0.5 + (f + 0.5) / nbFreq;
+                }
+                GoertzelBank bank = new GoertzelBank(freqs, length);
+                double cost = Double.MAX_VALUE;
+                for (int run = 0 ; run < 5 ; run++) {
+                    long t0 = System.nanoTime();
+                    bank.process(re, im, 0, nbSamples);
+                    cost = Math.min(cost, (double) (System.nanoTime() - t0) / nbSamples);
+                }
+                if (crossover < 0 && cost > fftCost) {
+                    crossover = nbFreq;
+                }
+                System.out.println(String.format(Locale.ROOT, "            Goertzel x%3d %6.2f ns/sample (%.2f x FFT)", nbFreq, cost, cost / fftCost));
+            }
+            System.out.println(crossover < 0 ? "            Goertzel bank cheaper up to 256 frequencies"
+                    : String.format(Locale.ROOT, "            FFT cheaper from %d frequencies", crossover));
+        }
+    }
+
+}
@@ -0,0 +1,320 @@
+/**
+ * The JPerseusSDR library is free software; you can redistribute 
+ * it and/or modify it under the terms of the GNU Lesser General Public 
+ * License as published by the Free Software Foundation; either version 
+ * 3.0 of the License, or (at your option) any later version.
+ * 
+ * The JPerseusSDR library is distributed in the hope that it will
+ * be useful, but WITHOUT ANY WARRANTY; without even the implied warranty 
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the Perseus SDR Library; 
+ * if not, see 'http://www.gnu.org/licenses/'.
+ * 
+ * This library is assumed to work under J2SE &gt;= 7.
+ * NOTE: It is assumed that the Perseus USB drivers are already installed on your system. The Perseus USB drivers 
+ *       are available in the distribution CD-ROM which comes with the Perseus receiver.
+ * 
+ * This library is inspired from the Microtelecom Software Defined Radio Developer Kit (SDRDK) and is subject to licensing
+ *  conditions contained in the document "SDRDK-Licensing-Agreement-v20.docx" (available under the folder "/resources")
+ *  Microtelecom SDRDK is (c) 2007-2013, Microtelecom s.r.l. - Pavia di Udine, Italy
+ *  Author : Nicolangelo PALERMO - IV3NWV
+ * 
+ * This library is also inspired from the Perseus Software Defined Radio Control Library for Linux (libperseus-sdr),
+ *  originally written by Nicolangelo PALERMO and maintained by Andrea MONTEFUSCO. This library can be found at :
+ *  - https://github.com/Microtelecom/libperseus-sdr
+ * 
+ * The JPerseus library, source code and documentation is published under the GNU Lesser General Public Licence v3
+ *  (available under the folder "/resources").
+ * 
+ * Copyright 2017, Mehdi DHAKOUANI
+ */
+package perseus.dsp.spectrum;
+
+import java.util.Arrays;
+
+/**
+ * Band occupancy statistics accumulated from the spectra of a spectrum analyzer stage, with a fixed memory footprint
+ *  whatever the observation time (eg: 24-hour occupancy reports).
+ * The band is divided into channels of 'nbBinsPerChannel' bins (1 = statistics per bin). For each channel :
+ *  - Occupancy : number of spectra in which at least one bin of the channel exceeds the threshold.
+ *  - Maximum power : highest power of the bins of the channel, in dB.
+ *  - Mean power : mean of the (linear) power of the bins of the channel.
+ *  - Duty-cycle histogram : the spectra are grouped into intervals of 'nbSpectraPerInterval' spectra ; at the end of
+ *      each interval, the fraction of occupied spectra of each channel is counted in one of 'nbHistogramBins'
+ *      equal classes of [0, 1] (eg: how many minutes were occupied less than 10%, 10 to 20%, ...).
+ * Snapshots (@snapshot) are copies taken while the stream goes on. Statistics with the same configuration can be
+ *  merged (@merge), eg: snapshots of successive hours, or receivers monitoring the same band ; the intervals in
+ *  progress are not merged.
+ *
+ * @author Mehdi DHAKOUANI
+ * @version 1.0.0
+ */
+public class OccupancyStatistics implements SpectrumListener {
+
+    private final int nbBins;
+    private final int nbBinsPerChannel;
+    private final int nbChannels;
+    private final double thresholdDb;
+    private final int nbSpectraPerInterval;
+    private final int nbHistogramBins;
+    private final long[] occupied;
+    private final double[] maximumDb;
+    private final double[] sumPower;
+    private final long[] histogram;
+    private final int[] intervalOccupied;
+    private int intervalFill = 0;
+    private long nbSpectra = 0;
+    private long nbIntervals = 0;
+
+    /**
+     * Creates occupancy statistics.
+     * @param nbBins the number of bins of each spectrum
+     * @param nbBinsPerChannel the number of bins of each channel (the last channel may be narrower)
+     * @param thresholdDb the power above which a bin is occupied, in dB
+     * @param nbSpectraPerInterval the number of spectra of each interval of the duty-cycle histograms
+     * @param nbHistogramBins the number of classes of the duty-cycle histograms
+     */
+    public OccupancyStatistics(int nbBins, int nbBinsPerChannel, double thresholdDb, int nbSpectraPerInterval, int nbHistogramBins) {
+        if (nbBins <= 0 || nbBinsPerChannel <= 0 || nbBinsPerChannel > nbBins) {
+            throw new IllegalArgumentException("The number of bins must be a positive integer, and the number of bins per channel must be in [1, nbBins].");
+        }
+        if (nbSpectraPerInterval <= 0 || nbHistogramBins <= 0) {
+            throw new IllegalArgumentException("The number of spectra per interval and the number of histogram classes must be positive integers.");
+        }
+        this.nbBins = nbBins;
+        this.nbBinsPerChannel = nbBinsPerChannel;
+        this.nbChannels = (nbBins + nbBinsPerChannel - 1) / nbBinsPerChannel;
+        this.thresholdDb = thresholdDb;
+        this.nbSpectraPerInterval = nbSpectraPerInterval;
+        this.nbHistogramBins = nbHistogramBins;
+        this.occupied = new long[this.nbChannels];
+        this.maximumDb = new double[this.nbChannels];
+        this.sumPower = new double[this.nbChannels];
+        this.histogram = new long[this.nbChannels * nbHistogramBins];
+        this.intervalOccupied = new int[this.nbChannels];
+        Arrays.fill(this.maximumDb, Double.NEGATIVE_INFINITY);
+    }
+
+    /* Copy constructor (snapshots) */
+    private OccupancyStatistics(OccupancyStatistics other) {
+        this.nbBins = other.nbBins;
+        this.nbBinsPerChannel = other.nbBinsPerChannel;
+        this.nbChannels = other.nbChannels;
+        this.thresholdDb = other.thresholdDb;
+        this.nbSpectraPerInterval = other.nbSpectraPerInterval;
+        this.nbHistogramBins = other.nbHistogramBins;
+        this.occupied = other.occupied.clone();
+        this.maximumDb = other.maximumDb.clone();
+        this.sumPower = other.sumPower.clone();
+        this.histogram = other.histogram.clone();
+        this.intervalOccupied = other.intervalOccupied.clone();
+        this.intervalFill = other.intervalFill;
+        this.nbSpectra = other.nbSpectra;
+        this.nbIntervals = other.nbIntervals;
+    }
+
+    @Override
+    public synchronized void spectrum(double[] powerDb, long frameIndex) {
+        if (powerDb.length < this.nbBins) {
+            throw new IllegalArgumentException("The spectrum must have " + this.nbBins + " bins.");
+        }
+        for (int c = 0 ; c < this.nbChannels ; c++) {
+            int first = c * this.nbBinsPerChannel;
+            int last = Math.min(first + this.nbBinsPerChannel, this.nbBins);
+            double max = Double.NEGATIVE_INFINITY;
+            double sum = 0;
+            for (int k = first ; k < last ; k++) {
+                double p = powerDb[k];
+                if (p > max) {
+                    max = p;
+                }
+                sum += Math.pow(10, p / 10);
+            }
+            if (max > this.thresholdDb) {
+                this.occupied[c]++;
+                this.intervalOccupied[c]++;
+            }
+            if (max > this.maximumDb[c]) {
+                this.maximumDb[c] = max;
+            }
+            this.sumPower[c] += sum / (last - first);
+        }
+        this.nbSpectra++;
+        if (++this.intervalFill == this.nbSpectraPerInterval) {
+            for (int c = 0 ; c < this.nbChannels ; c++) {
+                int h = (int) ((long) this.intervalOccupied[c] * this.nbHistogramBins / this.nbSpectraPerInterval);
+                this.histogram[c * this.nbHistogramBins + Math.min(h, this.nbHistogramBins - 1)]++;
+                this.intervalOccupied[c] = 0;
+            }
+            this.intervalFill = 0;
+            this.nbIntervals++;
+        }
+    }
+
+    /**
+     * @return a copy of the statistics, independent of the stream
+     */
+    public synchronized OccupancyStatistics snapshot() {
+        return new OccupancyStatistics(this);
+    }
+
+    /**
+     * Adds the statistics of another accumulator (same configuration) to these ones.
+     * @param other the statistics to merge (eg: another receiver, or a snapshot of another time window)
+     */
+    public void merge(OccupancyStatistics other) {
+        if (!this.isCompatible(other)) {
+            throw new IllegalArgumentException("Only statistics with the same bins, channels, threshold and intervals can be merged.");
+        }
+        OccupancyStatistics copy = other.snapshot();
+        synchronized (this) {
+            for (int c = 0 ; c < this.nbChannels ; c++) {
+                this.occupied[c] += copy.occupied[c];
+                this.maximumDb[c] = Math.max(this.maximumDb[c], copy.maximumDb[c]);
+                this.sumPower[c] += copy.sumPower[c];
+            }
+            for (int i = 0 ; i < this.histogram.length ; i++) {
+                this.histogram[i] += copy.histogram[i];
+            }
+            this.nbSpectra += copy.nbSpectra;
+            this.nbIntervals += copy.nbIntervals;
+        }
+    }
+
+    /**
+     * @param other other statistics
+     * @return true if the statistics can be merged with these ones
+     */
+    public boolean isCompatible(OccupancyStatistics other) {
+        return other != null && other.nbBins == this.nbBins && other.nbBinsPerChannel == this.nbBinsPerChannel
+                && other.thresholdDb == this.thresholdDb && other.nbSpectraPerInterval == this.nbSpectraPerInterval
+                && other.nbHistogramBins == this.nbHistogramBins;
+    }
+
+    /**
+     * Clears the statistics.
+     */
+    public synchronized void reset() {
+        Arrays.fill(this.occupied, 0);
+        Arrays.fill(this.maximumDb, Double.NEGATIVE_INFINITY);
+        Arrays.fill(this.sumPower, 0);
+        Arrays.fill(this.histogram, 0);
+        Arrays.fill(this.intervalOccupied, 0);
+        this.intervalFill = 0;
+        this.nbSpectra = 0;
+        this.nbIntervals = 0;
+    }
+
+    /**
+     * @param channel the index of the channel
+     * @return the fraction of the spectra in which the channel was occupied (0 if no spectrum was received)
+     */
+    public synchronized double getOccupancy(int channel) {
+        return (this.nbSpectra > 0) ? (double) this.occupied[channel] / this.nbSpectra : 0;
+    }
+
+    /**
+     * @param dst the array receiving the occupancy of each channel (fraction of the spectra)
+     * @return the array
+     */
+    public synchronized double[] getOccupancy(double[] dst) {
+        for (int c = 0 ; c < this.nbChannels ; c++) {
+            dst[c] = (this.nbSpectra > 0) ? (double) this.occupied[c] / this.nbSpectra : 0;
+        }
+        return dst;
+    }
+
+    /**
+     * @param channel the index of the channel
+     * @return the highest power of the bins of the channel, in dB (-∞ if no spectrum was received)
+     */
+    public synchronized double getMaximumDb(int channel) {
+        return this.maximumDb[channel];
+    }
+
+    /**
+     * @param channel the index of the channel
+     * @return the mean power of the bins of the channel, in dB (-∞ if no spectrum was received)
+     */
+    public synchronized double getMeanDb(int channel) {
+        return (this.nbSpectra > 0) ? 10 * Math.log10(this.sumPower[channel] / this.nbSpectra) : Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * @param channel the index of the channel
+     * @param dst the array receiving the number of intervals of each duty-cycle class (nbHistogramBins values)
+     * @return the array
+     */
+    public synchronized long[] getDutyCycleHistogram(int channel, long[] dst) {
+        System.arraycopy(this.histogram, channel * this.nbHistogramBins, dst, 0, this.nbHistogramBins);
+        return dst;
+    }
+
+    /**
+     * @param bin the index of a bin of the spectra
+     * @return the index of the channel containing the bin
+     */
+    public int getChannel(int bin) {
+        return bin / this.nbBinsPerChannel;
+    }
+
+    /**
+     * @return the number of spectra accumulated
+     */
+    public synchronized long getNbSpectra() {
+        return nbSpectra;
+    }
+
+    /**
+     * @return the number of complete intervals counted in the duty-cycle histograms
+     */
+    public synchronized long getNbIntervals() {
+        return nbIntervals;
+    }
+
+    /**
+     * @return the number of bins of the spectra
+     */
+    public int getNbBins() {
+        return nbBins;
+    }
+
+    /**
+     * @return the number of bins of each channel
+     */
+    public int getNbBinsPerChannel() {
+        return nbBinsPerChannel;
+    }
+
+    /**
+     * @return the number of channels
+     */
+    public int getNbChannels() {
+        return nbChannels;
+    }
+
+    /**
+     * @return the power above which a bin is occupied, in dB
+     */
+    public double getThresholdDb() {
+        return thresholdDb;
+    }
+
+    /**
+     * @return the number of spectra of each interval of the duty-cycle histograms
+     */
+    public int getNbSpectraPerInterval() {
+        return nbSpectraPerInterval;
+    }
+
+    /**
+     * @return the number of classes of the duty-cycle histograms
+     */
+    public int getNbHistogramBins() {
+        return nbHistogramBins;
+    }
+
+}
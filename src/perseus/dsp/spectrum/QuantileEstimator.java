@@ -0,0 +1,289 @@
+/**
+ * The JPerseusSDR library is free software; you can redistribute 
+ * it and/or modify it under the terms of the GNU Lesser General Public 
+ * License as published by the Free Software Foundation; either version 
+ * 3.0 of the License, or (at your option) any later version.
+ * 
+ * The JPerseusSDR library is distributed in the hope that it will
+ * be useful, but WITHOUT ANY WARRANTY; without even the implied warranty 
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the Perseus SDR Library; 
+ * if not, see 'http://www.gnu.org/licenses/'.
+ * 
+ * This library is assumed to work under J2SE &gt;= 7.
+ * NOTE: It is assumed that the Perseus USB drivers are already installed on your system. The Perseus USB drivers 
+ *       are available in the distribution CD-ROM which comes with the Perseus receiver.
+ * 
+ * This library is inspired from the Microtelecom Software Defined Radio Developer Kit (SDRDK) and is subject to licensing
+ *  conditions contained in the document "SDRDK-Licensing-Agreement-v20.docx" (available under the folder "/resources")
+ *  Microtelecom SDRDK is (c) 2007-2013, Microtelecom s.r.l. - Pavia di Udine, Italy
+ *  Author : Nicolangelo PALERMO - IV3NWV
+ * 
+ * This library is also inspired from the Perseus Software Defined Radio Control Library for Linux (libperseus-sdr),
+ *  originally written by Nicolangelo PALERMO and maintained by Andrea MONTEFUSCO. This library can be found at :
+ *  - https://github.com/Microtelecom/libperseus-sdr
+ * 
+ * The JPerseus library, source code and documentation is published under the GNU Lesser General Public Licence v3
+ *  (available under the folder "/resources").
+ * 
+ * Copyright 2017, Mehdi DHAKOUANI
+ */
+package perseus.dsp.spectrum;
+
+import java.util.Arrays;
+
+/**
+ * Streaming estimator of the distribution of the power of each bin of successive spectra, answering percentile
+ *  queries at any moment (eg: a robust noise floor per bin, the 20th percentile being hardly affected by intermittent
+ *  signals), without storing nor sorting spectra.
+ *  - Each bin holds a histogram of its values in dB over a fixed range, divided into classes of equal width (values
+ *      outside the range are counted in the first or last class). Quantiles are interpolated inside their class.
+ *  - Old values are forgotten exponentially with a time constant expressed in spectra : instead of decaying all the
+ *      counts at each spectrum, each new value is counted with a weight growing by 1/(1-α), and all the counts are
+ *      rescaled when the weight becomes too large (once every ~69/α spectra).
+ *  - One quantile (the 'tracked quantile') is followed by a marker per bin, moved by a few classes at each update :
+ *      updates and queries of that quantile cost O(1) per bin. Any other quantile is found by scanning the histogram.
+ * Memory : nbBins * nbClasses floats (eg: 2048 bins * 440 classes of 0.5 dB = 3.6 MB).
+ *
+ * @author Mehdi DHAKOUANI
+ * @version 1.0.0
+ */
+public class QuantileEstimator implements SpectrumListener {
+
+    /** Weight above which all the counts are rescaled */
+    private static final double RESCALE_THRESHOLD = 1.0E30;
+
+    private final int nbBins;
+    private final int nbClasses;
+    private final double minimumDb;
+    private final double classWidth;
+    private final double trackedQuantile;
+    private final double growth;
+    private final float[] counts;
+    private final double[] totals;
+    private final double[] below;
+    private final int[] markers;
+    private double weight = 1;
+    private long nbSpectra = 0;
+
+    /**
+     * Creates a quantile estimator.
+     * @param nbBins the number of bins of each spectrum
+     * @param minimumDb the lower bound of the histograms, in dB
+     * @param maximumDb the upper bound of the histograms, in dB
+     * @param nbClasses the number of classes of each histogram
+     * @param trackedQuantile the quantile followed in O(1) per bin (eg: 0.5 for the median), in ]0, 1[
+     * @param timeConstant the time constant of the forgetting, in spectra (≥ 1)
+     */
+    public QuantileEstimator(int nbBins, double minimumDb, double maximumDb, int nbClasses, double trackedQuantile, double timeConstant) {
+        if (nbBins <= 0 || nbClasses <= 1) {
+            throw new IllegalArgumentException("The number of bins must be a positive integer and the number of classes must be ≥ 2.");
+        }
+        if (!(maximumDb > minimumDb)) {
+            throw new IllegalArgumentException("The range of the histograms must not be empty (minimum < maximum).");
+        }
+        if (!(trackedQuantile > 0 && trackedQuantile < 1)) {
+            throw new IllegalArgumentException("The tracked quantile must be in ]0, 1[.");
+        }
+        if (!(timeConstant >= 1)) {
+            throw new IllegalArgumentException("The time constant must be at least 1 spectrum.");
+        }
+        if ((long) nbBins * nbClasses > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("The histograms exceed 2^31 classes : reduce the number of bins or of classes.");
+        }
+        this.nbBins = nbBins;
+        this.nbClasses = nbClasses;
+        this.minimumDb = minimumDb;
+        this.classWidth = (maximumDb - minimumDb) / nbClasses;
+        this.trackedQuantile = trackedQuantile;
+        this.growth = 1 / (1 - 1 / timeConstant);
+        this.counts = new float[nbBins * nbClasses];
+        this.totals = new double[nbBins];
+        this.below = new double[nbBins];
+        this.markers = new int[nbBins];
+    }
+
+    @Override
+    public void spectrum(double[] powerDb, long frameIndex) {
+        this.update(powerDb);
+    }
+
+    /**
+     * Counts a spectrum in the histograms.
+     * @param powerDb the power of each bin, in dB
+     */
+    public synchronized void update(double[] powerDb) {
+        if (powerDb.length < this.nbBins) {
+            throw new IllegalArgumentException("The spectrum must have " + this.nbBins + " bins.");
+        }
+        if (this.nbSpectra > 0) {
+            this.weight *= this.growth;
+            if (this.weight > RESCALE_THRESHOLD) {
+                this.rescale();
+            }
+        }
+        this.nbSpectra++;
+        float w = (float) this.weight;
+        int last = this.nbClasses - 1;
+        double scale = 1 / this.classWidth;
+        for (int k = 0 ; k < this.nbBins ; k++) {
+            double position = (powerDb[k] - this.minimumDb) * scale;
+            int c = (position <= 0) ? 0 : (position >= last) ? last : (int) position;
+            int base = k * this.nbClasses;
+            this.counts[base + c] += w;
+            double total = this.totals[k] + w;
+            this.totals[k] = total;
+            int m = this.markers[k];
+            double b = this.below[k];
+            if (c < m) {
+                b += w;
+            }
+            // Keep below ≤ target < below + count[m]
+            double target = this.trackedQuantile * total;
+            while (m > 0 && b > target) {
+                m--;
+                b -= this.counts[base + m];
+            }
+            while (m < last && b + this.counts[base + m] <= target) {
+                b += this.counts[base + m];
+                m++;
+            }
+            this.markers[k] = m;
+            this.below[k] = b;
+        }
+    }
+
+    /* Divides all the weights by the current weight (and recomputes the marker sums exactly) */
+    private void rescale() {
+        float factor = (float) (1 / this.weight);
+        for (int i = 0 ; i < this.counts.length ; i++) {
+            this.counts[i] *= factor;
+        }
+        for (int k = 0 ; k < this.nbBins ; k++) {
+            int base = k * this.nbClasses;
+            double total = 0;
+            double b = 0;
+            for (int c = 0 ; c < this.nbClasses ; c++) {
+                if (c == this.markers[k]) {
+                    b = total;
+                }
+                total += this.counts[base + c];
+            }
+            this.totals[k] = total;
+            this.below[k] = b;
+        }
+        this.weight = 1;
+    }
+
+    /**
+     * @param bin the index of the bin
+     * @return the tracked quantile of the bin, in dB (NaN if no spectrum was counted)
+     */
+    public synchronized double getTrackedQuantile(int bin) {
+        return this.interpolate(bin, this.markers[bin], this.below[bin], this.trackedQuantile * this.totals[bin]);
+    }
+
+    /**
+     * @param dst the array receiving the tracked quantile of each bin, in dB
+     * @return the array
+     */
+    public synchronized double[] getTrackedQuantiles(double[] dst) {
+        for (int k = 0 ; k < this.nbBins ; k++) {
+            dst[k] = this.interpolate(k, this.markers[k], this.below[k], this.trackedQuantile * this.totals[k]);
+        }
+        return dst;
+    }
+
+    /**
+     * @param bin the index of the bin
+     * @param quantile the quantile, in [0, 1]
+     * @return the quantile of the bin, in dB (NaN if no spectrum was counted)
+     */
+    public synchronized double getQuantile(int bin, double quantile) {
+        if (quantile < 0 || quantile > 1) {
+            throw new IllegalArgumentException("The quantile must be in [0, 1].");
+        }
+        int base = bin * this.nbClasses;
+        double target = quantile * this.totals[bin];
+        double b = 0;
+        int c = 0;
+        while (c < this.nbClasses - 1 && b + this.counts[base + c] <= target) {
+            b += this.counts[base + c];
+            c++;
+        }
+        return this.interpolate(bin, c, b, target);
+    }
+
+    /**
+     * @param quantile the quantile, in [0, 1]
+     * @param dst the array receiving the quantile of each bin, in dB
+     * @return the array
+     */
+    public synchronized double[] getQuantiles(double quantile, double[] dst) {
+        for (int k = 0 ; k < this.nbBins ; k++) {
+            dst[k] = this.getQuantile(k, quantile);
+        }
+        return dst;
+    }
+
+    /* Value at which the cumulated weight reaches 'target', assuming the values of the class are uniformly spread */
+    private double interpolate(int bin, int c, double below, double target) {
+        if (this.totals[bin] <= 0) {
+            return Double.NaN;
+        }
+        double count = this.counts[bin * this.nbClasses + c];
+        double fraction = (count > 0) ? Math.max(0, Math.min(1, (target - below) / count)) : 0.5;
+        return this.minimumDb + (c + fraction) * this.classWidth;
+    }
+
+    /**
+     * Clears the histograms.
+     */
+    public synchronized void reset() {
+        Arrays.fill(this.counts, 0);
+        Arrays.fill(this.totals, 0);
+        Arrays.fill(this.below, 0);
+        Arrays.fill(this.markers, 0);
+        this.weight = 1;
+        this.nbSpectra = 0;
+    }
+
+    /**
+     * @return the number of spectra counted since the creation (or the last reset)
+     */
+    public synchronized long getNbSpectra() {
+        return nbSpectra;
+    }
+
+    /**
+     * @return the number of bins of the spectra
+     */
+    public int getNbBins() {
+        return nbBins;
+    }
+
+    /**
+     * @return the number of classes of each histogram
+     */
+    public int getNbClasses() {
+        return nbClasses;
+    }
+
+    /**
+     * @return the width of the classes, in dB
+     */
+    public double getClassWidth() {
+        return classWidth;
+    }
+
+    /**
+     * @return the quantile followed in O(1) per bin
+     */
+    public double getTrackedQuantile() {
+        return trackedQuantile;
+    }
+
+}
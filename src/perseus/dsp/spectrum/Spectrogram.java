@@ -0,0 +1,465 @@
+/**
+ * The JPerseusSDR library is free software; you can redistribute 
+ * it and/or modify it under the terms of the GNU Lesser General Public 
+ * License as published by the Free Software Foundation; either version 
+ * 3.0 of the License, or (at your option) any later version.
+ * 
+ * The JPerseusSDR library is distributed in the hope that it will
+ * be useful, but WITHOUT ANY WARRANTY; without even the implied warranty 
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the Perseus SDR Library; 
+ * if not, see 'http://www.gnu.org/licenses/'.
+ * 
+ * This library is assumed to work under J2SE &gt;= 7.
+ * NOTE: It is assumed that the Perseus USB drivers are already installed on your system. The Perseus USB drivers 
+ *       are available in the distribution CD-ROM which comes with the Perseus receiver.
+ * 
+ * This library is inspired from the Microtelecom Software Defined Radio Developer Kit (SDRDK) and is subject to licensing
+ *  conditions contained in the document "SDRDK-Licensing-Agreement-v20.docx" (available under the folder "/resources")
+ *  Microtelecom SDRDK is (c) 2007-2013, Microtelecom s.r.l. - Pavia di Udine, Italy
+ *  Author : Nicolangelo PALERMO - IV3NWV
+ * 
+ * This library is also inspired from the Perseus Software Defined Radio Control Library for Linux (libperseus-sdr),
+ *  originally written by Nicolangelo PALERMO and maintained by Andrea MONTEFUSCO. This library can be found at :
+ *  - https://github.com/Microtelecom/libperseus-sdr
+ * 
+ * The JPerseus library, source code and documentation is published under the GNU Lesser General Public Licence v3
+ *  (available under the folder "/resources").
+ * 
+ * Copyright 2017, Mehdi DHAKOUANI
+ */
+package perseus.dsp.spectrum;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Waterfall (spectrogram) history fed by a spectrum analyzer stage.
+ * Each spectrum is quantized to 8 or 16 bits over a fixed dB range and appended to a ring held outside the Java heap
+ *  (direct buffers) : the history has a fixed memory footprint, whatever its duration, and does not load the garbage
+ *  collector.
+ * Zoomed-out views are served by decimation levels computed while appending : each row of level 'l' aggregates
+ *  'decimationFactor' rows of level 'l-1', keeping both their mean and their maximum (the maximum keeps short signals
+ *  visible when zooming out). Level 0 holds the spectra themselves.
+ * Rows are identified by their index since the creation of the stage (a row stays readable while it is within the
+ *  capacity of its level) and carry the timestamp given when appended (eg: the frame index of @WelchSpectrum), which
+ *  allows time-indexed reads.
+ * Appends and reads may happen in different threads.
+ *
+ * @author Mehdi DHAKOUANI
+ * @version 1.0.0
+ */
+public class Spectrogram implements SpectrumListener {
+
+    /**
+     * The resolutions of the quantized dB values
+     */
+    public enum Resolution {
+        BITS_8(1, 0xFF),
+        BITS_16(2, 0xFFFF);
+
+        private final int nbBytes;
+        private final int maximum;
+
+        private Resolution(int nbBytes, int maximum) {
+            this.nbBytes = nbBytes;
+            this.maximum = maximum;
+        }
+
+        /**
+         * @return the number of bytes of each quantized value
+         */
+        public int getNbBytes() {
+            return nbBytes;
+        }
+
+        /**
+         * @return the highest quantized value
+         */
+        public int getMaximum() {
+            return maximum;
+        }
+    }
+
+    /**
+     * The statistics kept by the decimation levels
+     */
+    public enum Statistic {
+        MEAN,
+        MAX
+    }
+
+    private final int nbBins;
+    private final Resolution resolution;
+    private final double minimumDb;
+    private final double maximumDb;
+    private final double quantizationStep;
+    private final int decimationFactor;
+    private final Level[] levels;
+    private final int[] row;
+
+    /**
+     * Creates a spectrogram.
+     * @param nbBins the number of bins of each spectrum
+     * @param capacity the number of rows kept by level 0 (level 'l' keeps capacity/decimationFactor^l rows)
+     * @param resolution the resolution of the quantized dB values
+     * @param minimumDb the dB value of the lowest quantized value (lower values are clipped)
+     * @param maximumDb the dB value of the highest quantized value (higher values are clipped)
+     * @param nbLevels the number of levels (1 = no decimation)
+     * @param decimationFactor the number of rows of a level aggregated in a row of the next level
+     */
+    public Spectrogram(int nbBins, int capacity, Resolution resolution, double minimumDb, double maximumDb, int nbLevels, int decimationFactor) {
+        if (nbBins <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException("The number of bins and the capacity must be positive integers.");
+        }
+        if (resolution == null || !(maximumDb > minimumDb)) {
+            throw new IllegalArgumentException("The resolution must be provided with a dB range (minimum < maximum).");
+        }
+        if (nbLevels <= 0 || (nbLevels > 1 && decimationFactor < 2)) {
+            throw new IllegalArgumentException("The number of levels must be a positive integer and the decimation factor must be ≥ 2.");
+        }
+        if ((long) nbBins * capacity * resolution.nbBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("The history exceeds 2 GB : reduce the capacity or the resolution.");
+        }
+        this.nbBins = nbBins;
+        this.resolution = resolution;
+        this.minimumDb = minimumDb;
+        this.maximumDb = maximumDb;
+        this.quantizationStep = (maximumDb - minimumDb) / resolution.maximum;
+        this.decimationFactor = decimationFactor;
+        this.levels = new Level[nbLevels];
+        int levelCapacity = capacity;
+        for (int l = 0 ; l < nbLevels ; l++) {
+            this.levels[l] = new Level(Math.max(1, levelCapacity), l > 0);
+            levelCapacity /= Math.max(decimationFactor, 1);
+        }
+        this.row = new int[nbBins];
+    }
+
+    @Override
+    public void spectrum(double[] powerDb, long frameIndex) {
+        this.append(powerDb, frameIndex);
+    }
+
+    /**
+     * Appends a spectrum to the history, overwriting the oldest row of each level once it is full.
+     * @param powerDb the power of each bin, in dB
+     * @param timestamp the timestamp of the spectrum (must not decrease from a spectrum to the next)
+     */
+    public synchronized void append(double[] powerDb, long timestamp) {
+        if (powerDb.length != this.nbBins) {
+            throw new IllegalArgumentException("The spectrum must have " + this.nbBins + " bins.");
+        }
+        double inverseStep = 1.0 / this.quantizationStep;
+        int maximum = this.resolution.maximum;
+        for (int i = 0 ; i < this.nbBins ; i++) {
+            double q = (powerDb[i] - this.minimumDb) * inverseStep + 0.5;
+            this.row[i] = (q <= 0) ? 0 : (q >= maximum ? maximum : (int) q);
+        }
+        this.levels[0].write(this.row, null, timestamp);
+        if (this.levels.length > 1) {
+            this.accumulate(1, this.row, this.row, timestamp);
+        }
+    }
+
+    /* Adds a row of level 'l-1' to the pending aggregate of level 'l' */
+    private void accumulate(int l, int[] mean, int[] max, long timestamp) {
+        Level level = this.levels[l];
+        if (level.accumulated == 0) {
+            level.timestamp = timestamp;
+            System.arraycopy(mean, 0, level.sum, 0, this.nbBins);
+            System.arraycopy(max, 0, level.max, 0, this.nbBins);
+        } else {
+            for (int i = 0 ; i < this.nbBins ; i++) {
+                level.sum[i] += mean[i];
+                if (max[i] > level.max[i]) {
+                    level.max[i] = max[i];
+                }
+            }
+        }
+        if (++level.accumulated == this.decimationFactor) {
+            int half = this.decimationFactor / 2;
+            for (int i = 0 ; i < this.nbBins ; i++) {
+                level.mean[i] = (level.sum[i] + half) / this.decimationFactor;
+            }
+            level.write(level.mean, level.max, level.timestamp);
+            level.accumulated = 0;
+            if (l + 1 < this.levels.length) {
+                this.accumulate(l + 1, level.mean, level.max, level.timestamp);
+            }
+        }
+    }
+
+    /**
+     * Reads rows of a level as dB values (row after row).
+     * Rows no longer (or not yet) in the history are skipped.
+     * @param level the level
+     * @param statistic the statistic to read (ignored for level 0)
+     * @param firstRow the index of the first row to read
+     * @param nbRows the number of rows to read
+     * @param dst the array receiving the values (nbBins values per row)
+     * @param dstOffset the index of the first value written in 'dst'
+     * @return the number of rows read
+     */
+    public synchronized int readDb(int level, Statistic statistic, long firstRow, int nbRows, double[] dst, int dstOffset) {
+        Level lvl = this.getLevel(level);
+        long from = Math.max(firstRow, lvl.getFirstRow());
+        long to = Math.min(firstRow + nbRows, lvl.nbRows);
+        int count = (int) Math.max(0, to - from);
+        if (dstOffset < 0 || dst.length - dstOffset < (long) count * this.nbBins) {
+            throw new IllegalArgumentException("The destination array is too small.");
+        }
+        for (long r = from ; r < to ; r++) {
+            lvl.read(r, statistic, dst, dstOffset + (int) (r - from) * this.nbBins);
+        }
+        return count;
+    }
+
+    /**
+     * Reads rows of a level as quantized values (row after row), eg: to index a color palette directly.
+     * Rows no longer (or not yet) in the history are skipped.
+     * @param level the level
+     * @param statistic the statistic to read (ignored for level 0)
+     * @param firstRow the index of the first row to read
+     * @param nbRows the number of rows to read
+     * @param dst the array receiving the values (nbBins values per row)
+     * @param dstOffset the index of the first value written in 'dst'
+     * @return the number of rows read
+     */
+    public synchronized int readQuantized(int level, Statistic statistic, long firstRow, int nbRows, int[] dst, int dstOffset) {
+        Level lvl = this.getLevel(level);
+        long from = Math.max(firstRow, lvl.getFirstRow());
+        long to = Math.min(firstRow + nbRows, lvl.nbRows);
+        int count = (int) Math.max(0, to - from);
+        if (dstOffset < 0 || dst.length - dstOffset < (long) count * this.nbBins) {
+            throw new IllegalArgumentException("The destination array is too small.");
+        }
+        for (long r = from ; r < to ; r++) {
+            lvl.read(r, statistic, dst, dstOffset + (int) (r - from) * this.nbBins);
+        }
+        return count;
+    }
+
+    /**
+     * Finds the first row of a level whose timestamp is greater than or equal to a given timestamp (binary search).
+     * @param level the level
+     * @param timestamp the timestamp
+     * @return the index of the row (getNbRows(level) if all the rows are older)
+     */
+    public synchronized long findRow(int level, long timestamp) {
+        Level lvl = this.getLevel(level);
+        long low = lvl.getFirstRow();
+        long high = lvl.nbRows;
+        while (low < high) {
+            long mid = (low + high) >>> 1;
+            if (lvl.getTimestamp(mid) < timestamp) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @param level the level
+     * @param row the index of a row in the history
+     * @return the timestamp of the row
+     */
+    public synchronized long getTimestamp(int level, long row) {
+        Level lvl = this.getLevel(level);
+        if (row < lvl.getFirstRow() || row >= lvl.nbRows) {
+            throw new IllegalArgumentException("The row " + row + " is not in the history of level " + level + ".");
+        }
+        return lvl.getTimestamp(row);
+    }
+
+    /**
+     * @param level the level
+     * @return the index of the oldest row still in the history of the level
+     */
+    public synchronized long getFirstRow(int level) {
+        return this.getLevel(level).getFirstRow();
+    }
+
+    /**
+     * @param level the level
+     * @return the number of rows written in the level since the creation (the next row index)
+     */
+    public synchronized long getNbRows(int level) {
+        return this.getLevel(level).nbRows;
+    }
+
+    /**
+     * @param level the level
+     * @return the number of rows kept by the level
+     */
+    public int getCapacity(int level) {
+        return this.getLevel(level).capacity;
+    }
+
+    /**
+     * @param level the level
+     * @return the number of spectra aggregated by a row of the level
+     */
+    public long getRowsPerRow(int level) {
+        this.getLevel(level);
+        long n = 1;
+        for (int l = 0 ; l < level ; l++) {
+            n *= this.decimationFactor;
+        }
+        return n;
+    }
+
+    /**
+     * @return the number of bytes held outside the Java heap by the history
+     */
+    public long getMemorySize() {
+        long size = 0;
+        for (Level level : this.levels) {
+            size += level.meanBuffer.capacity() + level.timestamps.capacity();
+            if (level.maxBuffer != null) {
+                size += level.maxBuffer.capacity();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return the number of bins of each row
+     */
+    public int getNbBins() {
+        return nbBins;
+    }
+
+    /**
+     * @return the number of levels
+     */
+    public int getNbLevels() {
+        return this.levels.length;
+    }
+
+    /**
+     * @return the resolution of the quantized dB values
+     */
+    public Resolution getResolution() {
+        return resolution;
+    }
+
+    /**
+     * @return the dB value of the lowest quantized value
+     */
+    public double getMinimumDb() {
+        return minimumDb;
+    }
+
+    /**
+     * @return the dB value of the highest quantized value
+     */
+    public double getMaximumDb() {
+        return maximumDb;
+    }
+
+    private Level getLevel(int level) {
+        if (level < 0 || level >= this.levels.length) {
+            throw new IllegalArgumentException("The level must be in [0, " + (this.levels.length - 1) + "].");
+        }
+        return this.levels[level];
+    }
+
+    /* Ring of quantized rows of one level (+ pending aggregate for the decimated levels) */
+    private class Level {
+
+        private final int capacity;
+        private final int rowBytes;
+        private final ByteBuffer meanBuffer;
+        private final ByteBuffer maxBuffer;
+        private final ByteBuffer timestamps;
+        private final int[] sum;
+        private final int[] mean;
+        private final int[] max;
+        private int accumulated = 0;
+        private long timestamp;
+        private long nbRows = 0;
+
+        Level(int capacity, boolean decimated) {
+            this.capacity = capacity;
+            this.rowBytes = nbBins * resolution.nbBytes;
+            this.meanBuffer = ByteBuffer.allocateDirect(capacity * this.rowBytes).order(ByteOrder.nativeOrder());
+            this.maxBuffer = decimated ? ByteBuffer.allocateDirect(capacity * this.rowBytes).order(ByteOrder.nativeOrder()) : null;
+            this.timestamps = ByteBuffer.allocateDirect(capacity * 8).order(ByteOrder.nativeOrder());
+            this.sum = decimated ? new int[nbBins] : null;
+            this.mean = decimated ? new int[nbBins] : null;
+            this.max = decimated ? new int[nbBins] : null;
+        }
+
+        long getFirstRow() {
+            return Math.max(0, this.nbRows - this.capacity);
+        }
+
+        long getTimestamp(long row) {
+            return this.timestamps.getLong((int) (row % this.capacity) * 8);
+        }
+
+        void write(int[] meanRow, int[] maxRow, long rowTimestamp) {
+            int slot = (int) (this.nbRows % this.capacity);
+            int base = slot * this.rowBytes;
+            if (resolution == Resolution.BITS_8) {
+                for (int i = 0 ; i < nbBins ; i++) {
+                    this.meanBuffer.put(base + i, (byte) meanRow[i]);
+                }
+                if (maxRow != null) {
+                    for (int i = 0 ; i < nbBins ; i++) {
+                        this.maxBuffer.put(base + i, (byte) maxRow[i]);
+                    }
+                }
+            } else {
+                for (int i = 0 ; i < nbBins ; i++) {
+                    this.meanBuffer.putShort(base + 2 * i, (short) meanRow[i]);
+                }
+                if (maxRow != null) {
+                    for (int i = 0 ; i < nbBins ; i++) {
+                        this.maxBuffer.putShort(base + 2 * i, (short) maxRow[i]);
+                    }
+                }
+            }
+            this.timestamps.putLong(slot * 8, rowTimestamp);
+            this.nbRows++;
+        }
+
+        void read(long row, Statistic statistic, int[] dst, int offset) {
+            ByteBuffer buffer = (statistic == Statistic.MAX && this.maxBuffer != null) ? this.maxBuffer : this.meanBuffer;
+            int base = (int) (row % this.capacity) * this.rowBytes;
+            if (resolution == Resolution.BITS_8) {
+                for (int i = 0 ; i < nbBins ; i++) {
+                    dst[offset + i] = buffer.get(base + i) & 0xFF;
+                }
+            } else {
+                for (int i = 0 ; i < nbBins ; i++) {
+                    dst[offset + i] = buffer.getShort(base + 2 * i) & 0xFFFF;
+                }
+            }
+        }
+
+        void read(long row, Statistic statistic, double[] dst, int offset) {
+            ByteBuffer buffer = (statistic == Statistic.MAX && this.maxBuffer != null) ? this.maxBuffer : this.meanBuffer;
+            int base = (int) (row % this.capacity) * this.rowBytes;
+            double step = quantizationStep;
+            double min = minimumDb;
+            if (resolution == Resolution.BITS_8) {
+                for (int i = 0 ; i < nbBins ; i++) {
+                    dst[offset + i] = min + (buffer.get(base + i) & 0xFF) * step;
+                }
+            } else {
+                for (int i = 0 ; i < nbBins ; i++) {
+                    dst[offset + i] = min + (buffer.getShort(base + 2 * i) & 0xFFFF) * step;
+                }
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,286 @@
+/**
+ * The JPerseusSDR library is free software; you can redistribute 
+ * it and/or modify it under the terms of the GNU Lesser General Public 
+ * License as published by the Free Software Foundation; either version 
+ * 3.0 of the License, or (at your option) any later version.
+ * 
+ * The JPerseusSDR library is distributed in the hope that it will
+ * be useful, but WITHOUT ANY WARRANTY; without even the implied warranty 
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the Perseus SDR Library; 
+ * if not, see 'http://www.gnu.org/licenses/'.
+ * 
+ * This library is assumed to work under J2SE &gt;= 7.
+ * NOTE: It is assumed that the Perseus USB drivers are already installed on your system. The Perseus USB drivers 
+ *       are available in the distribution CD-ROM which comes with the Perseus receiver.
+ * 
+ * This library is inspired from the Microtelecom Software Defined Radio Developer Kit (SDRDK) and is subject to licensing
+ *  conditions contained in the document "SDRDK-Licensing-Agreement-v20.docx" (available under the folder "/resources")
+ *  Microtelecom SDRDK is (c) 2007-2013, Microtelecom s.r.l. - Pavia di Udine, Italy
+ *  Author : Nicolangelo PALERMO - IV3NWV
+ * 
+ * This library is also inspired from the Perseus Software Defined Radio Control Library for Linux (libperseus-sdr),
+ *  originally written by Nicolangelo PALERMO and maintained by Andrea MONTEFUSCO. This library can be found at :
+ *  - https://github.com/Microtelecom/libperseus-sdr
+ * 
+ * The JPerseus library, source code and documentation is published under the GNU Lesser General Public Licence v3
+ *  (available under the folder "/resources").
+ * 
+ * Copyright 2017, Mehdi DHAKOUANI
+ */
+package perseus.dsp.spectrum;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import perseus.callback.IQSink;
+import perseus.dsp.fft.FastFFT;
+import perseus.dsp.maths.ComplexArray;
+import perseus.dsp.window.Window;
+
+/**
+ * Spectrum analyzer stage estimating the power spectral density of a stream of decoded I/Q samples (Welch method).
+ * The stream is cut into overlapping frames, each frame is windowed and transformed (@FastFFT), and the power of each
+ *  bin is averaged over successive frames. Every 'nbFramesPerSpectrum' frames, a spectrum in dB is handed to the
+ *  registered @SpectrumListener objects.
+ *
+ * The window coefficients are scaled by the inverse of their sum (coherent gain) : a full-scale complex tone falling
+ *  on a bin reads 0 dBFS. Spectra are ordered from -Fs/2 to +Fs/2 (index fftSize/2 is the center frequency).
+ * All buffers are allocated at creation ; the spectrum array handed to the listeners is reused for the next spectrum.
+ *
+ * @author Mehdi DHAKOUANI
+ * @version 1.0.0
+ */
+public class WelchSpectrum implements IQSink {
+
+    /**
+     * The averaging modes of the power of each bin
+     */
+    public enum Averaging {
+        /** Mean of the powers over the frames of each spectrum */
+        LINEAR,
+        /** Exponential moving average with a time constant of 'nbFramesPerSpectrum' frames */
+        EXPONENTIAL,
+        /** Maximum of the powers since the last reset */
+        PEAK_HOLD
+    }
+
+    private static final double MINIMUM_POWER = 1.0E-20;
+
+    private final int fftSize;
+    private final int overlap;
+    private final double[] window;
+    private final Averaging averaging;
+    private final int nbFramesPerSpectrum;
+    private final FastFFT fft;
+    private final double[] frameRe;
+    private final double[] frameIm;
+    private final double[] workRe;
+    private final double[] workIm;
+    private final double[] power;
+    private final double[] powerDb;
+    private final List<SpectrumListener> listeners = new CopyOnWriteArrayList<>();
+    private int filled = 0;
+    private int framesInSpectrum = 0;
+    private long nbFrames = 0;
+
+    /**
+     * Creates a spectrum analyzer stage.
+     * @param fftSize the number of points of each frame (must be a power of 2)
+     * @param overlap the number of samples shared by two consecutive frames (0 ≤ overlap &lt; fftSize)
+     * @param window the window applied to each frame (its number of points must match the FFT size)
+     * @param averaging the averaging mode
+     * @param nbFramesPerSpectrum the number of frames between two spectra (and the averaging length)
+     */
+    public WelchSpectrum(int fftSize, int overlap, Window window, Averaging averaging, int nbFramesPerSpectrum) {
+        if (overlap < 0 || overlap >= fftSize) {
+            throw new IllegalArgumentException("The overlap must be a positive integer lower than the FFT size.");
+        }
+        if (window == null || window.getResult().length != fftSize) {
+            throw new IllegalArgumentException("The number of points of the window must match the FFT size.");
+        }
+        if (averaging == null || nbFramesPerSpectrum <= 0) {
+            throw new IllegalArgumentException("The averaging mode must be provided with a positive number of frames.");
+        }
+        this.fft = FastFFT.GetInstance(fftSize);
+        this.fftSize = fftSize;
+        this.overlap = overlap;
+        // Scale the window by its coherent gain
+        double[] coefficients = window.getResult();
+        double sum = 0;
+        for (double c : coefficients) {
+            sum += c;
+        }
+        this.window = new double[fftSize];
+        for (int i = 0 ; i < fftSize ; i++) {
+            this.window[i] = coefficients[i] / sum;
+        }
+        this.averaging = averaging;
+        this.nbFramesPerSpectrum = nbFramesPerSpectrum;
+        this.frameRe = new double[fftSize];
+        this.frameIm = new double[fftSize];
+        this.workRe = new double[fftSize];
+        this.workIm = new double[fftSize];
+        this.power = new double[fftSize];
+        this.powerDb = new double[fftSize];
+    }
+
+    /**
+     * Creates a spectrum analyzer stage with a window taken from the registry of windows.
+     * @param fftSize the number of points of each frame (must be a power of 2)
+     * @param overlap the number of samples shared by two consecutive frames (0 ≤ overlap &lt; fftSize)
+     * @param windowAlias the alias of the window type (eg: "hann", "kaiser")
+     * @param windowParameters the parameters of the window other than its number of points (eg: β for Kaiser)
+     * @param averaging the averaging mode
+     * @param nbFramesPerSpectrum the number of frames between two spectra (and the averaging length)
+     */
+    public WelchSpectrum(int fftSize, int overlap, String windowAlias, double[] windowParameters, Averaging averaging, int nbFramesPerSpectrum) {
+        this(fftSize, overlap, Window.CreateWindow(windowAlias, fftSize, windowParameters), averaging, nbFramesPerSpectrum);
+    }
+
+    /**
+     * Computes the number of frames between two spectra for a given spectrum rate.
+     * @param sampleRate the sample rate of the stream, in samples per second
+     * @param fftSize the number of points of each frame
+     * @param overlap the number of samples shared by two consecutive frames
+     * @param spectraPerSecond the required number of spectra per second
+     * @return the number of frames per spectrum (at least 1)
+     */
+    public static int GetNbFramesPerSpectrum(int sampleRate, int fftSize, int overlap, double spectraPerSecond) {
+        double framesPerSecond = (double) sampleRate / (fftSize - overlap);
+        return Math.max(1, (int) Math.round(framesPerSecond / spectraPerSecond));
+    }
+
+    /**
+     * Registers a listener receiving each spectrum.
+     * @param listener the listener
+     */
+    public void addListener(SpectrumListener listener) {
+        this.listeners.add(listener);
+    }
+
+    /**
+     * Unregisters a listener.
+     * @param listener the listener
+     */
+    public void removeListener(SpectrumListener listener) {
+        this.listeners.remove(listener);
+    }
+
+    @Override
+    public void process(ComplexArray samples, int length) {
+        this.process(samples.getRe(), samples.getIm(), 0, length);
+    }
+
+    /**
+     * Processes a block of decoded I/Q samples.
+     * @param re the real parts of the samples
+     * @param im the imaginary parts of the samples
+     * @param offset the index of the first sample
+     * @param length the number of samples
+     */
+    public void process(double[] re, double[] im, int offset, int length) {
+        int done = 0;
+        while (done < length) {
+            int chunk = Math.min(this.fftSize - this.filled, length - done);
+            System.arraycopy(re, offset + done, this.frameRe, this.filled, chunk);
+            System.arraycopy(im, offset + done, this.frameIm, this.filled, chunk);
+            this.filled += chunk;
+            done += chunk;
+            if (this.filled == this.fftSize) {
+                this.processFrame();
+                // Keep the overlapping samples for the next frame
+                System.arraycopy(this.frameRe, this.fftSize - this.overlap, this.frameRe, 0, this.overlap);
+                System.arraycopy(this.frameIm, this.fftSize - this.overlap, this.frameIm, 0, this.overlap);
+                this.filled = this.overlap;
+            }
+        }
+    }
+
+    private void processFrame() {
+        double[] w = this.window;
+        for (int i = 0 ; i < this.fftSize ; i++) {
+            this.workRe[i] = this.frameRe[i] * w[i];
+            this.workIm[i] = this.frameIm[i] * w[i];
+        }
+        this.fft.forward(this.workRe, this.workIm);
+
+        // Accumulate the power of each bin, reordered from -Fs/2 to +Fs/2
+        int half = this.fftSize / 2;
+        double alpha = 1.0 / this.nbFramesPerSpectrum;
+        boolean first = (this.nbFrames == 0);
+        for (int k = 0 ; k < this.fftSize ; k++) {
+            int bin = (k + half) & (this.fftSize - 1);
+            double p = this.workRe[bin] * this.workRe[bin] + this.workIm[bin] * this.workIm[bin];
+            switch (this.averaging) {
+                case LINEAR:
+                    this.power[k] += p;
+                    break;
+                case EXPONENTIAL:
+                    this.power[k] = first ? p : this.power[k] + alpha * (p - this.power[k]);
+                    break;
+                case PEAK_HOLD:
+                    this.power[k] = Math.max(this.power[k], p);
+                    break;
+            }
+        }
+        this.nbFrames++;
+        this.framesInSpectrum++;
+
+        if (this.framesInSpectrum == this.nbFramesPerSpectrum) {
+            double scale = (this.averaging == Averaging.LINEAR) ? alpha : 1.0;
+            for (int k = 0 ; k < this.fftSize ; k++) {
+                this.powerDb[k] = 10 * Math.log10(Math.max(this.power[k] * scale, MINIMUM_POWER));
+            }
+            if (this.averaging == Averaging.LINEAR) {
+                Arrays.fill(this.power, 0);
+            }
+            this.framesInSpectrum = 0;
+            for (SpectrumListener listener : this.listeners) {
+                listener.spectrum(this.powerDb, this.nbFrames);
+            }
+        }
+    }
+
+    /**
+     * Clears the pending samples and the averaged powers.
+     */
+    public void reset() {
+        Arrays.fill(this.power, 0);
+        this.filled = 0;
+        this.framesInSpectrum = 0;
+        this.nbFrames = 0;
+    }
+
+    /**
+     * @return the last spectrum computed, in dB (ordered from -Fs/2 to +Fs/2)
+     */
+    public double[] getPowerDb() {
+        return powerDb;
+    }
+
+    /**
+     * @return the number of points of each frame (and of each spectrum)
+     */
+    public int getFFTSize() {
+        return fftSize;
+    }
+
+    /**
+     * @return the number of samples shared by two consecutive frames
+     */
+    public int getOverlap() {
+        return overlap;
+    }
+
+    /**
+     * @return the number of frames processed since the creation (or the last reset)
+     */
+    public long getNbFrames() {
+        return nbFrames;
+    }
+
+}
@@ -0,0 +1,321 @@
+/**
+ * The JPerseusSDR library is free software; you can redistribute 
+ * it and/or modify it under the terms of the GNU Lesser General Public 
+ * License as published by the Free Software Foundation; either version 
+ * 3.0 of the License, or (at your option) any later version.
+ * 
+ * The JPerseusSDR library is distributed in the hope that it will
+ * be useful, but WITHOUT ANY WARRANTY; without even the implied warranty 
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the Perseus SDR Library; 
+ * if not, see 'http://www.gnu.org/licenses/'.
+ * 
+ * This library is assumed to work under J2SE &gt;= 7.
+ * NOTE: It is assumed that the Perseus USB drivers are already installed on your system. The Perseus USB drivers 
+ *       are available in the distribution CD-ROM which comes with the Perseus receiver.
+ * 
+ * This library is inspired from the Microtelecom Software Defined Radio Developer Kit (SDRDK) and is subject to licensing
+ *  conditions contained in the document "SDRDK-Licensing-Agreement-v20.docx" (available under the folder "/resources")
+ *  Microtelecom SDRDK is (c) 2007-2013, Microtelecom s.r.l. - Pavia di Udine, Italy
+ *  Author : Nicolangelo PALERMO - IV3NWV
+ * 
+ * This library is also inspired from the Perseus Software Defined Radio Control Library for Linux (libperseus-sdr),
+ *  originally written by Nicolangelo PALERMO and maintained by Andrea MONTEFUSCO. This library can be found at :
+ *  - https://github.com/Microtelecom/libperseus-sdr
+ * 
+ * The JPerseus library, source code and documentation is published under the GNU Lesser General Public Licence v3
+ *  (available under the folder "/resources").
+ * 
+ * Copyright 2017, Mehdi DHAKOUANI
+ */
+package perseus.dsp.spectrum;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import perseus.callback.IQSink;
+import perseus.dsp.ddc.SoftwareDDC;
+import perseus.dsp.maths.ComplexArray;
+import perseus.dsp.window.KaiserWindow;
+
+/**
+ * Zoom-FFT stage analyzing a narrow span of a stream of decoded I/Q samples with a high frequency resolution.
+ * Instead of a FFT long enough to reach the resolution over the whole band (eg: 2^25 points for 0.06 Hz at 2 MS/s),
+ *  the span is shifted to 0 Hz and decimated by a @SoftwareDDC, and a small FFT runs at the decimated rate
+ *  (eg: 4096 points at 244 S/s for a 100 Hz span) inside a @WelchSpectrum.
+ *  - The decimation is the largest power of 2 keeping the span within @USABLE_BANDWIDTH of the decimated rate, and
+ *      the FFT size is the smallest power of 2 reaching the requested resolution.
+ *  - The spectra handed to the registered @SpectrumListener objects only hold the bins of the span (ordered from
+ *      the lowest frequency) ; @getFrequency gives the frequency of each bin.
+ *  - The center of the span can be moved at any time without discontinuity. The span and the resolution can also be
+ *      changed at runtime : the new settings apply from the next block, only the components whose settings changed
+ *      are rebuilt (filter designs, FFT twiddles and windows come from the caches of the library), and the buffers
+ *      are kept.
+ *
+ * @author Mehdi DHAKOUANI
+ * @version 1.0.0
+ */
+public class ZoomFFT implements IQSink {
+
+    /** Largest fraction of the decimated rate occupied by the span */
+    public static final double USABLE_BANDWIDTH = 0.8;
+    /** β parameter of the Kaiser window of the spectra */
+    public static final double WINDOW_BETA = 10;
+
+    private final double inputRate;
+    private final int nbFramesPerSpectrum;
+    private final List<SpectrumListener> listeners = new CopyOnWriteArrayList<>();
+    private final SpectrumListener cropper = new SpectrumListener() {
+        @Override
+        public void spectrum(double[] powerDb, long frameIndex) {
+            crop(powerDb, frameIndex);
+        }
+    };
+    private volatile double center;
+    private volatile double spanHz = 0;
+    private final AtomicReference<Settings> pending = new AtomicReference<>();
+    private Settings settings = null;
+    private SoftwareDDC ddc = null;
+    private WelchSpectrum spectrum = null;
+    private ComplexArray work = null;
+    private double[] span = new double[0];
+    private int firstBin = 0;
+
+    /**
+     * Creates a zoom-FFT stage.
+     * @param inputRate the sample rate of the input stream, in samples per second
+     * @param center the center of the span relative to the center of the input stream, in Hz
+     * @param span the width of the span, in Hz
+     * @param resolution the required frequency resolution (bin width), in Hz
+     * @param nbFramesPerSpectrum the number of frames averaged in each spectrum
+     */
+    public ZoomFFT(double inputRate, double center, double span, double resolution, int nbFramesPerSpectrum) {
+        if (inputRate <= 0 || nbFramesPerSpectrum <= 0) {
+            throw new IllegalArgumentException("The input rate and the number of frames per spectrum must be positive.");
+        }
+        this.inputRate = inputRate;
+        this.nbFramesPerSpectrum = nbFramesPerSpectrum;
+        this.setCenter(center);
+        this.setSpan(span, resolution);
+        this.apply();
+    }
+
+    /**
+     * Moves the center of the span (applies from the next block, without phase discontinuity).
+     * @param center the center of the span relative to the center of the input stream, in Hz (the span must remain
+     *  within the input stream)
+     */
+    public final void setCenter(double center) {
+        this.checkBounds(center, this.spanHz);
+        this.center = center;
+    }
+
+    /**
+     * Changes the span and the resolution (applies from the next block ; the averaging restarts).
+     * @param span the width of the span, in Hz
+     * @param resolution the required frequency resolution (bin width), in Hz
+     */
+    public final void setSpan(double span, double resolution) {
+        if (span <= 0 || span >= this.inputRate * USABLE_BANDWIDTH) {
+            throw new IllegalArgumentException("The span must be positive and lower than " + (this.inputRate * USABLE_BANDWIDTH) + " Hz.");
+        }
+        if (resolution <= 0 || resolution > span / 2) {
+            throw new IllegalArgumentException("The resolution must be positive and at most half of the span.");
+        }
+        this.checkBounds(this.center, span);
+        int decimation = 1;
+        while (this.inputRate / (decimation * 2) * USABLE_BANDWIDTH >= span) {
+            decimation *= 2;
+        }
+        double outputRate = this.inputRate / decimation;
+        int fftSize = 2;
+        while (outputRate / fftSize > resolution) {
+            fftSize *= 2;
+        }
+        this.spanHz = span;
+        this.pending.set(new Settings(span, decimation, fftSize));
+    }
+
+    /* Checks that a span around a center lies within the input stream */
+    private void checkBounds(double center, double span) {
+        if (Math.abs(center) + span / 2 > this.inputRate / 2) {
+            throw new IllegalArgumentException("The span (" + span + " Hz around " + center + " Hz) must lie within ±" + (this.inputRate / 2) + " Hz.");
+        }
+    }
+
+    /* Applies the pending settings, rebuilding only what changed */
+    private void apply() {
+        Settings next = this.pending.getAndSet(null);
+        if (next == null) {
+            return;
+        }
+        Settings previous = this.settings;
+        if (previous == null || previous.decimation != next.decimation || previous.span != next.span) {
+            this.ddc = new SoftwareDDC(this.inputRate, this.center, next.span, next.decimation);
+        }
+        if (previous == null || previous.fftSize != next.fftSize) {
+            this.spectrum = new WelchSpectrum(next.fftSize, next.fftSize / 2, KaiserWindow.GetWindow(next.fftSize, WINDOW_BETA), WelchSpectrum.Averaging.LINEAR, this.nbFramesPerSpectrum);
+            this.spectrum.addListener(this.cropper);
+        } else {
+            this.spectrum.reset();
+        }
+        // Bins of the span, from the lowest frequency
+        double binWidth = this.inputRate / next.decimation / next.fftSize;
+        int half = (int) Math.floor(next.span / 2 / binWidth);
+        this.firstBin = next.fftSize / 2 - half;
+        if (this.span.length != 2 * half + 1) {
+            this.span = new double[2 * half + 1];
+        }
+        this.settings = next;
+    }
+
+    @Override
+    public void process(ComplexArray samples, int length) {
+        this.process(samples.getRe(), samples.getIm(), 0, length);
+    }
+
+    /**
+     * Processes a block of decoded I/Q samples.
+     * @param re the real parts of the samples
+     * @param im the imaginary parts of the samples
+     * @param offset the index of the first sample
+     * @param length the number of samples
+     */
+    public synchronized void process(double[] re, double[] im, int offset, int length) {
+        if (this.pending.get() != null) {
+            this.apply();
+        }
+        this.ddc.setFrequencyOffset(this.center);
+        int capacity = length / this.settings.decimation + 1;
+        if (this.work == null || this.work.getLength() < capacity) {
+            this.work = new ComplexArray(capacity);
+        }
+        int count = this.ddc.process(re, im, offset, length, this.work.getRe(), this.work.getIm(), 0);
+        this.spectrum.process(this.work.getRe(), this.work.getIm(), 0, count);
+    }
+
+    private void crop(double[] powerDb, long frameIndex) {
+        System.arraycopy(powerDb, this.firstBin, this.span, 0, this.span.length);
+        for (SpectrumListener listener : this.listeners) {
+            listener.spectrum(this.span, frameIndex);
+        }
+    }
+
+    /**
+     * Registers a listener receiving the spectra of the span.
+     * @param listener the listener
+     */
+    public void addListener(SpectrumListener listener) {
+        this.listeners.add(listener);
+    }
+
+    /**
+     * Unregisters a listener.
+     * @param listener the listener
+     */
+    public void removeListener(SpectrumListener listener) {
+        this.listeners.remove(listener);
+    }
+
+    /**
+     * @param bin the index of a bin of the spectra of the span
+     * @return the frequency of the bin relative to the center of the input stream, in Hz (current settings)
+     */
+    public synchronized double getFrequency(int bin) {
+        return this.center + (bin - this.span.length / 2) * this.getResolution();
+    }
+
+    /**
+     * @return the number of bins of the spectra of the span (current settings)
+     */
+    public synchronized int getNbBins() {
+        return this.span.length;
+    }
+
+    /**
+     * @return the actual frequency resolution (bin width), in Hz (current settings)
+     */
+    public synchronized double getResolution() {
+        return this.inputRate / this.settings.decimation / this.settings.fftSize;
+    }
+
+    /**
+     * @return the decimation factor (current settings)
+     */
+    public synchronized int getDecimation() {
+        return this.settings.decimation;
+    }
+
+    /**
+     * @return the number of points of the FFT (current settings)
+     */
+    public synchronized int getFFTSize() {
+        return this.settings.fftSize;
+    }
+
+    /**
+     * @return the center of the span relative to the center of the input stream, in Hz
+     */
+    public double getCenter() {
+        return center;
+    }
+
+    /**
+     * @return the sample rate of the input stream, in samples per second
+     */
+    public double getInputRate() {
+        return inputRate;
+    }
+
+    /**
+     * Measures the throughput of a 100 Hz span analyzed with a 0.1 Hz resolution in a 2 MS/s stream, and compares
+     *  the memory of the FFT with the brute-force FFT of the same resolution.
+     * @param args unused
+     */
+    public static void main(String[] args) {
+        double rate = 2.0E6;
+        ZoomFFT zoom = new ZoomFFT(rate, 123456.0, 100, 0.1, 1);
+        int blockSize = 16384;
+        double[] re = new double[blockSize];
+        double[] im = new double[blockSize];
+        long processing = 0;
+        int nbBlocks = (int) (30 * rate / blockSize);
+        for (int n = 0 ; n < nbBlocks ; n++) {
+            for (int i = 0 ; i < blockSize ; i++) {
+                double phase = 2 * Math.PI * 123456.3 / rate * ((long) n * blockSize + i);
+                re[i] = Math.cos(phase);
+                im[i] = Math.sin(phase);
+            }
+            long t0 = System.nanoTime();
+            zoom.process(re, im, 0, blockSize);
+            processing += System.nanoTime() - t0;
+        }
+        int bruteForce = Integer.highestOneBit((int) Math.ceil(rate / zoom.getResolution()) - 1) * 2;
+        System.out.println(String.format(Locale.ROOT, "Zoom-FFT : decimation %d, %d-point FFT, resolution %.4f Hz, %d bins in the span",
+                zoom.getDecimation(), zoom.getFFTSize(), zoom.getResolution(), zoom.getNbBins()));
+        System.out.println(String.format(Locale.ROOT, "           %.1f MS/s on one core (%.1f x real time)",
+                (double) nbBlocks * blockSize / (processing / 1.0E9) / 1.0E6, (double) nbBlocks * blockSize / rate / (processing / 1.0E9)));
+        System.out.println(String.format(Locale.ROOT, "Brute force : %d-point FFT (%.0f MB of complex doubles against %.2f MB)",
+                bruteForce, bruteForce * 16.0 / 1.0E6, zoom.getFFTSize() * 16.0 * 6 / 1.0E6));
+    }
+
+    /* Settings of the span */
+    private static class Settings {
+
+        private final double span;
+        private final int decimation;
+        private final int fftSize;
+
+        Settings(double span, int decimation, int fftSize) {
+            this.span = span;
+            this.decimation = decimation;
+            this.fftSize = fftSize;
+        }
+
+    }
+
+}
@@ -33,9 +33,8 @@
  */
 package perseus.dsp.window;
 
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.Callable;
 import perseus.dsp.maths.Complex;
 
 /**
@@ -49,8 +48,6 @@ public class HannWindow extends Window {
     protected static final String[] ALIASES = { "HANN", "RAISEDCOSINE", "HANNING" };
     protected static final String[] PARAMETERS = { "NBPOINTS" };
 
-    private static final Map<Integer, HannWindow> WINDOWS = new HashMap<>();
-
     private Integer nbPoints;
     private double[] result;
     
@@ -64,7 +61,7 @@ public class HannWindow extends Window {
     /** Creates a Hann window and computes the filter coefficients of of the n-point Hann window based on the number of points.
      *  The ends of the cosine just touch zero, so the side-lobes roll off at about 18 dB per octave.
      *  https://en.wikipedia.org/wiki/Window_function#Hann_window
-     * If the window was already created, retrieves the existing one.
+     * If the window was already created (or is being created by another thread), retrieves the existing one from the @WindowCache.
      * Examples of HannWindow creation delays (Windows 10 x64 Intel Core i7-4700HQ 2.40GHz Java 8 x64)
      *      - Dimension=   4096 = 0,09 ms
      *      - Dimension=   8192 = 0,11 ms
@@ -78,19 +75,28 @@ public class HannWindow extends Window {
      * @param nbPoints the number of points of the Kaiser window (must be a power of 2)
      * @return the generated Hann Window (or the pre-existing one)
      */
-    public static HannWindow GetWindow(Integer nbPoints) {
+    public static HannWindow GetWindow(final Integer nbPoints) {
         if (nbPoints <= 1) {
             throw new IllegalArgumentException("The number of samples provided must fit future FFT processing : 'nbSamples' has to be a positive integer > 1.");
         } else if ((nbPoints & -nbPoints) != nbPoints) {
             throw new IllegalArgumentException("The number of samples provided must fit future FFT processing : 'nbSamples' has to be a power of 2.");
         }
+        return (HannWindow) WindowCache.GetInstance().get(HannWindow.class, nbPoints, new double[0], new Callable<HannWindow>() {
+            @Override
+            public HannWindow call() {
+                return Compute(nbPoints);
+            }
+        });
+    }
+
+    /**
+     * Computes the coefficients of a Hann window (called once per window by the @WindowCache).
+     * @param nbPoints the number of points of the Hann window
+     * @return the computed Hann Window
+     */
+    private static HannWindow Compute(int nbPoints) {
         HannWindow window = new HannWindow();
         window.nbPoints = nbPoints;
-        int hashcode = window.hashCode();
-        if (WINDOWS.containsKey(hashcode)) {
-            return WINDOWS.get(hashcode);
-        }
-
         window.result = new double[window.nbPoints];
         
         // Generates a Hann window function and normalize window area to 1
@@ -104,7 +110,7 @@ public class HannWindow extends Window {
         for (int k = 0 ; k < windowSize ; k++) {
             window.result[k] /= kwinsum;
         }
-        WINDOWS.put(window.hashCode(), window);
+        window.normalize();
         return window;
     }
 
@@ -134,9 +140,9 @@ public class HannWindow extends Window {
             throw new IllegalArgumentException("The number of samples provided must match the Hann-window input parameter : \"number of points\" per buffer");
         }
         double[] ret = new double[buffer.length];
+        double[] w = this.getNormalizedResult();
         for (int i = 0 ; i < buffer.length ; i++) {
-            ret[i] = buffer[i] / (this.nbPoints-1); // Normalize samples to unit
-            ret[i] = ret[i] * this.result[i];       // Applies Hann window
+            ret[i] = buffer[i] * w[i];      // Normalize samples to unit and applies Hann window
         }
         return ret;
     }
@@ -159,8 +165,9 @@ public class HannWindow extends Window {
             throw new IllegalArgumentException("The number of samples provided must match the Hann-window input parameter : \"number of points\" per buffer");
         }
         Complex[] ret = new Complex[buffer.length];
+        double[] w = this.getNormalizedResult();
         for (int i = 0 ; i < buffer.length ; i++) {
-            ret[i] = new Complex(buffer[i] / (this.nbPoints-1) * this.result[i], 0);    // Normalize samples to unit and applies Kaiser window
+            ret[i] = new Complex(buffer[i] * w[i], 0);    // Normalize samples to unit and applies Hann window
         }
         return ret;
     }
@@ -33,12 +33,16 @@
  */
 package perseus.dsp.window;
 
+import java.lang.reflect.InvocationTargetException;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import perseus.dsp.maths.Complex;
+import perseus.dsp.maths.ComplexArray;
 
 /**
  * Abstract class used for Filter Windowing operations
@@ -48,8 +52,8 @@ import perseus.dsp.maths.Complex;
  */
 public abstract class Window {
     
-    public static final Map<String, Class> WINDOWTYPES = new HashMap<>();
-    public static final Map<Class, Set<String>> WINDOWPARAMS = new HashMap<>();
+    public static final Map<String, Class> WINDOWTYPES = new ConcurrentHashMap<>();
+    public static final Map<Class, Set<String>> WINDOWPARAMS = new ConcurrentHashMap<>();
     
     public static void Register(Class windowClass, String[] aliases, String[] parameters) {
         for (String alias : aliases) {
@@ -61,11 +65,238 @@ public abstract class Window {
     }
     
     public static Class GetWindow(String alias) {
+        BuiltInWindows.load();
         return WINDOWTYPES.get(alias.trim().toLowerCase());
     }
     
+    /**
+     * Creates (or retrieves from the @WindowCache) a window from its registered alias.
+     * The window class must provide a static "GetWindow" method taking the number of points (Integer) followed by its
+     *  other parameters (Double), in the order of its "GetWindow" method (eg: "KAISER" with parameters { β }).
+     * @param alias an alias of the window type (case insensitive, eg: "hann", "kaiser")
+     * @param nbPoints the number of points of the window
+     * @param parameters the other parameters of the window
+     * @return the window
+     */
+    public static Window CreateWindow(String alias, int nbPoints, double... parameters) {
+        Class<?> windowClass = GetWindow(alias);
+        if (windowClass == null) {
+            throw new IllegalArgumentException("Unknown window type : '" + alias + "'.");
+        }
+        Class<?>[] types = new Class<?>[parameters.length + 1];
+        Object[] values = new Object[parameters.length + 1];
+        types[0] = Integer.class;
+        values[0] = nbPoints;
+        for (int i = 0 ; i < parameters.length ; i++) {
+            types[i+1] = Double.class;
+            values[i+1] = parameters[i];
+        }
+        try {
+            return (Window) windowClass.getMethod("GetWindow", types).invoke(null, values);
+        } catch (NoSuchMethodException ex) {
+            throw new IllegalArgumentException("Wrong number of parameters for window type '" + alias + "' : expected " + WINDOWPARAMS.get(windowClass) + ".", ex);
+        } catch (InvocationTargetException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (IllegalAccessException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+    
+    /* Loads the windows provided by the library so that they are registered before any lookup. Kept out of the
+        initializer of Window : a superclass forcing the initialization of its subclasses deadlocks against a thread
+        initializing one of the subclasses */
+    private static class BuiltInWindows {
+
+        static {
+            for (String windowClass : new String[] { "perseus.dsp.window.HannWindow", "perseus.dsp.window.KaiserWindow" }) {
+                try {
+                    Class.forName(windowClass, true, Window.class.getClassLoader());
+                } catch (ClassNotFoundException ex) {
+                    Logger.getLogger(Window.class.getName()).log(Level.SEVERE, null, ex);
+                }
+            }
+        }
+
+        static void load() {
+            // Triggers the static initializer
+        }
+
+    }
+
+    private double[] normalizedResult = null;
+
     public abstract double[] getResult();
     public abstract double[] windowInputToDouble(double[] buffer);
     public abstract Complex[] windowInputToComplex(double[] buffer);
 
+    /**
+     * Precomputes the window coefficients multiplied by the sample normalization factor 1/(nbPoints-1),
+     *  so that applying the window costs a single multiplication per sample.
+     * Must be called by each window once its coefficients are computed.
+     */
+    protected final void normalize() {
+        double[] coefficients = this.getResult();
+        double[] normalized = new double[coefficients.length];
+        double normalization = 1.0 / (coefficients.length - 1);
+        for (int i = 0 ; i < coefficients.length ; i++) {
+            normalized[i] = coefficients[i] * normalization;
+        }
+        this.normalizedResult = normalized;
+    }
+
+    /**
+     * @return the window coefficients multiplied by the sample normalization factor 1/(nbPoints-1)
+     */
+    public double[] getNormalizedResult() {
+        return normalizedResult;
+    }
+
+    /**
+     * @return the number of points of the window
+     */
+    public int getNbPoints() {
+        return this.normalizedResult.length;
+    }
+
+    /**
+     * Applies the window to the given input and writes the result into a caller-supplied complex array,
+     *  with the same normalization as windowInputToComplex(double[]) but without any allocation.
+     * @param buffer the input samples (as many as the number of points of the window)
+     * @param result the complex array receiving the windowed samples (as many as the number of points of the window)
+     */
+    public void windowInputToComplex(double[] buffer, ComplexArray result) {
+        this.checkLength(buffer.length, 0);
+        this.checkLength(result.getLength(), 0);
+        double[] w = this.normalizedResult;
+        double[] re = result.getRe();
+        double[] im = result.getIm();
+        for (int i = 0 ; i < w.length ; i++) {
+            re[i] = buffer[i] * w[i];    // Normalize samples to unit and applies window
+            im[i] = 0;
+        }
+    }
+
+    /**
+     * Applies the window to 'nbPoints' samples of 'src' and writes the result into 'dst' (which may be 'src').
+     * @param src the input samples
+     * @param srcOffset the index of the first input sample
+     * @param dst the output samples
+     * @param dstOffset the index of the first output sample
+     */
+    public void windowInput(double[] src, int srcOffset, double[] dst, int dstOffset) {
+        this.checkLength(src.length, srcOffset);
+        this.checkLength(dst.length, dstOffset);
+        double[] w = this.normalizedResult;
+        for (int i = 0 ; i < w.length ; i++) {
+            dst[dstOffset+i] = src[srcOffset+i] * w[i];
+        }
+    }
+
+    /**
+     * Applies the window in place to the given samples.
+     * @param buffer the samples (as many as the number of points of the window)
+     */
+    public void windowInPlace(double[] buffer) {
+        this.windowInput(buffer, 0, buffer, 0);
+    }
+
+    /**
+     * Applies the window to 'nbPoints' samples of 'src' and writes the result into 'dst' (which may be 'src').
+     * @param src the input samples
+     * @param srcOffset the index of the first input sample
+     * @param dst the output samples
+     * @param dstOffset the index of the first output sample
+     */
+    public void windowInput(float[] src, int srcOffset, float[] dst, int dstOffset) {
+        this.checkLength(src.length, srcOffset);
+        this.checkLength(dst.length, dstOffset);
+        double[] w = this.normalizedResult;
+        for (int i = 0 ; i < w.length ; i++) {
+            dst[dstOffset+i] = (float) (src[srcOffset+i] * w[i]);
+        }
+    }
+
+    /**
+     * Applies the window in place to the given samples.
+     * @param buffer the samples (as many as the number of points of the window)
+     */
+    public void windowInPlace(float[] buffer) {
+        this.windowInput(buffer, 0, buffer, 0);
+    }
+
+    /**
+     * Applies the window to 'nbPoints' complex samples of 'src' and writes the result into 'dst' (which may be 'src').
+     * @param src the input samples
+     * @param srcOffset the index of the first input sample
+     * @param dst the output samples
+     * @param dstOffset the index of the first output sample
+     */
+    public void windowInput(ComplexArray src, int srcOffset, ComplexArray dst, int dstOffset) {
+        this.windowInput(src, srcOffset, 1.0, dst, dstOffset);
+    }
+
+    /**
+     * Applies the window in place to the given complex samples.
+     * @param buffer the samples (as many as the number of points of the window)
+     */
+    public void windowInPlace(ComplexArray buffer) {
+        this.windowInput(buffer, 0, 1.0, buffer, 0);
+    }
+
+    /**
+     * Fused kernel producing an FFT-ready frame from decoded I/Q samples : windows, scales (eg: to full scale) and
+     *  writes 'nbPoints' complex samples of 'src' into 'dst', in a single pass.
+     * @param src the decoded I/Q samples
+     * @param srcOffset the index of the first input sample
+     * @param scale the scale factor applied to each sample
+     * @param dst the FFT-ready frame (may be 'src')
+     * @param dstOffset the index of the first output sample
+     */
+    public void windowInput(ComplexArray src, int srcOffset, double scale, ComplexArray dst, int dstOffset) {
+        this.checkLength(src.getLength(), srcOffset);
+        this.checkLength(dst.getLength(), dstOffset);
+        double[] w = this.normalizedResult;
+        double[] sr = src.getRe();
+        double[] si = src.getIm();
+        double[] dr = dst.getRe();
+        double[] di = dst.getIm();
+        for (int i = 0 ; i < w.length ; i++) {
+            double c = w[i] * scale;
+            dr[dstOffset+i] = sr[srcOffset+i] * c;
+            di[dstOffset+i] = si[srcOffset+i] * c;
+        }
+    }
+
+    /**
+     * Fused kernel producing an FFT-ready frame from interleaved decoded I/Q integer samples (I0, Q0, I1, Q1...) :
+     *  windows, scales (eg: to full scale) and unpacks 'nbPoints' complex samples into 'dst', in a single pass.
+     * @param iq the interleaved I/Q samples
+     * @param offset the index of the first I component
+     * @param scale the scale factor applied to each component
+     * @param dst the FFT-ready frame (as many points as the window)
+     */
+    public void windowInterleaved(int[] iq, int offset, double scale, ComplexArray dst) {
+        if (offset < 0 || iq.length - offset < 2 * this.normalizedResult.length) {
+            throw new IllegalArgumentException("The number of samples provided must match the window input parameter : \"number of points\" per buffer");
+        }
+        this.checkLength(dst.getLength(), 0);
+        double[] w = this.normalizedResult;
+        double[] dr = dst.getRe();
+        double[] di = dst.getIm();
+        for (int i = 0 ; i < w.length ; i++) {
+            double c = w[i] * scale;
+            dr[i] = iq[offset+2*i] * c;
+            di[i] = iq[offset+2*i+1] * c;
+        }
+    }
+
+    private void checkLength(int length, int offset) {
+        if (offset < 0 || length - offset < this.normalizedResult.length) {
+            throw new IllegalArgumentException("The number of samples provided must match the window input parameter : \"number of points\" per buffer");
+        }
+    }
+
 }
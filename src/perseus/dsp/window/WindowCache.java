@@ -0,0 +1,267 @@
+/**
+ * The JPerseusSDR library is free software; you can redistribute 
+ * it and/or modify it under the terms of the GNU Lesser General Public 
+ * License as published by the Free Software Foundation; either version 
+ * 3.0 of the License, or (at your option) any later version.
+ * 
+ * The JPerseusSDR library is distributed in the hope that it will
+ * be useful, but WITHOUT ANY WARRANTY; without even the implied warranty 
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the Perseus SDR Library; 
+ * if not, see 'http://www.gnu.org/licenses/'.
+ * 
+ * This library is assumed to work under J2SE &gt;= 7.
+ * NOTE: It is assumed that the Perseus USB drivers are already installed on your system. The Perseus USB drivers 
+ *       are available in the distribution CD-ROM which comes with the Perseus receiver.
+ * 
+ * This library is inspired from the Microtelecom Software Defined Radio Developer Kit (SDRDK) and is subject to licensing
+ *  conditions contained in the document "SDRDK-Licensing-Agreement-v20.docx" (available under the folder "/resources")
+ *  Microtelecom SDRDK is (c) 2007-2013, Microtelecom s.r.l. - Pavia di Udine, Italy
+ *  Author : Nicolangelo PALERMO - IV3NWV
+ * 
+ * This library is also inspired from the Perseus Software Defined Radio Control Library for Linux (libperseus-sdr),
+ *  originally written by Nicolangelo PALERMO and maintained by Andrea MONTEFUSCO. This library can be found at :
+ *  - https://github.com/Microtelecom/libperseus-sdr
+ * 
+ * The JPerseus library, source code and documentation is published under the GNU Lesser General Public Licence v3
+ *  (available under the folder "/resources").
+ * 
+ * Copyright 2017, Mehdi DHAKOUANI
+ */
+package perseus.dsp.window;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Thread-safe cache of window coefficients shared by all the windows of the library.
+ *  - Windows are identified by their type, their number of points and their parameters (eg: β for Kaiser windows).
+ *  - Each window is computed only once : concurrent requests for a window being computed wait for that computation
+ *      instead of starting their own (single-flight).
+ *  - The cache is bounded by the total number of points of the windows it holds : the least recently used windows
+ *      are evicted first.
+ *  - Hits, misses and evictions are counted.
+ *
+ * @author Mehdi DHAKOUANI
+ * @version 1.0.0
+ */
+public class WindowCache {
+
+    /** Default maximum number of points held by the cache (each point costs 16 bytes) */
+    public static final long DEFAULT_MAXIMUM_POINTS = 8L * 1024 * 1024;
+
+    private static final WindowCache INSTANCE = new WindowCache(DEFAULT_MAXIMUM_POINTS);
+
+    private final LinkedHashMap<Key, FutureTask<Window>> windows = new LinkedHashMap<>(16, 0.75f, true);
+    private long maximumPoints;
+    private long nbPoints = 0;
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+    /**
+     * Creates a window cache.
+     * @param maximumPoints the maximum total number of points of the windows held by the cache
+     */
+    public WindowCache(long maximumPoints) {
+        this.setMaximumPoints(maximumPoints);
+    }
+
+    /**
+     * @return the cache shared by all the windows of the library
+     */
+    public static WindowCache GetInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Retrieves a window from the cache, computing it if it is not cached yet.
+     * @param type the class of the window
+     * @param nbPoints the number of points of the window
+     * @param parameters the other parameters of the window (empty array if none)
+     * @param factory the computation of the window, run at most once per key while the window is cached
+     * @return the window
+     */
+    public Window get(Class<? extends Window> type, int nbPoints, double[] parameters, Callable<? extends Window> factory) {
+        Key key = new Key(type, nbPoints, parameters);
+        FutureTask<Window> task;
+        boolean owner = false;
+        synchronized (this) {
+            task = this.windows.get(key);
+            if (task == null) {
+                task = new FutureTask<>(new Computation(factory));
+                this.windows.put(key, task);
+                this.nbPoints += nbPoints;
+                this.misses++;
+                owner = true;
+                this.evict(key);
+            } else {
+                this.hits++;
+            }
+        }
+        if (owner) {
+            task.run();
+        }
+        try {
+            return task.get();
+        } catch (ExecutionException ex) {
+            // Do not keep failed computations
+            synchronized (this) {
+                if (this.windows.get(key) == task) {
+                    this.windows.remove(key);
+                    this.nbPoints -= nbPoints;
+                }
+            }
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new IllegalStateException("Window computation failed.", ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the window computation.", ex);
+        }
+    }
+
+    /* Evicts the least recently used windows (except the one just added) until the cache fits its bound */
+    private void evict(Key added) {
+        Iterator<Map.Entry<Key, FutureTask<Window>>> iterator = this.windows.entrySet().iterator();
+        while (this.nbPoints > this.maximumPoints && iterator.hasNext()) {
+            Map.Entry<Key, FutureTask<Window>> entry = iterator.next();
+            if (!entry.getKey().equals(added)) {
+                iterator.remove();
+                this.nbPoints -= entry.getKey().nbPoints;
+                this.evictions++;
+            }
+        }
+    }
+
+    /**
+     * Removes all the windows from the cache (statistics are kept).
+     */
+    public synchronized void clear() {
+        this.windows.clear();
+        this.nbPoints = 0;
+    }
+
+    /**
+     * Sets the maximum total number of points of the windows held by the cache, evicting windows if needed.
+     * @param maximumPoints the maximum number of points
+     */
+    public final synchronized void setMaximumPoints(long maximumPoints) {
+        if (maximumPoints <= 0) {
+            throw new IllegalArgumentException("The maximum number of points must be a positive integer.");
+        }
+        this.maximumPoints = maximumPoints;
+        this.evict(null);
+    }
+
+    /**
+     * @return the maximum total number of points of the windows held by the cache
+     */
+    public synchronized long getMaximumPoints() {
+        return maximumPoints;
+    }
+
+    /**
+     * @return the total number of points of the windows currently held by the cache
+     */
+    public synchronized long getNbPoints() {
+        return nbPoints;
+    }
+
+    /**
+     * @return the number of windows currently held by the cache
+     */
+    public synchronized int getSize() {
+        return this.windows.size();
+    }
+
+    /**
+     * @return the number of requests served by a window already cached (or being computed)
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return the number of requests which triggered the computation of a window
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return the number of windows evicted to keep the cache within its bound
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("WindowCache[windows=%d, points=%d/%d, hits=%d, misses=%d, evictions=%d]", this.windows.size(), this.nbPoints, this.maximumPoints, this.hits, this.misses, this.evictions);
+    }
+
+    /* Adapts a factory of any window subtype to the type held by the cache */
+    private static class Computation implements Callable<Window> {
+
+        private final Callable<? extends Window> factory;
+
+        Computation(Callable<? extends Window> factory) {
+            this.factory = factory;
+        }
+
+        @Override
+        public Window call() throws Exception {
+            return this.factory.call();
+        }
+
+    }
+
+    /* Identifies a window : type + number of points + parameters */
+    private static class Key {
+
+        private final Class<? extends Window> type;
+        private final int nbPoints;
+        private final double[] parameters;
+        private final int hashcode;
+
+        Key(Class<? extends Window> type, int nbPoints, double[] parameters) {
+            this.type = type;
+            this.nbPoints = nbPoints;
+            this.parameters = parameters.clone();
+            int x = 17;
+            x = 31 * x + type.getName().hashCode();
+            x = 31 * x + nbPoints;
+            x = 31 * x + Arrays.hashCode(this.parameters);
+            this.hashcode = x;
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hashcode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            final Key other = (Key) obj;
+            return this.type == other.type && this.nbPoints == other.nbPoints && Arrays.equals(this.parameters, other.parameters);
+        }
+
+    }
+
+}
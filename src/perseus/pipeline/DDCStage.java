@@ -0,0 +1,95 @@
+/**
+ * The JPerseusSDR library is free software; you can redistribute 
+ * it and/or modify it under the terms of the GNU Lesser General Public 
+ * License as published by the Free Software Foundation; either version 
+ * 3.0 of the License, or (at your option) any later version.
+ * 
+ * The JPerseusSDR library is distributed in the hope that it will
+ * be useful, but WITHOUT ANY WARRANTY; without even the implied warranty 
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the Perseus SDR Library; 
+ * if not, see 'http://www.gnu.org/licenses/'.
+ * 
+ * This library is assumed to work under J2SE &gt;= 7.
+ * NOTE: It is assumed that the Perseus USB drivers are already installed on your system. The Perseus USB drivers 
+ *       are available in the distribution CD-ROM which comes with the Perseus receiver.
+ * 
+ * This library is inspired from the Microtelecom Software Defined Radio Developer Kit (SDRDK) and is subject to licensing
+ *  conditions contained in the document "SDRDK-Licensing-Agreement-v20.docx" (available under the folder "/resources")
+ *  Microtelecom SDRDK is (c) 2007-2013, Microtelecom s.r.l. - Pavia di Udine, Italy
+ *  Author : Nicolangelo PALERMO - IV3NWV
+ * 
+ * This library is also inspired from the Perseus Software Defined Radio Control Library for Linux (libperseus-sdr),
+ *  originally written by Nicolangelo PALERMO and maintained by Andrea MONTEFUSCO. This library can be found at :
+ *  - https://github.com/Microtelecom/libperseus-sdr
+ * 
+ * The JPerseus library, source code and documentation is published under the GNU Lesser General Public Licence v3
+ *  (available under the folder "/resources").
+ * 
+ * Copyright 2017, Mehdi DHAKOUANI
+ */
+package perseus.pipeline;
+
+import perseus.dsp.ddc.SoftwareDDC;
+import perseus.dsp.maths.ComplexArray;
+
+/**
+ * Stage running a @SoftwareDDC in place : each block is replaced by the decimated channel, so that the next stages
+ *  of the pipeline (eg: spectrum, demodulation, recording) work at the output rate of the DDC.
+ * The sample index of the blocks is rewritten as the index of their first sample in the output stream, output sample
+ *  'k' being computed at input sample 'k * decimation' : a gap of the input stream (eg: buffers dropped by the
+ *  source) remains a gap of the output stream. The timestamp is shifted to the input sample of the first output.
+ * The DDC is reset when the input stream jumps, its filters holding samples which are no longer contiguous.
+ *
+ * @author Mehdi DHAKOUANI
+ * @version 1.0.0
+ */
+public class DDCStage implements Stage {
+
+    private final SoftwareDDC ddc;
+    // Input index expected for the next block, and input index at which the next output is computed (-1 : none yet)
+    private long nextInput = -1;
+    private long nextOutput = -1;
+
+    /**
+     * Creates a stage running a DDC.
+     * @param ddc the DDC
+     */
+    public DDCStage(SoftwareDDC ddc) {
+        if (ddc == null) {
+            throw new IllegalArgumentException("The DDC must not be 'null'.");
+        }
+        this.ddc = ddc;
+    }
+
+    @Override
+    public void process(IQBlock block) {
+        long index = block.getSampleIndex();
+        int length = block.getLength();
+        if (index != this.nextInput) {
+            // First block, or gap in the input stream : the phase of the decimation restarts at this block
+            this.ddc.reset();
+            this.nextOutput = index;
+        }
+        ComplexArray samples = block.getSamples();
+        int nbOutputs = this.ddc.process(samples.getRe(), samples.getIm(), 0, length, samples.getRe(), samples.getIm(), 0);
+        long first = this.nextOutput;
+        int decimation = this.ddc.getDecimation();
+        block.setLength(nbOutputs);
+        block.setSampleIndex(first / decimation);
+        block.setTimestamp(block.getTimestamp() + Math.round((first - index) * 1.0E9 / this.ddc.getInputRate()));
+        this.nextOutput += (long) nbOutputs * decimation;
+        this.nextInput = index + length;
+    }
+
+    /**
+     * @return the DDC
+     */
+    public SoftwareDDC getDDC() {
+        return ddc;
+    }
+
+}
@@ -0,0 +1,150 @@
+/**
+ * The JPerseusSDR library is free software; you can redistribute 
+ * it and/or modify it under the terms of the GNU Lesser General Public 
+ * License as published by the Free Software Foundation; either version 
+ * 3.0 of the License, or (at your option) any later version.
+ * 
+ * The JPerseusSDR library is distributed in the hope that it will
+ * be useful, but WITHOUT ANY WARRANTY; without even the implied warranty 
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the Perseus SDR Library; 
+ * if not, see 'http://www.gnu.org/licenses/'.
+ * 
+ * This library is assumed to work under J2SE &gt;= 7.
+ * NOTE: It is assumed that the Perseus USB drivers are already installed on your system. The Perseus USB drivers 
+ *       are available in the distribution CD-ROM which comes with the Perseus receiver.
+ * 
+ * This library is inspired from the Microtelecom Software Defined Radio Developer Kit (SDRDK) and is subject to licensing
+ *  conditions contained in the document "SDRDK-Licensing-Agreement-v20.docx" (available under the folder "/resources")
+ *  Microtelecom SDRDK is (c) 2007-2013, Microtelecom s.r.l. - Pavia di Udine, Italy
+ *  Author : Nicolangelo PALERMO - IV3NWV
+ * 
+ * This library is also inspired from the Perseus Software Defined Radio Control Library for Linux (libperseus-sdr),
+ *  originally written by Nicolangelo PALERMO and maintained by Andrea MONTEFUSCO. This library can be found at :
+ *  - https://github.com/Microtelecom/libperseus-sdr
+ * 
+ * The JPerseus library, source code and documentation is published under the GNU Lesser General Public Licence v3
+ *  (available under the folder "/resources").
+ * 
+ * Copyright 2017, Mehdi DHAKOUANI
+ */
+package perseus.pipeline;
+
+import perseus.dsp.maths.ComplexArray;
+
+/**
+ * Block of decoded I/Q samples travelling through a @Pipeline.
+ * The blocks are allocated once by the pipeline and recycled : a stage owns the block it processes until it hands it
+ *  to the next stage, and may rewrite its samples in place (eg: a decimating stage shortens the block).
+ * Each block carries the index of its first sample in the stream, the estimated time of that sample (from the
+ *  @SampleClock of the source) and the time at which it entered the pipeline, from which the latency of each stage
+ *  is measured.
+ *
+ * @author Mehdi DHAKOUANI
+ * @version 1.0.0
+ */
+public class IQBlock {
+
+    private ComplexArray samples;
+    private int length = 0;
+    private long sampleIndex = 0;
+    private long timestamp = 0;
+    private long entryTime = 0;
+
+    /**
+     * Creates a block.
+     * @param capacity the initial number of samples the block can hold
+     */
+    public IQBlock(int capacity) {
+        this.samples = new ComplexArray(capacity);
+    }
+
+    /**
+     * Makes sure the block can hold a given number of samples (the content is lost if the block has to grow).
+     * @param capacity the required number of samples
+     * @return the samples of the block
+     */
+    public ComplexArray ensureCapacity(int capacity) {
+        if (capacity > this.samples.getLength()) {
+            this.samples = new ComplexArray(capacity);
+        }
+        return this.samples;
+    }
+
+    /**
+     * @return the samples of the block (only the first 'length' samples are valid)
+     */
+    public ComplexArray getSamples() {
+        return samples;
+    }
+
+    /**
+     * @return the number of samples the block can hold
+     */
+    public int getCapacity() {
+        return this.samples.getLength();
+    }
+
+    /**
+     * @return the number of valid samples
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * @param length the number of valid samples
+     */
+    public void setLength(int length) {
+        if (length < 0 || length > this.samples.getLength()) {
+            throw new IllegalArgumentException("The length must be a positive integer not greater than the capacity of the block.");
+        }
+        this.length = length;
+    }
+
+    /**
+     * @return the index of the first sample of the block in the stream
+     */
+    public long getSampleIndex() {
+        return sampleIndex;
+    }
+
+    /**
+     * @param sampleIndex the index of the first sample of the block in the stream
+     */
+    public void setSampleIndex(long sampleIndex) {
+        this.sampleIndex = sampleIndex;
+    }
+
+    /**
+     * @return the estimated time of the first sample of the block (@System.nanoTime scale)
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * @param timestamp the estimated time of the first sample of the block (@System.nanoTime scale)
+     */
+    public void setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * @return the time at which the block entered the pipeline (@System.nanoTime)
+     */
+    public long getEntryTime() {
+        return entryTime;
+    }
+
+    /**
+     * @param entryTime the time at which the block entered the pipeline (@System.nanoTime)
+     */
+    public void setEntryTime(long entryTime) {
+        this.entryTime = entryTime;
+    }
+
+}
@@ -0,0 +1,164 @@
+/**
+ * The JPerseusSDR library is free software; you can redistribute 
+ * it and/or modify it under the terms of the GNU Lesser General Public 
+ * License as published by the Free Software Foundation; either version 
+ * 3.0 of the License, or (at your option) any later version.
+ * 
+ * The JPerseusSDR library is distributed in the hope that it will
+ * be useful, but WITHOUT ANY WARRANTY; without even the implied warranty 
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the Perseus SDR Library; 
+ * if not, see 'http://www.gnu.org/licenses/'.
+ * 
+ * This library is assumed to work under J2SE &gt;= 7.
+ * NOTE: It is assumed that the Perseus USB drivers are already installed on your system. The Perseus USB drivers 
+ *       are available in the distribution CD-ROM which comes with the Perseus receiver.
+ * 
+ * This library is inspired from the Microtelecom Software Defined Radio Developer Kit (SDRDK) and is subject to licensing
+ *  conditions contained in the document "SDRDK-Licensing-Agreement-v20.docx" (available under the folder "/resources")
+ *  Microtelecom SDRDK is (c) 2007-2013, Microtelecom s.r.l. - Pavia di Udine, Italy
+ *  Author : Nicolangelo PALERMO - IV3NWV
+ * 
+ * This library is also inspired from the Perseus Software Defined Radio Control Library for Linux (libperseus-sdr),
+ *  originally written by Nicolangelo PALERMO and maintained by Andrea MONTEFUSCO. This library can be found at :
+ *  - https://github.com/Microtelecom/libperseus-sdr
+ * 
+ * The JPerseus library, source code and documentation is published under the GNU Lesser General Public Licence v3
+ *  (available under the folder "/resources").
+ * 
+ * Copyright 2017, Mehdi DHAKOUANI
+ */
+package perseus.pipeline;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import perseus.PerseusInstance;
+import perseus.callback.IQDecoder;
+import perseus.callback.InputCallback;
+import perseus.callback.SampleClock;
+import perseus.circuits.FPGA;
+import perseus.dsp.ddc.HilbertFIR;
+import perseus.dsp.ddc.HilbertTransformer;
+import perseus.dsp.maths.ComplexArray;
+
+/**
+ * Source of a @Pipeline fed by the input queue of a Perseus HW.
+ * On the USB thread, each buffer is only decoded into a free block of the pipeline (24-bit I/Q samples, or analytic
+ *  I/Q samples at half the rate through a @HilbertFIR with the wideband FPGA) and handed to the first stage : all
+ *  the processing runs on the threads of the stages.
+ * The USB thread never waits : when the stages are too slow and no block is free, the buffer is dropped and counted
+ *  as an overrun (the sample index keeps counting the dropped samples, so that the gap remains visible downstream).
+ * Each block is stamped with the index of its first sample and the time of that sample estimated by a @SampleClock
+ *  fed with the arrival time of every buffer (dropped ones included).
+ * 
+ * @author Mehdi DHAKOUANI
+ * @version 1.0.0
+ */
+public class PerseusSource extends InputCallback {
+    
+    private final PerseusInstance perseus;
+    private final Pipeline pipeline;
+    private final int bufferLength;
+    private final int nbSamplesPerBuffer;
+    private final HilbertTransformer hilbert;
+    private final SampleClock clock;
+    private long sampleIndex = 0;
+    private volatile long nbBuffers = 0;
+    private volatile long nbDroppedBuffers = 0;
+    
+    /**
+     * Creates a source for the given Perseus HW (its FPGA must be configured).
+     * @param perseus the Perseus HW providing the samples
+     * @param pipeline the pipeline receiving the decoded blocks (may be started before or after the source)
+     */
+    public PerseusSource(PerseusInstance perseus, Pipeline pipeline) {
+        FPGA fpga = perseus.getFpga();
+        if (fpga == null) {
+            throw new IllegalArgumentException("The Perseus HW must be configured with an FPGA.");
+        }
+        if (pipeline == null) {
+            throw new IllegalArgumentException("The pipeline must not be 'null'.");
+        }
+        this.perseus = perseus;
+        this.pipeline = pipeline;
+        this.bufferLength = fpga.getNbBytesPerSample() * fpga.getNbComponentsPerSample() * fpga.getNbSamplesPerFrame() * fpga.getNbFrames();
+        if (fpga == FPGA.PERSEUS_DDC_WB) {
+            this.hilbert = new HilbertFIR();
+            this.nbSamplesPerBuffer = fpga.getNbSamplesPerFrame() * fpga.getNbFrames() / 2 + 1;
+            this.clock = new SampleClock(fpga.getRateInSamplesPerSecond() / 2.0);
+        } else {
+            this.hilbert = null;
+            this.nbSamplesPerBuffer = fpga.getNbSamplesPerFrame() * fpga.getNbFrames();
+            this.clock = new SampleClock(fpga.getRateInSamplesPerSecond());
+        }
+        this.setName("PerseusSource-" + perseus.getEeprom().getSerialNumber());
+    }
+    
+    @Override
+    public void run() {
+        this.perseus.startAsyncInput(this.bufferLength, this, null);
+    }
+    
+    @Override
+    public void callback(ByteBuffer buffer, int length, Object params) {
+        long now = System.nanoTime();
+        this.nbBuffers++;
+        IQBlock block = this.pipeline.acquire();
+        if (block == null) {
+            this.nbDroppedBuffers++;
+            this.sampleIndex += (this.hilbert != null) ? length / 4 : length / 6;
+            this.clock.update(this.sampleIndex, now);
+            if (this.hilbert != null) {
+                // The delay line no longer matches the stream
+                this.hilbert.reset();
+            }
+            return;
+        }
+        ComplexArray samples = block.ensureCapacity(this.nbSamplesPerBuffer);
+        int nbSamples = (this.hilbert != null) ? this.hilbert.process(buffer, length, samples, 0) : IQDecoder.Decode24(buffer, length, samples, 0);
+        block.setLength(nbSamples);
+        this.clock.update(this.sampleIndex + nbSamples, now);
+        block.setSampleIndex(this.sampleIndex);
+        block.setTimestamp(this.clock.getNanoTime(this.sampleIndex));
+        block.setEntryTime(now);
+        this.sampleIndex += nbSamples;
+        this.pipeline.publish(block);
+    }
+    
+    @Override
+    public void quit() throws IOException {
+        this.perseus.stopAsyncInput();
+    }
+    
+    /**
+     * @return the length in bytes of the buffers received from the Perseus HW
+     */
+    public int getBufferLength() {
+        return bufferLength;
+    }
+    
+    /**
+     * @return the clock mapping the sample indexes of the stream to time
+     */
+    public SampleClock getClock() {
+        return clock;
+    }
+    
+    /**
+     * @return the number of buffers received from the Perseus HW
+     */
+    public long getNbBuffers() {
+        return nbBuffers;
+    }
+    
+    /**
+     * @return the number of buffers dropped because the pipeline had no free block
+     */
+    public long getNbDroppedBuffers() {
+        return nbDroppedBuffers;
+    }
+    
+}
@@ -0,0 +1,370 @@
+/**
+ * The JPerseusSDR library is free software; you can redistribute 
+ * it and/or modify it under the terms of the GNU Lesser General Public 
+ * License as published by the Free Software Foundation; either version 
+ * 3.0 of the License, or (at your option) any later version.
+ * 
+ * The JPerseusSDR library is distributed in the hope that it will
+ * be useful, but WITHOUT ANY WARRANTY; without even the implied warranty 
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the Perseus SDR Library; 
+ * if not, see 'http://www.gnu.org/licenses/'.
+ * 
+ * This library is assumed to work under J2SE &gt;= 7.
+ * NOTE: It is assumed that the Perseus USB drivers are already installed on your system. The Perseus USB drivers 
+ *       are available in the distribution CD-ROM which comes with the Perseus receiver.
+ * 
+ * This library is inspired from the Microtelecom Software Defined Radio Developer Kit (SDRDK) and is subject to licensing
+ *  conditions contained in the document "SDRDK-Licensing-Agreement-v20.docx" (available under the folder "/resources")
+ *  Microtelecom SDRDK is (c) 2007-2013, Microtelecom s.r.l. - Pavia di Udine, Italy
+ *  Author : Nicolangelo PALERMO - IV3NWV
+ * 
+ * This library is also inspired from the Perseus Software Defined Radio Control Library for Linux (libperseus-sdr),
+ *  originally written by Nicolangelo PALERMO and maintained by Andrea MONTEFUSCO. This library can be found at :
+ *  - https://github.com/Microtelecom/libperseus-sdr
+ * 
+ * The JPerseus library, source code and documentation is published under the GNU Lesser General Public Licence v3
+ *  (available under the folder "/resources").
+ * 
+ * Copyright 2017, Mehdi DHAKOUANI
+ */
+package perseus.pipeline;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Chain of processing stages (eg: DC removal, DDC, spectrum, recorder) running concurrently, each stage being fed by
+ *  the previous one through a lock-free @RingBuffer.
+ *  - A fixed set of @IQBlock objects is allocated at creation and circulates from the source to the last stage, then
+ *      back to the source : no allocation is made while streaming.
+ *  - Backpressure : a slow stage holds blocks in its queue, so that the source runs out of free blocks. The source
+ *      then either waits (@acquire(long)) or drops its data (@acquire), the overruns being counted.
+ *  - Each stage runs either on its own thread (@start()), parked while its queue is empty, or as a task on a shared
+ *      executor (@start(Executor)), scheduled when blocks are queued and never run by two threads at a time.
+ *  - The throughput, processing time and latency of each stage are counted (@getStatistics).
+ *
+ * Typical use with a Perseus HW : stages are added, the pipeline is started and a @PerseusSource (which only decodes
+ *  the USB buffers into blocks) is started ; the USB thread is never blocked by the processing.
+ *
+ * @author Mehdi DHAKOUANI
+ * @version 1.0.0
+ */
+public class Pipeline {
+
+    private static final Logger LOG = Logger.getLogger(Pipeline.class.getName());
+
+    /** Maximum number of blocks processed by a task of a shared executor before it yields to the other tasks */
+    private static final int BATCH_SIZE = 16;
+    /** Pause of a thread polling the pipeline (source waiting for a free block, @stop waiting for the tasks), in nanoseconds */
+    private static final long ACQUIRE_PAUSE_NS = 50000;
+
+    private final int nbBlocks;
+    private final RingBuffer<IQBlock> free;
+    private final List<Runner> runners = new ArrayList<>();
+    private volatile boolean running = false;
+    private boolean started = false;
+    private volatile long nbOverruns = 0;
+
+    /**
+     * Creates a pipeline.
+     * @param nbBlocks the number of blocks circulating in the pipeline (bounds the data queued between the stages)
+     * @param blockCapacity the initial number of samples of each block
+     */
+    public Pipeline(int nbBlocks, int blockCapacity) {
+        if (nbBlocks <= 0 || blockCapacity < 0) {
+            throw new IllegalArgumentException("The number of blocks must be a positive integer, and the capacity of the blocks must not be negative.");
+        }
+        this.nbBlocks = nbBlocks;
+        this.free = new RingBuffer<>(nbBlocks);
+        for (int i = 0 ; i < nbBlocks ; i++) {
+            this.free.offer(new IQBlock(blockCapacity));
+        }
+    }
+
+    /**
+     * Appends a stage to the pipeline (before it is started).
+     * @param name the name of the stage (used for the statistics and the name of its thread)
+     * @param stage the stage
+     * @return the pipeline
+     */
+    public synchronized Pipeline addStage(String name, Stage stage) {
+        if (this.started) {
+            throw new IllegalStateException("Stages cannot be added to a started pipeline.");
+        }
+        if (name == null || stage == null) {
+            throw new IllegalArgumentException("The provided arguments must not be 'null'.");
+        }
+        Runner runner = new Runner(name, stage, new RingBuffer<IQBlock>(this.nbBlocks));
+        if (!this.runners.isEmpty()) {
+            this.runners.get(this.runners.size() - 1).next = runner;
+        }
+        this.runners.add(runner);
+        return this;
+    }
+
+    /**
+     * Starts the pipeline, each stage running on its own thread.
+     */
+    public synchronized void start() {
+        this.start(null);
+    }
+
+    /**
+     * Starts the pipeline, the stages running as tasks of a shared executor (eg: @XTools.GetForkJoinPool).
+     * @param executor the executor, or null to run each stage on its own thread
+     */
+    public synchronized void start(Executor executor) {
+        if (this.started) {
+            throw new IllegalStateException("The pipeline can only be started once.");
+        }
+        this.started = true;
+        for (Runner runner : this.runners) {
+            if (executor != null) {
+                runner.executor = executor;
+            } else {
+                runner.thread = new Thread(runner, "Pipeline-" + runner.name);
+                runner.thread.setDaemon(true);
+            }
+        }
+        // Written last : the source reads it before pushing, which publishes the executors and threads of the stages
+        this.running = true;
+        for (Runner runner : this.runners) {
+            if (runner.thread != null) {
+                runner.thread.start();
+            }
+        }
+    }
+
+    /**
+     * Stops the pipeline : the stages stop after the block they are processing (queued blocks are not processed).
+     * Returns once no stage is processing a block ; with a shared executor, the executor must still run the scheduled
+     *  tasks (they return immediately).
+     * @throws InterruptedException if interrupted while waiting for the stages
+     */
+    public synchronized void stop() throws InterruptedException {
+        this.running = false;
+        // In the order of the stages : once a stage is idle, it can no longer schedule the next one
+        for (Runner runner : this.runners) {
+            if (runner.thread != null) {
+                LockSupport.unpark(runner.thread);
+                runner.thread.join();
+            } else {
+                while (runner.scheduled.get()) {
+                    if (Thread.interrupted()) {
+                        throw new InterruptedException();
+                    }
+                    LockSupport.parkNanos(ACQUIRE_PAUSE_NS);
+                }
+            }
+        }
+    }
+
+    /**
+     * Takes a free block without waiting (source side only : the pipeline has a single source thread).
+     * @return the block, or null if all the blocks are in use (the overrun is counted)
+     */
+    public IQBlock acquire() {
+        IQBlock block = this.free.poll();
+        if (block == null) {
+            this.nbOverruns++;
+        }
+        return block;
+    }
+
+    /**
+     * Takes a free block, waiting for the stages to release one (source side only).
+     * @param timeoutNs the maximum waiting time, in nanoseconds
+     * @return the block, or null if no block was released in time (the overrun is counted)
+     */
+    public IQBlock acquire(long timeoutNs) {
+        long deadline = System.nanoTime() + timeoutNs;
+        IQBlock block = this.free.poll();
+        while (block == null && this.running && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(ACQUIRE_PAUSE_NS);
+            block = this.free.poll();
+        }
+        if (block == null) {
+            this.nbOverruns++;
+        }
+        return block;
+    }
+
+    /**
+     * Hands a filled block to the first stage (source side only). Its entry time is set if it was not.
+     * @param block the block, previously obtained from @acquire
+     */
+    public void publish(IQBlock block) {
+        if (block.getEntryTime() == 0) {
+            block.setEntryTime(System.nanoTime());
+        }
+        if (this.runners.isEmpty() || !this.running) {
+            this.release(block);
+        } else {
+            this.runners.get(0).push(block);
+        }
+    }
+
+    /* Returns a block to the source */
+    private void release(IQBlock block) {
+        block.setEntryTime(0);
+        if (!this.free.offer(block)) {
+            LOG.log(Level.SEVERE, "Pipeline block pool overflow (block released twice).");
+        }
+    }
+
+    /**
+     * @return the counters of each stage, in the order of the stages
+     */
+    public List<StageStatistics> getStatistics() {
+        List<StageStatistics> statistics = new ArrayList<>(this.runners.size());
+        for (Runner runner : this.runners) {
+            statistics.add(runner.getStatistics());
+        }
+        return statistics;
+    }
+
+    /**
+     * @return the number of times the source found no free block
+     */
+    public long getNbOverruns() {
+        return nbOverruns;
+    }
+
+    /**
+     * @return the number of blocks available to the source
+     */
+    public int getNbFreeBlocks() {
+        return this.free.size();
+    }
+
+    /**
+     * @return the number of blocks circulating in the pipeline
+     */
+    public int getNbBlocks() {
+        return nbBlocks;
+    }
+
+    /**
+     * @return true if the pipeline is running
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /* Runs a stage : consumes its input queue and feeds the queue of the next stage (counters written by one thread at a time) */
+    private class Runner implements Runnable {
+
+        private final String name;
+        private final Stage stage;
+        private final RingBuffer<IQBlock> input;
+        private final AtomicBoolean scheduled = new AtomicBoolean(false);
+        private Runner next = null;
+        private Thread thread = null;
+        private Executor executor = null;
+        private volatile long nbBlocks = 0;
+        private volatile long nbSamples = 0;
+        private volatile long processingTime = 0;
+        private volatile long maximumProcessingTime = 0;
+        private volatile long latency = 0;
+        private volatile long maximumLatency = 0;
+
+        Runner(String name, Stage stage, RingBuffer<IQBlock> input) {
+            this.name = name;
+            this.stage = stage;
+            this.input = input;
+        }
+
+        /* Queues a block (called by the previous stage or the source) and wakes the stage up */
+        void push(IQBlock block) {
+            if (!this.input.offer(block)) {
+                LOG.log(Level.SEVERE, "Pipeline queue overflow in stage '" + this.name + "'.");
+                release(block);
+                return;
+            }
+            if (this.executor != null) {
+                if (this.scheduled.compareAndSet(false, true)) {
+                    this.executor.execute(this);
+                }
+            } else {
+                LockSupport.unpark(this.thread);
+            }
+        }
+
+        @Override
+        public void run() {
+            if (this.executor != null) {
+                this.runTask();
+            } else {
+                while (running) {
+                    if (!this.processOne()) {
+                        LockSupport.park(this);
+                    }
+                }
+            }
+        }
+
+        /* Drains the queue by batches, then releases the schedule (rechecking the queue to avoid a lost wake-up) */
+        private void runTask() {
+            do {
+                int count = 0;
+                while (running && count < BATCH_SIZE && this.processOne()) {
+                    count++;
+                }
+                if (running && count == BATCH_SIZE) {
+                    // Yield to the other tasks of the executor, staying scheduled
+                    this.executor.execute(this);
+                    return;
+                }
+                this.scheduled.set(false);
+            } while (running && !this.input.isEmpty() && this.scheduled.compareAndSet(false, true));
+        }
+
+        private boolean processOne() {
+            IQBlock block = this.input.poll();
+            if (block == null) {
+                return false;
+            }
+            int length = block.getLength();
+            long t0 = System.nanoTime();
+            try {
+                this.stage.process(block);
+            } catch (RuntimeException ex) {
+                LOG.log(Level.SEVERE, "Stage '" + this.name + "' failed to process a block.", ex);
+            }
+            long t1 = System.nanoTime();
+            long elapsed = t1 - t0;
+            long delay = t1 - block.getEntryTime();
+            this.nbBlocks++;
+            this.nbSamples += length;
+            this.processingTime += elapsed;
+            this.latency += delay;
+            if (elapsed > this.maximumProcessingTime) {
+                this.maximumProcessingTime = elapsed;
+            }
+            if (delay > this.maximumLatency) {
+                this.maximumLatency = delay;
+            }
+            if (this.next != null) {
+                this.next.push(block);
+            } else {
+                release(block);
+            }
+            return true;
+        }
+
+        StageStatistics getStatistics() {
+            return new StageStatistics(this.name, this.nbBlocks, this.nbSamples, this.processingTime, this.maximumProcessingTime, this.latency, this.maximumLatency, this.input.size());
+        }
+
+    }
+
+}
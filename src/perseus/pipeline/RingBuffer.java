@@ -0,0 +1,140 @@
+/**
+ * The JPerseusSDR library is free software; you can redistribute 
+ * it and/or modify it under the terms of the GNU Lesser General Public 
+ * License as published by the Free Software Foundation; either version 
+ * 3.0 of the License, or (at your option) any later version.
+ * 
+ * The JPerseusSDR library is distributed in the hope that it will
+ * be useful, but WITHOUT ANY WARRANTY; without even the implied warranty 
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the Perseus SDR Library; 
+ * if not, see 'http://www.gnu.org/licenses/'.
+ * 
+ * This library is assumed to work under J2SE &gt;= 7.
+ * NOTE: It is assumed that the Perseus USB drivers are already installed on your system. The Perseus USB drivers 
+ *       are available in the distribution CD-ROM which comes with the Perseus receiver.
+ * 
+ * This library is inspired from the Microtelecom Software Defined Radio Developer Kit (SDRDK) and is subject to licensing
+ *  conditions contained in the document "SDRDK-Licensing-Agreement-v20.docx" (available under the folder "/resources")
+ *  Microtelecom SDRDK is (c) 2007-2013, Microtelecom s.r.l. - Pavia di Udine, Italy
+ *  Author : Nicolangelo PALERMO - IV3NWV
+ * 
+ * This library is also inspired from the Perseus Software Defined Radio Control Library for Linux (libperseus-sdr),
+ *  originally written by Nicolangelo PALERMO and maintained by Andrea MONTEFUSCO. This library can be found at :
+ *  - https://github.com/Microtelecom/libperseus-sdr
+ * 
+ * The JPerseus library, source code and documentation is published under the GNU Lesser General Public Licence v3
+ *  (available under the folder "/resources").
+ * 
+ * Copyright 2017, Mehdi DHAKOUANI
+ */
+package perseus.pipeline;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded lock-free ring buffer linking exactly one producer thread to exactly one consumer thread.
+ * The producer owns the tail sequence and the consumer owns the head sequence : each side only reads the sequence of
+ *  the other side (and caches it until the ring looks full or empty), so that no lock nor CAS is needed.
+ * Sequences are published with ordered writes (@AtomicLong.lazySet), which is enough to make the element written
+ *  in a slot visible to the other side before the sequence which covers it.
+ * A producer (or consumer) may move from a thread to another as long as the hand-over itself is a synchronization
+ *  point (eg: task submitted to an executor).
+ *
+ * @author Mehdi DHAKOUANI
+ * @version 1.0.0
+ * @param <T> the type of the elements
+ */
+public class RingBuffer<T> {
+
+    private final Object[] slots;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private long cachedHead = 0;    // producer side
+    private long cachedTail = 0;    // consumer side
+
+    /**
+     * Creates a ring buffer.
+     * @param capacity the minimum number of elements the ring can hold (rounded up to a power of 2)
+     */
+    public RingBuffer(int capacity) {
+        if (capacity <= 0 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("The capacity must be a positive integer lower than 2^30.");
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.slots = new Object[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * Appends an element (producer side only).
+     * @param element the element (not null)
+     * @return false if the ring is full
+     */
+    public boolean offer(T element) {
+        if (element == null) {
+            throw new IllegalArgumentException("The element must not be 'null'.");
+        }
+        long t = this.tail.get();
+        if (t - this.cachedHead >= this.slots.length) {
+            this.cachedHead = this.head.get();
+            if (t - this.cachedHead >= this.slots.length) {
+                return false;
+            }
+        }
+        this.slots[(int) t & this.mask] = element;
+        this.tail.lazySet(t + 1);
+        return true;
+    }
+
+    /**
+     * Removes the oldest element (consumer side only).
+     * @return the element, or null if the ring is empty
+     */
+    @SuppressWarnings("unchecked")
+    public T poll() {
+        long h = this.head.get();
+        if (h >= this.cachedTail) {
+            this.cachedTail = this.tail.get();
+            if (h >= this.cachedTail) {
+                return null;
+            }
+        }
+        int index = (int) h & this.mask;
+        T element = (T) this.slots[index];
+        this.slots[index] = null;
+        this.head.lazySet(h + 1);
+        return element;
+    }
+
+    /**
+     * @return true if the ring holds no element (exact for the consumer, approximate for any other thread)
+     */
+    public boolean isEmpty() {
+        return this.head.get() >= this.tail.get();
+    }
+
+    /**
+     * @return the number of elements currently held (approximate if both sides are running)
+     */
+    public int size() {
+        long h = this.head.get();
+        long t = this.tail.get();
+        return (int) Math.max(0, Math.min(t - h, this.slots.length));
+    }
+
+    /**
+     * @return the number of elements the ring can hold
+     */
+    public int getCapacity() {
+        return this.slots.length;
+    }
+
+}
@@ -0,0 +1,147 @@
+/**
+ * The JPerseusSDR library is free software; you can redistribute 
+ * it and/or modify it under the terms of the GNU Lesser General Public 
+ * License as published by the Free Software Foundation; either version 
+ * 3.0 of the License, or (at your option) any later version.
+ * 
+ * The JPerseusSDR library is distributed in the hope that it will
+ * be useful, but WITHOUT ANY WARRANTY; without even the implied warranty 
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the Perseus SDR Library; 
+ * if not, see 'http://www.gnu.org/licenses/'.
+ * 
+ * This library is assumed to work under J2SE &gt;= 7.
+ * NOTE: It is assumed that the Perseus USB drivers are already installed on your system. The Perseus USB drivers 
+ *       are available in the distribution CD-ROM which comes with the Perseus receiver.
+ * 
+ * This library is inspired from the Microtelecom Software Defined Radio Developer Kit (SDRDK) and is subject to licensing
+ *  conditions contained in the document "SDRDK-Licensing-Agreement-v20.docx" (available under the folder "/resources")
+ *  Microtelecom SDRDK is (c) 2007-2013, Microtelecom s.r.l. - Pavia di Udine, Italy
+ *  Author : Nicolangelo PALERMO - IV3NWV
+ * 
+ * This library is also inspired from the Perseus Software Defined Radio Control Library for Linux (libperseus-sdr),
+ *  originally written by Nicolangelo PALERMO and maintained by Andrea MONTEFUSCO. This library can be found at :
+ *  - https://github.com/Microtelecom/libperseus-sdr
+ * 
+ * The JPerseus library, source code and documentation is published under the GNU Lesser General Public Licence v3
+ *  (available under the folder "/resources").
+ * 
+ * Copyright 2017, Mehdi DHAKOUANI
+ */
+package perseus.pipeline;
+
+/**
+ * Snapshot of the counters of a stage of a @Pipeline.
+ *  - Throughput : number of samples processed per second of processing time (the capacity of the stage, whatever
+ *      the rate of the stream).
+ *  - Processing time : time spent in the stage for each block.
+ *  - Latency : time between the entry of a block in the pipeline and the end of its processing by the stage
+ *      (includes the time spent waiting in the queues of this stage and of the previous ones).
+ *
+ * @author Mehdi DHAKOUANI
+ * @version 1.0.0
+ */
+public class StageStatistics {
+
+    private final String name;
+    private final long nbBlocks;
+    private final long nbSamples;
+    private final long processingTime;
+    private final long maximumProcessingTime;
+    private final long latency;
+    private final long maximumLatency;
+    private final int nbQueuedBlocks;
+
+    StageStatistics(String name, long nbBlocks, long nbSamples, long processingTime, long maximumProcessingTime, long latency, long maximumLatency, int nbQueuedBlocks) {
+        this.name = name;
+        this.nbBlocks = nbBlocks;
+        this.nbSamples = nbSamples;
+        this.processingTime = processingTime;
+        this.maximumProcessingTime = maximumProcessingTime;
+        this.latency = latency;
+        this.maximumLatency = maximumLatency;
+        this.nbQueuedBlocks = nbQueuedBlocks;
+    }
+
+    /**
+     * @return the name of the stage
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the number of blocks processed
+     */
+    public long getNbBlocks() {
+        return nbBlocks;
+    }
+
+    /**
+     * @return the number of samples processed (counted at the input of the stage)
+     */
+    public long getNbSamples() {
+        return nbSamples;
+    }
+
+    /**
+     * @return the number of blocks waiting in the input queue of the stage
+     */
+    public int getNbQueuedBlocks() {
+        return nbQueuedBlocks;
+    }
+
+    /**
+     * @return the number of samples processed per second of processing time
+     */
+    public double getThroughput() {
+        return (this.processingTime > 0) ? this.nbSamples * 1.0E9 / this.processingTime : 0;
+    }
+
+    /**
+     * @return the total processing time, in nanoseconds
+     */
+    public long getProcessingTime() {
+        return processingTime;
+    }
+
+    /**
+     * @return the mean processing time of a block, in nanoseconds
+     */
+    public double getMeanProcessingTime() {
+        return (this.nbBlocks > 0) ? (double) this.processingTime / this.nbBlocks : 0;
+    }
+
+    /**
+     * @return the maximum processing time of a block, in nanoseconds
+     */
+    public long getMaximumProcessingTime() {
+        return maximumProcessingTime;
+    }
+
+    /**
+     * @return the mean latency of a block, in nanoseconds
+     */
+    public double getMeanLatency() {
+        return (this.nbBlocks > 0) ? (double) this.latency / this.nbBlocks : 0;
+    }
+
+    /**
+     * @return the maximum latency of a block, in nanoseconds
+     */
+    public long getMaximumLatency() {
+        return maximumLatency;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[blocks=%d, queued=%d, throughput=%.2f MS/s, processing=%.1f/%.1f µs, latency=%.1f/%.1f µs]",
+                this.name, this.nbBlocks, this.nbQueuedBlocks, this.getThroughput() / 1.0E6,
+                this.getMeanProcessingTime() / 1000, this.maximumProcessingTime / 1000.0,
+                this.getMeanLatency() / 1000, this.maximumLatency / 1000.0);
+    }
+
+}
@@ -44,6 +44,7 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 import perseus.PerseusInstance;
 import perseus.callback.InputCallback;
+import perseus.callback.SampleClock;
 import perseus.circuits.FPGA;
 import static perseus.test.PerseusTest.SDF_DATE_TIME;
 
@@ -59,6 +60,7 @@ public class CallbackImplementation extends InputCallback {
     private Map<String, FileWriter> map = new HashMap<>();
     private Date dateStart = null;
     private FileWriter log = null;
+    private SampleClock clock = null;
     private int bufferCounter = 0;
     private int samplesCounter = 0;
 
@@ -67,6 +69,7 @@ public class CallbackImplementation extends InputCallback {
         this.log = log;
         FPGA fpga = this.perseus.getFpga();
         int bufferLength = fpga.getNbBytesPerSample() * fpga.getNbComponentsPerSample() * fpga.getNbSamplesPerFrame() * fpga.getNbFrames();
+        this.clock = new SampleClock(fpga.getRateInSamplesPerSecond());
         this.dateStart = Calendar.getInstance().getTime();
         this.log.append("## RecordingDateTimeStart=" + SDF_DATE_TIME.format(this.dateStart) + "\r\n");
         this.log.append("## Rate=" + fpga.getRateInSamplesPerSecond() + "\r\n");
@@ -87,6 +90,7 @@ public class CallbackImplementation extends InputCallback {
         int bufferLength = fpga.getNbBytesPerSample() * fpga.getNbComponentsPerSample() * fpga.getNbSamplesPerFrame() * fpga.getNbFrames();
         this.samplesCounter = 0;
         this.bufferCounter = 0;
+        this.clock.reset();
         this.perseus.startAsyncInput(bufferLength, this, map);
     }
     
@@ -104,12 +108,15 @@ public class CallbackImplementation extends InputCallback {
     public void callback(ByteBuffer buffer, int length, Object params) {
         if (params instanceof Map) {
             try {
-                String dt = SDF_DATE_TIME.format(Calendar.getInstance().getTime());
+                // Time of the first sample of the buffer, from the sample count (no date formatting per buffer)
+                long bufferStart = this.samplesCounter;
+                this.clock.update(bufferStart + length / 6, System.nanoTime());
                 Map<String, FileWriter> map = (Map) params;
                 FileWriter raw = map.get("raw");
                 FileWriter log = map.get("log");
                 log.append("## BufferIndex="+this.bufferCounter+"\r\n");
-                log.append("## BufferReceiveTime="+dt+"\r\n");
+                log.append("## BufferSampleIndex="+bufferStart+"\r\n");
+                log.append("## BufferTimeUtcNs="+this.clock.getUtcNanos(bufferStart)+"\r\n");
                 buffer.rewind();
                 while (buffer.hasRemaining()) {
                     byte i2 = buffer.get();
@@ -136,6 +143,8 @@ public class CallbackImplementation extends InputCallback {
         Date dateEnd = Calendar.getInstance().getTime();
         this.log.append("## RecordingDateTimeStop=" + SDF_DATE_TIME.format(dateEnd) + "\r\n");
         this.log.append("## MeanRate=" + (int) this.samplesCounter/((dateEnd.getTime() - dateStart.getTime()) / 1000) + "\r\n");
+        this.log.append("## EstimatedRate=" + this.clock.getRate() + "\r\n");
+        this.log.append("## DriftPpm=" + this.clock.getDriftPpm() + "\r\n");
     }
     
 }
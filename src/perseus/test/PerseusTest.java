@@ -37,6 +37,7 @@ package perseus.test;
 import java.io.File;
 import java.io.FileWriter;
 import perseus.PerseusInstance;
+import perseus.callback.SampleClock;
 import perseus.circuits.FPGA;
 import perseus.circuits.Firmware;
 import perseus.circuits.Attenuator;
@@ -229,11 +230,14 @@ public class PerseusTest {
                                     fw_log.append("## NbFramesPerBuffer=" + fpga.getNbFrames() + "\r\n");
                                     int bufferCounter = 0;
                                     int samplesCounter = 0;
+                                    SampleClock clock = new SampleClock(fpga.getRateInSamplesPerSecond());
                                     while ((System.currentTimeMillis()-t0) < TEST_DURATION_MS) {
-                                        String dt = SDF_DATE_TIME.format(Calendar.getInstance().getTime());
                                         ByteBuffer buffer = perseus.getInputData(bufferLength);
+                                        long bufferStart = samplesCounter;
+                                        clock.update(bufferStart + buffer.remaining() / 2, System.nanoTime());
                                         fw_log.append("## BufferIndex="+bufferCounter + "\r\n");
-                                        fw_log.append("## BufferReceiveTime="+dt + "\r\n");
+                                        fw_log.append("## BufferSampleIndex="+bufferStart + "\r\n");
+                                        fw_log.append("## BufferTimeUtcNs="+clock.getUtcNanos(bufferStart) + "\r\n");
                                         for (int i = 0 ; i < fpga.getNbSamplesPerFrame() * fpga.getNbFrames() ; i++) {
                                             if (buffer.hasRemaining()) {
                                                 fw_raw_out.append(buffer.getShort()+"\r\n");
@@ -250,6 +254,8 @@ public class PerseusTest {
                                     Date dateEnd = Calendar.getInstance().getTime();
                                     fw_log.append("## RecordingDateTimeStop=" + SDF_DATE_TIME.format(dateEnd) + "\r\n");
                                     fw_log.append("## MeanRate=" + (int) samplesCounter/((dateEnd.getTime() - dateStart.getTime()) / 1000) + "\r\n");
+                                    fw_log.append("## EstimatedRate=" + clock.getRate() + "\r\n");
+                                    fw_log.append("## DriftPpm=" + clock.getDriftPpm() + "\r\n");
                                 }
                                 fw_raw_out.flush();
                                 fw_raw_out.close();
@@ -34,6 +34,7 @@
 package perseus.utils;
 
 import java.io.PrintStream;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Helper class with some useful methods
@@ -43,6 +44,16 @@ import java.io.PrintStream;
  */
 public class XTools {
     
+    private static final ForkJoinPool POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    
+    /**
+     * Provides the @ForkJoinPool shared by the parallel processing of the library (one worker per available processor).
+     * @return the shared pool
+     */
+    public static ForkJoinPool GetForkJoinPool() {
+        return POOL;
+    }
+    
     /**
      * Converts a hex string of length 2 to a byte.
      * @param in The input string representing the 2-characters hexadecimal value.